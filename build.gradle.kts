@@ -43,3 +43,9 @@ tasks.test {
 tasks.withType<JavaCompile>().configureEach {
     options.release.set(21)
 }
+
+tasks.register<JavaExec>("statementCacheBenchmark") {
+    description = "Measures per-update latency with and without the prepared-statement cache."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("com.deadlineflow.data.sqlite.StatementCacheBenchmark")
+}
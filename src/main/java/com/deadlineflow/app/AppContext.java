@@ -1,29 +1,50 @@
 package com.deadlineflow.app;
 
 import com.deadlineflow.application.services.ConflictService;
-import com.deadlineflow.application.services.CriticalPathService;
 import com.deadlineflow.application.services.DependencyGraphService;
+import com.deadlineflow.application.services.ExportService;
+import com.deadlineflow.application.services.ImportService;
+import com.deadlineflow.application.services.IncrementalCriticalPathEngine;
 import com.deadlineflow.application.services.RiskService;
 import com.deadlineflow.application.services.SchedulerEngine;
+import com.deadlineflow.application.services.TaskGraphCache;
 import com.deadlineflow.application.services.TaskService;
 import com.deadlineflow.data.repository.DependencyRepository;
 import com.deadlineflow.data.repository.ProjectRepository;
+import com.deadlineflow.data.repository.ReportingRepository;
 import com.deadlineflow.data.repository.StatusRepository;
 import com.deadlineflow.data.repository.TaskRepository;
 import com.deadlineflow.data.sqlite.SampleDataSeeder;
+import com.deadlineflow.data.sqlite.SqliteArchiveRepository;
+import com.deadlineflow.data.sqlite.SqliteBackupService;
+import com.deadlineflow.data.sqlite.SqliteChangeWatcher;
+import com.deadlineflow.data.sqlite.SqliteConnectionManager;
 import com.deadlineflow.data.sqlite.SqliteDatabase;
 import com.deadlineflow.data.sqlite.SqliteDependencyRepository;
+import com.deadlineflow.data.sqlite.SqliteExportRepository;
+import com.deadlineflow.data.sqlite.SqliteImportRepository;
+import com.deadlineflow.data.sqlite.SqliteMaintenance;
 import com.deadlineflow.data.sqlite.SqliteMigration;
+import com.deadlineflow.data.sqlite.SqlitePersistenceQueue;
 import com.deadlineflow.data.sqlite.SqliteProjectRepository;
+import com.deadlineflow.data.sqlite.SqliteReportingRepository;
 import com.deadlineflow.data.sqlite.SqliteStatusRepository;
 import com.deadlineflow.data.sqlite.SqliteTaskRepository;
 import com.deadlineflow.data.sqlite.SqliteWorkspaceStore;
 import com.deadlineflow.presentation.theme.ThemeManager;
 import com.deadlineflow.presentation.viewmodel.LanguageManager;
 import com.deadlineflow.presentation.viewmodel.MainViewModel;
+import javafx.application.Platform;
 
 public class AppContext {
+    private final SqliteConnectionManager connectionManager;
+    private final SqlitePersistenceQueue persistenceQueue;
     private final SqliteWorkspaceStore workspaceStore;
+    private final SqliteChangeWatcher changeWatcher;
+    private final SqliteMaintenance maintenance;
+    private final SqliteBackupService backupService;
+    private final SqliteReportingRepository reportingRepository;
+    private final TaskGraphCache taskGraphCache;
 
     private final ProjectRepository projectRepository;
     private final TaskRepository taskRepository;
@@ -36,15 +57,18 @@ public class AppContext {
 
     public AppContext() {
         SqliteDatabase database = new SqliteDatabase();
+        connectionManager = new SqliteConnectionManager(database);
         SqliteMigration migration = new SqliteMigration();
         SampleDataSeeder sampleDataSeeder = new SampleDataSeeder();
-        workspaceStore = new SqliteWorkspaceStore(database, migration, sampleDataSeeder);
+        persistenceQueue = new SqlitePersistenceQueue(connectionManager);
+        workspaceStore = new SqliteWorkspaceStore(connectionManager, persistenceQueue, migration, sampleDataSeeder);
         workspaceStore.initialize();
 
-        projectRepository = new SqliteProjectRepository(database, workspaceStore);
-        taskRepository = new SqliteTaskRepository(database, workspaceStore);
-        dependencyRepository = new SqliteDependencyRepository(database, workspaceStore);
-        statusRepository = new SqliteStatusRepository(database, workspaceStore);
+        projectRepository = new SqliteProjectRepository(connectionManager, persistenceQueue, workspaceStore);
+        taskRepository = new SqliteTaskRepository(persistenceQueue, workspaceStore);
+        dependencyRepository = new SqliteDependencyRepository(persistenceQueue, workspaceStore);
+        statusRepository = new SqliteStatusRepository(persistenceQueue, workspaceStore);
+        reportingRepository = new SqliteReportingRepository(database, persistenceQueue);
         languageManager = new LanguageManager();
         themeManager = new ThemeManager();
 
@@ -53,20 +77,43 @@ public class AppContext {
         ConflictService conflictService = new ConflictService();
         RiskService riskService = new RiskService();
         DependencyGraphService dependencyGraphService = new DependencyGraphService();
-        CriticalPathService criticalPathService = new CriticalPathService(dependencyGraphService);
+        IncrementalCriticalPathEngine criticalPathEngine = new IncrementalCriticalPathEngine(dependencyGraphService);
+        taskGraphCache = new TaskGraphCache();
+        ImportService importService = new ImportService(
+                new SqliteImportRepository(connectionManager, persistenceQueue, workspaceStore),
+                dependencyGraphService
+        );
+        ExportService exportService = new ExportService(new SqliteExportRepository(connectionManager, persistenceQueue));
 
         mainViewModel = new MainViewModel(
                 projectRepository,
                 taskRepository,
                 dependencyRepository,
                 statusRepository,
+                workspaceStore,
                 taskService,
                 schedulerEngine,
                 conflictService,
                 riskService,
-                dependencyGraphService,
-                criticalPathService
+                taskGraphCache,
+                criticalPathEngine,
+                importService,
+                exportService,
+                new SqliteArchiveRepository(connectionManager, persistenceQueue, workspaceStore)
         );
+
+        // A failed background flush was rolled back, so the optimistic in-memory state must be re-read from disk.
+        persistenceQueue.setFailureHandler(failure -> Platform.runLater(() -> {
+            workspaceStore.reload();
+            mainViewModel.reportPersistenceFailure(failure.getMessage());
+        }));
+
+        changeWatcher = new SqliteChangeWatcher(database, workspaceStore, Platform::runLater);
+        changeWatcher.start();
+        maintenance = new SqliteMaintenance(connectionManager, persistenceQueue, workspaceStore);
+        maintenance.start();
+        backupService = new SqliteBackupService(database);
+        backupService.start();
     }
 
     public MainViewModel mainViewModel() {
@@ -80,4 +127,57 @@ public class AppContext {
     public ThemeManager themeManager() {
         return themeManager;
     }
+
+    public ReportingRepository reportingRepository() {
+        return reportingRepository;
+    }
+
+    public SqliteConnectionManager.Metrics connectionMetrics() {
+        return connectionManager.metrics();
+    }
+
+    public SqlitePersistenceQueue.Metrics persistenceMetrics() {
+        return persistenceQueue.metrics();
+    }
+
+    public SqliteMaintenance.Stats maintenanceStats() {
+        return maintenance.stats();
+    }
+
+    public SqliteBackupService.Metrics backupMetrics() {
+        return backupService.metrics();
+    }
+
+    public TaskGraphCache.Metrics graphCacheMetrics() {
+        return taskGraphCache.metrics();
+    }
+
+    /**
+     * Feeds the idle detection of the maintenance scheduler; called for every input event on the main scene.
+     */
+    public void recordUserActivity() {
+        maintenance.recordActivity();
+    }
+
+    public SqliteMigration.Report migrationReport() {
+        return workspaceStore.migrationReport();
+    }
+
+    public void shutdown() {
+        changeWatcher.close();
+        maintenance.close();
+        backupService.close();
+        mainViewModel.shutdown();
+        reportingRepository.close();
+        try {
+            workspaceStore.writeSnapshot();
+        } catch (IllegalStateException ignored) {
+            // Without a snapshot the next start simply loads from SQL.
+        }
+        try {
+            persistenceQueue.close();
+        } finally {
+            connectionManager.close();
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.deadlineflow.app;
 import com.deadlineflow.presentation.view.MainView;
 import javafx.application.Application;
 import javafx.scene.Scene;
+import javafx.scene.input.InputEvent;
 import javafx.stage.Stage;
 
 public class DeadlineFlowApp extends Application {
@@ -17,6 +18,7 @@ public class DeadlineFlowApp extends Application {
 
         Scene scene = new Scene(mainView, 1520, 900);
         appContext.themeManager().apply(scene);
+        scene.addEventFilter(InputEvent.ANY, event -> appContext.recordUserActivity());
 
         stage.setTitle("Deadline Killer");
         stage.setMinWidth(1200);
@@ -24,7 +26,7 @@ public class DeadlineFlowApp extends Application {
         stage.setScene(scene);
         stage.setOnHidden(event -> {
             mainView.dispose();
-            appContext.mainViewModel().shutdown();
+            appContext.shutdown();
         });
         stage.show();
     }
@@ -2,46 +2,46 @@ package com.deadlineflow.application.services;
 
 import com.deadlineflow.domain.model.Conflict;
 import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
 import com.deadlineflow.domain.model.Task;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class ConflictService {
-    public static final int FINISH_START_LAG_DAYS = 1;
-
     public List<Conflict> detectDependencyConflicts(Collection<Task> tasks, Collection<Dependency> dependencies) {
-        Map<String, Task> taskById = new HashMap<>(Math.max(16, tasks.size() * 2));
-        for (Task task : tasks) {
-            taskById.put(task.id(), task);
-        }
+        return detectDependencyConflicts(TaskGraph.of(tasks, dependencies));
+    }
 
-        List<Conflict> conflicts = new ArrayList<>(Math.min(dependencies.size(), taskById.size()));
+    public List<Conflict> detectDependencyConflicts(TaskGraph graph) {
+        List<Conflict> conflicts = new ArrayList<>();
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
-        for (Dependency dependency : dependencies) {
-            Task fromTask = taskById.get(dependency.fromTaskId());
-            Task toTask = taskById.get(dependency.toTaskId());
-            if (fromTask == null || toTask == null) {
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int from = graph.edgeSource(edge);
+            int to = graph.edgeTarget(edge);
+            if (graph.startDay(to) - graph.startDay(from) >= graph.edgeWeight(edge)) {
                 continue;
             }
 
-            var requiredStartDate = fromTask.dueDate().plusDays(FINISH_START_LAG_DAYS);
-            if (toTask.startDate().isBefore(requiredStartDate)) {
-                String message = "Dependency violation: '"
-                        + toTask.title()
-                        + "' starts "
-                        + formatter.format(toTask.startDate())
-                        + ", must start on or after "
-                        + formatter.format(requiredStartDate)
-                        + " because it depends on '"
-                        + fromTask.title()
-                        + "'.";
-                conflicts.add(new Conflict(dependency.id(), dependency.fromTaskId(), dependency.toTaskId(), message));
-            }
+            Task fromTask = graph.task(from);
+            Task toTask = graph.task(to);
+            Dependency dependency = graph.edgeDependency(edge);
+            DependencyType type = dependency.type();
+            LocalDate requiredDate = (type.fromFinish() ? fromTask.dueDate() : fromTask.startDate())
+                    .plusDays(dependency.offsetDays());
+            String message = "Dependency violation: '"
+                    + toTask.title()
+                    + (type.toFinish() ? "' is due " : "' starts ")
+                    + formatter.format(type.toFinish() ? toTask.dueDate() : toTask.startDate())
+                    + (type.toFinish() ? ", must finish on or after " : ", must start on or after ")
+                    + formatter.format(requiredDate)
+                    + " because it depends on '"
+                    + fromTask.title()
+                    + "'.";
+            conflicts.add(new Conflict(dependency.id(), dependency.fromTaskId(), dependency.toTaskId(), message));
         }
         return conflicts;
     }
@@ -4,12 +4,9 @@ import com.deadlineflow.domain.model.Dependency;
 import com.deadlineflow.domain.model.Task;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,112 +21,85 @@ public class CriticalPathService {
         if (tasks.isEmpty()) {
             return CriticalPathResult.empty();
         }
+        return compute(TaskGraph.of(tasks, dependencies));
+    }
 
-        DependencyGraphService.TopologyResult topologyResult = dependencyGraphService.topologicalSort(tasks, dependencies);
-        if (topologyResult.hasCycle()) {
-            return CriticalPathResult.cycle(topologyResult.cycleTaskIds());
-        }
-
-        int taskCount = tasks.size();
-        Map<String, Task> taskById = new HashMap<>(Math.max(16, taskCount * 2));
-        LocalDate projectStart = null;
-        for (Task task : tasks) {
-            taskById.put(task.id(), task);
-            if (projectStart == null || task.startDate().isBefore(projectStart)) {
-                projectStart = task.startDate();
-            }
-        }
-        if (projectStart == null) {
+    public CriticalPathResult compute(TaskGraph graph) {
+        int taskCount = graph.size();
+        if (taskCount == 0) {
             return CriticalPathResult.empty();
         }
 
-        Map<String, List<String>> predecessors = new HashMap<>(Math.max(16, taskCount * 2));
-        Map<String, List<String>> successors = new HashMap<>(Math.max(16, taskCount * 2));
-        for (Task task : tasks) {
-            predecessors.put(task.id(), new ArrayList<>());
-            successors.put(task.id(), new ArrayList<>());
+        int[] order = new int[taskCount];
+        if (graph.topologicalOrder(order) != taskCount) {
+            return CriticalPathResult.cycle(dependencyGraphService.topologicalSort(graph).cycleTaskIds());
         }
 
-        for (Dependency dependency : dependencies) {
-            if (!taskById.containsKey(dependency.fromTaskId()) || !taskById.containsKey(dependency.toTaskId())) {
-                continue;
-            }
-            predecessors.get(dependency.toTaskId()).add(dependency.fromTaskId());
-            successors.get(dependency.fromTaskId()).add(dependency.toTaskId());
+        int projectStart = Integer.MAX_VALUE;
+        for (int i = 0; i < taskCount; i++) {
+            projectStart = Math.min(projectStart, graph.startDay(i));
         }
 
-        Map<String, Integer> earliestStart = new HashMap<>(Math.max(16, taskCount * 2));
-        Map<String, Integer> earliestFinish = new HashMap<>(Math.max(16, taskCount * 2));
+        // Day offsets from the project start, as in the result.
+        int[] earliestStart = new int[taskCount];
+        int[] earliestFinish = new int[taskCount];
         int projectFinishOffset = 0;
-
-        for (String taskId : topologyResult.orderedTaskIds()) {
-            Task task = taskById.get(taskId);
-            int duration = Math.toIntExact(task.durationDaysInclusive());
-            int baseStart = Math.toIntExact(ChronoUnit.DAYS.between(projectStart, task.startDate()));
-
-            int earliest = baseStart;
-            for (String predecessorId : predecessors.get(taskId)) {
-                earliest = Math.max(earliest, earliestFinish.get(predecessorId) + 1);
+        for (int current : order) {
+            int earliest = graph.startDay(current) - projectStart;
+            for (int k = graph.predecessorOffset(current); k < graph.predecessorOffset(current + 1); k++) {
+                earliest = Math.max(earliest, earliestStart[graph.predecessorAt(k)] + graph.predecessorWeight(k));
             }
-
-            int finish = earliest + duration - 1;
-            earliestStart.put(taskId, earliest);
-            earliestFinish.put(taskId, finish);
+            int finish = earliest + graph.durationDays(current) - 1;
+            earliestStart[current] = earliest;
+            earliestFinish[current] = finish;
             if (finish > projectFinishOffset) {
                 projectFinishOffset = finish;
             }
         }
 
-        Map<String, Integer> latestStart = new HashMap<>(Math.max(16, taskCount * 2));
-        Map<String, Integer> latestFinish = new HashMap<>(Math.max(16, taskCount * 2));
-        List<String> reverseOrder = new ArrayList<>(topologyResult.orderedTaskIds());
-        java.util.Collections.reverse(reverseOrder);
-
-        for (String taskId : reverseOrder) {
-            Task task = taskById.get(taskId);
-            int duration = Math.toIntExact(task.durationDaysInclusive());
-
-            int lf;
-            List<String> next = successors.get(taskId);
-            if (next.isEmpty()) {
-                lf = projectFinishOffset;
-            } else {
-                int minLatestStartMinusOne = Integer.MAX_VALUE;
-                for (String successorId : next) {
-                    Integer successorLatestStart = latestStart.get(successorId);
-                    if (successorLatestStart == null) {
-                        continue;
-                    }
-                    minLatestStartMinusOne = Math.min(minLatestStartMinusOne, successorLatestStart - 1);
-                }
-                lf = minLatestStartMinusOne == Integer.MAX_VALUE ? projectFinishOffset : minLatestStartMinusOne;
+        int[] latestStart = new int[taskCount];
+        int[] latestFinish = new int[taskCount];
+        for (int position = taskCount - 1; position >= 0; position--) {
+            int current = order[position];
+            // Every task also finishes by the project finish, which start-anchored links and leads do not imply.
+            int ls = projectFinishOffset - graph.durationDays(current) + 1;
+            for (int k = graph.successorOffset(current); k < graph.successorOffset(current + 1); k++) {
+                ls = Math.min(ls, latestStart[graph.successorAt(k)] - graph.successorWeight(k));
             }
-
-            int ls = lf - duration + 1;
-            latestFinish.put(taskId, lf);
-            latestStart.put(taskId, ls);
+            latestStart[current] = ls;
+            latestFinish[current] = ls + graph.durationDays(current) - 1;
         }
 
-        Map<String, Integer> slackDays = new HashMap<>(Math.max(16, taskCount * 2));
-        Set<String> criticalTaskIds = new HashSet<>(Math.max(16, taskCount * 2));
-        for (String taskId : topologyResult.orderedTaskIds()) {
-            int slack = latestStart.get(taskId) - earliestStart.get(taskId);
+        int mapSize = Math.max(16, taskCount * 2);
+        Map<String, Integer> earliestStartDays = new HashMap<>(mapSize);
+        Map<String, Integer> earliestFinishDays = new HashMap<>(mapSize);
+        Map<String, Integer> latestStartDays = new HashMap<>(mapSize);
+        Map<String, Integer> latestFinishDays = new HashMap<>(mapSize);
+        Map<String, Integer> slackDays = new HashMap<>(mapSize);
+        Set<String> criticalTaskIds = new HashSet<>(mapSize);
+        for (int current : order) {
+            String taskId = graph.taskId(current);
+            int slack = latestStart[current] - earliestStart[current];
+            earliestStartDays.put(taskId, earliestStart[current]);
+            earliestFinishDays.put(taskId, earliestFinish[current]);
+            latestStartDays.put(taskId, latestStart[current]);
+            latestFinishDays.put(taskId, latestFinish[current]);
             slackDays.put(taskId, slack);
             if (slack == 0) {
                 criticalTaskIds.add(taskId);
             }
         }
 
-        LocalDate finishDate = projectStart.plusDays(projectFinishOffset);
+        LocalDate finishDate = LocalDate.ofEpochDay((long) projectStart + projectFinishOffset);
 
         return new CriticalPathResult(
                 false,
                 Set.of(),
                 finishDate,
-                earliestStart,
-                earliestFinish,
-                latestStart,
-                latestFinish,
+                earliestStartDays,
+                earliestFinishDays,
+                latestStartDays,
+                latestFinishDays,
                 slackDays,
                 criticalTaskIds
         );
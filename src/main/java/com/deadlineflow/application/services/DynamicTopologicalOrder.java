@@ -0,0 +1,218 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Topological order of the dependency graph kept up to date one edge at a time (Pearce-Kelly). For an edge
+ * {@code from -> to}, checking or inserting it only searches tasks positioned between {@code to} and {@code from};
+ * an edge that already points forward in the order costs nothing. Tasks are registered when an edge first mentions
+ * them. While the graph holds a cycle there is no order, and checks fall back to an unbounded search, which stays
+ * exact. Not thread-safe.
+ */
+public class DynamicTopologicalOrder {
+    private final Map<String, Integer> indexByTaskId = new HashMap<>();
+    private final List<String> taskIds = new ArrayList<>();
+    private final EdgeLists edges = new EdgeLists(0);
+    // A permutation of 0..size-1 giving each task's place in the order; only meaningful while ordered.
+    private int[] position = new int[16];
+    private boolean ordered = true;
+    // Removing an edge from a cyclic graph may have broken the last cycle; the next check tries to re-order.
+    private boolean reorderPending;
+
+    private int[] visitStamp = new int[16];
+    private int[] parent = new int[16];
+    private int[] stack = new int[16];
+    private int[] forwardFound = new int[16];
+    private int[] backwardFound = new int[16];
+    private int stamp;
+
+    public static DynamicTopologicalOrder of(Collection<Dependency> dependencies) {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder();
+        for (Dependency dependency : dependencies) {
+            order.edges.add(order.index(dependency.fromTaskId()), order.index(dependency.toTaskId()));
+        }
+        order.ordered = order.edges.assignRanks(order.position);
+        return order;
+    }
+
+    /**
+     * The cycle that {@code from -> to} would close, as task ids starting and ending with {@code fromTaskId}, or an
+     * empty list when the edge is safe to add.
+     */
+    public List<String> cyclePath(String fromTaskId, String toTaskId) {
+        if (fromTaskId.equals(toTaskId)) {
+            return List.of(fromTaskId, toTaskId);
+        }
+        Integer from = indexByTaskId.get(fromTaskId);
+        Integer to = indexByTaskId.get(toTaskId);
+        if (from == null || to == null) {
+            // A task without any dependency cannot be on a cycle yet.
+            return List.of();
+        }
+        if (!ordered && reorderPending) {
+            ordered = edges.assignRanks(position);
+            reorderPending = false;
+        }
+        if (ordered && position[from] < position[to]) {
+            return List.of();
+        }
+        if (searchForward(to, from, ordered ? position[from] : Integer.MAX_VALUE) >= 0) {
+            return List.of();
+        }
+
+        List<String> path = new ArrayList<>();
+        for (int current = from; current != -1; current = parent[current]) {
+            path.add(taskIds.get(current));
+        }
+        path.add(fromTaskId);
+        // Built backwards from the target: reverse to read from -> to -> ... -> from.
+        List<String> cycle = new ArrayList<>(path.size());
+        for (int i = path.size() - 1; i >= 0; i--) {
+            cycle.add(path.get(i));
+        }
+        return cycle;
+    }
+
+    public void addDependency(Dependency dependency) {
+        int from = index(dependency.fromTaskId());
+        int to = index(dependency.toTaskId());
+        edges.add(from, to);
+        if (!ordered || position[from] < position[to]) {
+            return;
+        }
+
+        int forwardCount = searchForward(to, from, position[from]);
+        if (forwardCount < 0) {
+            ordered = false;
+            return;
+        }
+        int backwardCount = searchBackward(from, position[to]);
+        reorder(forwardCount, backwardCount);
+    }
+
+    public void removeDependency(Dependency dependency) {
+        Integer from = indexByTaskId.get(dependency.fromTaskId());
+        Integer to = indexByTaskId.get(dependency.toTaskId());
+        if (from == null || to == null) {
+            return;
+        }
+        // Dropping an edge never invalidates an existing order.
+        edges.remove(from, to);
+        reorderPending = !ordered;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    private int index(String taskId) {
+        Integer existing = indexByTaskId.get(taskId);
+        if (existing != null) {
+            return existing;
+        }
+        int index = edges.addNode();
+        indexByTaskId.put(taskId, index);
+        taskIds.add(taskId);
+        if (index == position.length) {
+            int capacity = position.length * 2;
+            position = Arrays.copyOf(position, capacity);
+            visitStamp = Arrays.copyOf(visitStamp, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            stack = Arrays.copyOf(stack, capacity);
+            forwardFound = Arrays.copyOf(forwardFound, capacity);
+            backwardFound = Arrays.copyOf(backwardFound, capacity);
+        }
+        // The new task takes the last place, so positions stay a permutation.
+        position[index] = index;
+        return index;
+    }
+
+    /**
+     * Depth-first search along successors from {@code start}, skipping tasks positioned at or after {@code limit}
+     * other than the target. Returns -1 with parent links set when {@code target} is reached, otherwise the number
+     * of visited tasks, which are left in {@code forwardFound}.
+     */
+    private int searchForward(int start, int target, int limit) {
+        stamp++;
+        int found = 0;
+        int depth = 0;
+        stack[depth++] = start;
+        visitStamp[start] = stamp;
+        parent[start] = -1;
+        while (depth > 0) {
+            int current = stack[--depth];
+            forwardFound[found++] = current;
+            for (int i = 0; i < edges.successorCount(current); i++) {
+                int next = edges.successor(current, i);
+                if (next == target) {
+                    parent[next] = current;
+                    return -1;
+                }
+                if (visitStamp[next] != stamp && position[next] < limit) {
+                    visitStamp[next] = stamp;
+                    parent[next] = current;
+                    stack[depth++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Tasks that reach start and are positioned after limit, left in backwardFound.
+    private int searchBackward(int start, int limit) {
+        stamp++;
+        int found = 0;
+        int depth = 0;
+        stack[depth++] = start;
+        visitStamp[start] = stamp;
+        while (depth > 0) {
+            int current = stack[--depth];
+            backwardFound[found++] = current;
+            for (int i = 0; i < edges.predecessorCount(current); i++) {
+                int next = edges.predecessor(current, i);
+                if (visitStamp[next] != stamp && position[next] > limit) {
+                    visitStamp[next] = stamp;
+                    stack[depth++] = next;
+                }
+            }
+        }
+        return found;
+    }
+
+    // Pearce-Kelly: the affected tasks keep their pool of positions, with everything that reaches the edge's source
+    // placed before everything its target reaches, each group in its previous relative order.
+    private void reorder(int forwardCount, int backwardCount) {
+        long[] backward = sortedByPosition(backwardFound, backwardCount);
+        long[] forward = sortedByPosition(forwardFound, forwardCount);
+        int[] pool = new int[backwardCount + forwardCount];
+        for (int i = 0; i < backwardCount; i++) {
+            pool[i] = (int) (backward[i] >>> 32);
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            pool[backwardCount + i] = (int) (forward[i] >>> 32);
+        }
+        Arrays.sort(pool);
+        for (int i = 0; i < backwardCount; i++) {
+            position[(int) backward[i]] = pool[i];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            position[(int) forward[i]] = pool[backwardCount + i];
+        }
+    }
+
+    private long[] sortedByPosition(int[] tasks, int count) {
+        long[] keyed = new long[count];
+        for (int i = 0; i < count; i++) {
+            keyed[i] = (long) position[tasks[i]] << 32 | tasks[i];
+        }
+        Arrays.sort(keyed);
+        return keyed;
+    }
+}
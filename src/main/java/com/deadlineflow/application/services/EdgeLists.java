@@ -0,0 +1,182 @@
+package com.deadlineflow.application.services;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Mutable successor and predecessor lists over dense task indexes, for graphs that are edited in place rather than
+ * rebuilt into a {@link TaskGraph}. Each edge carries an int label, such as a {@link TaskGraph#edgeTerm}; edges added
+ * without one are labelled 0. Parallel edges are kept; removing one drops a single occurrence with the same label.
+ */
+final class EdgeLists {
+    private static final int[] NONE = new int[0];
+
+    private int[][] successors;
+    private int[][] successorLabels;
+    private int[] successorCounts;
+    private int[][] predecessors;
+    private int[][] predecessorLabels;
+    private int[] predecessorCounts;
+    private int size;
+
+    EdgeLists(int size) {
+        successors = new int[size][];
+        successorLabels = new int[size][];
+        predecessors = new int[size][];
+        predecessorLabels = new int[size][];
+        Arrays.fill(successors, NONE);
+        Arrays.fill(successorLabels, NONE);
+        Arrays.fill(predecessors, NONE);
+        Arrays.fill(predecessorLabels, NONE);
+        successorCounts = new int[size];
+        predecessorCounts = new int[size];
+        this.size = size;
+    }
+
+    static EdgeLists of(TaskGraph graph) {
+        EdgeLists edges = new EdgeLists(graph.size());
+        for (int index = 0; index < graph.size(); index++) {
+            int successorFrom = graph.successorOffset(index);
+            int successorTo = graph.successorOffset(index + 1);
+            edges.successors[index] = slice(successorFrom, successorTo, graph::successorAt);
+            edges.successorLabels[index] = slice(successorFrom, successorTo, k -> graph.edgeTerm(graph.successorEdge(k)));
+            edges.successorCounts[index] = edges.successors[index].length;
+            int predecessorFrom = graph.predecessorOffset(index);
+            int predecessorTo = graph.predecessorOffset(index + 1);
+            edges.predecessors[index] = slice(predecessorFrom, predecessorTo, graph::predecessorAt);
+            edges.predecessorLabels[index] = slice(predecessorFrom, predecessorTo, k -> graph.edgeTerm(graph.predecessorEdge(k)));
+            edges.predecessorCounts[index] = edges.predecessors[index].length;
+        }
+        return edges;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an edgeless node and returns its index.
+     */
+    int addNode() {
+        if (size == successors.length) {
+            int capacity = Math.max(16, size * 2);
+            successors = Arrays.copyOf(successors, capacity);
+            successorLabels = Arrays.copyOf(successorLabels, capacity);
+            predecessors = Arrays.copyOf(predecessors, capacity);
+            predecessorLabels = Arrays.copyOf(predecessorLabels, capacity);
+            successorCounts = Arrays.copyOf(successorCounts, capacity);
+            predecessorCounts = Arrays.copyOf(predecessorCounts, capacity);
+        }
+        successors[size] = NONE;
+        successorLabels[size] = NONE;
+        predecessors[size] = NONE;
+        predecessorLabels[size] = NONE;
+        return size++;
+    }
+
+    void add(int from, int to) {
+        add(from, to, 0);
+    }
+
+    void add(int from, int to, int label) {
+        successors[from] = append(successors[from], successorCounts[from], to);
+        successorLabels[from] = append(successorLabels[from], successorCounts[from]++, label);
+        predecessors[to] = append(predecessors[to], predecessorCounts[to], from);
+        predecessorLabels[to] = append(predecessorLabels[to], predecessorCounts[to]++, label);
+    }
+
+    void remove(int from, int to) {
+        remove(from, to, 0);
+    }
+
+    void remove(int from, int to, int label) {
+        successorCounts[from] = removeOne(successors[from], successorLabels[from], successorCounts[from], to, label);
+        predecessorCounts[to] = removeOne(predecessors[to], predecessorLabels[to], predecessorCounts[to], from, label);
+    }
+
+    boolean contains(int from, int to) {
+        for (int i = 0; i < successorCounts[from]; i++) {
+            if (successors[from][i] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int successorCount(int index) {
+        return successorCounts[index];
+    }
+
+    int successor(int index, int position) {
+        return successors[index][position];
+    }
+
+    int successorLabel(int index, int position) {
+        return successorLabels[index][position];
+    }
+
+    int predecessorCount(int index) {
+        return predecessorCounts[index];
+    }
+
+    int predecessor(int index, int position) {
+        return predecessors[index][position];
+    }
+
+    int predecessorLabel(int index, int position) {
+        return predecessorLabels[index][position];
+    }
+
+    /**
+     * Kahn's algorithm into {@code rank}, sized to at least {@link #size()}. False when a cycle leaves nodes unranked.
+     */
+    boolean assignRanks(int[] rank) {
+        int[] indegree = Arrays.copyOf(predecessorCounts, size);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int index = 0; index < size; index++) {
+            if (indegree[index] == 0) {
+                queue[tail++] = index;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            rank[current] = head;
+            for (int i = 0; i < successorCounts[current]; i++) {
+                int next = successors[current][i];
+                if (--indegree[next] == 0) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail == size;
+    }
+
+    private static int[] slice(int from, int to, IntUnaryOperator valueAt) {
+        if (from == to) {
+            return NONE;
+        }
+        int[] values = new int[to - from];
+        for (int k = from; k < to; k++) {
+            values[k - from] = valueAt.applyAsInt(k);
+        }
+        return values;
+    }
+
+    private static int[] append(int[] values, int count, int value) {
+        int[] target = count < values.length ? values : Arrays.copyOf(values, Math.max(4, values.length * 2));
+        target[count] = value;
+        return target;
+    }
+
+    private static int removeOne(int[] values, int[] labels, int count, int value, int label) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value && labels[i] == label) {
+                values[i] = values[count - 1];
+                labels[i] = labels[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+}
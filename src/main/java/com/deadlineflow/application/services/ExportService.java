@@ -0,0 +1,111 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.data.repository.ExportRepository;
+import com.deadlineflow.data.transfer.ExportFormat;
+import com.deadlineflow.data.transfer.ExportWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams the workspace, or one project, to CSV, JSON or iCalendar chosen by the file extension. Output goes to a
+ * sibling {@code .part} file that replaces the target only when the export completes, so a cancelled or failed run
+ * never leaves a truncated file behind.
+ */
+public class ExportService {
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final ExportRepository exportRepository;
+
+    public ExportService(ExportRepository exportRepository) {
+        this.exportRepository = exportRepository;
+    }
+
+    public ExportResult exportWorkspace(Path file, BooleanSupplier cancelled) {
+        return export(file, writer -> exportRepository.exportWorkspace(writer, cancelled));
+    }
+
+    public ExportResult exportProject(Path file, long projectId, BooleanSupplier cancelled) {
+        return export(file, writer -> exportRepository.exportProject(projectId, writer, cancelled));
+    }
+
+    private ExportResult export(Path file, RowSource rows) {
+        ExportFormat format = ExportFormat.forFile(file);
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long start = System.nanoTime();
+        ExportWriter writer;
+        try (FileChannel channel = FileChannel.open(
+                partial,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+        );
+             ExportWriter rowWriter = ExportWriter.open(
+                     new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_CHARS),
+                     format
+             )) {
+            rows.writeTo(rowWriter);
+            writer = rowWriter;
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new IllegalStateException("Failed writing " + file.getFileName() + ": " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            // Includes CancellationException from the cursor.
+            deleteQuietly(partial);
+            throw e;
+        }
+        try {
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new IllegalStateException("Failed writing " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+        return new ExportResult(
+                format,
+                writer.projectCount(),
+                writer.taskCount(),
+                writer.dependencyCount(),
+                sizeOf(file),
+                System.nanoTime() - start
+        );
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // A stale .part file is overwritten by the next export.
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(ExportWriter writer) throws IOException;
+    }
+
+    public record ExportResult(
+            ExportFormat format,
+            long projects,
+            long tasks,
+            long dependencies,
+            long bytesWritten,
+            long elapsedNanos
+    ) {
+    }
+}
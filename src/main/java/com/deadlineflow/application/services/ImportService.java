@@ -0,0 +1,368 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.data.repository.ImportRepository;
+import com.deadlineflow.data.transfer.ImportFormat;
+import com.deadlineflow.data.transfer.ImportRecord;
+import com.deadlineflow.data.transfer.RecordReader;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streams task and dependency rows from a CSV or JSON file into the workspace.
+ * <p>
+ * Columns: {@code record} ({@code task} or {@code dependency}; inferred from {@code from_task_id} when absent;
+ * {@code project} rows from an export are skipped),
+ * {@code id}, {@code project_id}, {@code title}, {@code description}, {@code start_date}, {@code due_date} (ISO dates),
+ * {@code progress}, {@code status}, {@code from_task_id}, {@code to_task_id}, {@code type} (a {@link DependencyType}
+ * name, finish-to-start when absent) and {@code lag_days} (negative for a lead, zero when absent). Missing ids are
+ * generated and a missing project falls back to the caller's default.
+ * <p>
+ * Tasks are written in batches as they are read. Dependencies are held back until every task is in, so an edge may
+ * point at a task further down the file; cycles are checked once at the end and reported, not rejected.
+ */
+public class ImportService {
+    public static final int DEFAULT_BATCH_SIZE = 5_000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+    private static final int BATCH_SIZE = Integer.getInteger("deadlineflow.import.batchSize", DEFAULT_BATCH_SIZE);
+
+    private final ImportRepository importRepository;
+    private final DependencyGraphService dependencyGraphService;
+
+    public ImportService(ImportRepository importRepository, DependencyGraphService dependencyGraphService) {
+        this.importRepository = importRepository;
+        this.dependencyGraphService = dependencyGraphService;
+    }
+
+    public ImportResult importFile(Path file, long defaultProjectId, Consumer<ImportProgress> progressListener) {
+        return importFile(file, ImportFormat.forFile(file), defaultProjectId, BATCH_SIZE, progressListener);
+    }
+
+    public ImportResult importFile(
+            Path file,
+            ImportFormat format,
+            long defaultProjectId,
+            int batchSize,
+            Consumer<ImportProgress> progressListener
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be positive");
+        }
+        long start = System.nanoTime();
+        importRepository.prepareImport();
+        Run run = new Run(
+                importRepository.projectIds(),
+                importRepository.statusNames(),
+                defaultProjectId,
+                sizeOf(file),
+                progressListener
+        );
+
+        try (RecordReader reader = RecordReader.open(file, format)) {
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                run.bytesRead = reader.bytesRead();
+                run.accept(record);
+                if (run.taskBatch.size() >= batchSize) {
+                    run.flushTasks();
+                }
+            }
+            run.bytesRead = reader.bytesRead();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+        run.flushTasks();
+
+        for (int from = 0; from < run.pendingDependencies.size(); from += batchSize) {
+            run.flushDependencies(run.pendingDependencies.subList(from, Math.min(from + batchSize, run.pendingDependencies.size())));
+        }
+
+        Set<String> cycleTaskIds = run.dependenciesImported == 0 ? Set.of() : detectCycles(run);
+        return new ImportResult(
+                run.tasksImported,
+                run.dependenciesImported,
+                run.rowsRejected,
+                List.copyOf(run.errors),
+                Set.copyOf(run.touchedProjectIds),
+                cycleTaskIds,
+                System.nanoTime() - start
+        );
+    }
+
+    /**
+     * Publishes the imported rows to the in-memory workspace. Must run on the JavaFX thread.
+     */
+    public void completeImport() {
+        importRepository.refreshWorkspace();
+    }
+
+    private Set<String> detectCycles(Run run) {
+        // New edges can close a cycle through tasks that were not in the file. Such a cycle only runs through tasks
+        // reachable from an imported edge, so the check starts at the projects of the edges' endpoints and pulls in
+        // further projects only as existing edges lead into them.
+        Set<Long> scope = new HashSet<>();
+        Set<Long> frontier = new HashSet<>(run.touchedProjectIds);
+        frontier.addAll(importRepository.projectIdsOfTasks(run.dependencyEndpointIds));
+        List<Task> tasks = new ArrayList<>();
+        List<Dependency> dependencies = new ArrayList<>();
+        Set<String> loadedTaskIds = new HashSet<>();
+        while (!frontier.isEmpty()) {
+            scope.addAll(frontier);
+            for (Task task : importRepository.findTasksByProjects(frontier)) {
+                tasks.add(task);
+                loadedTaskIds.add(task.id());
+            }
+            List<Dependency> loaded = importRepository.findDependenciesByProjects(frontier);
+            dependencies.addAll(loaded);
+            Set<String> outside = new HashSet<>();
+            for (Dependency dependency : loaded) {
+                if (!loadedTaskIds.contains(dependency.toTaskId())) {
+                    outside.add(dependency.toTaskId());
+                }
+            }
+            frontier = new HashSet<>(outside.isEmpty() ? Set.of() : importRepository.projectIdsOfTasks(outside));
+            frontier.removeAll(scope);
+        }
+        DependencyGraphService.TopologyResult topology = dependencyGraphService.topologicalSort(tasks, dependencies);
+        return topology.hasCycle() ? Set.copyOf(topology.cycleTaskIds()) : Set.of();
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static RecordKind recordKind(ImportRecord record) {
+        String kind = record.value("record");
+        if (kind == null) {
+            return record.value("from_task_id") == null ? RecordKind.TASK : RecordKind.DEPENDENCY;
+        }
+        return switch (kind.toLowerCase(Locale.ROOT)) {
+            case "task" -> RecordKind.TASK;
+            case "dependency" -> RecordKind.DEPENDENCY;
+            case "project" -> RecordKind.PROJECT;
+            default -> throw new IllegalArgumentException("Unknown record type '" + kind + "'");
+        };
+    }
+
+    private static String idOrGenerated(ImportRecord record) {
+        String id = record.value("id");
+        return id == null ? UUID.randomUUID().toString() : id;
+    }
+
+    private static LocalDate parseDate(ImportRecord record, String column) {
+        String value = record.value(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static long parseLong(ImportRecord record, String column, long fallback) {
+        String value = record.value(column);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static int parseInt(ImportRecord record, String column, int fallback) {
+        String value = record.value(column);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private final class Run {
+        private final Set<Long> projectIds;
+        private final Set<String> statusNames;
+        private final long defaultProjectId;
+        private final long totalBytes;
+        private final Consumer<ImportProgress> progressListener;
+
+        private final List<Task> taskBatch = new ArrayList<>();
+        private final List<Dependency> pendingDependencies = new ArrayList<>();
+        private final Map<String, Long> dependencyLines = new HashMap<>();
+        private final Set<Long> touchedProjectIds = new HashSet<>();
+        private final Set<String> dependencyEndpointIds = new HashSet<>();
+        private final List<String> errors = new ArrayList<>();
+        private long bytesRead;
+        private int tasksImported;
+        private int dependenciesImported;
+        private int rowsRejected;
+
+        private Run(
+                Set<Long> projectIds,
+                Set<String> statusNames,
+                long defaultProjectId,
+                long totalBytes,
+                Consumer<ImportProgress> progressListener
+        ) {
+            this.projectIds = projectIds;
+            this.statusNames = statusNames;
+            this.defaultProjectId = defaultProjectId;
+            this.totalBytes = totalBytes;
+            this.progressListener = progressListener;
+        }
+
+        private void accept(ImportRecord record) {
+            try {
+                RecordKind kind = recordKind(record);
+                if (kind == RecordKind.PROJECT) {
+                    // Exports carry project rows; imports match projects by id and never create them.
+                    return;
+                }
+                if (kind == RecordKind.DEPENDENCY) {
+                    Dependency dependency = toDependency(record);
+                    pendingDependencies.add(dependency);
+                    dependencyLines.put(dependency.id(), record.lineNumber());
+                } else {
+                    Task task = toTask(record);
+                    taskBatch.add(task);
+                    touchedProjectIds.add(task.projectId());
+                }
+            } catch (IllegalArgumentException e) {
+                reject(record.lineNumber(), e.getMessage());
+            }
+        }
+
+        private Task toTask(ImportRecord record) {
+            long projectId = parseLong(record, "project_id", defaultProjectId);
+            if (!projectIds.contains(projectId)) {
+                throw new IllegalArgumentException("Unknown project " + projectId);
+            }
+            String status = record.value("status");
+            if (status == null) {
+                status = Task.DEFAULT_STATUS;
+            } else if (!statusNames.isEmpty() && !statusNames.contains(status)) {
+                throw new IllegalArgumentException("Unknown status '" + status + "'");
+            }
+            return new Task(
+                    idOrGenerated(record),
+                    projectId,
+                    record.value("title"),
+                    record.rawValue("description"),
+                    parseDate(record, "start_date"),
+                    parseDate(record, "due_date"),
+                    parseInt(record, "progress", 0),
+                    status
+            );
+        }
+
+        private Dependency toDependency(ImportRecord record) {
+            String type = record.value("type");
+            DependencyType dependencyType;
+            try {
+                dependencyType = type == null ? DependencyType.FINISH_START : DependencyType.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown dependency type '" + type + "'");
+            }
+            long lagDays = parseLong(record, "lag_days", 0);
+            if (lagDays < -Dependency.MAX_LAG_DAYS || lagDays > Dependency.MAX_LAG_DAYS) {
+                throw new IllegalArgumentException("Invalid lag_days '" + lagDays + "'");
+            }
+            return new Dependency(
+                    idOrGenerated(record),
+                    record.value("from_task_id"),
+                    record.value("to_task_id"),
+                    dependencyType,
+                    (int) lagDays
+            );
+        }
+
+        private void flushTasks() {
+            if (taskBatch.isEmpty()) {
+                return;
+            }
+            importRepository.upsertTasks(taskBatch);
+            tasksImported += taskBatch.size();
+            taskBatch.clear();
+            reportProgress();
+        }
+
+        private void flushDependencies(List<Dependency> batch) {
+            List<Dependency> skipped = importRepository.upsertDependencies(batch);
+            Set<String> skippedIds = new HashSet<>();
+            for (Dependency dependency : skipped) {
+                skippedIds.add(dependency.id());
+                reject(dependencyLines.getOrDefault(dependency.id(), 0L), "Unknown task in dependency " + dependency);
+            }
+            for (Dependency dependency : batch) {
+                if (!skippedIds.contains(dependency.id())) {
+                    dependencyEndpointIds.add(dependency.fromTaskId());
+                    dependencyEndpointIds.add(dependency.toTaskId());
+                }
+            }
+            dependenciesImported += batch.size() - skipped.size();
+            reportProgress();
+        }
+
+        private void reject(long lineNumber, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNumber + ": " + message);
+            }
+        }
+
+        private void reportProgress() {
+            progressListener.accept(new ImportProgress(bytesRead, totalBytes, tasksImported, dependenciesImported, rowsRejected));
+        }
+    }
+
+    private enum RecordKind {
+        TASK,
+        DEPENDENCY,
+        PROJECT
+    }
+
+    public record ImportProgress(long bytesRead, long totalBytes, int tasksImported, int dependenciesImported, int rowsRejected) {
+        public double fraction() {
+            return totalBytes <= 0 ? 1.0 : Math.min(1.0, (double) bytesRead / totalBytes);
+        }
+    }
+
+    public record ImportResult(
+            int tasksImported,
+            int dependenciesImported,
+            int rowsRejected,
+            List<String> errors,
+            Set<Long> projectIds,
+            Set<String> cycleTaskIds,
+            long elapsedNanos
+    ) {
+        public boolean hasCycle() {
+            return !cycleTaskIds.isEmpty();
+        }
+    }
+}
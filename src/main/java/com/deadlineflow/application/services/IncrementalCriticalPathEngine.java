@@ -0,0 +1,483 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Critical path method that keeps the previous schedule between calls. Each {@link #update} diffs the new snapshot
+ * against the last one; a moved or resized task re-runs the forward pass only over its downstream cone and the
+ * backward pass only over its upstream cone, stopping wherever values come out unchanged. Results match
+ * {@link CriticalPathService}. Given graphs from a {@link TaskGraphCache}, an update over the same build only compares
+ * the per-task day arrays. Not thread-safe: callers confine an engine to one thread.
+ */
+public class IncrementalCriticalPathEngine {
+    private static final int[] EMPTY = new int[0];
+
+    private final DependencyGraphService dependencyGraphService;
+
+    private boolean valid;
+    // Fixes the task ids and their indexes until the task set changes; edges are edited in place in edges.
+    private TaskGraph graph = TaskGraph.of(List.of(), List.of());
+    // The graph whose tasks and edges the kept state matches, or null once edits arrived as plain collections.
+    private TaskGraph source;
+    private Task[] tasks = new Task[0];
+    private int[] startDays = EMPTY;
+    private int[] durations = EMPTY;
+    private int[] earliestStart = EMPTY;
+    private int[] earliestFinish = EMPTY;
+    private int[] latestStart = EMPTY;
+    private int[] latestFinish = EMPTY;
+    private int[] slack = EMPTY;
+    // Position of each task in the current topological order; passes visit tasks in rank order.
+    private int[] rank = EMPTY;
+    private EdgeLists edges = new EdgeLists(0);
+    private Map<String, Dependency> dependencyById = Map.of();
+    // The last dependency snapshot in its own order, null where a dependency was ignored, for identity checks.
+    private Dependency[] dependencies = new Dependency[0];
+    private int projectFinishDay;
+    // Marks tasks already queued or touched in the current update without clearing a boolean[] each time.
+    private int[] queuedStamp = EMPTY;
+    private int[] touchedStamp = EMPTY;
+    private int stamp;
+
+    public IncrementalCriticalPathEngine(DependencyGraphService dependencyGraphService) {
+        this.dependencyGraphService = dependencyGraphService;
+    }
+
+    public Update update(Collection<Task> taskSnapshot, Collection<Dependency> dependencySnapshot) {
+        return update(taskSnapshot, dependencySnapshot, null);
+    }
+
+    public Update update(TaskGraph next) {
+        if (next.size() == 0) {
+            invalidate();
+            return Update.full(CriticalPathResult.empty());
+        }
+        if (valid && next == source) {
+            return Update.incremental(LocalDate.ofEpochDay(projectFinishDay), Map.of());
+        }
+        if (!valid || !next.sharesStructureWith(source)) {
+            return update(next.tasks(), next.dependencies(), next);
+        }
+
+        // Same ids, indexes and edges as the kept state: only task days can have moved.
+        stamp++;
+        ArrayDeque<Integer> forwardSeeds = new ArrayDeque<>();
+        ArrayDeque<Integer> backwardSeeds = new ArrayDeque<>();
+        for (int index = 0; index < next.size(); index++) {
+            if (tasks[index] != next.task(index)) {
+                tasks[index] = next.task(index);
+                seedChangedDays(index, next.startDay(index), next.durationDays(index), forwardSeeds, backwardSeeds);
+            }
+        }
+        source = next;
+        return propagate(forwardSeeds, backwardSeeds);
+    }
+
+    private Update update(Collection<Task> taskSnapshot, Collection<Dependency> dependencySnapshot, TaskGraph next) {
+        if (taskSnapshot.isEmpty()) {
+            invalidate();
+            return Update.full(CriticalPathResult.empty());
+        }
+        if (!valid || taskSnapshot.size() != graph.size()) {
+            return rebuild(taskSnapshot, dependencySnapshot, next);
+        }
+
+        stamp++;
+        ArrayDeque<Integer> forwardSeeds = new ArrayDeque<>();
+        ArrayDeque<Integer> backwardSeeds = new ArrayDeque<>();
+        int taskPosition = 0;
+        for (Task task : taskSnapshot) {
+            // Snapshots usually keep their order and share unchanged (immutable) tasks, so most checks skip the map.
+            int index = taskPosition++;
+            if (index < tasks.length && tasks[index] == task) {
+                continue;
+            }
+            if (index >= tasks.length || !graph.taskId(index).equals(task.id())) {
+                int mapped = graph.indexOf(task.id());
+                if (mapped < 0) {
+                    // A different task set (another project, a create or a delete) starts over.
+                    return rebuild(taskSnapshot, dependencySnapshot, next);
+                }
+                index = mapped;
+                if (tasks[index] == task) {
+                    continue;
+                }
+            }
+            tasks[index] = task;
+            seedChangedDays(index, Math.toIntExact(task.startDate().toEpochDay()),
+                    Math.toIntExact(task.durationDaysInclusive()), forwardSeeds, backwardSeeds);
+        }
+
+        boolean reorder = false;
+        int seen = 0;
+        List<Dependency> removed = new ArrayList<>();
+        Map<String, Dependency> added = new HashMap<>();
+        int position = 0;
+        boolean dependenciesReordered = dependencySnapshot.size() != dependencies.length;
+        for (Dependency dependency : dependencySnapshot) {
+            int index = position++;
+            if (index < dependencies.length && dependencies[index] == dependency) {
+                seen++;
+                continue;
+            }
+            dependenciesReordered = true;
+            Dependency previous = dependencyById.get(dependency.id());
+            if (previous != null) {
+                seen++;
+                if (previous.fromTaskId().equals(dependency.fromTaskId()) && previous.toTaskId().equals(dependency.toTaskId())
+                        && previous.type() == dependency.type() && previous.lagDays() == dependency.lagDays()) {
+                    continue;
+                }
+                removed.add(previous);
+            }
+            if (graph.indexOf(dependency.fromTaskId()) >= 0 && graph.indexOf(dependency.toTaskId()) >= 0) {
+                added.put(dependency.id(), dependency);
+            }
+        }
+        if (seen != dependencyById.size()) {
+            Set<String> present = new HashSet<>(Math.max(16, dependencySnapshot.size() * 2));
+            for (Dependency dependency : dependencySnapshot) {
+                present.add(dependency.id());
+            }
+            for (Dependency previous : dependencyById.values()) {
+                if (!present.contains(previous.id())) {
+                    removed.add(previous);
+                }
+            }
+        }
+        for (Dependency previous : removed) {
+            int from = graph.indexOf(previous.fromTaskId());
+            int to = graph.indexOf(previous.toTaskId());
+            edges.remove(from, to, TaskGraph.edgeTerm(previous));
+            dependencyById.remove(previous.id());
+            forwardSeeds.add(to);
+            backwardSeeds.add(from);
+        }
+        for (Dependency dependency : added.values()) {
+            int from = graph.indexOf(dependency.fromTaskId());
+            int to = graph.indexOf(dependency.toTaskId());
+            edges.add(from, to, TaskGraph.edgeTerm(dependency));
+            dependencyById.put(dependency.id(), dependency);
+            forwardSeeds.add(to);
+            backwardSeeds.add(from);
+            reorder |= rank[from] >= rank[to];
+        }
+        if (dependenciesReordered) {
+            rememberDependencyOrder(dependencySnapshot);
+        }
+        // Removing edges never invalidates an order; an added edge pointing backwards does.
+        if (reorder && !edges.assignRanks(rank)) {
+            invalidate();
+            return Update.full(CriticalPathResult.cycle(
+                    dependencyGraphService.topologicalSort(taskSnapshot, dependencySnapshot).cycleTaskIds()));
+        }
+        // The kept indexes come from an earlier build; later graphs can share next's only if its order matches.
+        source = next != null && next.sameTaskOrder(graph) ? next : null;
+        return propagate(forwardSeeds, backwardSeeds);
+    }
+
+    private void seedChangedDays(int index, int start, int duration, Collection<Integer> forwardSeeds,
+                                 Collection<Integer> backwardSeeds) {
+        if (start != startDays[index]) {
+            startDays[index] = start;
+            forwardSeeds.add(index);
+        }
+        if (duration != durations[index]) {
+            durations[index] = duration;
+            forwardSeeds.add(index);
+            backwardSeeds.add(index);
+        }
+    }
+
+    // Re-runs the forward pass from forwardSeeds and the backward pass from backwardSeeds, in rank order.
+    private Update propagate(Collection<Integer> forwardSeeds, Collection<Integer> backwardSeeds) {
+        int[] touched = new int[Math.min(graph.size(), 64)];
+        int touchedCount = 0;
+
+        boolean finishesMoved = false;
+        PriorityQueue<Integer> forward = new PriorityQueue<>(Math.max(1, forwardSeeds.size()),
+                (a, b) -> Integer.compare(rank[a], rank[b]));
+        enqueueAll(forward, forwardSeeds);
+        while (!forward.isEmpty()) {
+            int index = forward.poll();
+            int start = earliestStartFor(index);
+            int finish = start + durations[index] - 1;
+            if (start == earliestStart[index] && finish == earliestFinish[index]) {
+                continue;
+            }
+            finishesMoved |= finish != earliestFinish[index];
+            earliestStart[index] = start;
+            earliestFinish[index] = finish;
+            if (touchedStamp[index] != stamp) {
+                touchedStamp[index] = stamp;
+                touched = append(touched, touchedCount++, index);
+            }
+            for (int i = 0; i < edges.successorCount(index); i++) {
+                enqueue(forward, edges.successor(index, i));
+            }
+        }
+
+        if (finishesMoved) {
+            int finish = maxFinish();
+            if (finish != projectFinishDay) {
+                // Every latest finish is capped by the project finish; only tasks at or past the lower of the two
+                // finishes can have that cap bind now or have had it bind before.
+                int affectedFrom = Math.min(finish, projectFinishDay);
+                projectFinishDay = finish;
+                for (int index = 0; index < graph.size(); index++) {
+                    if (latestFinish[index] >= affectedFrom) {
+                        backwardSeeds.add(index);
+                    }
+                }
+            }
+        }
+
+        stamp++;
+        PriorityQueue<Integer> backward = new PriorityQueue<>(Math.max(1, backwardSeeds.size()),
+                (a, b) -> Integer.compare(rank[b], rank[a]));
+        enqueueAll(backward, backwardSeeds);
+        int forwardStamp = stamp - 1;
+        while (!backward.isEmpty()) {
+            int index = backward.poll();
+            int start = latestStartFor(index);
+            int finish = start + durations[index] - 1;
+            if (start == latestStart[index] && finish == latestFinish[index]) {
+                continue;
+            }
+            latestStart[index] = start;
+            latestFinish[index] = finish;
+            if (touchedStamp[index] != forwardStamp && touchedStamp[index] != stamp) {
+                touchedStamp[index] = stamp;
+                touched = append(touched, touchedCount++, index);
+            }
+            for (int i = 0; i < edges.predecessorCount(index); i++) {
+                enqueue(backward, edges.predecessor(index, i));
+            }
+        }
+
+        Map<String, Integer> changedSlack = new HashMap<>(Math.max(16, touchedCount * 2));
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+            int taskSlack = latestStart[index] - earliestStart[index];
+            if (taskSlack != slack[index]) {
+                slack[index] = taskSlack;
+                changedSlack.put(graph.taskId(index), taskSlack);
+            }
+        }
+        return Update.incremental(LocalDate.ofEpochDay(projectFinishDay), changedSlack);
+    }
+
+    /**
+     * The full result for the current state, in {@link CriticalPathService}'s day offsets from the earliest start.
+     */
+    public CriticalPathResult snapshot() {
+        if (!valid) {
+            return CriticalPathResult.empty();
+        }
+        int projectStart = Integer.MAX_VALUE;
+        for (int start : startDays) {
+            projectStart = Math.min(projectStart, start);
+        }
+        int size = Math.max(16, graph.size() * 2);
+        Map<String, Integer> es = new HashMap<>(size);
+        Map<String, Integer> ef = new HashMap<>(size);
+        Map<String, Integer> ls = new HashMap<>(size);
+        Map<String, Integer> lf = new HashMap<>(size);
+        Map<String, Integer> slackDays = new HashMap<>(size);
+        Set<String> critical = new HashSet<>(size);
+        for (int index = 0; index < graph.size(); index++) {
+            String taskId = graph.taskId(index);
+            es.put(taskId, earliestStart[index] - projectStart);
+            ef.put(taskId, earliestFinish[index] - projectStart);
+            ls.put(taskId, latestStart[index] - projectStart);
+            lf.put(taskId, latestFinish[index] - projectStart);
+            slackDays.put(taskId, slack[index]);
+            if (slack[index] == 0) {
+                critical.add(taskId);
+            }
+        }
+        return new CriticalPathResult(false, Set.of(), LocalDate.ofEpochDay(projectFinishDay), es, ef, ls, lf, slackDays, critical);
+    }
+
+    public Integer slackDays(String taskId) {
+        int index = valid ? graph.indexOf(taskId) : -1;
+        return index < 0 ? null : slack[index];
+    }
+
+    /**
+     * Drops the kept state; the next update recomputes from scratch.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    private Update rebuild(Collection<Task> taskSnapshot, Collection<Dependency> dependencySnapshot, TaskGraph next) {
+        graph = next != null ? next : TaskGraph.of(taskSnapshot, dependencySnapshot);
+        source = next;
+        int taskCount = graph.size();
+        tasks = new Task[taskCount];
+        startDays = new int[taskCount];
+        durations = new int[taskCount];
+        edges = EdgeLists.of(graph);
+        for (int index = 0; index < taskCount; index++) {
+            tasks[index] = graph.task(index);
+            startDays[index] = graph.startDay(index);
+            durations[index] = graph.durationDays(index);
+        }
+        dependencyById = new HashMap<>(Math.max(16, graph.edgeCount() * 2));
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            dependencyById.put(graph.edgeDependency(edge).id(), graph.edgeDependency(edge));
+        }
+
+        rememberDependencyOrder(dependencySnapshot);
+
+        rank = new int[taskCount];
+        if (!edges.assignRanks(rank)) {
+            invalidate();
+            return Update.full(CriticalPathResult.cycle(
+                    dependencyGraphService.topologicalSort(graph).cycleTaskIds()));
+        }
+        int[] order = new int[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            order[rank[i]] = i;
+        }
+
+        earliestStart = new int[taskCount];
+        earliestFinish = new int[taskCount];
+        for (int current : order) {
+            int start = earliestStartFor(current);
+            earliestStart[current] = start;
+            earliestFinish[current] = start + durations[current] - 1;
+        }
+        projectFinishDay = maxFinish();
+
+        latestStart = new int[taskCount];
+        latestFinish = new int[taskCount];
+        slack = new int[taskCount];
+        for (int position = taskCount - 1; position >= 0; position--) {
+            int current = order[position];
+            latestStart[current] = latestStartFor(current);
+            latestFinish[current] = latestStart[current] + durations[current] - 1;
+            slack[current] = latestStart[current] - earliestStart[current];
+        }
+
+        queuedStamp = new int[taskCount];
+        touchedStamp = new int[taskCount];
+        stamp = 0;
+        valid = true;
+        return Update.full(snapshot());
+    }
+
+    // The forward-pass value from the predecessors' current earliest starts; edge labels are TaskGraph edge terms.
+    private int earliestStartFor(int index) {
+        int start = startDays[index];
+        for (int i = 0; i < edges.predecessorCount(index); i++) {
+            int predecessor = edges.predecessor(index, i);
+            int weight = TaskGraph.weight(edges.predecessorLabel(index, i), durations[predecessor], durations[index]);
+            start = Math.max(start, earliestStart[predecessor] + weight);
+        }
+        return start;
+    }
+
+    private int latestStartFor(int index) {
+        int start = projectFinishDay - durations[index] + 1;
+        for (int i = 0; i < edges.successorCount(index); i++) {
+            int successor = edges.successor(index, i);
+            int weight = TaskGraph.weight(edges.successorLabel(index, i), durations[index], durations[successor]);
+            start = Math.min(start, latestStart[successor] - weight);
+        }
+        return start;
+    }
+
+    private void rememberDependencyOrder(Collection<Dependency> dependencySnapshot) {
+        dependencies = new Dependency[dependencySnapshot.size()];
+        int index = 0;
+        for (Dependency dependency : dependencySnapshot) {
+            dependencies[index++] = dependencyById.get(dependency.id()) == dependency ? dependency : null;
+        }
+    }
+
+    private int maxFinish() {
+        int finish = Integer.MIN_VALUE;
+        for (int value : earliestFinish) {
+            finish = Math.max(finish, value);
+        }
+        return finish;
+    }
+
+    private void enqueueAll(PriorityQueue<Integer> queue, Collection<Integer> seeds) {
+        for (int index : seeds) {
+            enqueue(queue, index);
+        }
+    }
+
+    private void enqueue(PriorityQueue<Integer> queue, int index) {
+        if (queuedStamp[index] != stamp) {
+            queuedStamp[index] = stamp;
+            queue.add(index);
+        }
+    }
+
+    private static int[] append(int[] values, int count, int value) {
+        int[] target = count < values.length ? values : Arrays.copyOf(values, Math.max(4, values.length * 2));
+        target[count] = value;
+        return target;
+    }
+
+    /**
+     * Either a full result after a rebuild, or the project finish date and the tasks whose slack (and so criticality)
+     * changed since the previous update.
+     */
+    public static final class Update {
+        private final CriticalPathResult fullResult;
+        private final LocalDate projectFinishDate;
+        private final Map<String, Integer> changedSlackDays;
+
+        private Update(CriticalPathResult fullResult, LocalDate projectFinishDate, Map<String, Integer> changedSlackDays) {
+            this.fullResult = fullResult;
+            this.projectFinishDate = projectFinishDate;
+            this.changedSlackDays = Collections.unmodifiableMap(changedSlackDays);
+        }
+
+        static Update full(CriticalPathResult result) {
+            return new Update(result, result.projectFinishDate(), Map.of());
+        }
+
+        static Update incremental(LocalDate projectFinishDate, Map<String, Integer> changedSlackDays) {
+            return new Update(null, projectFinishDate, changedSlackDays);
+        }
+
+        public boolean isFull() {
+            return fullResult != null;
+        }
+
+        /**
+         * The complete result when {@link #isFull()}, otherwise null.
+         */
+        public CriticalPathResult fullResult() {
+            return fullResult;
+        }
+
+        public LocalDate projectFinishDate() {
+            return projectFinishDate;
+        }
+
+        public Map<String, Integer> changedSlackDays() {
+            return changedSlackDays;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable dependency graph with task ids mapped to dense ints once and edges in CSR arrays: the successors of task
+ * {@code i} are {@code successorAt(k)} for {@code k} in {@code successorOffset(i) .. successorOffset(i + 1) - 1}, and
+ * likewise for predecessors. Passes over it work on int arrays sized to the graph and allocate nothing per node.
+ * Dependencies whose endpoints are not among the tasks are left out.
+ * <p>
+ * Every dependency type and lag reduces to one weight per edge, {@code start(target) >= start(source) + weight}, given
+ * the two tasks' durations; the weights are computed at build time so scheduling passes never branch on the type.
+ */
+public final class TaskGraph {
+    private final String[] taskIds;
+    private final Task[] tasks;
+    // Open-addressing id lookup: slot values are task index + 1, zero is empty. No boxed entry per task.
+    private final int[] indexSlots;
+    private final int[] startDays;
+    private final int[] dueDays;
+
+    // Edges in dependency order; the CSR arrays refer to them by edge number.
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final Dependency[] edgeDependencies;
+    // Type and lag of each edge packed by edgeTerm, and the resulting weight for this graph's durations.
+    private final int[] edgeTerms;
+    private final int[] edgeWeights;
+
+    private final int[] successorOffsets;
+    private final int[] successorTargets;
+    private final int[] successorEdges;
+    private final int[] predecessorOffsets;
+    private final int[] predecessorSources;
+    private final int[] predecessorEdges;
+
+    private TaskGraph(
+            String[] taskIds,
+            Task[] tasks,
+            int[] indexSlots,
+            int[] edgeSources,
+            int[] edgeTargets,
+            Dependency[] edgeDependencies
+    ) {
+        int size = taskIds.length;
+        this.taskIds = taskIds;
+        this.tasks = tasks;
+        this.indexSlots = indexSlots;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeDependencies = edgeDependencies;
+
+        startDays = new int[size];
+        dueDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            startDays[i] = Math.toIntExact(tasks[i].startDate().toEpochDay());
+            dueDays[i] = Math.toIntExact(tasks[i].dueDate().toEpochDay());
+        }
+        edgeTerms = new int[edgeDependencies.length];
+        for (int edge = 0; edge < edgeDependencies.length; edge++) {
+            edgeTerms[edge] = edgeTerm(edgeDependencies[edge]);
+        }
+        edgeWeights = edgeWeights();
+
+        successorOffsets = new int[size + 1];
+        predecessorOffsets = new int[size + 1];
+        for (int edge = 0; edge < edgeSources.length; edge++) {
+            successorOffsets[edgeSources[edge] + 1]++;
+            predecessorOffsets[edgeTargets[edge] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            successorOffsets[i + 1] += successorOffsets[i];
+            predecessorOffsets[i + 1] += predecessorOffsets[i];
+        }
+        successorTargets = new int[edgeSources.length];
+        successorEdges = new int[edgeSources.length];
+        predecessorSources = new int[edgeSources.length];
+        predecessorEdges = new int[edgeSources.length];
+        int[] successorFill = Arrays.copyOf(successorOffsets, size);
+        int[] predecessorFill = Arrays.copyOf(predecessorOffsets, size);
+        for (int edge = 0; edge < edgeSources.length; edge++) {
+            int successorSlot = successorFill[edgeSources[edge]]++;
+            successorTargets[successorSlot] = edgeTargets[edge];
+            successorEdges[successorSlot] = edge;
+            int predecessorSlot = predecessorFill[edgeTargets[edge]]++;
+            predecessorSources[predecessorSlot] = edgeSources[edge];
+            predecessorEdges[predecessorSlot] = edge;
+        }
+    }
+
+    // Same ids, index and edges as structure, with the task fields and day arrays taken from tasks.
+    private TaskGraph(TaskGraph structure, Task[] tasks) {
+        int size = tasks.length;
+        this.taskIds = structure.taskIds;
+        this.tasks = tasks;
+        this.indexSlots = structure.indexSlots;
+        this.edgeSources = structure.edgeSources;
+        this.edgeTargets = structure.edgeTargets;
+        this.edgeDependencies = structure.edgeDependencies;
+        this.edgeTerms = structure.edgeTerms;
+        this.successorOffsets = structure.successorOffsets;
+        this.successorTargets = structure.successorTargets;
+        this.successorEdges = structure.successorEdges;
+        this.predecessorOffsets = structure.predecessorOffsets;
+        this.predecessorSources = structure.predecessorSources;
+        this.predecessorEdges = structure.predecessorEdges;
+
+        startDays = new int[size];
+        dueDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            startDays[i] = Math.toIntExact(tasks[i].startDate().toEpochDay());
+            dueDays[i] = Math.toIntExact(tasks[i].dueDate().toEpochDay());
+        }
+        // Durations may have changed, and with them the weights of FINISH_* and *_FINISH edges.
+        edgeWeights = edgeWeights();
+    }
+
+    private int[] edgeWeights() {
+        int[] weights = new int[edgeTerms.length];
+        for (int edge = 0; edge < edgeTerms.length; edge++) {
+            weights[edge] = weight(edgeTerms[edge], durationDays(edgeSources[edge]), durationDays(edgeTargets[edge]));
+        }
+        return weights;
+    }
+
+    /**
+     * A dependency's type and lag packed into one int: offset days in the high bits, then whether the source's
+     * finish is the anchor, then whether the target's finish is constrained.
+     */
+    static int edgeTerm(Dependency dependency) {
+        DependencyType type = dependency.type();
+        return dependency.offsetDays() << 2 | (type.fromFinish() ? 2 : 0) | (type.toFinish() ? 1 : 0);
+    }
+
+    /**
+     * The days from the source's start that the target's start must be at or after, for an {@link #edgeTerm}.
+     */
+    static int weight(int term, int sourceDuration, int targetDuration) {
+        return (term >> 2) + ((term >> 1) & 1) * (sourceDuration - 1) - (term & 1) * (targetDuration - 1);
+    }
+
+    public static TaskGraph of(Collection<Task> tasks, Collection<Dependency> dependencies) {
+        String[] taskIds = new String[tasks.size()];
+        Task[] taskArray = new Task[tasks.size()];
+        int[] indexSlots = new int[Integer.highestOneBit(Math.max(8, tasks.size() * 2)) << 1];
+        int size = 0;
+        for (Task task : tasks) {
+            int existing = find(indexSlots, taskIds, task.id());
+            if (existing >= 0) {
+                taskArray[existing] = task;
+                continue;
+            }
+            taskIds[size] = task.id();
+            taskArray[size] = task;
+            indexSlots[-existing - 1] = size + 1;
+            size++;
+        }
+
+        int[] sources = new int[dependencies.size()];
+        int[] targets = new int[dependencies.size()];
+        Dependency[] edgeDependencies = new Dependency[dependencies.size()];
+        int edges = 0;
+        for (Dependency dependency : dependencies) {
+            int from = find(indexSlots, taskIds, dependency.fromTaskId());
+            int to = find(indexSlots, taskIds, dependency.toTaskId());
+            if (from < 0 || to < 0) {
+                continue;
+            }
+            sources[edges] = from;
+            targets[edges] = to;
+            edgeDependencies[edges] = dependency;
+            edges++;
+        }
+
+        return new TaskGraph(
+                size == taskIds.length ? taskIds : Arrays.copyOf(taskIds, size),
+                size == taskArray.length ? taskArray : Arrays.copyOf(taskArray, size),
+                indexSlots,
+                edges == sources.length ? sources : Arrays.copyOf(sources, edges),
+                edges == targets.length ? targets : Arrays.copyOf(targets, edges),
+                edges == edgeDependencies.length ? edgeDependencies : Arrays.copyOf(edgeDependencies, edges)
+        );
+    }
+
+    /**
+     * This graph with updated task fields, sharing the id index and edge arrays, or null when {@code tasks} are not
+     * exactly this graph's ids. Tasks are placed by id, so a snapshot re-sorted by a date edit still patches; every
+     * task keeps the index it had.
+     */
+    TaskGraph withTasks(Collection<Task> tasks) {
+        if (tasks.size() != taskIds.length) {
+            return null;
+        }
+        Task[] taskArray = new Task[taskIds.length];
+        for (Task task : tasks) {
+            int index = find(indexSlots, taskIds, task.id());
+            // Same size, so an unknown or repeated id means some other id is missing.
+            if (index < 0 || taskArray[index] != null) {
+                return null;
+            }
+            taskArray[index] = task;
+        }
+        return new TaskGraph(this, taskArray);
+    }
+
+    /**
+     * Whether both graphs came from the same build, so only task fields can differ between them.
+     */
+    boolean sharesStructureWith(TaskGraph other) {
+        return other != null && taskIds == other.taskIds && edgeDependencies == other.edgeDependencies;
+    }
+
+    /**
+     * Whether both graphs give every task the same index.
+     */
+    boolean sameTaskOrder(TaskGraph other) {
+        return taskIds == other.taskIds || Arrays.equals(taskIds, other.taskIds);
+    }
+
+    // The task index for id, or -(free slot + 1) when absent. Linear probing over a table at most half full.
+    private static int find(int[] indexSlots, String[] taskIds, String taskId) {
+        int mask = indexSlots.length - 1;
+        int slot = ((taskId.hashCode() * 0x9E3779B9) >>> 1) & mask;
+        while (indexSlots[slot] != 0) {
+            int index = indexSlots[slot] - 1;
+            if (taskIds[index].equals(taskId)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    public int size() {
+        return taskIds.length;
+    }
+
+    /**
+     * The dense index of a task, or -1 when it is not in the graph.
+     */
+    public int indexOf(String taskId) {
+        return Math.max(-1, find(indexSlots, taskIds, taskId));
+    }
+
+    public String taskId(int index) {
+        return taskIds[index];
+    }
+
+    public Task task(int index) {
+        return tasks[index];
+    }
+
+    public List<Task> tasks() {
+        return Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+
+    /**
+     * The dependencies kept as edges, in edge order.
+     */
+    public List<Dependency> dependencies() {
+        return Collections.unmodifiableList(Arrays.asList(edgeDependencies));
+    }
+
+    public int startDay(int index) {
+        return startDays[index];
+    }
+
+    public int dueDay(int index) {
+        return dueDays[index];
+    }
+
+    public int durationDays(int index) {
+        return dueDays[index] - startDays[index] + 1;
+    }
+
+    public int edgeCount() {
+        return edgeSources.length;
+    }
+
+    public int edgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public Dependency edgeDependency(int edge) {
+        return edgeDependencies[edge];
+    }
+
+    /**
+     * Minimum days from the source's start to the target's start under this edge's type and lag.
+     */
+    public int edgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    int edgeTerm(int edge) {
+        return edgeTerms[edge];
+    }
+
+    public int successorOffset(int index) {
+        return successorOffsets[index];
+    }
+
+    public int successorAt(int offset) {
+        return successorTargets[offset];
+    }
+
+    public int successorEdge(int offset) {
+        return successorEdges[offset];
+    }
+
+    public int successorWeight(int offset) {
+        return edgeWeights[successorEdges[offset]];
+    }
+
+    public int predecessorOffset(int index) {
+        return predecessorOffsets[index];
+    }
+
+    public int predecessorAt(int offset) {
+        return predecessorSources[offset];
+    }
+
+    public int predecessorEdge(int offset) {
+        return predecessorEdges[offset];
+    }
+
+    public int predecessorWeight(int offset) {
+        return edgeWeights[predecessorEdges[offset]];
+    }
+
+    /**
+     * Kahn's algorithm into {@code order}, which must hold {@link #size()} entries. Returns how many tasks were
+     * ordered; fewer than {@code size()} means the rest sit on or behind a cycle.
+     */
+    public int topologicalOrder(int[] order) {
+        int size = taskIds.length;
+        int[] indegree = new int[size];
+        for (int i = 0; i < size; i++) {
+            indegree[i] = predecessorOffsets[i + 1] - predecessorOffsets[i];
+        }
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (indegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int current = order[head];
+            for (int k = successorOffsets[current]; k < successorOffsets[current + 1]; k++) {
+                int next = successorTargets[k];
+                if (--indegree[next] == 0) {
+                    order[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Whether {@code to} can be reached from {@code from} along dependencies; a task reaches itself.
+     */
+    public boolean reaches(int from, int to) {
+        if (from == to) {
+            return true;
+        }
+        boolean[] visited = new boolean[taskIds.length];
+        int[] stack = new int[taskIds.length];
+        int depth = 0;
+        stack[depth++] = from;
+        visited[from] = true;
+        while (depth > 0) {
+            int current = stack[--depth];
+            for (int k = successorOffsets[current]; k < successorOffsets[current + 1]; k++) {
+                int next = successorTargets[k];
+                if (next == to) {
+                    return true;
+                }
+                if (!visited[next]) {
+                    visited[next] = true;
+                    stack[depth++] = next;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the {@link TaskGraph} of the last derived-state pass so conflict detection, the critical path and the
+ * blocked-task scan share one build. Callers key each request by two revisions: {@code revision} moves on any task or
+ * dependency edit, {@code structureRevision} only when the task set or the dependencies change. An unchanged
+ * revision returns the cached graph; a changed revision over the same structure patches the task fields into the
+ * cached index and edges; anything else is a full build.
+ */
+public class TaskGraphCache {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong buildNanos = new AtomicLong();
+    private final AtomicLong lastBuildNanos = new AtomicLong();
+
+    private TaskGraph graph;
+    private long structureRevision = -1;
+    private long revision = -1;
+
+    public synchronized TaskGraph graph(
+            long structureRevision,
+            long revision,
+            Collection<Task> tasks,
+            Collection<Dependency> dependencies
+    ) {
+        if (graph != null && structureRevision == this.structureRevision && revision == this.revision) {
+            hits.incrementAndGet();
+            return graph;
+        }
+        long started = System.nanoTime();
+        TaskGraph next = graph != null && structureRevision == this.structureRevision ? graph.withTasks(tasks) : null;
+        if (next != null) {
+            patches.incrementAndGet();
+        } else {
+            // A patch also lands here when the snapshot's ids differ from the ones in the cached index.
+            next = TaskGraph.of(tasks, dependencies);
+            builds.incrementAndGet();
+        }
+        long elapsed = System.nanoTime() - started;
+        buildNanos.addAndGet(elapsed);
+        lastBuildNanos.set(elapsed);
+        graph = next;
+        this.structureRevision = structureRevision;
+        this.revision = revision;
+        return next;
+    }
+
+    public synchronized void invalidate() {
+        graph = null;
+        structureRevision = -1;
+        revision = -1;
+    }
+
+    public Metrics metrics() {
+        return new Metrics(hits.get(), patches.get(), builds.get(), buildNanos.get(), lastBuildNanos.get());
+    }
+
+    /**
+     * {@code buildNanos} totals the time spent in patches and builds; {@code lastBuildNanos} is the latest of either.
+     */
+    public record Metrics(long hits, long patches, long builds, long buildNanos, long lastBuildNanos) {
+        public double hitRate() {
+            long requests = hits + patches + builds;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.deadlineflow.data.repository;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cold storage for completed work. Archive and restore calls are one transaction each and may run off the JavaFX
+ * thread; their results are applied to the in-memory workspace by {@link #applyArchived(ArchiveResult)} and
+ * {@link #applyRestored(RestoreResult)}, which must run on it.
+ */
+public interface ArchiveRepository {
+    /**
+     * Moves tasks in {@code doneStatus} that were due before {@code dueBefore} to the archive, together with their
+     * dependencies. Projects left with only such tasks are archived as a whole.
+     */
+    ArchiveResult archiveCompleted(String doneStatus, LocalDate dueBefore);
+
+    /**
+     * Brings an archived task back. If its project was archived too, the whole project comes back with it.
+     */
+    RestoreResult restoreTask(String taskId);
+
+    RestoreResult restoreProject(long projectId);
+
+    void applyArchived(ArchiveResult result);
+
+    void applyRestored(RestoreResult result);
+
+    List<TaskSearchHit> search(String query, int limit);
+
+    int archivedTaskCount();
+
+    record ArchiveResult(List<Long> projectIds, Map<Long, List<String>> taskIdsByProject, int dependencies) {
+        public int tasks() {
+            return taskIdsByProject.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    record RestoreResult(List<Project> projects, List<Task> tasks, List<Dependency> dependencies) {
+    }
+}
@@ -3,6 +3,7 @@ package com.deadlineflow.data.repository;
 import com.deadlineflow.domain.model.Dependency;
 import javafx.collections.ObservableList;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface DependencyRepository {
@@ -13,4 +14,8 @@ public interface DependencyRepository {
     Dependency save(Dependency dependency);
 
     void delete(String dependencyId);
+
+    void saveAll(Collection<Dependency> dependencies);
+
+    void deleteAll(Collection<String> dependencyIds);
 }
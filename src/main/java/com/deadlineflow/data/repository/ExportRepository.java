@@ -0,0 +1,17 @@
+package com.deadlineflow.data.repository;
+
+import com.deadlineflow.data.transfer.ExportWriter;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Walks the stored rows with a forward-only cursor and hands each one to the writer as it is read. Both methods
+ * read from one snapshot and throw {@link java.util.concurrent.CancellationException} once {@code cancelled}
+ * reports true.
+ */
+public interface ExportRepository {
+    void exportWorkspace(ExportWriter writer, BooleanSupplier cancelled) throws IOException;
+
+    void exportProject(long projectId, ExportWriter writer, BooleanSupplier cancelled) throws IOException;
+}
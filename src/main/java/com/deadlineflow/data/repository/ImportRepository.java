@@ -0,0 +1,50 @@
+package com.deadlineflow.data.repository;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk write path for imports. Every batch call is one transaction and bypasses the in-memory workspace, which is
+ * re-read once by {@link #refreshWorkspace()} when the import is done.
+ */
+public interface ImportRepository {
+    /**
+     * Commits queued edits so imported rows are not overwritten by older pending writes.
+     */
+    void prepareImport();
+
+    Set<Long> projectIds();
+
+    Set<String> statusNames();
+
+    /**
+     * Inserts or replaces the tasks, descriptions included.
+     */
+    void upsertTasks(List<Task> tasks);
+
+    /**
+     * Inserts or replaces the dependencies and returns the ones skipped because an endpoint task does not exist.
+     */
+    List<Dependency> upsertDependencies(List<Dependency> dependencies);
+
+    List<Task> findTasksByProjects(Collection<Long> projectIds);
+
+    /**
+     * Dependencies whose predecessor task belongs to one of the projects.
+     */
+    List<Dependency> findDependenciesByProjects(Collection<Long> projectIds);
+
+    /**
+     * Projects of the given tasks; ids without a task are ignored.
+     */
+    Set<Long> projectIdsOfTasks(Collection<String> taskIds);
+
+    /**
+     * Re-reads the workspace so the UI sees the imported rows. Must run on the JavaFX thread.
+     */
+    void refreshWorkspace();
+}
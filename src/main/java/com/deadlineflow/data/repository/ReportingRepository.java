@@ -0,0 +1,42 @@
+package com.deadlineflow.data.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Analytical queries over the committed workspace. Each call reads one consistent snapshot of the database and never
+ * blocks or waits for UI writes, so callers may run long reports off the JavaFX thread at any time.
+ */
+public interface ReportingRepository {
+    /**
+     * Tasks active in each Monday-based week overlapping {@code from..to}. {@code projectId} null covers all projects.
+     */
+    List<WorkloadBucket> workloadByWeek(Long projectId, LocalDate from, LocalDate to, String doneStatus);
+
+    /**
+     * Remaining and completed task counts per day of {@code from..to}. Completion days come from the change journal;
+     * tasks created as done, or completed before its retention window, count as done on their due date.
+     */
+    List<BurndownPoint> burndown(long projectId, LocalDate from, LocalDate to, String doneStatus);
+
+    List<ProjectRollup> projectRollups(LocalDate today, String doneStatus);
+
+    record WorkloadBucket(LocalDate weekStart, int tasks, int doneTasks, long taskDays) {
+    }
+
+    record BurndownPoint(LocalDate day, int remaining, int completed) {
+    }
+
+    record ProjectRollup(
+            long projectId,
+            String projectName,
+            int tasks,
+            int doneTasks,
+            int overdueTasks,
+            double averageProgress,
+            LocalDate firstStart,
+            LocalDate lastDue,
+            int archivedTasks
+    ) {
+    }
+}
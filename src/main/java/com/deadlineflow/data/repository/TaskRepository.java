@@ -1,8 +1,12 @@
 package com.deadlineflow.data.repository;
 
 import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
 import javafx.collections.ObservableList;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TaskRepository {
@@ -10,7 +14,25 @@ public interface TaskRepository {
 
     Optional<Task> findById(String taskId);
 
+    void ensureProjectLoaded(long projectId);
+
+    List<Task> findByProjectId(long projectId);
+
+    int countByProjectId(long projectId);
+
+    List<Task> findDueBetween(long projectId, LocalDate fromInclusive, LocalDate toInclusive);
+
     Task save(Task task);
 
     void delete(String taskId);
+
+    String loadDescription(String taskId);
+
+    void saveDescription(String taskId, String description);
+
+    void saveAll(Collection<Task> tasks);
+
+    void deleteAll(Collection<String> taskIds);
+
+    List<TaskSearchHit> search(String query, int limit);
 }
@@ -0,0 +1,21 @@
+package com.deadlineflow.data.repository;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+/**
+ * Collects task and dependency mutations and commits them with a single in-memory refresh and one transaction.
+ */
+public interface UnitOfWork {
+    UnitOfWork saveTask(Task task);
+
+    UnitOfWork deleteTask(String taskId);
+
+    UnitOfWork saveDependency(Dependency dependency);
+
+    UnitOfWork deleteDependency(String dependencyId);
+
+    int size();
+
+    void commit();
+}
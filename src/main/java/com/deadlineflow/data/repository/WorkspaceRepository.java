@@ -1,7 +1,17 @@
 package com.deadlineflow.data.repository;
 
+import com.deadlineflow.domain.model.ChangeLogEntry;
+
+import java.util.List;
+
 public interface WorkspaceRepository {
     void initialize();
 
     void reload();
+
+    UnitOfWork beginUnitOfWork();
+
+    long latestChangeSequence();
+
+    List<ChangeLogEntry> changesSince(long sequence, int limit);
 }
@@ -9,8 +9,9 @@ import java.time.LocalDate;
 
 public class SampleDataSeeder {
 
-    public void seedIfEmpty(SqliteDatabase database) {
-        try (Connection connection = database.openConnection()) {
+    public void seedIfEmpty(SqliteConnectionManager connections) {
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
             if (!isEmpty(connection)) {
                 return;
             }
@@ -94,8 +95,8 @@ public class SampleDataSeeder {
             statement.setLong(2, projectId);
             statement.setString(3, title);
             statement.setString(4, description);
-            statement.setString(5, start.toString());
-            statement.setString(6, due.toString());
+            statement.setLong(5, start.toEpochDay());
+            statement.setLong(6, due.toEpochDay());
             statement.setInt(7, progress);
             statement.setString(8, status);
             statement.executeUpdate();
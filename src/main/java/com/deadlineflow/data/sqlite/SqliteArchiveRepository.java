@@ -0,0 +1,352 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ArchiveRepository;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SqliteArchiveRepository implements ArchiveRepository {
+    private static final String COMPLETED = "status = ? AND due_date < ?";
+    private static final String ARCHIVABLE_PROJECTS_SQL = """
+            SELECT p.id FROM projects p
+            WHERE EXISTS (SELECT 1 FROM tasks t WHERE t.project_id = p.id)
+              AND NOT EXISTS (SELECT 1 FROM tasks t WHERE t.project_id = p.id AND (t.status <> ? OR t.due_date >= ?))
+            """;
+    private static final String ARCHIVE_DEPENDENCIES_SQL = """
+            INSERT INTO archived_dependencies(id, from_task_id, to_task_id, type, lag_days, archived_at)
+            SELECT d.id, d.from_task_id, d.to_task_id, d.type, d.lag_days, ?
+            FROM dependencies d
+            WHERE d.from_task_id IN (SELECT id FROM tasks WHERE status = ? AND due_date < ?)
+               OR d.to_task_id IN (SELECT id FROM tasks WHERE status = ? AND due_date < ?)
+            ON CONFLICT(id) DO UPDATE SET
+                from_task_id = excluded.from_task_id,
+                to_task_id = excluded.to_task_id,
+                type = excluded.type,
+                lag_days = excluded.lag_days,
+                archived_at = excluded.archived_at
+            """;
+    private static final String ARCHIVE_TASKS_SQL = """
+            INSERT INTO archived_tasks(id, project_id, title, description, start_date, due_date, progress, status, archived_at)
+            SELECT id, project_id, title, description, start_date, due_date, progress, status, ?
+            FROM tasks
+            WHERE status = ? AND due_date < ?
+            ON CONFLICT(id) DO UPDATE SET
+                project_id = excluded.project_id,
+                title = excluded.title,
+                description = excluded.description,
+                start_date = excluded.start_date,
+                due_date = excluded.due_date,
+                progress = excluded.progress,
+                status = excluded.status,
+                archived_at = excluded.archived_at
+            """;
+    private static final String ARCHIVE_PROJECT_SQL = """
+            INSERT INTO archived_projects(id, name, color, priority, archived_at)
+            SELECT id, name, color, priority, ? FROM projects WHERE id = ?
+            ON CONFLICT(id) DO UPDATE SET
+                name = excluded.name,
+                color = excluded.color,
+                priority = excluded.priority,
+                archived_at = excluded.archived_at
+            """;
+
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
+    private final SqliteWorkspaceStore workspaceStore;
+
+    public SqliteArchiveRepository(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteWorkspaceStore workspaceStore
+    ) {
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
+        this.workspaceStore = workspaceStore;
+    }
+
+    /**
+     * Runs behind the persistence queue, since edits queued before it may still change which tasks qualify. Writes
+     * queued for the moved tasks afterwards, such as an edit made before the result is applied in memory, are dropped
+     * until the tasks are restored instead of putting the rows back.
+     */
+    @Override
+    public ArchiveResult archiveCompleted(String doneStatus, LocalDate dueBefore) {
+        long archivedAt = System.currentTimeMillis();
+        long cutoff = dueBefore.toEpochDay();
+        return persistenceQueue.call("archiving completed tasks", lease -> {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                List<Long> projectIds = new ArrayList<>();
+                PreparedStatement projects = lease.prepare(ARCHIVABLE_PROJECTS_SQL);
+                projects.setString(1, doneStatus);
+                projects.setLong(2, cutoff);
+                try (ResultSet rs = projects.executeQuery()) {
+                    while (rs.next()) {
+                        projectIds.add(rs.getLong("id"));
+                    }
+                }
+                Map<Long, List<String>> taskIdsByProject = new LinkedHashMap<>();
+                PreparedStatement tasks = lease.prepare("SELECT id, project_id FROM tasks WHERE " + COMPLETED);
+                tasks.setString(1, doneStatus);
+                tasks.setLong(2, cutoff);
+                try (ResultSet rs = tasks.executeQuery()) {
+                    while (rs.next()) {
+                        taskIdsByProject.computeIfAbsent(rs.getLong("project_id"), id -> new ArrayList<>())
+                                .add(rs.getString("id"));
+                    }
+                }
+                int dependencies = 0;
+                if (!taskIdsByProject.isEmpty()) {
+                    PreparedStatement archiveDependencies = lease.prepare(ARCHIVE_DEPENDENCIES_SQL);
+                    archiveDependencies.setLong(1, archivedAt);
+                    archiveDependencies.setString(2, doneStatus);
+                    archiveDependencies.setLong(3, cutoff);
+                    archiveDependencies.setString(4, doneStatus);
+                    archiveDependencies.setLong(5, cutoff);
+                    dependencies = archiveDependencies.executeUpdate();
+
+                    PreparedStatement archiveTasks = lease.prepare(ARCHIVE_TASKS_SQL);
+                    archiveTasks.setLong(1, archivedAt);
+                    archiveTasks.setString(2, doneStatus);
+                    archiveTasks.setLong(3, cutoff);
+                    archiveTasks.executeUpdate();
+
+                    PreparedStatement archiveProject = lease.prepare(ARCHIVE_PROJECT_SQL);
+                    for (Long projectId : projectIds) {
+                        archiveProject.setLong(1, archivedAt);
+                        archiveProject.setLong(2, projectId);
+                        archiveProject.addBatch();
+                    }
+                    archiveProject.executeBatch();
+
+                    // ON DELETE CASCADE removes the live dependencies copied above.
+                    PreparedStatement deleteTasks = lease.prepare("DELETE FROM tasks WHERE " + COMPLETED);
+                    deleteTasks.setString(1, doneStatus);
+                    deleteTasks.setLong(2, cutoff);
+                    deleteTasks.executeUpdate();
+
+                    PreparedStatement deleteProject = lease.prepare("DELETE FROM projects WHERE id = ?");
+                    for (Long projectId : projectIds) {
+                        deleteProject.setLong(1, projectId);
+                        deleteProject.addBatch();
+                    }
+                    deleteProject.executeBatch();
+                }
+                connection.commit();
+                taskIdsByProject.values().forEach(persistenceQueue::retireTasks);
+                return new ArchiveResult(List.copyOf(projectIds), taskIdsByProject, dependencies);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    @Override
+    public RestoreResult restoreTask(String taskId) {
+        return persistenceQueue.call("restoring archived task " + taskId, lease -> {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement find = lease.prepare("SELECT project_id FROM archived_tasks WHERE id = ?");
+                find.setString(1, taskId);
+                Long projectId = null;
+                try (ResultSet rs = find.executeQuery()) {
+                    if (rs.next()) {
+                        projectId = rs.getLong("project_id");
+                    }
+                }
+                RestoreResult result;
+                if (projectId == null) {
+                    result = new RestoreResult(List.of(), List.of(), List.of());
+                } else if (isArchivedProject(lease, projectId)) {
+                    result = restore(lease, "project_id", projectId, true);
+                } else {
+                    result = restore(lease, "id", taskId, false);
+                }
+                connection.commit();
+                return restored(result);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    @Override
+    public RestoreResult restoreProject(long projectId) {
+        return persistenceQueue.call("restoring archived project " + projectId, lease -> {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                RestoreResult result = restore(lease, "project_id", projectId, isArchivedProject(lease, projectId));
+                connection.commit();
+                return restored(result);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    @Override
+    public void applyArchived(ArchiveResult result) {
+        workspaceStore.applyTasksArchived(result.taskIdsByProject());
+        result.projectIds().forEach(workspaceStore::applyProjectRemoved);
+    }
+
+    @Override
+    public void applyRestored(RestoreResult result) {
+        result.projects().forEach(workspaceStore::applyProjectSaved);
+        if (!result.tasks().isEmpty()) {
+            workspaceStore.applyTasksSaved(result.tasks());
+        }
+        // In lazy mode the other end of a restored edge may belong to a project that is not resident.
+        List<Dependency> resident = result.dependencies().stream()
+                .filter(dependency -> workspaceStore.findTask(dependency.fromTaskId()).isPresent()
+                        && workspaceStore.findTask(dependency.toTaskId()).isPresent())
+                .toList();
+        if (!resident.isEmpty()) {
+            workspaceStore.applyDependenciesSaved(resident);
+        }
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, int limit) {
+        return workspaceStore.searchArchivedTasks(query, limit);
+    }
+
+    @Override
+    public int archivedTaskCount() {
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare("SELECT COUNT(*) FROM archived_tasks").executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed counting archived tasks", e);
+        }
+    }
+
+    /**
+     * Moves the archived tasks matching {@code scopeColumn = key} back, then every archived dependency touching them
+     * whose two ends are live again. Edges to tasks that stay archived wait for those tasks.
+     */
+    private RestoreResult restore(
+            SqliteConnectionManager.Lease lease,
+            String scopeColumn,
+            Object key,
+            boolean withProject
+    ) throws SQLException {
+        String scopeIds = "SELECT id FROM archived_tasks WHERE " + scopeColumn + " = ?";
+        List<Project> projects = new ArrayList<>();
+        if (withProject) {
+            PreparedStatement insertProject = lease.prepare("""
+                    INSERT INTO projects(id, name, color, priority)
+                    SELECT id, name, color, priority FROM archived_projects WHERE id = ?
+                    ON CONFLICT(id) DO NOTHING
+                    """);
+            insertProject.setObject(1, key);
+            insertProject.executeUpdate();
+            PreparedStatement readProject = lease.prepare("SELECT id, name, color, priority FROM projects WHERE id = ?");
+            readProject.setObject(1, key);
+            try (ResultSet rs = readProject.executeQuery()) {
+                while (rs.next()) {
+                    projects.add(SqliteWorkspaceStore.projectFrom(rs));
+                }
+            }
+        }
+
+        // A live row with the same id wins; it can only exist if it was re-created after archiving.
+        PreparedStatement insertTasks = lease.prepare(
+                "INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status)"
+                        + " SELECT id, project_id, title, description, start_date, due_date, progress, status"
+                        + " FROM archived_tasks WHERE " + scopeColumn + " = ?"
+                        + " ON CONFLICT(id) DO NOTHING"
+        );
+        insertTasks.setObject(1, key);
+        insertTasks.executeUpdate();
+        List<Task> tasks = new ArrayList<>();
+        PreparedStatement readTasks = lease.prepare(
+                "SELECT id, project_id, title, start_date, due_date, progress, status FROM tasks"
+                        + " WHERE id IN (" + scopeIds + ")"
+        );
+        readTasks.setObject(1, key);
+        try (ResultSet rs = readTasks.executeQuery()) {
+            while (rs.next()) {
+                tasks.add(SqliteWorkspaceStore.taskFrom(rs));
+            }
+        }
+
+        String touchingScope = "(a.from_task_id IN (" + scopeIds + ") OR a.to_task_id IN (" + scopeIds + "))";
+        PreparedStatement insertDependencies = lease.prepare(
+                "INSERT INTO dependencies(id, from_task_id, to_task_id, type, lag_days)"
+                        + " SELECT a.id, a.from_task_id, a.to_task_id, a.type, a.lag_days FROM archived_dependencies a"
+                        + " WHERE " + touchingScope
+                        + " AND EXISTS (SELECT 1 FROM tasks WHERE id = a.from_task_id)"
+                        + " AND EXISTS (SELECT 1 FROM tasks WHERE id = a.to_task_id)"
+                        + " ON CONFLICT(id) DO NOTHING"
+        );
+        insertDependencies.setObject(1, key);
+        insertDependencies.setObject(2, key);
+        insertDependencies.executeUpdate();
+        List<Dependency> dependencies = new ArrayList<>();
+        PreparedStatement readDependencies = lease.prepare(
+                "SELECT d.id, d.from_task_id, d.to_task_id, d.type, d.lag_days FROM dependencies d"
+                        + " WHERE d.id IN (SELECT a.id FROM archived_dependencies a WHERE " + touchingScope + ")"
+        );
+        readDependencies.setObject(1, key);
+        readDependencies.setObject(2, key);
+        try (ResultSet rs = readDependencies.executeQuery()) {
+            while (rs.next()) {
+                dependencies.add(SqliteWorkspaceStore.dependencyFrom(rs));
+            }
+        }
+
+        PreparedStatement deleteDependencies = lease.prepare(
+                "DELETE FROM archived_dependencies WHERE id IN (SELECT id FROM dependencies) AND id IN"
+                        + " (SELECT a.id FROM archived_dependencies a WHERE " + touchingScope + ")"
+        );
+        deleteDependencies.setObject(1, key);
+        deleteDependencies.setObject(2, key);
+        deleteDependencies.executeUpdate();
+        PreparedStatement deleteTasks = lease.prepare("DELETE FROM archived_tasks WHERE " + scopeColumn + " = ?");
+        deleteTasks.setObject(1, key);
+        deleteTasks.executeUpdate();
+        if (withProject) {
+            PreparedStatement deleteProject = lease.prepare("DELETE FROM archived_projects WHERE id = ?");
+            deleteProject.setObject(1, key);
+            deleteProject.executeUpdate();
+        }
+        return new RestoreResult(List.copyOf(projects), List.copyOf(tasks), List.copyOf(dependencies));
+    }
+
+    private RestoreResult restored(RestoreResult result) {
+        persistenceQueue.reinstateTasks(result.tasks().stream().map(Task::id).toList());
+        return result;
+    }
+
+    private static boolean isArchivedProject(SqliteConnectionManager.Lease lease, long projectId) throws SQLException {
+        PreparedStatement statement = lease.prepare("SELECT 1 FROM archived_projects WHERE id = ?");
+        statement.setLong(1, projectId);
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
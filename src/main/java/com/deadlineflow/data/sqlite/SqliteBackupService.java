@@ -0,0 +1,315 @@
+package com.deadlineflow.data.sqlite;
+
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.core.DB;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps rotating, timestamped copies of the workspace database next to it in {@code backups/}. Copies go through the
+ * SQLite online backup API from a private connection holding one read transaction: in WAL mode that never blocks the
+ * writer, and the copy is a consistent snapshot no matter what is committed while it runs.
+ */
+public class SqliteBackupService implements AutoCloseable {
+    public static final int DEFAULT_KEEP = 5;
+    public static final long DEFAULT_INTERVAL_MILLIS = 6 * 60 * 60_000L;
+    public static final int DEFAULT_PAGES_PER_STEP = 256;
+    private static final boolean SQL_DEBUG = Boolean.getBoolean("deadlineflow.debug.sql");
+    private static final int KEEP = Integer.getInteger("deadlineflow.backup.keep", DEFAULT_KEEP);
+    private static final long INTERVAL_MILLIS = Long.getLong("deadlineflow.backup.intervalMillis", DEFAULT_INTERVAL_MILLIS);
+    private static final int PAGES_PER_STEP = Integer.getInteger("deadlineflow.backup.pagesPerStep", DEFAULT_PAGES_PER_STEP);
+    private static final long CHECK_INTERVAL_MILLIS = 60_000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    // Only relevant when a step finds the destination or source locked; WAL readers normally never wait.
+    private static final int BUSY_SLEEP_MILLIS = 20;
+    private static final int BUSY_RETRIES = 250;
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String EXTENSION = ".db";
+
+    private final SqliteDatabase database;
+    private final Path directory;
+    private final String prefix;
+    private final int keep;
+    private final long intervalMillis;
+    private final int pagesPerStep;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong backupsWritten = new AtomicLong();
+    private final AtomicLong backupsFailed = new AtomicLong();
+    private final AtomicLong lastBackupAtMillis = new AtomicLong();
+    private final AtomicLong lastBackupElapsedNanos = new AtomicLong();
+    private final AtomicLong lastBackupBytes = new AtomicLong();
+    private final AtomicLong lastBackupSteps = new AtomicLong();
+
+    public SqliteBackupService(SqliteDatabase database) {
+        this(database, defaultDirectory(database), KEEP, INTERVAL_MILLIS, PAGES_PER_STEP);
+    }
+
+    public SqliteBackupService(SqliteDatabase database, Path directory, int keep, long intervalMillis, int pagesPerStep) {
+        if (keep < 1) {
+            throw new IllegalArgumentException("keep must be at least 1");
+        }
+        if (intervalMillis < 1 || pagesPerStep < 1) {
+            throw new IllegalArgumentException("Backup interval and step size must be positive");
+        }
+        this.database = database;
+        this.directory = directory;
+        this.prefix = baseName(database.dbPath()) + "-";
+        this.keep = keep;
+        this.intervalMillis = intervalMillis;
+        this.pagesPerStep = pagesPerStep;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadlineflow-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public static Path defaultDirectory(SqliteDatabase database) {
+        return database.dbPath().resolveSibling("backups");
+    }
+
+    /**
+     * Checks every minute (or every interval, if shorter) whether the newest backup on disk is older than the
+     * interval, so short sessions still get backed up and restarts do not reset the clock.
+     */
+    public void start() {
+        long checkMillis = Math.min(CHECK_INTERVAL_MILLIS, intervalMillis);
+        executor.scheduleWithFixedDelay(this::backupQuietly, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean backupDue() {
+        List<Path> backups = backups();
+        if (backups.isEmpty()) {
+            return true;
+        }
+        try {
+            long newest = Files.getLastModifiedTime(backups.get(0)).toMillis();
+            return System.currentTimeMillis() - newest >= intervalMillis;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Writes a new backup and rotates old ones out. Runs on the calling thread.
+     */
+    public synchronized Path backupNow() {
+        long start = System.nanoTime();
+        Path target = directory.resolve(prefix + LocalDateTime.now().format(STAMP) + EXTENSION);
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(partial);
+            long steps = copyTo(partial);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastBackupSteps.set(steps);
+            lastBackupBytes.set(Files.size(target));
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            backupsFailed.incrementAndGet();
+            throw new IllegalStateException("Failed writing workspace backup", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            backupsFailed.incrementAndGet();
+            throw e;
+        }
+        backupsWritten.incrementAndGet();
+        lastBackupAtMillis.set(System.currentTimeMillis());
+        lastBackupElapsedNanos.set(System.nanoTime() - start);
+        rotate();
+        debugSql("backup " + target + " " + metrics());
+        return target;
+    }
+
+    /**
+     * Backups on disk, newest first.
+     */
+    public List<Path> backups() {
+        List<Path> backups = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return backups;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + EXTENSION)) {
+            stream.forEach(backups::add);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed listing workspace backups", e);
+        }
+        // The timestamp format sorts lexicographically.
+        backups.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        return backups;
+    }
+
+    public Metrics metrics() {
+        return new Metrics(
+                backupsWritten.get(),
+                backupsFailed.get(),
+                lastBackupAtMillis.get(),
+                lastBackupElapsedNanos.get(),
+                lastBackupBytes.get(),
+                lastBackupSteps.get()
+        );
+    }
+
+    /**
+     * Copies a backup into {@code target}, which must not exist yet; open the restored workspace with a new
+     * connection manager afterwards. The backup is integrity-checked first so a damaged file never replaces anything.
+     */
+    public static void restore(Path backup, SqliteDatabase target) {
+        if (!Files.isRegularFile(backup)) {
+            throw new IllegalArgumentException("Backup file not found: " + backup);
+        }
+        if (Files.exists(target.dbPath())) {
+            throw new IllegalArgumentException("Restore target already exists: " + target.dbPath());
+        }
+        verify(backup);
+        try (Connection connection = target.openConnection()) {
+            int rc = database(connection).restore(
+                    "main",
+                    backup.toString(),
+                    (remaining, pageCount) -> { },
+                    BUSY_SLEEP_MILLIS,
+                    BUSY_RETRIES,
+                    DEFAULT_PAGES_PER_STEP
+            );
+            if (rc != 0) {
+                throw new SQLException("SQLite restore failed with result code " + rc);
+            }
+        } catch (SQLException e) {
+            deleteQuietly(target.dbPath());
+            throw new IllegalStateException("Failed restoring workspace backup", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void backupQuietly() {
+        try {
+            if (backupDue()) {
+                backupNow();
+            }
+        } catch (RuntimeException ignored) {
+            // Counted in metrics; the next check tries again and the scheduler thread must stay alive.
+        }
+    }
+
+    /**
+     * The open read transaction pins one snapshot for every step, so commits from the app's writer neither restart
+     * the copy nor wait for it.
+     */
+    private long copyTo(Path partial) {
+        try (Connection connection = database.openConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA query_only = ON");
+            }
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT count(*) FROM sqlite_schema")) {
+                rs.next();
+            }
+            AtomicLong steps = new AtomicLong();
+            try {
+                int rc = database(connection).backup(
+                        "main",
+                        partial.toString(),
+                        (remaining, pageCount) -> steps.incrementAndGet(),
+                        BUSY_SLEEP_MILLIS,
+                        BUSY_RETRIES,
+                        pagesPerStep
+                );
+                if (rc != 0) {
+                    throw new SQLException("SQLite backup failed with result code " + rc);
+                }
+            } finally {
+                connection.rollback();
+            }
+            return steps.get();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed copying workspace database", e);
+        }
+    }
+
+    private void rotate() {
+        List<Path> backups = backups();
+        for (int i = keep; i < backups.size(); i++) {
+            deleteQuietly(backups.get(i));
+        }
+    }
+
+    private static void verify(Path backup) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try (Connection connection = config.createConnection("jdbc:sqlite:" + backup);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA quick_check")) {
+            String result = rs.next() ? rs.getString(1) : "";
+            if (!"ok".equals(result)) {
+                throw new IllegalStateException("Backup failed integrity check: " + result);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading workspace backup", e);
+        }
+    }
+
+    private static DB database(Connection connection) throws SQLException {
+        return connection.unwrap(SQLiteConnection.class).getDatabase();
+    }
+
+    private static String baseName(Path dbPath) {
+        String name = dbPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left for the next rotation.
+        }
+    }
+
+    private static void debugSql(String message) {
+        if (!SQL_DEBUG) {
+            return;
+        }
+        System.out.println(System.nanoTime() + " [SqliteBackupService][" + Thread.currentThread().getName() + "] " + message);
+    }
+
+    public record Metrics(
+            long backupsWritten,
+            long backupsFailed,
+            long lastBackupAtMillis,
+            long lastBackupElapsedNanos,
+            long lastBackupBytes,
+            long lastBackupSteps
+    ) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.deadlineflow.data.sqlite;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks up commits made by other processes (a second instance, a script, a sync tool) while the app is running.
+ * A background thread polls {@code PRAGMA data_version} on a private connection; when it moves, the changed rows and
+ * the journal head they reflect, or the whole workspace when a reload is needed, are read off the FX thread, and only
+ * merged into the workspace store on {@code applyExecutor}.
+ */
+public class SqliteChangeWatcher implements AutoCloseable {
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 1_000;
+    private static final long POLL_INTERVAL_MILLIS = Long.getLong(
+            "deadlineflow.watch.intervalMillis",
+            DEFAULT_POLL_INTERVAL_MILLIS
+    );
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final SqliteDatabase database;
+    private final SqliteWorkspaceStore workspaceStore;
+    private final Executor applyExecutor;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService executor;
+    // Set while a delta is queued on the apply executor, so slow UI threads never get a backlog of stale deltas.
+    private final AtomicBoolean applying = new AtomicBoolean();
+    // A delta that was rejected as stale must be re-read even if data_version has not moved since.
+    private volatile boolean retry;
+    private Connection connection;
+    private long dataVersion = -1;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong deltasApplied = new AtomicLong();
+    private final AtomicLong deltasRejected = new AtomicLong();
+
+    public SqliteChangeWatcher(SqliteDatabase database, SqliteWorkspaceStore workspaceStore, Executor applyExecutor) {
+        this(database, workspaceStore, applyExecutor, POLL_INTERVAL_MILLIS);
+    }
+
+    public SqliteChangeWatcher(
+            SqliteDatabase database,
+            SqliteWorkspaceStore workspaceStore,
+            Executor applyExecutor,
+            long pollIntervalMillis
+    ) {
+        if (pollIntervalMillis < 1) {
+            throw new IllegalArgumentException("pollIntervalMillis must be at least 1");
+        }
+        this.database = database;
+        this.workspaceStore = workspaceStore;
+        this.applyExecutor = applyExecutor;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadlineflow-change-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::pollQuietly, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Metrics metrics() {
+        return new Metrics(polls.get(), deltasApplied.get(), deltasRejected.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeConnection();
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // Reopen on the next tick; the scheduler thread must stay alive. Nothing is lost, the journal is replayed.
+            closeConnection();
+        }
+    }
+
+    /**
+     * data_version only moves for commits made through other connections, which includes this app's own writer;
+     * those deltas read back equal to memory and cost one small journal query.
+     */
+    void poll() {
+        polls.incrementAndGet();
+        if (applying.get()) {
+            return;
+        }
+        long currentVersion = readDataVersion();
+        if (currentVersion == dataVersion && !retry) {
+            return;
+        }
+        dataVersion = currentVersion;
+        SqliteWorkspaceStore.ExternalChanges changes = workspaceStore.readChangesSince(workspaceStore.appliedSequence());
+        if (changes.isEmpty()) {
+            retry = false;
+            return;
+        }
+        applying.set(true);
+        try {
+            applyExecutor.execute(() -> apply(changes));
+        } catch (RuntimeException e) {
+            applying.set(false);
+            throw e;
+        }
+    }
+
+    private void apply(SqliteWorkspaceStore.ExternalChanges changes) {
+        try {
+            retry = !workspaceStore.applyExternalChanges(changes);
+            (retry ? deltasRejected : deltasApplied).incrementAndGet();
+        } catch (RuntimeException e) {
+            retry = true;
+            throw e;
+        } finally {
+            applying.set(false);
+        }
+    }
+
+    private long readDataVersion() {
+        try {
+            if (connection == null) {
+                connection = database.openConnection();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("PRAGMA query_only = ON");
+                }
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("PRAGMA data_version")) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading SQLite data_version", e);
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Reopened on the next poll.
+        }
+        connection = null;
+        // A fresh connection starts its own data_version sequence.
+        dataVersion = -1;
+    }
+
+    public record Metrics(long polls, long deltasApplied, long deltasRejected) {
+    }
+}
@@ -0,0 +1,339 @@
+package com.deadlineflow.data.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps one writer connection and a small pool of reader connections open for the lifetime of the app.
+ * Every connection is configured once (WAL, synchronous=NORMAL, mmap, cache size) when it is opened.
+ */
+public class SqliteConnectionManager implements AutoCloseable {
+    public static final int DEFAULT_READER_COUNT = 3;
+    public static final int STATEMENT_CACHE_SIZE = 64;
+    private static final boolean SQL_DEBUG = Boolean.getBoolean("deadlineflow.debug.sql");
+    private static final long READER_WAIT_TIMEOUT_MILLIS = 10_000;
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+    private static final long MMAP_SIZE_BYTES = 256L * 1024 * 1024;
+    private static final int CACHE_SIZE_KIB = 16 * 1024;
+
+    private final SqliteDatabase database;
+    private final int readerCount;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final BlockingQueue<Connection> idleReaders;
+    private final List<Connection> openReaders = new ArrayList<>();
+    private final AtomicInteger readersCreated = new AtomicInteger();
+    // A connection is only used by one lease holder at a time, so each cache is confined to that holder.
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private Connection writer;
+    private volatile boolean closed;
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong writerBorrows = new AtomicLong();
+    private final AtomicLong readerBorrows = new AtomicLong();
+    private final AtomicLong returns = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public SqliteConnectionManager(SqliteDatabase database) {
+        this(database, DEFAULT_READER_COUNT);
+    }
+
+    public SqliteConnectionManager(SqliteDatabase database, int readerCount) {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("readerCount must be at least 1");
+        }
+        this.database = database;
+        this.readerCount = readerCount;
+        this.idleReaders = new ArrayBlockingQueue<>(readerCount);
+    }
+
+    /**
+     * Borrows the single writer connection. The lease is re-entrant for the owning thread and must be closed
+     * to hand the writer to the next caller.
+     */
+    public Lease writer() {
+        ensureOpen();
+        long waitStart = System.nanoTime();
+        writerLock.lock();
+        borrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+        try {
+            ensureOpen();
+            if (writer == null) {
+                writer = openConfigured(false);
+            }
+            writerBorrows.incrementAndGet();
+            return new Lease(this, writer, true);
+        } catch (RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a pooled reader connection. Readers see the last committed state and never block the writer.
+     */
+    public Lease reader() {
+        ensureOpen();
+        long waitStart = System.nanoTime();
+        Connection connection = idleReaders.poll();
+        if (connection == null && reserveReaderSlot()) {
+            try {
+                connection = openConfigured(true);
+                synchronized (openReaders) {
+                    openReaders.add(connection);
+                }
+            } catch (RuntimeException e) {
+                readersCreated.decrementAndGet();
+                throw e;
+            }
+        }
+        if (connection == null) {
+            try {
+                connection = idleReaders.poll(READER_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for SQLite reader connection", e);
+            }
+            if (connection == null) {
+                throw new IllegalStateException("Timed out waiting for SQLite reader connection");
+            }
+        }
+        borrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+        readerBorrows.incrementAndGet();
+        return new Lease(this, connection, false);
+    }
+
+    public Metrics metrics() {
+        return new Metrics(
+                connectionsOpened.get(),
+                writerBorrows.get(),
+                readerBorrows.get(),
+                returns.get(),
+                borrowWaitNanos.get(),
+                statementCacheHits.get(),
+                statementCacheMisses.get()
+        );
+    }
+
+    public SqliteDatabase database() {
+        return database;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (openReaders) {
+            for (Connection reader : openReaders) {
+                closeQuietly(reader);
+            }
+            openReaders.clear();
+        }
+        idleReaders.clear();
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                checkpointQuietly(writer);
+                closeQuietly(writer);
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+        debugSql("closed " + metrics());
+    }
+
+    private void release(Lease lease) {
+        returns.incrementAndGet();
+        if (lease.writer) {
+            writerLock.unlock();
+            return;
+        }
+        if (closed || !idleReaders.offer(lease.connection)) {
+            closeQuietly(lease.connection);
+        }
+    }
+
+    private PreparedStatement prepareCached(Connection connection, String sql) throws SQLException {
+        StatementCache cache = statementCaches.computeIfAbsent(connection, ignored -> new StatementCache());
+        PreparedStatement statement = cache.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            statementCacheHits.incrementAndGet();
+            statement.clearParameters();
+            statement.clearBatch();
+            return statement;
+        }
+        statementCacheMisses.incrementAndGet();
+        statement = connection.prepareStatement(sql);
+        cache.put(sql, statement);
+        return statement;
+    }
+
+    // Counts a reader as created only while the pool is below readerCount, so misses on a full pool leave it alone.
+    private boolean reserveReaderSlot() {
+        int created;
+        do {
+            created = readersCreated.get();
+            if (created >= readerCount) {
+                return false;
+            }
+        } while (!readersCreated.compareAndSet(created, created + 1));
+        return true;
+    }
+
+    private Connection openConfigured(boolean readOnly) {
+        Connection connection = database.openConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            statement.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+            statement.execute("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+            statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            statement.execute("PRAGMA temp_store = MEMORY");
+            if (readOnly) {
+                statement.execute("PRAGMA query_only = ON");
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Failed to configure SQLite connection", e);
+        }
+        connectionsOpened.incrementAndGet();
+        debugSql("opened " + (readOnly ? "reader" : "writer") + " connection #" + connectionsOpened.get());
+        return connection;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("SQLite connection manager is closed");
+        }
+    }
+
+    private static void checkpointQuietly(Connection connection) {
+        // Fold the WAL back into the main file so the last commits are durable even with synchronous=NORMAL.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+        } catch (SQLException ignored) {
+            // Shutdown path: SQLite replays the WAL on next open if the checkpoint did not run.
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        StatementCache cache = statementCaches.remove(connection);
+        if (cache != null) {
+            cache.values().forEach(SqliteConnectionManager::closeStatementQuietly);
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Shutdown path: nothing useful to do with a failed close.
+        }
+    }
+
+    private static void closeStatementQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Evicted or shutdown statement; the connection reclaims it anyway.
+        }
+    }
+
+    private static void debugSql(String message) {
+        if (!SQL_DEBUG) {
+            return;
+        }
+        System.out.println(System.nanoTime() + " [SqliteConnectionManager][" + Thread.currentThread().getName() + "] " + message);
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final SqliteConnectionManager owner;
+        private final Connection connection;
+        private final boolean writer;
+        private boolean released;
+
+        private Lease(SqliteConnectionManager owner, Connection connection, boolean writer) {
+            this.owner = owner;
+            this.connection = connection;
+            this.writer = writer;
+        }
+
+        public Connection connection() {
+            if (released) {
+                throw new IllegalStateException("Connection lease already returned");
+            }
+            return connection;
+        }
+
+        /**
+         * Returns a statement compiled once per connection and reused across leases. Callers must not close it;
+         * parameters and batches are cleared on every checkout.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            return owner.prepareCached(connection(), sql);
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            owner.release(this);
+        }
+    }
+
+    public record Metrics(
+            long connectionsOpened,
+            long writerBorrows,
+            long readerBorrows,
+            long returns,
+            long borrowWaitNanos,
+            long statementCacheHits,
+            long statementCacheMisses
+    ) {
+        public long outstanding() {
+            return writerBorrows + readerBorrows - returns;
+        }
+    }
+
+    /**
+     * Per-connection LRU of prepared statements; an evicted statement is closed.
+     */
+    private static final class StatementCache {
+        private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PreparedStatement get(String sql) {
+            return statements.get(sql);
+        }
+
+        void put(String sql, PreparedStatement statement) {
+            statements.put(sql, statement);
+            if (statements.size() > STATEMENT_CACHE_SIZE) {
+                Iterator<PreparedStatement> eldest = statements.values().iterator();
+                closeStatementQuietly(eldest.next());
+                eldest.remove();
+            }
+        }
+
+        Collection<PreparedStatement> values() {
+            return statements.values();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.deadlineflow.data.sqlite;
 
+import org.sqlite.SQLiteConfig;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -46,6 +48,20 @@ public class SqliteDatabase {
         }
     }
 
+    /**
+     * Opens a connection with SQLITE_OPEN_READONLY, for readers that must never write even by accident.
+     */
+    public Connection openReadOnlyConnection() {
+        ensureStorageDirectory();
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try {
+            return config.createConnection(jdbcUrl);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open read-only SQLite connection", e);
+        }
+    }
+
     public Path dbPath() {
         return dbPath;
     }
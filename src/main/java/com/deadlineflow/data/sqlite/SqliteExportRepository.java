@@ -0,0 +1,146 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ExportRepository;
+import com.deadlineflow.data.transfer.ExportWriter;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+public class SqliteExportRepository implements ExportRepository {
+    private static final String TASK_COLUMNS = "id, project_id, title, description, start_date, due_date, progress, status";
+    // (project_id, start_date) order is the idx_tasks_project_start order, so neither cursor needs a sort step.
+    private static final String ALL_TASKS_SQL = "SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY project_id, start_date";
+    private static final String PROJECT_TASKS_SQL = "SELECT " + TASK_COLUMNS
+            + " FROM tasks WHERE project_id = ? ORDER BY start_date";
+    private static final String ALL_DEPENDENCIES_SQL =
+            "SELECT id, from_task_id, to_task_id, type, lag_days FROM dependencies ORDER BY id";
+    private static final String PROJECT_DEPENDENCIES_SQL = """
+            SELECT d.id, d.from_task_id, d.to_task_id, d.type, d.lag_days
+            FROM tasks t
+            JOIN dependencies d ON d.from_task_id = t.id
+            WHERE t.project_id = ?
+            """;
+
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
+
+    public SqliteExportRepository(SqliteConnectionManager connections, SqlitePersistenceQueue persistenceQueue) {
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
+    }
+
+    @Override
+    public void exportWorkspace(ExportWriter writer, BooleanSupplier cancelled) throws IOException {
+        export(null, writer, cancelled);
+    }
+
+    @Override
+    public void exportProject(long projectId, ExportWriter writer, BooleanSupplier cancelled) throws IOException {
+        export(projectId, writer, cancelled);
+    }
+
+    private void export(Long projectId, ExportWriter writer, BooleanSupplier cancelled) throws IOException {
+        // Edits still in the write-behind queue are part of what the user sees, so they belong in the export.
+        persistenceQueue.flush();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            Connection connection = lease.connection();
+            // One read transaction: every cursor sees the same WAL snapshot even while the writer keeps committing.
+            connection.setAutoCommit(false);
+            try {
+                writeProjects(lease, projectId, writer, cancelled);
+                writeTasks(lease, projectId, writer, cancelled);
+                writeDependencies(lease, projectId, writer, cancelled);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed exporting workspace", e);
+        }
+    }
+
+    private void writeProjects(
+            SqliteConnectionManager.Lease lease,
+            Long projectId,
+            ExportWriter writer,
+            BooleanSupplier cancelled
+    ) throws SQLException, IOException {
+        PreparedStatement statement = lease.prepare(projectId == null
+                ? "SELECT id, name, color, priority FROM projects ORDER BY id"
+                : "SELECT id, name, color, priority FROM projects WHERE id = ?");
+        bindProject(statement, projectId);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                checkCancelled(cancelled);
+                writer.project(new Project(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("color"),
+                        rs.getInt("priority")
+                ));
+            }
+        }
+    }
+
+    private void writeTasks(
+            SqliteConnectionManager.Lease lease,
+            Long projectId,
+            ExportWriter writer,
+            BooleanSupplier cancelled
+    ) throws SQLException, IOException {
+        PreparedStatement statement = lease.prepare(projectId == null ? ALL_TASKS_SQL : PROJECT_TASKS_SQL);
+        bindProject(statement, projectId);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                checkCancelled(cancelled);
+                writer.task(new Task(
+                        rs.getString("id"),
+                        rs.getLong("project_id"),
+                        rs.getString("title"),
+                        rs.getString("description"),
+                        LocalDate.ofEpochDay(rs.getLong("start_date")),
+                        LocalDate.ofEpochDay(rs.getLong("due_date")),
+                        rs.getInt("progress"),
+                        rs.getString("status")
+                ));
+            }
+        }
+    }
+
+    private void writeDependencies(
+            SqliteConnectionManager.Lease lease,
+            Long projectId,
+            ExportWriter writer,
+            BooleanSupplier cancelled
+    ) throws SQLException, IOException {
+        PreparedStatement statement = lease.prepare(projectId == null ? ALL_DEPENDENCIES_SQL : PROJECT_DEPENDENCIES_SQL);
+        bindProject(statement, projectId);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                checkCancelled(cancelled);
+                writer.dependency(SqliteWorkspaceStore.dependencyFrom(rs));
+            }
+        }
+    }
+
+    private static void bindProject(PreparedStatement statement, Long projectId) throws SQLException {
+        if (projectId != null) {
+            statement.setLong(1, projectId);
+        }
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Export cancelled");
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ImportRepository;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SqliteImportRepository implements ImportRepository {
+    private static final String UPSERT_TASK_SQL = """
+            INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET
+                project_id = excluded.project_id,
+                title = excluded.title,
+                description = excluded.description,
+                start_date = excluded.start_date,
+                due_date = excluded.due_date,
+                progress = excluded.progress,
+                status = excluded.status
+            """;
+    // The foreign keys would abort the whole batch on one dangling edge; the EXISTS guard skips just that row.
+    private static final String UPSERT_DEPENDENCY_SQL = """
+            INSERT INTO dependencies(id, from_task_id, to_task_id, type, lag_days)
+            SELECT ?, ?, ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM tasks WHERE id = ?) AND EXISTS (SELECT 1 FROM tasks WHERE id = ?)
+            ON CONFLICT(id) DO UPDATE SET
+                from_task_id = excluded.from_task_id,
+                to_task_id = excluded.to_task_id,
+                type = excluded.type,
+                lag_days = excluded.lag_days
+            """;
+
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
+    private final SqliteWorkspaceStore workspaceStore;
+
+    public SqliteImportRepository(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteWorkspaceStore workspaceStore
+    ) {
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
+        this.workspaceStore = workspaceStore;
+    }
+
+    @Override
+    public void prepareImport() {
+        persistenceQueue.flush();
+    }
+
+    @Override
+    public Set<Long> projectIds() {
+        Set<Long> result = new HashSet<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare("SELECT id FROM projects").executeQuery()) {
+            while (rs.next()) {
+                result.add(rs.getLong("id"));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading project ids", e);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> statusNames() {
+        Set<String> result = new HashSet<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare("SELECT name FROM task_statuses").executeQuery()) {
+            while (rs.next()) {
+                result.add(rs.getString("name"));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading status names", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void upsertTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement statement = lease.prepare(UPSERT_TASK_SQL);
+                for (Task task : tasks) {
+                    statement.setString(1, task.id());
+                    statement.setLong(2, task.projectId());
+                    statement.setString(3, task.title());
+                    statement.setString(4, task.description());
+                    statement.setLong(5, task.startDate().toEpochDay());
+                    statement.setLong(6, task.dueDate().toEpochDay());
+                    statement.setInt(7, task.progress());
+                    statement.setString(8, task.status());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed importing " + tasks.size() + " tasks", e);
+        }
+    }
+
+    @Override
+    public List<Dependency> upsertDependencies(List<Dependency> dependencies) {
+        if (dependencies.isEmpty()) {
+            return List.of();
+        }
+        List<Dependency> skipped = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement statement = lease.prepare(UPSERT_DEPENDENCY_SQL);
+                for (Dependency dependency : dependencies) {
+                    statement.setString(1, dependency.id());
+                    statement.setString(2, dependency.fromTaskId());
+                    statement.setString(3, dependency.toTaskId());
+                    statement.setString(4, dependency.type().name());
+                    statement.setInt(5, dependency.lagDays());
+                    statement.setString(6, dependency.fromTaskId());
+                    statement.setString(7, dependency.toTaskId());
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        skipped.add(dependencies.get(i));
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed importing " + dependencies.size() + " dependencies", e);
+        }
+        return skipped;
+    }
+
+    @Override
+    public List<Task> findTasksByProjects(Collection<Long> projectIds) {
+        List<Task> result = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare(
+                    "SELECT id, project_id, title, start_date, due_date, progress, status FROM tasks WHERE project_id = ?"
+            );
+            for (long projectId : projectIds) {
+                statement.setLong(1, projectId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(new Task(
+                                rs.getString("id"),
+                                rs.getLong("project_id"),
+                                rs.getString("title"),
+                                LocalDate.ofEpochDay(rs.getLong("start_date")),
+                                LocalDate.ofEpochDay(rs.getLong("due_date")),
+                                rs.getInt("progress"),
+                                rs.getString("status")
+                        ));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading imported tasks", e);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Dependency> findDependenciesByProjects(Collection<Long> projectIds) {
+        List<Dependency> result = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare("""
+                    SELECT d.id, d.from_task_id, d.to_task_id, d.type, d.lag_days
+                    FROM dependencies d
+                    JOIN tasks t ON t.id = d.from_task_id
+                    WHERE t.project_id = ?
+                    """);
+            for (long projectId : projectIds) {
+                statement.setLong(1, projectId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        result.add(SqliteWorkspaceStore.dependencyFrom(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading imported dependencies", e);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Long> projectIdsOfTasks(Collection<String> taskIds) {
+        Set<Long> result = new HashSet<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare("SELECT project_id FROM tasks WHERE id = ?");
+            for (String taskId : taskIds) {
+                statement.setString(1, taskId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        result.add(rs.getLong("project_id"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading task projects", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void refreshWorkspace() {
+        workspaceStore.reload();
+    }
+}
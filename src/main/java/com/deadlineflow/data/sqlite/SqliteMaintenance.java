@@ -0,0 +1,330 @@
+package com.deadlineflow.data.sqlite;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idle-time housekeeping: prunes old change journal entries, runs {@code PRAGMA optimize}, hands free pages back to
+ * the file system with incremental vacuum and runs a passive WAL checkpoint. Work is cut into steps that hold the
+ * writer for a few milliseconds each, and a pass stops as soon as the user is active again or writes are queued; the
+ * next idle period picks up where it left off.
+ */
+public class SqliteMaintenance implements AutoCloseable {
+    public static final long DEFAULT_IDLE_MILLIS = 30_000;
+    public static final long DEFAULT_PERIOD_MILLIS = 15 * 60_000;
+    public static final int DEFAULT_JOURNAL_RETENTION_DAYS = 30;
+    private static final boolean SQL_DEBUG = Boolean.getBoolean("deadlineflow.debug.sql");
+    private static final long IDLE_MILLIS = Long.getLong("deadlineflow.maintenance.idleMillis", DEFAULT_IDLE_MILLIS);
+    private static final long PERIOD_MILLIS = Long.getLong("deadlineflow.maintenance.periodMillis", DEFAULT_PERIOD_MILLIS);
+    private static final int JOURNAL_RETENTION_DAYS = Integer.getInteger(
+            "deadlineflow.maintenance.journalRetentionDays",
+            DEFAULT_JOURNAL_RETENTION_DAYS
+    );
+    private static final long CHECK_INTERVAL_MILLIS = 5_000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    // Bounds each writer hold to a few milliseconds (about 20 ms at worst on a 100k-task workspace).
+    private static final int VACUUM_PAGES_PER_STEP = 128;
+    private static final int PRUNE_ROWS_PER_STEP = 500;
+    // Caps the rows ANALYZE samples per index when PRAGMA optimize decides statistics are stale.
+    private static final int ANALYSIS_LIMIT = 400;
+
+    private static final String PRUNE_JOURNAL_SQL = """
+            DELETE FROM change_log
+            WHERE seq IN (
+                SELECT seq FROM change_log
+                WHERE seq <= ? AND changed_at < ?
+                ORDER BY seq
+                LIMIT ?
+            )
+            """;
+
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
+    private final SqliteWorkspaceStore workspaceStore;
+    private final long idleNanos;
+    private final long periodNanos;
+    private final long journalRetentionMillis;
+    private final ScheduledExecutorService executor;
+    private volatile long lastActivityNanos = System.nanoTime();
+    private long lastPassNanos;
+    private boolean passCompleted;
+
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong lastPassAtMillis = new AtomicLong();
+    private final AtomicLong lastPassElapsedNanos = new AtomicLong();
+    private final AtomicLong maxWriterHoldNanos = new AtomicLong();
+    private final AtomicLong journalEntriesPruned = new AtomicLong();
+    private final AtomicLong pagesReclaimed = new AtomicLong();
+    private final AtomicLong framesCheckpointed = new AtomicLong();
+
+    public SqliteMaintenance(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteWorkspaceStore workspaceStore
+    ) {
+        this(connections, persistenceQueue, workspaceStore, IDLE_MILLIS, PERIOD_MILLIS, JOURNAL_RETENTION_DAYS);
+    }
+
+    public SqliteMaintenance(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteWorkspaceStore workspaceStore,
+            long idleMillis,
+            long periodMillis,
+            int journalRetentionDays
+    ) {
+        if (idleMillis < 0 || periodMillis < 0 || journalRetentionDays < 0) {
+            throw new IllegalArgumentException("Maintenance intervals must not be negative");
+        }
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
+        this.workspaceStore = workspaceStore;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.journalRetentionMillis = TimeUnit.DAYS.toMillis(journalRetentionDays);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deadlineflow-maintenance");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long checkMillis = Math.max(1, Math.min(CHECK_INTERVAL_MILLIS, TimeUnit.NANOSECONDS.toMillis(idleNanos)));
+        executor.scheduleWithFixedDelay(this::runQuietly, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Called for every user input event; cheap enough for mouse moves.
+     */
+    public void recordActivity() {
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Runs the due maintenance steps while the app stays idle. Returns true when a full pass completed.
+     */
+    public synchronized boolean runIfIdle() {
+        if (!idle() || (passCompleted && System.nanoTime() - lastPassNanos < periodNanos)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        passCompleted = pruneJournal() && optimize() && vacuum() && checkpoint();
+        if (!passCompleted) {
+            return false;
+        }
+        lastPassNanos = start;
+        passes.incrementAndGet();
+        lastPassAtMillis.set(System.currentTimeMillis());
+        lastPassElapsedNanos.set(System.nanoTime() - start);
+        debugSql("maintenance pass " + stats());
+        return true;
+    }
+
+    public Stats stats() {
+        long pageSize;
+        long pageCount;
+        long freelistCount;
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            pageSize = pragmaLong(lease, "PRAGMA page_size");
+            pageCount = pragmaLong(lease, "PRAGMA page_count");
+            freelistCount = pragmaLong(lease, "PRAGMA freelist_count");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading database statistics", e);
+        }
+        Path dbPath = connections.database().dbPath();
+        return new Stats(
+                fileSize(dbPath),
+                fileSize(dbPath.resolveSibling(dbPath.getFileName() + "-wal")),
+                pageSize,
+                pageCount,
+                freelistCount,
+                passes.get(),
+                lastPassAtMillis.get(),
+                lastPassElapsedNanos.get(),
+                maxWriterHoldNanos.get(),
+                journalEntriesPruned.get(),
+                pagesReclaimed.get(),
+                framesCheckpointed.get()
+        );
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            runIfIdle();
+        } catch (RuntimeException ignored) {
+            // Housekeeping is best effort; the next idle period tries again and the scheduler thread must stay alive.
+        }
+    }
+
+    private boolean idle() {
+        return System.nanoTime() - lastActivityNanos >= idleNanos && persistenceQueue.isIdle();
+    }
+
+    /**
+     * Keeps entries the change watcher has not applied yet, whatever their age.
+     */
+    private boolean pruneJournal() {
+        long cutoffMillis = System.currentTimeMillis() - journalRetentionMillis;
+        long throughSequence = workspaceStore.appliedSequence();
+        long deleted;
+        do {
+            if (!idle()) {
+                return false;
+            }
+            deleted = onWriter(lease -> {
+                PreparedStatement statement = lease.prepare(PRUNE_JOURNAL_SQL);
+                statement.setLong(1, throughSequence);
+                statement.setLong(2, cutoffMillis);
+                statement.setInt(3, PRUNE_ROWS_PER_STEP);
+                return statement.executeUpdate();
+            });
+            journalEntriesPruned.addAndGet(deleted);
+        } while (deleted == PRUNE_ROWS_PER_STEP);
+        return true;
+    }
+
+    private boolean optimize() {
+        if (!idle()) {
+            return false;
+        }
+        onWriter(lease -> {
+            lease.prepare("PRAGMA analysis_limit = " + ANALYSIS_LIMIT).execute();
+            lease.prepare("PRAGMA optimize").execute();
+            return 0;
+        });
+        return true;
+    }
+
+    private boolean vacuum() {
+        while (freelistCount() > 0) {
+            if (!idle()) {
+                return false;
+            }
+            long before = freelistCount();
+            onWriter(SqliteMaintenance::incrementalVacuum);
+            long reclaimed = before - freelistCount();
+            if (reclaimed <= 0) {
+                // Not an auto_vacuum=INCREMENTAL file (e.g. migration 9 has not run); nothing to reclaim this way.
+                return true;
+            }
+            pagesReclaimed.addAndGet(reclaimed);
+        }
+        return true;
+    }
+
+    /**
+     * PASSIVE copies what it can without waiting on readers or writers, and runs on a reader connection so the
+     * writer stays free while pages are copied.
+     */
+    private boolean checkpoint() {
+        if (!idle()) {
+            return false;
+        }
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare("PRAGMA wal_checkpoint(PASSIVE)").executeQuery()) {
+            if (rs.next()) {
+                framesCheckpointed.addAndGet(Math.max(0, rs.getLong(3)));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed checkpointing the WAL", e);
+        }
+        return true;
+    }
+
+    private long freelistCount() {
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            return pragmaLong(lease, "PRAGMA freelist_count");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading freelist count", e);
+        }
+    }
+
+    private long onWriter(WriterStep step) {
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            long start = System.nanoTime();
+            try {
+                return step.run(lease);
+            } finally {
+                maxWriterHoldNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed running database maintenance", e);
+        }
+    }
+
+    /**
+     * The pragma yields a column-less row per freed page. A prepared statement stops at the first one and stays
+     * busy on the writer, so it runs through a throwaway statement, whose executeUpdate steps it to completion.
+     */
+    private static long incrementalVacuum(SqliteConnectionManager.Lease lease) throws SQLException {
+        try (Statement statement = lease.connection().createStatement()) {
+            return statement.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_PAGES_PER_STEP + ")");
+        }
+    }
+
+    private static long pragmaLong(SqliteConnectionManager.Lease lease, String pragma) throws SQLException {
+        try (ResultSet rs = lease.prepare(pragma).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static long fileSize(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void debugSql(String message) {
+        if (!SQL_DEBUG) {
+            return;
+        }
+        System.out.println(System.nanoTime() + " [SqliteMaintenance][" + Thread.currentThread().getName() + "] " + message);
+    }
+
+    @FunctionalInterface
+    private interface WriterStep {
+        long run(SqliteConnectionManager.Lease lease) throws SQLException;
+    }
+
+    public record Stats(
+            long fileBytes,
+            long walBytes,
+            long pageSize,
+            long pageCount,
+            long freelistCount,
+            long passes,
+            long lastPassAtMillis,
+            long lastPassElapsedNanos,
+            long maxWriterHoldNanos,
+            long journalEntriesPruned,
+            long pagesReclaimed,
+            long framesCheckpointed
+    ) {
+        public long freeBytes() {
+            return freelistCount * pageSize;
+        }
+    }
+}
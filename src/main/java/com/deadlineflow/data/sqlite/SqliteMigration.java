@@ -5,11 +5,110 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Numbered schema migrations. The applied version is kept in {@code PRAGMA user_version}; each migration commits
+ * together with its version bump, so a warm start only reads the version and runs no DDL.
+ */
 public class SqliteMigration {
+    private static final boolean SQL_DEBUG = Boolean.getBoolean("deadlineflow.debug.sql");
+    private static final String CHANGED_AT_MILLIS = "CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)";
+    private static final List<String> REVISION_TRACKED_TABLES = List.of("projects", "tasks", "dependencies", "task_statuses");
 
-    public void migrate(SqliteDatabase database) {
-        try (Connection connection = database.openConnection(); Statement statement = connection.createStatement()) {
+    private final List<Migration> migrations = List.of(
+            new Migration(1, "create core tables", false, this::createCoreTables),
+            new Migration(2, "add task description", false, this::addTaskDescription),
+            new Migration(3, "rename legacy NOT_STARTED status", false, this::migrateLegacyStatusValues),
+            new Migration(4, "store task dates as epoch days", true, this::migrateTaskDatesToEpochDays),
+            new Migration(5, "seed default statuses", false, this::seedDefaultStatuses),
+            new Migration(6, "track workspace revision (superseded by 7)", false, this::retiredWorkspaceRevision),
+            new Migration(7, "journal row changes", false, this::createChangeLog),
+            new Migration(8, "index task text", false, this::createTaskSearchIndex),
+            new Migration(9, "enable incremental vacuum", false, false, this::enableIncrementalVacuum),
+            new Migration(10, "create archive tables", false, this::createArchiveTables),
+            new Migration(11, "add dependency lag", false, this::addDependencyLag),
+            new Migration(12, "journal descriptions without their text", false, this::journalDescriptionsSeparately),
+            new Migration(13, "record when tasks enter a status", false, this::recordStatusEntries)
+    );
+
+    public Report migrate(SqliteConnectionManager connections) {
+        long start = System.nanoTime();
+        List<AppliedMigration> applied = new ArrayList<>();
+        int fromVersion;
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
+            fromVersion = userVersion(connection);
+            if (fromVersion > latestVersion()) {
+                throw new IllegalStateException("Workspace schema version " + fromVersion
+                        + " is newer than this build supports (" + latestVersion() + ")");
+            }
+            for (Migration migration : migrations) {
+                if (migration.version() > fromVersion) {
+                    applied.add(apply(connection, migration));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to migrate SQLite schema", e);
+        }
+        Report report = new Report(fromVersion, latestVersion(), List.copyOf(applied), System.nanoTime() - start);
+        debugSql(report.toString());
+        return report;
+    }
+
+    public int latestVersion() {
+        return migrations.getLast().version();
+    }
+
+    private AppliedMigration apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            if (!migration.transactional()) {
+                // VACUUM cannot run inside a transaction. Such steps must be safe to repeat, since a crash before the
+                // version bump runs them again.
+                migration.step().apply(connection);
+                statement.execute("PRAGMA user_version = " + migration.version());
+                AppliedMigration applied = new AppliedMigration(migration.version(), migration.name(), System.nanoTime() - start);
+                debugSql("applied " + applied);
+                return applied;
+            }
+            if (migration.rebuildsTables()) {
+                // Table rebuilds drop a referenced table; with foreign keys on that would cascade into its children.
+                // The pragma is a no-op inside a transaction, so it has to be switched before BEGIN.
+                statement.execute("PRAGMA foreign_keys = OFF");
+            }
+            connection.setAutoCommit(false);
+            try {
+                migration.step().apply(connection);
+                if (migration.rebuildsTables()) {
+                    try (ResultSet violations = statement.executeQuery("PRAGMA foreign_key_check")) {
+                        if (violations.next()) {
+                            throw new SQLException("Foreign key violation in " + violations.getString("table")
+                                    + " after migration " + migration.version());
+                        }
+                    }
+                }
+                statement.execute("PRAGMA user_version = " + migration.version());
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+                if (migration.rebuildsTables()) {
+                    statement.execute("PRAGMA foreign_keys = ON");
+                }
+            }
+        }
+        AppliedMigration applied = new AppliedMigration(migration.version(), migration.name(), System.nanoTime() - start);
+        debugSql("applied " + applied);
+        return applied;
+    }
+
+    private void createCoreTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // IF NOT EXISTS: workspaces created before versioning start at user_version 0 with these tables present.
             statement.executeUpdate("""
                     CREATE TABLE IF NOT EXISTS projects (
                         id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -25,8 +124,8 @@ public class SqliteMigration {
                         project_id INTEGER NOT NULL,
                         title TEXT NOT NULL,
                         description TEXT NOT NULL DEFAULT '',
-                        start_date TEXT NOT NULL,
-                        due_date TEXT NOT NULL,
+                        start_date INTEGER NOT NULL,
+                        due_date INTEGER NOT NULL,
                         progress INTEGER NOT NULL CHECK(progress >= 0 AND progress <= 100),
                         status TEXT NOT NULL,
                         FOREIGN KEY(project_id) REFERENCES projects(id) ON DELETE CASCADE
@@ -52,32 +151,18 @@ public class SqliteMigration {
                     )
                     """);
 
-            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_project_id ON tasks(project_id)");
             statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_dependencies_from ON dependencies(from_task_id)");
             statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_dependencies_to ON dependencies(to_task_id)");
             statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_statuses_order ON task_statuses(display_order)");
-
-            if (!tableHasColumn(connection, "tasks", "description")) {
-                // Migration for existing workspaces: add persisted task description text.
-                statement.executeUpdate("ALTER TABLE tasks ADD COLUMN description TEXT NOT NULL DEFAULT ''");
-            }
-
-            migrateLegacyStatusValues(connection);
-            seedDefaultStatuses(connection);
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed to migrate SQLite schema", e);
         }
     }
 
-    private boolean tableHasColumn(Connection connection, String tableName, String columnName) throws SQLException {
-        try (Statement statement = connection.createStatement();
-             ResultSet rs = statement.executeQuery("PRAGMA table_info(" + tableName + ")")) {
-            while (rs.next()) {
-                if (columnName.equalsIgnoreCase(rs.getString("name"))) {
-                    return true;
-                }
-            }
-            return false;
+    private void addTaskDescription(Connection connection) throws SQLException {
+        if (tableHasColumn(connection, "tasks", "description")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE tasks ADD COLUMN description TEXT NOT NULL DEFAULT ''");
         }
     }
 
@@ -89,6 +174,44 @@ public class SqliteMigration {
         }
     }
 
+    private void migrateTaskDatesToEpochDays(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if ("TEXT".equalsIgnoreCase(columnType(connection, "tasks", "start_date"))) {
+                // SQLite cannot change a column type in place, so rebuild the table.
+                statement.executeUpdate("""
+                        CREATE TABLE tasks_epoch (
+                            id TEXT PRIMARY KEY,
+                            project_id INTEGER NOT NULL,
+                            title TEXT NOT NULL,
+                            description TEXT NOT NULL DEFAULT '',
+                            start_date INTEGER NOT NULL,
+                            due_date INTEGER NOT NULL,
+                            progress INTEGER NOT NULL CHECK(progress >= 0 AND progress <= 100),
+                            status TEXT NOT NULL,
+                            FOREIGN KEY(project_id) REFERENCES projects(id) ON DELETE CASCADE
+                        )
+                        """);
+                // julianday('1970-01-01') is 2440587.5, so the difference is the epoch day.
+                statement.executeUpdate("""
+                        INSERT INTO tasks_epoch(id, project_id, title, description, start_date, due_date, progress, status)
+                        SELECT id, project_id, title, description,
+                               CAST(julianday(start_date) - 2440587.5 AS INTEGER),
+                               CAST(julianday(due_date) - 2440587.5 AS INTEGER),
+                               progress, status
+                        FROM tasks
+                        """);
+                statement.executeUpdate("DROP TABLE tasks");
+                statement.executeUpdate("ALTER TABLE tasks_epoch RENAME TO tasks");
+            }
+
+            // (project_id, date) replaces the plain project_id index: same prefix, and date-range queries per
+            // project are answered from the index alone.
+            statement.executeUpdate("DROP INDEX IF EXISTS idx_tasks_project_id");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_project_start ON tasks(project_id, start_date)");
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_tasks_project_due ON tasks(project_id, due_date)");
+        }
+    }
+
     private void seedDefaultStatuses(Connection connection) throws SQLException {
         ensureStatus(connection, "TODO", 0, false);
         ensureStatus(connection, "IN_PROGRESS", 1, false);
@@ -106,4 +229,387 @@ public class SqliteMigration {
             statement.executeUpdate();
         }
     }
+
+    private void retiredWorkspaceRevision(Connection connection) {
+        // Migration 6 used to create a workspace_meta revision counter bumped by triggers. The change log of migration
+        // 7 replaced it, so new workspaces skip it; migration 7 still drops it from workspaces that applied it.
+    }
+
+    private void createChangeLog(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // AUTOINCREMENT: sequences are never reused, even after old entries are pruned, so sqlite_sequence
+            // doubles as the workspace revision. Workspaces that ran the original migration 6 still carry its
+            // revision counter and triggers, dropped below.
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS change_log (
+                        seq INTEGER PRIMARY KEY AUTOINCREMENT,
+                        entity TEXT NOT NULL,
+                        entity_id TEXT NOT NULL,
+                        operation TEXT NOT NULL,
+                        before_json TEXT,
+                        after_json TEXT,
+                        changed_at INTEGER NOT NULL
+                    )
+                    """);
+            for (String table : REVISION_TRACKED_TABLES) {
+                for (String operation : List.of("insert", "update", "delete")) {
+                    statement.executeUpdate("DROP TRIGGER IF EXISTS trg_" + table + "_" + operation + "_revision");
+                }
+            }
+            statement.executeUpdate("DROP TABLE IF EXISTS workspace_meta");
+
+            createJournalTriggers(statement, "projects", "PROJECT", "id", List.of("id", "name", "color", "priority"));
+            // Migration 12 re-creates the task triggers without description.
+            createJournalTriggers(statement, "tasks", "TASK", "id", List.of(
+                    "id", "project_id", "title", "description", "start_date", "due_date", "progress", "status"
+            ));
+            createJournalTriggers(statement, "dependencies", "DEPENDENCY", "id", List.of(
+                    "id", "from_task_id", "to_task_id", "type"
+            ));
+            // Migration 11 re-creates the dependency triggers with lag_days.
+            createJournalTriggers(statement, "task_statuses", "STATUS", "name", List.of(
+                    "name", "display_order", "is_protected"
+            ));
+        }
+    }
+
+    private void createTaskSearchIndex(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // External content: the index stores only tokens and reads title/description back from tasks by rowid.
+            // Upserts use ON CONFLICT DO UPDATE, which keeps the rowid stable.
+            statement.executeUpdate("""
+                    CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(
+                        title,
+                        description,
+                        content = 'tasks',
+                        content_rowid = 'rowid',
+                        tokenize = 'unicode61 remove_diacritics 2',
+                        prefix = '2 3'
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_insert_fts AFTER INSERT ON tasks BEGIN
+                        INSERT INTO tasks_fts(rowid, title, description) VALUES (NEW.rowid, NEW.title, NEW.description);
+                    END
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_delete_fts AFTER DELETE ON tasks BEGIN
+                        INSERT INTO tasks_fts(tasks_fts, rowid, title, description)
+                        VALUES ('delete', OLD.rowid, OLD.title, OLD.description);
+                    END
+                    """);
+            // Progress and date edits are the common case and do not touch the index.
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_update_fts AFTER UPDATE OF title, description ON tasks
+                    WHEN OLD.title IS NOT NEW.title OR OLD.description IS NOT NEW.description
+                    BEGIN
+                        INSERT INTO tasks_fts(tasks_fts, rowid, title, description)
+                        VALUES ('delete', OLD.rowid, OLD.title, OLD.description);
+                        INSERT INTO tasks_fts(rowid, title, description) VALUES (NEW.rowid, NEW.title, NEW.description);
+                    END
+                    """);
+            // Title hits outrank description hits.
+            statement.executeUpdate("INSERT INTO tasks_fts(tasks_fts, rank) VALUES ('rank', 'bm25(10.0, 1.0)')");
+            statement.executeUpdate("INSERT INTO tasks_fts(tasks_fts) VALUES ('rebuild')");
+        }
+    }
+
+    private void enableIncrementalVacuum(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Switching an existing file away from auto_vacuum=NONE only takes effect through a full VACUUM. This is
+            // the one full rewrite; afterwards SqliteMaintenance returns free pages in small incremental steps.
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            statement.execute("VACUUM");
+            // VACUUM may renumber the implicit rowids of tasks, which the external-content search index is keyed on.
+            // Incremental vacuum only moves pages and keeps rowids, so this is the only place that needs it.
+            statement.execute("INSERT INTO tasks_fts(tasks_fts) VALUES ('rebuild')");
+        }
+    }
+
+    private void createArchiveTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Cold storage for completed work. No foreign keys: an archived task may belong to a live or an archived
+            // project, and archived dependencies may point at tasks on either side. Rows here are not journaled.
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS archived_projects (
+                        id INTEGER PRIMARY KEY,
+                        name TEXT NOT NULL,
+                        color TEXT NOT NULL,
+                        priority INTEGER NOT NULL,
+                        archived_at INTEGER NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS archived_tasks (
+                        id TEXT PRIMARY KEY,
+                        project_id INTEGER NOT NULL,
+                        title TEXT NOT NULL,
+                        description TEXT NOT NULL DEFAULT '',
+                        start_date INTEGER NOT NULL,
+                        due_date INTEGER NOT NULL,
+                        progress INTEGER NOT NULL,
+                        status TEXT NOT NULL,
+                        archived_at INTEGER NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS archived_dependencies (
+                        id TEXT PRIMARY KEY,
+                        from_task_id TEXT NOT NULL,
+                        to_task_id TEXT NOT NULL,
+                        type TEXT NOT NULL,
+                        archived_at INTEGER NOT NULL
+                    )
+                    """);
+            statement.executeUpdate("CREATE INDEX IF NOT EXISTS idx_archived_tasks_project ON archived_tasks(project_id)");
+            statement.executeUpdate(
+                    "CREATE INDEX IF NOT EXISTS idx_archived_dependencies_from ON archived_dependencies(from_task_id)"
+            );
+            statement.executeUpdate(
+                    "CREATE INDEX IF NOT EXISTS idx_archived_dependencies_to ON archived_dependencies(to_task_id)"
+            );
+            // Deleting a live project takes its archived tasks along, as ON DELETE CASCADE does for live ones. Archiving
+            // a project copies it to archived_projects before deleting it, which the WHEN clause lets through.
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_projects_delete_archived AFTER DELETE ON projects
+                    WHEN NOT EXISTS (SELECT 1 FROM archived_projects WHERE id = OLD.id)
+                    BEGIN
+                        DELETE FROM archived_dependencies
+                        WHERE from_task_id IN (SELECT id FROM archived_tasks WHERE project_id = OLD.id)
+                           OR to_task_id IN (SELECT id FROM archived_tasks WHERE project_id = OLD.id);
+                        DELETE FROM archived_tasks WHERE project_id = OLD.id;
+                    END
+                    """);
+            // Likewise archived edges to a deleted live task could never be restored.
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_delete_archived AFTER DELETE ON tasks
+                    WHEN NOT EXISTS (SELECT 1 FROM archived_tasks WHERE id = OLD.id)
+                    BEGIN
+                        DELETE FROM archived_dependencies WHERE from_task_id = OLD.id OR to_task_id = OLD.id;
+                    END
+                    """);
+            // Same tokenizer and ranking as tasks_fts, so archived hits score like live ones.
+            statement.executeUpdate("""
+                    CREATE VIRTUAL TABLE IF NOT EXISTS archived_tasks_fts USING fts5(
+                        title,
+                        description,
+                        content = 'archived_tasks',
+                        content_rowid = 'rowid',
+                        tokenize = 'unicode61 remove_diacritics 2',
+                        prefix = '2 3'
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_archived_tasks_insert_fts AFTER INSERT ON archived_tasks BEGIN
+                        INSERT INTO archived_tasks_fts(rowid, title, description)
+                        VALUES (NEW.rowid, NEW.title, NEW.description);
+                    END
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_archived_tasks_delete_fts AFTER DELETE ON archived_tasks BEGIN
+                        INSERT INTO archived_tasks_fts(archived_tasks_fts, rowid, title, description)
+                        VALUES ('delete', OLD.rowid, OLD.title, OLD.description);
+                    END
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_archived_tasks_update_fts AFTER UPDATE OF title, description
+                    ON archived_tasks
+                    WHEN OLD.title IS NOT NEW.title OR OLD.description IS NOT NEW.description
+                    BEGIN
+                        INSERT INTO archived_tasks_fts(archived_tasks_fts, rowid, title, description)
+                        VALUES ('delete', OLD.rowid, OLD.title, OLD.description);
+                        INSERT INTO archived_tasks_fts(rowid, title, description)
+                        VALUES (NEW.rowid, NEW.title, NEW.description);
+                    END
+                    """);
+            statement.executeUpdate(
+                    "INSERT INTO archived_tasks_fts(archived_tasks_fts, rank) VALUES ('rank', 'bm25(10.0, 1.0)')"
+            );
+        }
+    }
+
+    private void addDependencyLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // type has been stored since migration 1 but only ever held FINISH_START; lag_days completes the link.
+            if (!tableHasColumn(connection, "dependencies", "lag_days")) {
+                statement.executeUpdate("ALTER TABLE dependencies ADD COLUMN lag_days INTEGER NOT NULL DEFAULT 0");
+            }
+            if (!tableHasColumn(connection, "archived_dependencies", "lag_days")) {
+                statement.executeUpdate("ALTER TABLE archived_dependencies ADD COLUMN lag_days INTEGER NOT NULL DEFAULT 0");
+            }
+            // The update trigger only journals rows whose listed columns changed, so a lag edit needs the column.
+            for (String operation : List.of("insert", "update", "delete")) {
+                statement.executeUpdate("DROP TRIGGER IF EXISTS trg_dependencies_" + operation + "_journal");
+            }
+            createJournalTriggers(statement, "dependencies", "DEPENDENCY", "id", List.of(
+                    "id", "from_task_id", "to_task_id", "type", "lag_days"
+            ));
+        }
+    }
+
+    private void journalDescriptionsSeparately(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Copying the description into both payloads and the WHEN comparison made every date drag journal the
+            // full text twice. Other columns keep their payload; a description edit gets an entry of its own that
+            // only says so, and readers fetch the text by id.
+            for (String operation : List.of("insert", "update", "delete")) {
+                statement.executeUpdate("DROP TRIGGER IF EXISTS trg_tasks_" + operation + "_journal");
+            }
+            createJournalTriggers(statement, "tasks", "TASK", "id", List.of(
+                    "id", "project_id", "title", "start_date", "due_date", "progress", "status"
+            ));
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_description_journal AFTER UPDATE OF description ON tasks
+                    WHEN OLD.description IS NOT NEW.description
+                    BEGIN
+                        INSERT INTO change_log(entity, entity_id, operation, before_json, after_json, changed_at)
+                        VALUES ('TASK', NEW.id, 'UPDATE', NULL, json_object('description_changed', json('true')),
+                                %s);
+                    END
+                    """.formatted(CHANGED_AT_MILLIS));
+        }
+    }
+
+    private void recordStatusEntries(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // The burndown report dates completions from here rather than from change_log, which maintenance prunes.
+            // One row per task and status, holding the latest time the task moved into it.
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS task_status_entries (
+                        task_id TEXT NOT NULL,
+                        status TEXT NOT NULL,
+                        entered_at INTEGER NOT NULL,
+                        PRIMARY KEY(task_id, status)
+                    ) WITHOUT ROWID
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_status_entry AFTER UPDATE OF status ON tasks
+                    WHEN OLD.status IS NOT NEW.status
+                    BEGIN
+                        INSERT INTO task_status_entries(task_id, status, entered_at)
+                        VALUES (NEW.id, NEW.status, %s)
+                        ON CONFLICT(task_id, status) DO UPDATE SET entered_at = excluded.entered_at;
+                    END
+                    """.formatted(CHANGED_AT_MILLIS));
+            // No foreign key: entries follow a task into the archive and back, as archived dependencies do, and are
+            // only dropped once the task is gone from both tables.
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_tasks_delete_status_entries AFTER DELETE ON tasks
+                    WHEN NOT EXISTS (SELECT 1 FROM archived_tasks WHERE id = OLD.id)
+                    BEGIN
+                        DELETE FROM task_status_entries WHERE task_id = OLD.id;
+                    END
+                    """);
+            statement.executeUpdate("""
+                    CREATE TRIGGER IF NOT EXISTS trg_archived_tasks_delete_status_entries AFTER DELETE ON archived_tasks
+                    WHEN NOT EXISTS (SELECT 1 FROM tasks WHERE id = OLD.id)
+                    BEGIN
+                        DELETE FROM task_status_entries WHERE task_id = OLD.id;
+                    END
+                    """);
+            // Carry over what the journal still remembers.
+            statement.executeUpdate("""
+                    INSERT OR IGNORE INTO task_status_entries(task_id, status, entered_at)
+                    SELECT entity_id, json_extract(after_json, '$.status'), MAX(changed_at)
+                    FROM change_log
+                    WHERE entity = 'TASK'
+                      AND operation = 'UPDATE'
+                      AND json_extract(after_json, '$.status') IS NOT NULL
+                      AND json_extract(after_json, '$.status') IS NOT json_extract(before_json, '$.status')
+                      AND (entity_id IN (SELECT id FROM tasks) OR entity_id IN (SELECT id FROM archived_tasks))
+                    GROUP BY entity_id, json_extract(after_json, '$.status')
+                    """);
+        }
+    }
+
+    private void createJournalTriggers(
+            Statement statement,
+            String table,
+            String entity,
+            String idColumn,
+            List<String> columns
+    ) throws SQLException {
+        String insert = "INSERT INTO change_log(entity, entity_id, operation, before_json, after_json, changed_at) VALUES ('"
+                + entity + "', ";
+        statement.executeUpdate("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_insert_journal AFTER INSERT ON " + table
+                + " BEGIN " + insert + "CAST(NEW." + idColumn + " AS TEXT), 'INSERT', NULL, " + jsonObject("NEW", columns)
+                + ", " + CHANGED_AT_MILLIS + "); END");
+        // Upserts that rewrite a row with identical values are not changes and must not bump the revision.
+        statement.executeUpdate("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_update_journal AFTER UPDATE ON " + table
+                + " WHEN " + rowValue("OLD", columns) + " IS NOT " + rowValue("NEW", columns)
+                + " BEGIN " + insert + "CAST(NEW." + idColumn + " AS TEXT), 'UPDATE', " + jsonObject("OLD", columns) + ", "
+                + jsonObject("NEW", columns) + ", " + CHANGED_AT_MILLIS + "); END");
+        statement.executeUpdate("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_delete_journal AFTER DELETE ON " + table
+                + " BEGIN " + insert + "CAST(OLD." + idColumn + " AS TEXT), 'DELETE', " + jsonObject("OLD", columns)
+                + ", NULL, " + CHANGED_AT_MILLIS + "); END");
+    }
+
+    private static String jsonObject(String row, List<String> columns) {
+        StringBuilder json = new StringBuilder("json_object(");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append('\'').append(columns.get(i)).append("', ").append(row).append('.').append(columns.get(i));
+        }
+        return json.append(')').toString();
+    }
+
+    private static String rowValue(String row, List<String> columns) {
+        StringBuilder value = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                value.append(", ");
+            }
+            value.append(row).append('.').append(columns.get(i));
+        }
+        return value.append(')').toString();
+    }
+
+    private int userVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private boolean tableHasColumn(Connection connection, String tableName, String columnName) throws SQLException {
+        return columnType(connection, tableName, columnName) != null;
+    }
+
+    private String columnType(Connection connection, String tableName, String columnName) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA table_info(" + tableName + ")")) {
+            while (rs.next()) {
+                if (columnName.equalsIgnoreCase(rs.getString("name"))) {
+                    return rs.getString("type");
+                }
+            }
+            return null;
+        }
+    }
+
+    private static void debugSql(String message) {
+        if (!SQL_DEBUG) {
+            return;
+        }
+        System.out.println(System.nanoTime() + " [SqliteMigration][" + Thread.currentThread().getName() + "] " + message);
+    }
+
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private record Migration(int version, String name, boolean rebuildsTables, boolean transactional, MigrationStep step) {
+        Migration(int version, String name, boolean rebuildsTables, MigrationStep step) {
+            this(version, name, rebuildsTables, true, step);
+        }
+    }
+
+    public record AppliedMigration(int version, String name, long elapsedNanos) {
+    }
+
+    public record Report(int fromVersion, int toVersion, List<AppliedMigration> applied, long elapsedNanos) {
+    }
 }
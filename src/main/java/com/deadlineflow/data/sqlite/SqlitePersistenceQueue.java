@@ -0,0 +1,651 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind queue for task and dependency writes. Callers apply changes to the in-memory store first and enqueue
+ * the write here; repeated writes to the same row inside the coalescing window collapse into one, and everything
+ * pending is committed in a single transaction on a dedicated persistence thread.
+ */
+public class SqlitePersistenceQueue implements AutoCloseable {
+    public static final long DEFAULT_COALESCE_WINDOW_MILLIS = 250;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private static final String UPSERT_TASK_SQL = """
+            INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET
+                project_id = excluded.project_id,
+                title = excluded.title,
+                start_date = excluded.start_date,
+                due_date = excluded.due_date,
+                progress = excluded.progress,
+                status = excluded.status
+            """;
+    private static final String DELETE_TASK_SQL = "DELETE FROM tasks WHERE id = ?";
+    // Descriptions are written on their own so saving a task row never rewrites a large description.
+    private static final String UPDATE_DESCRIPTION_SQL = "UPDATE tasks SET description = ? WHERE id = ?";
+    private static final String UPSERT_DEPENDENCY_SQL = """
+            INSERT INTO dependencies(id, from_task_id, to_task_id, type, lag_days)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(id) DO UPDATE SET
+                from_task_id = excluded.from_task_id,
+                to_task_id = excluded.to_task_id,
+                type = excluded.type,
+                lag_days = excluded.lag_days
+            """;
+    private static final String DELETE_DEPENDENCY_SQL = "DELETE FROM dependencies WHERE id = ?";
+
+    private final SqliteConnectionManager connections;
+    private final long coalesceWindowMillis;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, PendingWrite> pending = new LinkedHashMap<>();
+    // Tasks moved out of the tasks table by synchronous work; writes for them would put the rows back.
+    private final Set<String> retiredTaskIds = new HashSet<>();
+    // The batch being committed; still consulted by pendingRows and pendingDescription until its commit returns.
+    private List<PendingWrite> inFlight = List.of();
+    private boolean flushScheduled;
+    private int batchesInFlight;
+    private int workQueued;
+    private volatile Thread persistenceThread;
+    private volatile boolean closed;
+    private volatile Consumer<RuntimeException> failureHandler = failure -> {
+    };
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+
+    public SqlitePersistenceQueue(SqliteConnectionManager connections) {
+        this(connections, DEFAULT_COALESCE_WINDOW_MILLIS);
+    }
+
+    public SqlitePersistenceQueue(SqliteConnectionManager connections, long coalesceWindowMillis) {
+        this.connections = connections;
+        this.coalesceWindowMillis = Math.max(0, coalesceWindowMillis);
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "deadlineflow-persistence");
+            thread.setDaemon(true);
+            persistenceThread = thread;
+            return thread;
+        });
+        // close() flushes before shutting down, so a scheduled flush still waiting out its window has nothing left.
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Called when a flush fails and its writes were rolled back, so the caller can resynchronize in-memory state.
+     */
+    public void setFailureHandler(Consumer<RuntimeException> failureHandler) {
+        this.failureHandler = failureHandler == null ? failure -> {
+        } : failureHandler;
+    }
+
+    public void enqueueTaskSave(Task task) {
+        String key = taskKey(task.id());
+        synchronized (lock) {
+            PendingWrite existing = pending.get(key);
+            boolean deleteFirst = existing != null && existing.deleteFirst();
+            put(key, new TaskWrite(task.id(), task, deleteFirst), existing);
+            if (!task.description().isEmpty()) {
+                // The upsert only sets the description on insert; an existing row needs its own update.
+                enqueueDescriptionSave(task.id(), task.description());
+            }
+        }
+    }
+
+    public void enqueueTaskDelete(String taskId) {
+        String key = taskKey(taskId);
+        synchronized (lock) {
+            // ON DELETE CASCADE removes the task's dependencies; pending writes for them would violate the foreign key.
+            Iterator<Map.Entry<String, PendingWrite>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                PendingWrite write = iterator.next().getValue();
+                boolean obsolete = (write instanceof DependencyWrite dependencyWrite && dependencyWrite.touchesTask(taskId))
+                        || (write instanceof DescriptionWrite descriptionWrite && descriptionWrite.taskId().equals(taskId));
+                if (obsolete) {
+                    iterator.remove();
+                    coalesced.incrementAndGet();
+                }
+            }
+            put(key, new TaskWrite(taskId, null, true), pending.get(key));
+        }
+    }
+
+    public void enqueueDescriptionSave(String taskId, String description) {
+        String key = descriptionKey(taskId);
+        synchronized (lock) {
+            put(key, new DescriptionWrite(taskId, description), pending.get(key));
+        }
+    }
+
+    public void enqueueDependencySave(Dependency dependency) {
+        String key = dependencyKey(dependency.id());
+        synchronized (lock) {
+            PendingWrite existing = pending.get(key);
+            boolean deleteFirst = existing != null && existing.deleteFirst();
+            put(key, new DependencyWrite(dependency.id(), dependency, deleteFirst), existing);
+        }
+    }
+
+    public void enqueueDependencyDelete(String dependencyId) {
+        String key = dependencyKey(dependencyId);
+        synchronized (lock) {
+            put(key, new DependencyWrite(dependencyId, null, true), pending.get(key));
+        }
+    }
+
+    /**
+     * Enqueues several writes so that no flush can observe only part of them; they commit in the same transaction.
+     */
+    public void enqueueAtomically(Runnable writes) {
+        synchronized (lock) {
+            writes.run();
+        }
+    }
+
+    /**
+     * Runs {@code work} on the persistence thread once everything enqueued before it has committed, without waiting
+     * for it. For writes that must be ordered after the queued rows, such as cascading deletes and bulk updates; the
+     * caller applies the change in memory first. A failure is reported through the failure handler, and work queued
+     * behind a failed batch is dropped, since the handler resynchronizes memory from disk anyway.
+     */
+    public void enqueueWork(String description, Work work) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Persistence queue is closed");
+            }
+            workQueued++;
+        }
+        enqueued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    flushPending();
+                    runWork(description, work);
+                } catch (RuntimeException ignored) {
+                    // Already reported through the failure handler.
+                } finally {
+                    synchronized (lock) {
+                        workQueued--;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                workQueued--;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs {@code work} on the persistence thread once everything enqueued before it has committed, and waits for its
+     * result. For synchronous writers that move rows the queue also writes, such as archiving: writes enqueued while
+     * it runs commit after it, and the work can still drop them with {@link #retireTasks(Collection)}. Failures are
+     * thrown to the caller rather than reported through the failure handler.
+     */
+    public <T> T call(String description, Call<T> work) {
+        if (Thread.currentThread() == persistenceThread) {
+            flushPending();
+            return callWork(description, work);
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Persistence queue is closed");
+            }
+            workQueued++;
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    flushPending();
+                    return callWork(description, work);
+                } finally {
+                    synchronized (lock) {
+                        workQueued--;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                workQueued--;
+            }
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while " + description, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed " + description, e.getCause());
+        }
+    }
+
+    /**
+     * Drops queued writes for these tasks, and any enqueued for them later, until {@link #reinstateTasks(Collection)}.
+     * Dependency writes touching them go too; they would fail the foreign key.
+     */
+    public void retireTasks(Collection<String> taskIds) {
+        synchronized (lock) {
+            retiredTaskIds.addAll(taskIds);
+            Iterator<PendingWrite> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                if (isRetired(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void reinstateTasks(Collection<String> taskIds) {
+        synchronized (lock) {
+            taskIds.forEach(retiredTaskIds::remove);
+        }
+    }
+
+    /**
+     * Task and dependency rows as they will stand once everything queued or being committed reaches the database.
+     * Readers lay this over rows they read from disk instead of waiting for a flush; take it before the read, so a
+     * batch that commits in between is still covered.
+     */
+    public PendingRows pendingRows() {
+        Set<String> deletedTaskIds = new HashSet<>();
+        Map<String, Task> savedTasks = new HashMap<>();
+        Set<String> deletedDependencyIds = new HashSet<>();
+        Map<String, Dependency> savedDependencies = new HashMap<>();
+        synchronized (lock) {
+            for (Collection<PendingWrite> writes : List.of(inFlight, pending.values())) {
+                for (PendingWrite write : writes) {
+                    if (write instanceof TaskWrite taskWrite) {
+                        if (taskWrite.deleteFirst()) {
+                            deletedTaskIds.add(taskWrite.taskId());
+                            savedTasks.remove(taskWrite.taskId());
+                            // The delete cascades to dependencies committed in earlier batches or earlier in this one.
+                            savedDependencies.values().removeIf(dependency -> touches(dependency, taskWrite.taskId()));
+                        }
+                        if (taskWrite.task() != null) {
+                            savedTasks.put(taskWrite.taskId(), taskWrite.task());
+                        }
+                    } else if (write instanceof DependencyWrite dependencyWrite) {
+                        if (dependencyWrite.deleteFirst()) {
+                            deletedDependencyIds.add(dependencyWrite.dependencyId());
+                            savedDependencies.remove(dependencyWrite.dependencyId());
+                        }
+                        if (dependencyWrite.dependency() != null) {
+                            savedDependencies.put(dependencyWrite.dependencyId(), dependencyWrite.dependency());
+                        }
+                    }
+                }
+            }
+        }
+        return new PendingRows(deletedTaskIds, savedTasks, deletedDependencyIds, savedDependencies);
+    }
+
+    /**
+     * The description a task will have once its queued writes commit, or empty when nothing queued changes it.
+     */
+    public Optional<String> pendingDescription(String taskId) {
+        String taskKey = taskKey(taskId);
+        String descriptionKey = descriptionKey(taskId);
+        synchronized (lock) {
+            Optional<String> inFlightDescription = descriptionIn(inFlight, taskId);
+            // A description write in the pending map always follows the latest task delete, which purged older ones.
+            if (pending.get(descriptionKey) instanceof DescriptionWrite descriptionWrite) {
+                return Optional.of(descriptionWrite.description());
+            }
+            if (pending.get(taskKey) instanceof TaskWrite taskWrite && taskWrite.deleteFirst()) {
+                return Optional.of(taskWrite.task() == null ? Task.DEFAULT_DESCRIPTION : taskWrite.task().description());
+            }
+            return inFlightDescription;
+        }
+    }
+
+    /**
+     * Commits everything enqueued so far and waits for it. Synchronous writers call this first so their statements
+     * are ordered after the queued ones.
+     */
+    public void flush() {
+        if (Thread.currentThread() == persistenceThread || executor.isShutdown()) {
+            flushPending();
+            return;
+        }
+        Future<?> future = executor.submit(this::flushPending);
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing pending writes", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed flushing pending writes", e.getCause());
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * True when nothing is queued and no batch is being committed, i.e. every write applied in memory so far is
+     * visible to other connections.
+     */
+    public boolean isIdle() {
+        synchronized (lock) {
+            return pending.isEmpty() && batchesInFlight == 0 && workQueued == 0;
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(enqueued.get(), coalesced.get(), transactions.get(), rowsWritten.get(), lastFlushNanos.get());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void put(String key, PendingWrite write, PendingWrite existing) {
+        if (closed) {
+            throw new IllegalStateException("Persistence queue is closed");
+        }
+        if (isRetired(write)) {
+            return;
+        }
+        // LinkedHashMap keeps the first insertion position, so a coalesced row still commits before rows created after it.
+        pending.put(key, write);
+        enqueued.incrementAndGet();
+        if (existing != null) {
+            coalesced.incrementAndGet();
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flushScheduled, coalesceWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushScheduled() {
+        try {
+            flushPending();
+        } catch (RuntimeException ignored) {
+            // Already reported through the failure handler; the scheduler thread must stay alive.
+        }
+    }
+
+    private void flushPending() {
+        List<PendingWrite> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            inFlight = batch;
+            batchesInFlight++;
+        }
+        try {
+            commit(batch);
+        } finally {
+            synchronized (lock) {
+                batchesInFlight--;
+                if (inFlight == batch) {
+                    inFlight = List.of();
+                }
+            }
+        }
+    }
+
+    private void runWork(String description, Work work) {
+        long start = System.nanoTime();
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            work.run(lease);
+        } catch (SQLException | RuntimeException e) {
+            IllegalStateException failure = new IllegalStateException("Failed " + description, e);
+            failureHandler.accept(failure);
+            throw failure;
+        }
+        transactions.incrementAndGet();
+        lastFlushNanos.set(System.nanoTime() - start);
+    }
+
+    private <T> T callWork(String description, Call<T> work) {
+        long start = System.nanoTime();
+        T result;
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            result = work.run(lease);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed " + description, e);
+        }
+        transactions.incrementAndGet();
+        lastFlushNanos.set(System.nanoTime() - start);
+        return result;
+    }
+
+    private boolean isRetired(PendingWrite write) {
+        if (retiredTaskIds.isEmpty()) {
+            return false;
+        }
+        return switch (write) {
+            case TaskWrite taskWrite -> retiredTaskIds.contains(taskWrite.taskId());
+            case DescriptionWrite descriptionWrite -> retiredTaskIds.contains(descriptionWrite.taskId());
+            case DependencyWrite dependencyWrite -> dependencyWrite.dependency() != null
+                    && (retiredTaskIds.contains(dependencyWrite.dependency().fromTaskId())
+                    || retiredTaskIds.contains(dependencyWrite.dependency().toTaskId()));
+        };
+    }
+
+    private static Optional<String> descriptionIn(List<PendingWrite> batch, String taskId) {
+        // Within a batch, description updates run after the task deletes and upserts.
+        Optional<String> description = Optional.empty();
+        for (PendingWrite write : batch) {
+            if (write instanceof DescriptionWrite descriptionWrite && descriptionWrite.taskId().equals(taskId)) {
+                return Optional.of(descriptionWrite.description());
+            }
+            if (write instanceof TaskWrite taskWrite && taskWrite.taskId().equals(taskId) && taskWrite.deleteFirst()) {
+                description = Optional.of(taskWrite.task() == null ? Task.DEFAULT_DESCRIPTION : taskWrite.task().description());
+            }
+        }
+        return description;
+    }
+
+    private static boolean touches(Dependency dependency, String taskId) {
+        return dependency.fromTaskId().equals(taskId) || dependency.toTaskId().equals(taskId);
+    }
+
+    private void commit(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement upsertTask = lease.prepare(UPSERT_TASK_SQL);
+                PreparedStatement deleteTask = lease.prepare(DELETE_TASK_SQL);
+                PreparedStatement updateDescription = lease.prepare(UPDATE_DESCRIPTION_SQL);
+                PreparedStatement upsertDependency = lease.prepare(UPSERT_DEPENDENCY_SQL);
+                PreparedStatement deleteDependency = lease.prepare(DELETE_DEPENDENCY_SQL);
+                // Batches run task deletes, task upserts, description updates, dependency deletes, then dependency
+                // upserts. Writes that a task delete would make obsolete were purged at enqueue time, so this order
+                // always satisfies the foreign keys.
+                for (PendingWrite write : batch) {
+                    if (write instanceof TaskWrite taskWrite) {
+                        if (taskWrite.deleteFirst()) {
+                            deleteTask.setString(1, taskWrite.taskId());
+                            deleteTask.addBatch();
+                        }
+                        if (taskWrite.task() != null) {
+                            bindTask(upsertTask, taskWrite.task());
+                            upsertTask.addBatch();
+                        }
+                    } else if (write instanceof DescriptionWrite descriptionWrite) {
+                        updateDescription.setString(1, descriptionWrite.description());
+                        updateDescription.setString(2, descriptionWrite.taskId());
+                        updateDescription.addBatch();
+                    } else if (write instanceof DependencyWrite dependencyWrite) {
+                        if (dependencyWrite.deleteFirst()) {
+                            deleteDependency.setString(1, dependencyWrite.dependencyId());
+                            deleteDependency.addBatch();
+                        }
+                        if (dependencyWrite.dependency() != null) {
+                            bindDependency(upsertDependency, dependencyWrite.dependency());
+                            upsertDependency.addBatch();
+                        }
+                    }
+                }
+                deleteTask.executeBatch();
+                upsertTask.executeBatch();
+                updateDescription.executeBatch();
+                deleteDependency.executeBatch();
+                upsertDependency.executeBatch();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | RuntimeException e) {
+            IllegalStateException failure = new IllegalStateException("Failed persisting " + batch.size() + " pending writes", e);
+            failureHandler.accept(failure);
+            throw failure;
+        }
+        transactions.incrementAndGet();
+        rowsWritten.addAndGet(batch.size());
+        lastFlushNanos.set(System.nanoTime() - start);
+    }
+
+    private static void bindTask(PreparedStatement statement, Task task) throws SQLException {
+        statement.setString(1, task.id());
+        statement.setLong(2, task.projectId());
+        statement.setString(3, task.title());
+        statement.setString(4, task.description());
+        statement.setLong(5, task.startDate().toEpochDay());
+        statement.setLong(6, task.dueDate().toEpochDay());
+        statement.setInt(7, task.progress());
+        statement.setString(8, task.status());
+    }
+
+    private static void bindDependency(PreparedStatement statement, Dependency dependency) throws SQLException {
+        statement.setString(1, dependency.id());
+        statement.setString(2, dependency.fromTaskId());
+        statement.setString(3, dependency.toTaskId());
+        statement.setString(4, dependency.type().name());
+        statement.setInt(5, dependency.lagDays());
+    }
+
+    private static String taskKey(String taskId) {
+        return "task:" + taskId;
+    }
+
+    private static String descriptionKey(String taskId) {
+        return "description:" + taskId;
+    }
+
+    private static String dependencyKey(String dependencyId) {
+        return "dependency:" + dependencyId;
+    }
+
+    private sealed interface PendingWrite permits TaskWrite, DescriptionWrite, DependencyWrite {
+        boolean deleteFirst();
+    }
+
+    private record TaskWrite(String taskId, Task task, boolean deleteFirst) implements PendingWrite {
+    }
+
+    private record DescriptionWrite(String taskId, String description) implements PendingWrite {
+        @Override
+        public boolean deleteFirst() {
+            return false;
+        }
+    }
+
+    private record DependencyWrite(String dependencyId, Dependency dependency, boolean deleteFirst) implements PendingWrite {
+        boolean touchesTask(String taskId) {
+            return dependency != null && touches(dependency, taskId);
+        }
+    }
+
+    /**
+     * A write run on the persistence thread with the writer connection; it manages its own transaction.
+     */
+    @FunctionalInterface
+    public interface Work {
+        void run(SqliteConnectionManager.Lease lease) throws SQLException;
+    }
+
+    /**
+     * Synchronous work run on the persistence thread with the writer connection; it manages its own transaction.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T run(SqliteConnectionManager.Lease lease) throws SQLException;
+    }
+
+    /**
+     * Queued row changes: rows in the deleted sets are gone, then the saved rows are upserted. A deleted task also
+     * takes its committed dependencies with it.
+     */
+    public record PendingRows(
+            Set<String> deletedTaskIds,
+            Map<String, Task> savedTasks,
+            Set<String> deletedDependencyIds,
+            Map<String, Dependency> savedDependencies
+    ) {
+        public boolean touchesTask(String taskId) {
+            return deletedTaskIds.contains(taskId) || savedTasks.containsKey(taskId);
+        }
+
+        public boolean isEmpty() {
+            return deletedTaskIds.isEmpty() && savedTasks.isEmpty() && deletedDependencyIds.isEmpty() && savedDependencies.isEmpty();
+        }
+    }
+
+    public record Metrics(long enqueued, long coalesced, long transactions, long rowsWritten, long lastFlushNanos) {
+    }
+}
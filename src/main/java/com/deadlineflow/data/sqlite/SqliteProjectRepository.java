@@ -4,7 +4,6 @@ import com.deadlineflow.data.repository.ProjectRepository;
 import com.deadlineflow.domain.model.Project;
 import javafx.collections.ObservableList;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -12,11 +11,17 @@ import java.sql.Statement;
 import java.util.Optional;
 
 public class SqliteProjectRepository implements ProjectRepository {
-    private final SqliteDatabase database;
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
     private final SqliteWorkspaceStore workspaceStore;
 
-    public SqliteProjectRepository(SqliteDatabase database, SqliteWorkspaceStore workspaceStore) {
-        this.database = database;
+    public SqliteProjectRepository(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteWorkspaceStore workspaceStore
+    ) {
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
         this.workspaceStore = workspaceStore;
     }
 
@@ -27,7 +32,7 @@ public class SqliteProjectRepository implements ProjectRepository {
 
     @Override
     public Optional<Project> findById(long id) {
-        return workspaceStore.projects().stream().filter(p -> p.id() == id).findFirst();
+        return workspaceStore.findProject(id);
     }
 
     @Override
@@ -40,21 +45,18 @@ public class SqliteProjectRepository implements ProjectRepository {
 
     @Override
     public void delete(long projectId) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement("DELETE FROM projects WHERE id = ?")) {
+        workspaceStore.applyProjectRemoved(projectId);
+        // The cascade must see every queued task/dependency write, otherwise a late upsert would resurrect rows.
+        persistenceQueue.enqueueWork("deleting project " + projectId, lease -> {
+            PreparedStatement statement = lease.prepare("DELETE FROM projects WHERE id = ?");
             statement.setLong(1, projectId);
             statement.executeUpdate();
-            workspaceStore.reloadProjects();
-            workspaceStore.reloadTasks();
-            workspaceStore.reloadDependencies();
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed deleting project", e);
-        }
+        });
     }
 
     private Project insert(Project project) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
+        try (SqliteConnectionManager.Lease lease = connections.writer();
+             PreparedStatement statement = lease.connection().prepareStatement(
                      "INSERT INTO projects(name, color, priority) VALUES (?, ?, ?)",
                      Statement.RETURN_GENERATED_KEYS
              )) {
@@ -71,24 +73,25 @@ public class SqliteProjectRepository implements ProjectRepository {
                 generatedId = generatedKeys.getLong(1);
             }
 
-            workspaceStore.reloadProjects();
-            return project.withId(generatedId);
+            Project created = project.withId(generatedId);
+            workspaceStore.applyProjectSaved(created);
+            return created;
         } catch (SQLException e) {
             throw new IllegalStateException("Failed creating project", e);
         }
     }
 
     private Project update(Project project) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "UPDATE projects SET name = ?, color = ?, priority = ? WHERE id = ?"
-             )) {
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            PreparedStatement statement = lease.prepare(
+                    "UPDATE projects SET name = ?, color = ?, priority = ? WHERE id = ?"
+            );
             statement.setString(1, project.name());
             statement.setString(2, project.color());
             statement.setInt(3, project.priority());
             statement.setLong(4, project.id());
             statement.executeUpdate();
-            workspaceStore.reloadProjects();
+            workspaceStore.applyProjectSaved(project);
             return project;
         } catch (SQLException e) {
             throw new IllegalStateException("Failed updating project", e);
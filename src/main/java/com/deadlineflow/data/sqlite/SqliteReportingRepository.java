@@ -0,0 +1,277 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ReportingRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs reports on a dedicated SQLITE_OPEN_READONLY connection outside the connection manager's pool, so a slow
+ * report neither holds a reader the UI needs nor competes with it for the statement cache. Every report is one read
+ * transaction: under WAL it sees a single committed snapshot for its whole run while the writer keeps committing.
+ */
+public class SqliteReportingRepository implements ReportingRepository, AutoCloseable {
+    private static final boolean SQL_DEBUG = Boolean.getBoolean("deadlineflow.debug.sql");
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+    private static final int CACHE_SIZE_KIB = 32 * 1024;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // A range scan; bucketing happens in Java with difference arrays, which stays linear in tasks + days where a
+    // weeks-by-tasks join in SQL took over a second for two years of a 50k-task workspace.
+    private static final String WORKLOAD_SQL = """
+            SELECT start_date, due_date, status = ? AS done
+            FROM tasks
+            WHERE due_date >= ? AND start_date <= ? %s
+            """;
+    // The latest time each task moved into the done status, from task_status_entries, which journal pruning leaves
+    // alone. Tasks created as done (imports) have no entry and fall back to their due date.
+    private static final String COMPLETION_DAYS_SQL = """
+            SELECT CASE WHEN t.status = ? THEN COALESCE(e.entered_at / %d, t.due_date) END AS done_day
+            FROM tasks t
+            LEFT JOIN task_status_entries e ON e.task_id = t.id AND e.status = t.status
+            WHERE t.project_id = ?
+            """.formatted(MILLIS_PER_DAY);
+    private static final String ROLLUP_SQL = """
+            SELECT p.id,
+                   p.name,
+                   COUNT(t.id) AS tasks,
+                   COALESCE(SUM(t.status = ?), 0) AS done_tasks,
+                   COALESCE(SUM(t.status <> ? AND t.due_date < ?), 0) AS overdue_tasks,
+                   COALESCE(AVG(t.progress), 0) AS average_progress,
+                   MIN(t.start_date) AS first_start,
+                   MAX(t.due_date) AS last_due,
+                   (SELECT COUNT(*) FROM archived_tasks a WHERE a.project_id = p.id) AS archived_tasks
+            FROM projects p
+            LEFT JOIN tasks t ON t.project_id = p.id
+            GROUP BY p.id
+            ORDER BY p.priority ASC, p.name ASC
+            """;
+
+    private final SqliteDatabase database;
+    private final SqlitePersistenceQueue persistenceQueue;
+    // Reports are serialized on the one connection; they are rare and each is a single transaction.
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection connection;
+    private boolean closed;
+
+    public SqliteReportingRepository(SqliteDatabase database, SqlitePersistenceQueue persistenceQueue) {
+        this.database = database;
+        this.persistenceQueue = persistenceQueue;
+    }
+
+    @Override
+    public List<WorkloadBucket> workloadByWeek(Long projectId, LocalDate from, LocalDate to, String doneStatus) {
+        long firstDay = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+        int weeks = (int) ((to.toEpochDay() - firstDay) / 7) + 1;
+        long lastDay = firstDay + weeks * 7L - 1;
+        String sql = WORKLOAD_SQL.formatted(projectId == null ? "" : "AND project_id = ?");
+        return inSnapshot("workload", connection -> {
+            // Per-week task and done counts, and per-day active counts that sum to task-days, as difference arrays.
+            int[] tasksDelta = new int[weeks + 1];
+            int[] doneDelta = new int[weeks + 1];
+            int[] activeDelta = new int[weeks * 7 + 1];
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, doneStatus);
+                statement.setLong(2, firstDay);
+                statement.setLong(3, lastDay);
+                if (projectId != null) {
+                    statement.setLong(4, projectId);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        int firstOffset = (int) (Math.max(rs.getLong("start_date"), firstDay) - firstDay);
+                        int lastOffset = (int) (Math.min(rs.getLong("due_date"), lastDay) - firstDay);
+                        tasksDelta[firstOffset / 7]++;
+                        tasksDelta[lastOffset / 7 + 1]--;
+                        if (rs.getBoolean("done")) {
+                            doneDelta[firstOffset / 7]++;
+                            doneDelta[lastOffset / 7 + 1]--;
+                        }
+                        activeDelta[firstOffset]++;
+                        activeDelta[lastOffset + 1]--;
+                    }
+                }
+            }
+            List<WorkloadBucket> result = new ArrayList<>(weeks);
+            int tasks = 0;
+            int done = 0;
+            int active = 0;
+            for (int week = 0; week < weeks; week++) {
+                tasks += tasksDelta[week];
+                done += doneDelta[week];
+                long taskDays = 0;
+                for (int day = week * 7; day < week * 7 + 7; day++) {
+                    active += activeDelta[day];
+                    taskDays += active;
+                }
+                result.add(new WorkloadBucket(LocalDate.ofEpochDay(firstDay + week * 7L), tasks, done, taskDays));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<BurndownPoint> burndown(long projectId, LocalDate from, LocalDate to, String doneStatus) {
+        return inSnapshot("burndown", connection -> {
+            int total = 0;
+            int completedBefore = 0;
+            TreeMap<Long, Integer> completedOn = new TreeMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(COMPLETION_DAYS_SQL)) {
+                statement.setString(1, doneStatus);
+                statement.setLong(2, projectId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        total++;
+                        long doneDay = rs.getLong("done_day");
+                        if (rs.wasNull()) {
+                            continue;
+                        }
+                        if (doneDay < from.toEpochDay()) {
+                            completedBefore++;
+                        } else {
+                            completedOn.merge(doneDay, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+            List<BurndownPoint> result = new ArrayList<>();
+            int completed = completedBefore;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                completed += completedOn.getOrDefault(day.toEpochDay(), 0);
+                result.add(new BurndownPoint(day, total - completed, completed));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public List<ProjectRollup> projectRollups(LocalDate today, String doneStatus) {
+        return inSnapshot("rollups", connection -> {
+            List<ProjectRollup> result = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(ROLLUP_SQL)) {
+                statement.setString(1, doneStatus);
+                statement.setString(2, doneStatus);
+                statement.setLong(3, today.toEpochDay());
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        long firstStart = rs.getLong("first_start");
+                        boolean empty = rs.wasNull();
+                        result.add(new ProjectRollup(
+                                rs.getLong("id"),
+                                rs.getString("name"),
+                                rs.getInt("tasks"),
+                                rs.getInt("done_tasks"),
+                                rs.getInt("overdue_tasks"),
+                                rs.getDouble("average_progress"),
+                                empty ? null : LocalDate.ofEpochDay(firstStart),
+                                empty ? null : LocalDate.ofEpochDay(rs.getLong("last_due")),
+                                rs.getInt("archived_tasks")
+                        ));
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            closeConnection();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T inSnapshot(String report, SnapshotQuery<T> query) {
+        // Edits still queued in memory are committed first, as for search, so reports match what the user sees.
+        if (persistenceQueue.pendingCount() > 0) {
+            persistenceQueue.flush();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Reporting repository is closed");
+            }
+            Connection snapshot = connection();
+            long start = System.nanoTime();
+            snapshot.setAutoCommit(false);
+            try {
+                return query.run(snapshot);
+            } finally {
+                // Ends the read transaction so the WAL can be checkpointed past this snapshot.
+                snapshot.rollback();
+                snapshot.setAutoCommit(true);
+                debugSql(report + " took " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        } catch (SQLException e) {
+            // A broken connection is reopened by the next report.
+            closeConnection();
+            throw new IllegalStateException("Failed running " + report + " report", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection != null) {
+            return connection;
+        }
+        Connection opened = database.openReadOnlyConnection();
+        try (Statement statement = opened.createStatement()) {
+            // A read transaction only leaves the writer alone in WAL mode; in rollback-journal mode it would block
+            // every commit for as long as the report runs.
+            try (ResultSet rs = statement.executeQuery("PRAGMA journal_mode")) {
+                String mode = rs.next() ? rs.getString(1) : "";
+                if (!"wal".equals(mode.toLowerCase(Locale.ROOT))) {
+                    throw new SQLException("Reporting needs a WAL-mode database, found journal_mode=" + mode);
+                }
+            }
+            statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            statement.execute("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+            statement.execute("PRAGMA temp_store = MEMORY");
+        } catch (SQLException e) {
+            opened.close();
+            throw e;
+        }
+        connection = opened;
+        return connection;
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Nothing left to release.
+        }
+        connection = null;
+    }
+
+    private static void debugSql(String message) {
+        if (!SQL_DEBUG) {
+            return;
+        }
+        System.out.println(System.nanoTime() + " [SqliteReportingRepository][" + Thread.currentThread().getName() + "] " + message);
+    }
+
+    @FunctionalInterface
+    private interface SnapshotQuery<T> {
+        T run(Connection connection) throws SQLException;
+    }
+}
@@ -6,16 +6,15 @@ import javafx.collections.ObservableList;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.Optional;
 
 public class SqliteStatusRepository implements StatusRepository {
-    private final SqliteDatabase database;
+    private final SqlitePersistenceQueue persistenceQueue;
     private final SqliteWorkspaceStore workspaceStore;
 
-    public SqliteStatusRepository(SqliteDatabase database, SqliteWorkspaceStore workspaceStore) {
-        this.database = database;
+    public SqliteStatusRepository(SqlitePersistenceQueue persistenceQueue, SqliteWorkspaceStore workspaceStore) {
+        this.persistenceQueue = persistenceQueue;
         this.workspaceStore = workspaceStore;
     }
 
@@ -27,24 +26,20 @@ public class SqliteStatusRepository implements StatusRepository {
     @Override
     public void add(String name) {
         String normalized = normalize(name);
-        if (existsIgnoreCase(normalized)) {
+        if (find(normalized).isPresent()) {
             throw new IllegalArgumentException("Status already exists");
         }
 
-        try (Connection connection = database.openConnection()) {
+        workspaceStore.applyStatusAdded(normalized);
+        persistenceQueue.enqueueWork("adding status", lease -> {
             // Status definitions are stored in SQLite to persist user-defined status choices across launches.
-            int nextOrder = nextDisplayOrder(connection);
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "INSERT INTO task_statuses(name, display_order, is_protected) VALUES (?, ?, 0)"
-            )) {
-                statement.setString(1, normalized);
-                statement.setInt(2, nextOrder);
-                statement.executeUpdate();
-            }
-            workspaceStore.reloadStatuses();
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed adding status", e);
-        }
+            PreparedStatement statement = lease.prepare("""
+                    INSERT INTO task_statuses(name, display_order, is_protected)
+                    SELECT ?, COALESCE(MAX(display_order), -1) + 1, 0 FROM task_statuses
+                    """);
+            statement.setString(1, normalized);
+            statement.executeUpdate();
+        });
     }
 
     @Override
@@ -55,48 +50,32 @@ public class SqliteStatusRepository implements StatusRepository {
         if (existing.equalsIgnoreCase(replacement)) {
             return;
         }
-        if (existsIgnoreCase(replacement)) {
+        if (find(replacement).isPresent()) {
             throw new IllegalArgumentException("Status already exists");
         }
+        if (requireStatus(existing).isProtected()) {
+            throw new IllegalArgumentException("Protected status cannot be renamed");
+        }
 
-        try (Connection connection = database.openConnection()) {
-            connection.setAutoCommit(false);
-            try {
-                if (isProtected(connection, existing)) {
-                    throw new IllegalArgumentException("Protected status cannot be renamed");
-                }
-
-                try (PreparedStatement renameStatus = connection.prepareStatement(
-                        "UPDATE task_statuses SET name = ? WHERE lower(name) = lower(?)"
-                )) {
-                    renameStatus.setString(1, replacement);
-                    renameStatus.setString(2, existing);
-                    int count = renameStatus.executeUpdate();
-                    if (count == 0) {
-                        throw new IllegalArgumentException("Status not found");
-                    }
-                }
-
-                try (PreparedStatement updateTasks = connection.prepareStatement(
-                        "UPDATE tasks SET status = ? WHERE lower(status) = lower(?)"
-                )) {
-                    updateTasks.setString(1, replacement);
-                    updateTasks.setString(2, existing);
-                    updateTasks.executeUpdate();
-                }
-
-                connection.commit();
-                workspaceStore.reloadStatuses();
-                workspaceStore.reloadTasks();
-            } catch (Exception e) {
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
+        workspaceStore.applyStatusRenamed(existing, replacement);
+        // Queued task writes still carry the old status name; the rename runs after they commit.
+        persistenceQueue.enqueueWork("renaming status", lease -> inTransaction(lease.connection(), connection -> {
+            try (PreparedStatement renameStatus = connection.prepareStatement(
+                    "UPDATE task_statuses SET name = ? WHERE lower(name) = lower(?)"
+            )) {
+                renameStatus.setString(1, replacement);
+                renameStatus.setString(2, existing);
+                renameStatus.executeUpdate();
             }
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed renaming status", e);
-        }
+
+            try (PreparedStatement updateTasks = connection.prepareStatement(
+                    "UPDATE tasks SET status = ? WHERE lower(status) = lower(?)"
+            )) {
+                updateTasks.setString(1, replacement);
+                updateTasks.setString(2, existing);
+                updateTasks.executeUpdate();
+            }
+        }));
     }
 
     @Override
@@ -107,87 +86,53 @@ public class SqliteStatusRepository implements StatusRepository {
         if (target.equalsIgnoreCase(fallback)) {
             throw new IllegalArgumentException("Fallback status must be different");
         }
+        if (requireStatus(target).isProtected()) {
+            throw new IllegalArgumentException("Protected status cannot be deleted");
+        }
+        if (find(fallback).isEmpty()) {
+            throw new IllegalArgumentException("Fallback status does not exist");
+        }
 
-        try (Connection connection = database.openConnection()) {
-            connection.setAutoCommit(false);
-            try {
-                if (isProtected(connection, target)) {
-                    throw new IllegalArgumentException("Protected status cannot be deleted");
-                }
-                if (!existsIgnoreCase(connection, fallback)) {
-                    throw new IllegalArgumentException("Fallback status does not exist");
-                }
-
-                try (PreparedStatement updateTasks = connection.prepareStatement(
-                        "UPDATE tasks SET status = ? WHERE lower(status) = lower(?)"
-                )) {
-                    updateTasks.setString(1, fallback);
-                    updateTasks.setString(2, target);
-                    updateTasks.executeUpdate();
-                }
-
-                try (PreparedStatement deleteStatus = connection.prepareStatement(
-                        "DELETE FROM task_statuses WHERE lower(name) = lower(?)"
-                )) {
-                    deleteStatus.setString(1, target);
-                    int count = deleteStatus.executeUpdate();
-                    if (count == 0) {
-                        throw new IllegalArgumentException("Status not found");
-                    }
-                }
-
-                connection.commit();
-                workspaceStore.reloadStatuses();
-                workspaceStore.reloadTasks();
-            } catch (Exception e) {
-                connection.rollback();
-                throw e;
-            } finally {
-                connection.setAutoCommit(true);
+        workspaceStore.applyStatusRemoved(target, fallback);
+        persistenceQueue.enqueueWork("deleting status", lease -> inTransaction(lease.connection(), connection -> {
+            try (PreparedStatement updateTasks = connection.prepareStatement(
+                    "UPDATE tasks SET status = ? WHERE lower(status) = lower(?)"
+            )) {
+                updateTasks.setString(1, fallback);
+                updateTasks.setString(2, target);
+                updateTasks.executeUpdate();
             }
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed deleting status", e);
-        }
-    }
 
-    private boolean existsIgnoreCase(String name) {
-        try (Connection connection = database.openConnection()) {
-            return existsIgnoreCase(connection, name);
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed checking status existence", e);
-        }
+            try (PreparedStatement deleteStatus = connection.prepareStatement(
+                    "DELETE FROM task_statuses WHERE lower(name) = lower(?)"
+            )) {
+                deleteStatus.setString(1, target);
+                deleteStatus.executeUpdate();
+            }
+        }));
     }
 
-    private boolean existsIgnoreCase(Connection connection, String name) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT 1 FROM task_statuses WHERE lower(name) = lower(?) LIMIT 1"
-        )) {
-            statement.setString(1, name);
-            try (ResultSet rs = statement.executeQuery()) {
-                return rs.next();
-            }
-        }
+    // Memory is ahead of the database while status writes are queued, so validation reads the resident list.
+    private Optional<StatusDefinition> find(String name) {
+        return workspaceStore.statuses().stream()
+                .filter(status -> status.name().equalsIgnoreCase(name))
+                .findFirst();
     }
 
-    private boolean isProtected(Connection connection, String name) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT is_protected FROM task_statuses WHERE lower(name) = lower(?)"
-        )) {
-            statement.setString(1, name);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (!rs.next()) {
-                    throw new IllegalArgumentException("Status not found");
-                }
-                return rs.getInt(1) == 1;
-            }
-        }
+    private StatusDefinition requireStatus(String name) {
+        return find(name).orElseThrow(() -> new IllegalArgumentException("Status not found"));
     }
 
-    private int nextDisplayOrder(Connection connection) throws SQLException {
-        try (Statement statement = connection.createStatement();
-             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(display_order), -1) FROM task_statuses")) {
-            rs.next();
-            return rs.getInt(1) + 1;
+    private static void inTransaction(Connection connection, StatusUpdate update) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            update.run(connection);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
         }
     }
 
@@ -197,4 +142,9 @@ public class SqliteStatusRepository implements StatusRepository {
         }
         return value.trim();
     }
+
+    @FunctionalInterface
+    private interface StatusUpdate {
+        void run(Connection connection) throws SQLException;
+    }
 }
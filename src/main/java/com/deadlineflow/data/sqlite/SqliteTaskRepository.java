@@ -2,19 +2,20 @@ package com.deadlineflow.data.sqlite;
 
 import com.deadlineflow.data.repository.TaskRepository;
 import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
 import javafx.collections.ObservableList;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public class SqliteTaskRepository implements TaskRepository {
-    private final SqliteDatabase database;
+    private final SqlitePersistenceQueue persistenceQueue;
     private final SqliteWorkspaceStore workspaceStore;
 
-    public SqliteTaskRepository(SqliteDatabase database, SqliteWorkspaceStore workspaceStore) {
-        this.database = database;
+    public SqliteTaskRepository(SqlitePersistenceQueue persistenceQueue, SqliteWorkspaceStore workspaceStore) {
+        this.persistenceQueue = persistenceQueue;
         this.workspaceStore = workspaceStore;
     }
 
@@ -25,69 +26,75 @@ public class SqliteTaskRepository implements TaskRepository {
 
     @Override
     public Optional<Task> findById(String taskId) {
-        return workspaceStore.tasks().stream().filter(task -> task.id().equals(taskId)).findFirst();
+        return workspaceStore.findTask(taskId);
+    }
+
+    @Override
+    public void ensureProjectLoaded(long projectId) {
+        workspaceStore.ensureProjectLoaded(projectId);
+    }
+
+    @Override
+    public List<Task> findByProjectId(long projectId) {
+        workspaceStore.ensureProjectLoaded(projectId);
+        return workspaceStore.findTasksByProject(projectId);
+    }
+
+    @Override
+    public int countByProjectId(long projectId) {
+        return workspaceStore.countTasksByProject(projectId);
+    }
+
+    @Override
+    public List<Task> findDueBetween(long projectId, LocalDate fromInclusive, LocalDate toInclusive) {
+        return workspaceStore.findTasksDueBetween(projectId, fromInclusive, toInclusive);
     }
 
     @Override
     public Task save(Task task) {
-        if (findById(task.id()).isPresent()) {
-            return update(task);
-        }
-        return insert(task);
+        // Optimistic: the in-memory store changes now, the row is written by the persistence queue.
+        workspaceStore.applyTaskSaved(task);
+        persistenceQueue.enqueueTaskSave(task);
+        return task;
     }
 
     @Override
     public void delete(String taskId) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement("DELETE FROM tasks WHERE id = ?")) {
-            statement.setString(1, taskId);
-            statement.executeUpdate();
-            workspaceStore.reloadTasks();
-            workspaceStore.reloadDependencies();
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed deleting task", e);
-        }
+        workspaceStore.applyTaskRemoved(taskId);
+        persistenceQueue.enqueueTaskDelete(taskId);
+    }
+
+    @Override
+    public String loadDescription(String taskId) {
+        return workspaceStore.loadDescription(taskId);
+    }
+
+    @Override
+    public void saveDescription(String taskId, String description) {
+        workspaceStore.applyDescriptionSaved(taskId, description);
+        persistenceQueue.enqueueDescriptionSave(taskId, description);
     }
 
-    private Task insert(Task task) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
-             )) {
-            statement.setString(1, task.id());
-            statement.setLong(2, task.projectId());
-            statement.setString(3, task.title());
-            statement.setString(4, task.description());
-            statement.setString(5, task.startDate().toString());
-            statement.setString(6, task.dueDate().toString());
-            statement.setInt(7, task.progress());
-            statement.setString(8, task.status());
-            statement.executeUpdate();
-            workspaceStore.reloadTasks();
-            return task;
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed creating task", e);
+    @Override
+    public void saveAll(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
         }
+        workspaceStore.applyTasksSaved(tasks);
+        persistenceQueue.enqueueAtomically(() -> tasks.forEach(persistenceQueue::enqueueTaskSave));
     }
 
-    private Task update(Task task) {
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "UPDATE tasks SET project_id = ?, title = ?, description = ?, start_date = ?, due_date = ?, progress = ?, status = ? WHERE id = ?"
-             )) {
-            statement.setLong(1, task.projectId());
-            statement.setString(2, task.title());
-            statement.setString(3, task.description());
-            statement.setString(4, task.startDate().toString());
-            statement.setString(5, task.dueDate().toString());
-            statement.setInt(6, task.progress());
-            statement.setString(7, task.status());
-            statement.setString(8, task.id());
-            statement.executeUpdate();
-            workspaceStore.reloadTasks();
-            return task;
-        } catch (SQLException e) {
-            throw new IllegalStateException("Failed updating task", e);
+    @Override
+    public void deleteAll(Collection<String> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
         }
+        workspaceStore.applyTasksRemoved(taskIds);
+        persistenceQueue.enqueueAtomically(() -> taskIds.forEach(persistenceQueue::enqueueTaskDelete));
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, int limit) {
+        return workspaceStore.searchTasks(query, limit);
     }
 }
@@ -0,0 +1,103 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.UnitOfWork;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commits like single saves do: the in-memory store is updated once for the whole unit, and the writes are enqueued
+ * atomically so the persistence queue commits them in one transaction. If that transaction fails it is rolled back
+ * whole and the queue's failure handler resynchronizes memory from disk.
+ */
+public class SqliteUnitOfWork implements UnitOfWork {
+    private final SqlitePersistenceQueue persistenceQueue;
+    private final SqliteWorkspaceStore workspaceStore;
+    private final List<Runnable> writes = new ArrayList<>();
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final Map<String, Dependency> dependencies = new LinkedHashMap<>();
+    private boolean committed;
+
+    public SqliteUnitOfWork(SqlitePersistenceQueue persistenceQueue, SqliteWorkspaceStore workspaceStore) {
+        this.persistenceQueue = persistenceQueue;
+        this.workspaceStore = workspaceStore;
+    }
+
+    @Override
+    public UnitOfWork saveTask(Task task) {
+        ensureOpen();
+        writes.add(() -> persistenceQueue.enqueueTaskSave(task));
+        tasks.put(task.id(), task);
+        return this;
+    }
+
+    @Override
+    public UnitOfWork deleteTask(String taskId) {
+        ensureOpen();
+        writes.add(() -> persistenceQueue.enqueueTaskDelete(taskId));
+        tasks.put(taskId, null);
+        dependencies.values().removeIf(dependency -> dependency != null
+                && (dependency.fromTaskId().equals(taskId) || dependency.toTaskId().equals(taskId)));
+        return this;
+    }
+
+    @Override
+    public UnitOfWork saveDependency(Dependency dependency) {
+        ensureOpen();
+        writes.add(() -> persistenceQueue.enqueueDependencySave(dependency));
+        dependencies.put(dependency.id(), dependency);
+        return this;
+    }
+
+    @Override
+    public UnitOfWork deleteDependency(String dependencyId) {
+        ensureOpen();
+        writes.add(() -> persistenceQueue.enqueueDependencyDelete(dependencyId));
+        dependencies.put(dependencyId, null);
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return writes.size();
+    }
+
+    @Override
+    public void commit() {
+        ensureOpen();
+        committed = true;
+        if (writes.isEmpty()) {
+            return;
+        }
+        List<String> removedTaskIds = new ArrayList<>();
+        List<Task> savedTasks = new ArrayList<>();
+        tasks.forEach((id, task) -> {
+            if (task == null) {
+                removedTaskIds.add(id);
+            } else {
+                savedTasks.add(task);
+            }
+        });
+        List<String> removedDependencyIds = new ArrayList<>();
+        List<Dependency> savedDependencies = new ArrayList<>();
+        dependencies.forEach((id, dependency) -> {
+            if (dependency == null) {
+                removedDependencyIds.add(id);
+            } else {
+                savedDependencies.add(dependency);
+            }
+        });
+        workspaceStore.applyChanges(savedTasks, removedTaskIds, savedDependencies, removedDependencyIds);
+        persistenceQueue.enqueueAtomically(() -> writes.forEach(Runnable::run));
+    }
+
+    private void ensureOpen() {
+        if (committed) {
+            throw new IllegalStateException("Unit of work already committed");
+        }
+    }
+}
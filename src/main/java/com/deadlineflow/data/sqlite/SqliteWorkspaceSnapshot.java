@@ -0,0 +1,234 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.StatusDefinition;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary image of the resident workspace, written on clean shutdown next to the database and memory-mapped on the
+ * next start. Strings are interned into one table and referenced by index; dates are epoch-day ints.
+ * <p>
+ * A snapshot is only used when its schema version and workspace revision match the database and its CRC32 is
+ * intact; anything else falls back to the SQL load.
+ */
+public class SqliteWorkspaceSnapshot {
+    private static final int MAGIC = 0x44465331; // "DFS1"
+    // 2: dependencies carry lag days.
+    private static final int FORMAT_VERSION = 2;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path file;
+
+    public SqliteWorkspaceSnapshot(Path file) {
+        this.file = file;
+    }
+
+    public static SqliteWorkspaceSnapshot forDatabase(Path dbPath) {
+        return new SqliteWorkspaceSnapshot(dbPath.resolveSibling(dbPath.getFileName() + ".snapshot"));
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void write(int schemaVersion, long revision, Contents contents) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Project project : contents.projects()) {
+            intern(project.name(), stringIndex, strings);
+            intern(project.color(), stringIndex, strings);
+        }
+        for (StatusDefinition status : contents.statuses()) {
+            intern(status.name(), stringIndex, strings);
+        }
+        for (Task task : contents.tasks()) {
+            intern(task.id(), stringIndex, strings);
+            intern(task.title(), stringIndex, strings);
+            intern(task.status(), stringIndex, strings);
+        }
+        for (Dependency dependency : contents.dependencies()) {
+            intern(dependency.id(), stringIndex, strings);
+            intern(dependency.fromTaskId(), stringIndex, strings);
+            intern(dependency.toTaskId(), stringIndex, strings);
+            intern(dependency.type().name(), stringIndex, strings);
+        }
+
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        CRC32 crc = new CRC32();
+        try (OutputStream fileOut = Files.newOutputStream(partial);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, BUFFER_BYTES))) {
+            DataOutputStream checked = new DataOutputStream(new CheckedOutputStream(out, crc));
+            checked.writeInt(MAGIC);
+            checked.writeInt(FORMAT_VERSION);
+            checked.writeInt(schemaVersion);
+            checked.writeLong(revision);
+
+            checked.writeInt(strings.size());
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                checked.writeInt(bytes.length);
+                checked.write(bytes);
+            }
+
+            checked.writeInt(contents.projects().size());
+            for (Project project : contents.projects()) {
+                checked.writeLong(project.id());
+                checked.writeInt(stringIndex.get(project.name()));
+                checked.writeInt(stringIndex.get(project.color()));
+                checked.writeInt(project.priority());
+            }
+
+            checked.writeInt(contents.statuses().size());
+            for (StatusDefinition status : contents.statuses()) {
+                checked.writeInt(stringIndex.get(status.name()));
+                checked.writeBoolean(status.isProtected());
+            }
+
+            checked.writeInt(contents.tasks().size());
+            for (Task task : contents.tasks()) {
+                checked.writeInt(stringIndex.get(task.id()));
+                checked.writeLong(task.projectId());
+                checked.writeInt(stringIndex.get(task.title()));
+                checked.writeInt(Math.toIntExact(task.startDate().toEpochDay()));
+                checked.writeInt(Math.toIntExact(task.dueDate().toEpochDay()));
+                checked.writeByte(task.progress());
+                checked.writeInt(stringIndex.get(task.status()));
+            }
+
+            checked.writeInt(contents.dependencies().size());
+            for (Dependency dependency : contents.dependencies()) {
+                checked.writeInt(stringIndex.get(dependency.id()));
+                checked.writeInt(stringIndex.get(dependency.fromTaskId()));
+                checked.writeInt(stringIndex.get(dependency.toTaskId()));
+                checked.writeInt(stringIndex.get(dependency.type().name()));
+                checked.writeShort(dependency.lagDays());
+            }
+            checked.flush();
+            out.writeLong(crc.getValue());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the snapshot contents when the file exists, is intact and was written for this schema version and
+     * workspace revision.
+     */
+    public Optional<Contents> read(int schemaVersion, long revision) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                    || buffer.getInt() != schemaVersion || buffer.getLong() != revision) {
+                return Optional.empty();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - Long.BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(buffer));
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // A torn or foreign file is just a missed shortcut; the caller loads from SQL.
+            return Optional.empty();
+        }
+    }
+
+    private Contents decode(MappedByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int projectCount = buffer.getInt();
+        List<Project> projects = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            long id = buffer.getLong();
+            String name = strings[buffer.getInt()];
+            String color = strings[buffer.getInt()];
+            projects.add(new Project(id, name, color, buffer.getInt()));
+        }
+
+        int statusCount = buffer.getInt();
+        List<StatusDefinition> statuses = new ArrayList<>(statusCount);
+        for (int i = 0; i < statusCount; i++) {
+            String name = strings[buffer.getInt()];
+            statuses.add(new StatusDefinition(name, buffer.get() != 0));
+        }
+
+        int taskCount = buffer.getInt();
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String id = strings[buffer.getInt()];
+            long projectId = buffer.getLong();
+            String title = strings[buffer.getInt()];
+            LocalDate startDate = LocalDate.ofEpochDay(buffer.getInt());
+            LocalDate dueDate = LocalDate.ofEpochDay(buffer.getInt());
+            int progress = buffer.get();
+            tasks.add(new Task(id, projectId, title, startDate, dueDate, progress, strings[buffer.getInt()]));
+        }
+
+        int dependencyCount = buffer.getInt();
+        List<Dependency> dependencies = new ArrayList<>(dependencyCount);
+        for (int i = 0; i < dependencyCount; i++) {
+            String id = strings[buffer.getInt()];
+            String fromTaskId = strings[buffer.getInt()];
+            String toTaskId = strings[buffer.getInt()];
+            DependencyType type = DependencyType.valueOf(strings[buffer.getInt()]);
+            dependencies.add(new Dependency(id, fromTaskId, toTaskId, type, buffer.getShort()));
+        }
+        return new Contents(projects, statuses, tasks, dependencies);
+    }
+
+    private static void intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        if (!stringIndex.containsKey(value)) {
+            stringIndex.put(value, strings.size());
+            strings.add(value);
+        }
+    }
+
+    public record Contents(
+            List<Project> projects,
+            List<StatusDefinition> statuses,
+            List<Task> tasks,
+            List<Dependency> dependencies
+    ) {
+    }
+}
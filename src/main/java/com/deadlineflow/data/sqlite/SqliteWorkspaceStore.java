@@ -1,21 +1,65 @@
 package com.deadlineflow.data.sqlite;
 
+import com.deadlineflow.data.repository.UnitOfWork;
 import com.deadlineflow.data.repository.WorkspaceRepository;
+import com.deadlineflow.domain.model.ChangeEntity;
+import com.deadlineflow.domain.model.ChangeLogEntry;
+import com.deadlineflow.domain.model.ChangeOperation;
 import com.deadlineflow.domain.model.Dependency;
 import com.deadlineflow.domain.model.DependencyType;
 import com.deadlineflow.domain.model.Project;
 import com.deadlineflow.domain.model.StatusDefinition;
 import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 public class SqliteWorkspaceStore implements WorkspaceRepository {
-    private final SqliteDatabase database;
+    public static final int DEFAULT_RESIDENT_TASK_BUDGET = 20_000;
+    public static final int DESCRIPTION_CACHE_SIZE = 256;
+    private static final boolean LAZY_LOADING = Boolean.getBoolean("deadlineflow.store.lazy");
+    private static final int RESIDENT_TASK_BUDGET = Integer.getInteger(
+            "deadlineflow.store.residentTaskBudget",
+            DEFAULT_RESIDENT_TASK_BUDGET
+    );
+    private static final boolean SNAPSHOT_ENABLED = Boolean.parseBoolean(
+            System.getProperty("deadlineflow.store.snapshot", "true")
+    );
+    private static final int SNAPSHOT_CATCH_UP_ATTEMPTS = 3;
+    private static final int SEARCH_MIN_QUERY_LENGTH = 2;
+    private static final int SEARCH_CANDIDATE_LIMIT = 1_000;
+    private static final int EXTERNAL_DELTA_LIMIT = Integer.getInteger("deadlineflow.watch.maxDelta", 10_000);
+
+    // Mirror the ORDER BY clauses of the load queries so targeted inserts land where a reload would put them.
+    private static final Comparator<Project> PROJECT_ORDER = Comparator.comparingInt(Project::priority)
+            .thenComparing(Project::name);
+    private static final Comparator<Task> TASK_ORDER = Comparator.comparing(Task::startDate)
+            .thenComparing(Task::dueDate);
+    private static final Comparator<Dependency> DEPENDENCY_ORDER = Comparator.comparing(Dependency::id);
+    // Descriptions are not part of the resident row; see loadDescription.
+    private static final String TASK_COLUMNS = "id, project_id, title, start_date, due_date, progress, status";
+
+    private final SqliteConnectionManager connections;
+    private final SqlitePersistenceQueue persistenceQueue;
     private final SqliteMigration migration;
     private final SampleDataSeeder sampleDataSeeder;
 
@@ -24,25 +68,507 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
     private final ObservableList<Dependency> dependencies = FXCollections.observableArrayList();
     private final ObservableList<StatusDefinition> statuses = FXCollections.observableArrayList();
 
-    public SqliteWorkspaceStore(SqliteDatabase database, SqliteMigration migration, SampleDataSeeder sampleDataSeeder) {
-        this.database = database;
+    // Maintained by list listeners registered before anyone else's, so every mutation path (targeted apply, batch
+    // merge, reload) keeps them in step and downstream listeners already see the updated indexes.
+    private final Map<Long, Project> projectsById = new HashMap<>();
+    private final Map<String, Task> tasksById = new HashMap<>();
+    private final Map<Long, Map<String, Task>> tasksByProjectId = new HashMap<>();
+    private final Map<String, Dependency> dependenciesById = new HashMap<>();
+
+    // Lazy mode only: projects whose tasks and dependencies are in memory, least recently used first, and the
+    // task counts of the ones that are not.
+    private final boolean lazyLoading;
+    private final int residentTaskBudget;
+    private final LinkedHashMap<Long, Boolean> residentProjects = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, Integer> nonResidentTaskCounts = new HashMap<>();
+    private long projectLoads;
+    private long projectEvictions;
+    // Lazy mode only: residentProjects as of its last change on the FX thread, for reloads read off it.
+    private volatile Set<Long> residentProjectIds = Set.of();
+
+    private final Map<String, String> descriptionCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > DESCRIPTION_CACHE_SIZE;
+        }
+    };
+
+    private SqliteMigration.Report migrationReport;
+    private final SqliteWorkspaceSnapshot snapshot;
+    private boolean loadedFromSnapshot;
+    // Journal sequence the in-memory lists reflect; written on the FX thread, read by the change watcher.
+    private volatile long appliedSequence;
+
+    public SqliteWorkspaceStore(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteMigration migration,
+            SampleDataSeeder sampleDataSeeder
+    ) {
+        this(connections, persistenceQueue, migration, sampleDataSeeder, LAZY_LOADING, RESIDENT_TASK_BUDGET);
+    }
+
+    /**
+     * @param lazyLoading load only project headers and task counts up front; a project's tasks and dependencies are
+     *                    loaded by {@link #ensureProjectLoaded(long)} and evicted least recently used first once more
+     *                    than {@code residentTaskBudget} tasks are in memory
+     */
+    public SqliteWorkspaceStore(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            SqliteMigration migration,
+            SampleDataSeeder sampleDataSeeder,
+            boolean lazyLoading,
+            int residentTaskBudget
+    ) {
+        if (residentTaskBudget < 1) {
+            throw new IllegalArgumentException("residentTaskBudget must be at least 1");
+        }
+        this.connections = connections;
+        this.persistenceQueue = persistenceQueue;
         this.migration = migration;
         this.sampleDataSeeder = sampleDataSeeder;
+        this.lazyLoading = lazyLoading;
+        this.residentTaskBudget = residentTaskBudget;
+        this.snapshot = SNAPSHOT_ENABLED ? SqliteWorkspaceSnapshot.forDatabase(connections.database().dbPath()) : null;
+        projects.addListener(this::indexProjects);
+        tasks.addListener(this::indexTasks);
+        dependencies.addListener(this::indexDependencies);
     }
 
     @Override
     public void initialize() {
-        migration.migrate(database);
-        sampleDataSeeder.seedIfEmpty(database);
-        reload();
+        migrationReport = migration.migrate(connections);
+        sampleDataSeeder.seedIfEmpty(connections);
+        loadedFromSnapshot = loadSnapshot();
+        if (!loadedFromSnapshot) {
+            reload();
+        }
+    }
+
+    public boolean loadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
+    /**
+     * Writes the resident workspace to the snapshot file for the next cold start. Call on clean shutdown, before
+     * the persistence queue is closed. Lazy mode keeps only part of the workspace in memory and writes nothing.
+     * <p>
+     * The snapshot is stamped with {@link #appliedSequence()}, the sequence the lists actually reflect. Changes
+     * committed by another process that the watcher has not applied yet are merged first; if that does not settle,
+     * nothing is written and the next start loads from SQL.
+     */
+    public void writeSnapshot() {
+        if (snapshot == null || lazyLoading) {
+            return;
+        }
+        persistenceQueue.flush();
+        if (!catchUpWithJournal()) {
+            return;
+        }
+        try {
+            snapshot.write(migration.latestVersion(), appliedSequence, new SqliteWorkspaceSnapshot.Contents(
+                    projects,
+                    statuses,
+                    tasks,
+                    dependencies
+            ));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed writing workspace snapshot", e);
+        }
+    }
+
+    private boolean catchUpWithJournal() {
+        for (int attempt = 0; attempt < SNAPSHOT_CATCH_UP_ATTEMPTS; attempt++) {
+            if (applyExternalChanges(readChangesSince(appliedSequence))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean loadSnapshot() {
+        if (snapshot == null || lazyLoading) {
+            return false;
+        }
+        long revision = workspaceRevision();
+        Optional<SqliteWorkspaceSnapshot.Contents> contents = snapshot.read(migration.latestVersion(), revision);
+        if (contents.isEmpty()) {
+            return false;
+        }
+        appliedSequence = revision;
+        projects.setAll(contents.get().projects());
+        statuses.setAll(contents.get().statuses());
+        tasks.setAll(contents.get().tasks());
+        dependencies.setAll(contents.get().dependencies());
+        return true;
+    }
+
+    private long workspaceRevision() {
+        return latestChangeSequence();
+    }
+
+    /**
+     * Sequence of the last committed change, or 0 when nothing was journaled yet. Sequences are never reused, so
+     * the value keeps growing after old entries are pruned.
+     */
+    @Override
+    public long latestChangeSequence() {
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare("SELECT seq FROM sqlite_sequence WHERE name = 'change_log'").executeQuery()) {
+            return rs.next() ? rs.getLong("seq") : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading latest change sequence", e);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} committed changes with a sequence greater than {@code sequence}, oldest first.
+     * Queued writes are not journaled until the persistence queue commits them.
+     */
+    @Override
+    public List<ChangeLogEntry> changesSince(long sequence, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        List<ChangeLogEntry> changes = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare("""
+                    SELECT seq, entity, entity_id, operation, before_json, after_json, changed_at
+                    FROM change_log
+                    WHERE seq > ?
+                    ORDER BY seq ASC
+                    LIMIT ?
+                    """);
+            statement.setLong(1, sequence);
+            statement.setInt(2, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new ChangeLogEntry(
+                            rs.getLong("seq"),
+                            ChangeEntity.valueOf(rs.getString("entity")),
+                            rs.getString("entity_id"),
+                            ChangeOperation.valueOf(rs.getString("operation")),
+                            rs.getString("before_json"),
+                            rs.getString("after_json"),
+                            rs.getLong("changed_at")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading changes since " + sequence, e);
+        }
+        return changes;
+    }
+
+    /**
+     * Deletes journal entries up to and including {@code sequence} once every consumer has read past it.
+     */
+    public int pruneChangesThrough(long sequence) {
+        persistenceQueue.flush();
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            PreparedStatement statement = lease.prepare("DELETE FROM change_log WHERE seq <= ?");
+            statement.setLong(1, sequence);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed pruning changes through " + sequence, e);
+        }
+    }
+
+    public long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Reads the rows touched after {@code sequence} in one read transaction, so the result is a consistent delta.
+     * Safe to call off the FX thread. Asks for a full reload when the journal was pruned past {@code sequence} or the
+     * delta is too large to be worth merging row by row.
+     */
+    public ExternalChanges readChangesSince(long sequence) {
+        // Taken before the read, so a local commit that the read may have missed shows up as a changed count.
+        long localCommits = persistenceQueue.metrics().transactions();
+        ExternalChanges changes;
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try {
+                changes = readChangesSince(lease, sequence, localCommits);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed reading changes since " + sequence, e);
+        }
+        // Like reload(), the rows are read after toSequence; anything committed in between is re-delivered.
+        return changes.reloadRequired() ? changes.withReloaded(readWorkspace()) : changes;
+    }
+
+    private ExternalChanges readChangesSince(SqliteConnectionManager.Lease lease, long sequence, long localCommits)
+            throws SQLException {
+        long latest;
+        try (ResultSet rs = lease.prepare("SELECT seq FROM sqlite_sequence WHERE name = 'change_log'").executeQuery()) {
+            latest = rs.next() ? rs.getLong("seq") : 0;
+        }
+        if (latest <= sequence) {
+            return ExternalChanges.none(sequence, localCommits);
+        }
+        if (latest - sequence > EXTERNAL_DELTA_LIMIT) {
+            return ExternalChanges.reload(sequence, latest, localCommits);
+        }
+        try (ResultSet rs = lease.prepare("SELECT MIN(seq) AS first_seq FROM change_log").executeQuery()) {
+            // AUTOINCREMENT leaves no gaps in committed sequences, so a gap at the start means pruned entries.
+            long first = rs.next() ? rs.getLong("first_seq") : 0;
+            if (first == 0 || first > sequence + 1) {
+                return ExternalChanges.reload(sequence, latest, localCommits);
+            }
+        }
+
+        Set<Long> projectIds = new HashSet<>();
+        Set<String> taskIds = new HashSet<>();
+        Set<String> dependencyIds = new HashSet<>();
+        boolean statusesChanged = false;
+        PreparedStatement changed = lease.prepare(
+                "SELECT DISTINCT entity, entity_id FROM change_log WHERE seq > ? AND seq <= ?"
+        );
+        changed.setLong(1, sequence);
+        changed.setLong(2, latest);
+        try (ResultSet rs = changed.executeQuery()) {
+            while (rs.next()) {
+                String entityId = rs.getString("entity_id");
+                switch (ChangeEntity.valueOf(rs.getString("entity"))) {
+                    case PROJECT -> projectIds.add(Long.parseLong(entityId));
+                    case TASK -> taskIds.add(entityId);
+                    case DEPENDENCY -> dependencyIds.add(entityId);
+                    case STATUS -> statusesChanged = true;
+                }
+            }
+        }
+
+        List<Project> savedProjects = new ArrayList<>();
+        if (!projectIds.isEmpty()) {
+            PreparedStatement statement = lease.prepare("""
+                    SELECT id, name, color, priority FROM projects
+                    WHERE id IN (SELECT CAST(entity_id AS INTEGER) FROM change_log WHERE seq > ? AND seq <= ? AND entity = 'PROJECT')
+                    """);
+            statement.setLong(1, sequence);
+            statement.setLong(2, latest);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Project project = projectFrom(rs);
+                    savedProjects.add(project);
+                    projectIds.remove(project.id());
+                }
+            }
+        }
+        List<Task> savedTasks = new ArrayList<>();
+        if (!taskIds.isEmpty()) {
+            PreparedStatement statement = lease.prepare("SELECT " + TASK_COLUMNS + " FROM tasks"
+                    + " WHERE id IN (SELECT entity_id FROM change_log WHERE seq > ? AND seq <= ? AND entity = 'TASK')");
+            statement.setLong(1, sequence);
+            statement.setLong(2, latest);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Task task = taskFrom(rs);
+                    savedTasks.add(task);
+                    taskIds.remove(task.id());
+                }
+            }
+        }
+        List<Dependency> savedDependencies = new ArrayList<>();
+        if (!dependencyIds.isEmpty()) {
+            PreparedStatement statement = lease.prepare("""
+                    SELECT id, from_task_id, to_task_id, type, lag_days FROM dependencies
+                    WHERE id IN (SELECT entity_id FROM change_log WHERE seq > ? AND seq <= ? AND entity = 'DEPENDENCY')
+                    """);
+            statement.setLong(1, sequence);
+            statement.setLong(2, latest);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Dependency dependency = dependencyFrom(rs);
+                    savedDependencies.add(dependency);
+                    dependencyIds.remove(dependency.id());
+                }
+            }
+        }
+        List<StatusDefinition> loadedStatuses = null;
+        if (statusesChanged) {
+            loadedStatuses = new ArrayList<>();
+            try (ResultSet rs = lease.prepare(
+                    "SELECT name, is_protected FROM task_statuses ORDER BY display_order ASC, name ASC"
+            ).executeQuery()) {
+                while (rs.next()) {
+                    loadedStatuses.add(statusFrom(rs));
+                }
+            }
+        }
+        // Whatever is left in the id sets was deleted by the time of the latest change.
+        return new ExternalChanges(
+                sequence,
+                latest,
+                false,
+                savedProjects,
+                projectIds,
+                savedTasks,
+                taskIds,
+                savedDependencies,
+                dependencyIds,
+                loadedStatuses,
+                localCommits,
+                null
+        );
+    }
+
+    /**
+     * Merges a delta from {@link #readChangesSince(long)} into the in-memory lists on the FX thread, touching only
+     * rows that actually differ; it runs no queries. Returns false, leaving memory untouched, when the delta is stale:
+     * local writes are still queued or in flight, one committed after the delta was read, or, for a reload in lazy
+     * mode, a project was loaded or evicted since. The caller re-reads and retries. Commits by other processes after
+     * the read need no check: the delta is consistent as of its {@code toSequence}, and the next one starts there.
+     */
+    public boolean applyExternalChanges(ExternalChanges changes) {
+        if (changes.fromSequence() != appliedSequence) {
+            return false;
+        }
+        // Our own writes are journaled too; once they are committed they read back equal to memory and are skipped.
+        // One committed after the read may be missing from the delta while memory already has it.
+        if (!persistenceQueue.isIdle() || persistenceQueue.metrics().transactions() != changes.localCommits()) {
+            return false;
+        }
+        if (changes.isEmpty()) {
+            return true;
+        }
+        if (changes.reloadRequired()) {
+            if (lazyLoading && !changes.reloaded().residentProjectIds().equals(residentProjects.keySet())) {
+                return false;
+            }
+            publishWorkspace(changes.toSequence(), changes.reloaded());
+            return true;
+        }
+
+        for (Project project : changes.savedProjects()) {
+            if (!project.equals(projectsById.get(project.id()))) {
+                // New projects stay non-resident in lazy mode; ensureProjectLoaded reads their rows on first use.
+                upsertSorted(projects, indexOfProject(project.id()), project, PROJECT_ORDER);
+            }
+        }
+
+        Set<String> removedTasks = new HashSet<>(changes.removedTaskIds());
+        List<Task> savedTasks = new ArrayList<>();
+        for (Task task : changes.savedTasks()) {
+            descriptionCache.remove(task.id());
+            if (!isProjectLoaded(task.projectId())) {
+                if (tasksById.containsKey(task.id())) {
+                    removedTasks.add(task.id());
+                }
+            } else if (!task.equals(tasksById.get(task.id()))) {
+                savedTasks.add(task);
+            }
+        }
+        applyTasksRemoved(removedTasks);
+        if (!savedTasks.isEmpty()) {
+            applyTasksSaved(savedTasks);
+        }
+
+        applyDependenciesRemoved(changes.removedDependencyIds());
+        List<Dependency> savedDependencies = changes.savedDependencies().stream()
+                .filter(dependency -> tasksById.containsKey(dependency.fromTaskId()) && tasksById.containsKey(dependency.toTaskId()))
+                .filter(dependency -> !dependency.equals(dependenciesById.get(dependency.id())))
+                .toList();
+        if (!savedDependencies.isEmpty()) {
+            applyDependenciesSaved(savedDependencies);
+        }
+
+        if (changes.statuses() != null && !changes.statuses().equals(statuses)) {
+            statuses.setAll(changes.statuses());
+        }
+        changes.removedProjectIds().forEach(this::applyProjectRemoved);
+        appliedSequence = changes.toSequence();
+        return true;
     }
 
     @Override
     public void reload() {
-        projects.setAll(loadProjects());
-        tasks.setAll(loadTasks());
-        dependencies.setAll(loadDependencies());
-        statuses.setAll(loadStatuses());
+        // Queued writes are already applied in memory; commit them so the reload reads them back.
+        persistenceQueue.flush();
+        // Read before the rows: anything committed in between is re-delivered by the change watcher, which is harmless.
+        long sequence = latestChangeSequence();
+        publishWorkspace(sequence, readWorkspace());
+    }
+
+    /**
+     * Reads everything {@link #reload()} publishes. Safe off the FX thread: lazy mode reads the projects resident when
+     * it starts, and the rows are only published while those are still the resident ones.
+     */
+    private WorkspaceRows readWorkspace() {
+        Set<Long> resident = residentProjectIds;
+        List<Project> loadedProjects = loadProjects();
+        Map<Long, Integer> taskCounts = lazyLoading ? loadTaskCounts() : Map.of();
+        List<Task> loadedTasks = loadTasks(resident);
+        Set<String> loadedTaskIds = new HashSet<>();
+        loadedTasks.forEach(task -> loadedTaskIds.add(task.id()));
+        List<Dependency> loadedDependencies = loadDependencies(resident, loadedTaskIds);
+        return new WorkspaceRows(resident, loadedProjects, taskCounts, loadedTasks, loadedDependencies, loadStatuses());
+    }
+
+    private void publishWorkspace(long sequence, WorkspaceRows rows) {
+        descriptionCache.clear();
+        appliedSequence = sequence;
+        projects.setAll(rows.projects());
+        if (lazyLoading) {
+            residentProjects.keySet().retainAll(projectsById.keySet());
+            publishResidency();
+            nonResidentTaskCounts.clear();
+            nonResidentTaskCounts.putAll(rows.taskCounts());
+            nonResidentTaskCounts.keySet().removeAll(residentProjects.keySet());
+        }
+        tasks.setAll(rows.tasks());
+        dependencies.setAll(rows.dependencies());
+        statuses.setAll(rows.statuses());
+    }
+
+    private void publishResidency() {
+        residentProjectIds = Set.copyOf(residentProjects.keySet());
+    }
+
+    /**
+     * Makes the project's tasks and dependencies resident. A no-op unless the store runs in lazy mode.
+     */
+    public void ensureProjectLoaded(long projectId) {
+        if (!lazyLoading) {
+            return;
+        }
+        if (residentProjects.get(projectId) != null) {
+            return;
+        }
+        // Evicted rows may still have queued writes; lay them over what is committed instead of waiting for a flush.
+        SqlitePersistenceQueue.PendingRows pendingRows = persistenceQueue.pendingRows();
+        List<Task> loadedTasks = withPendingTasks(loadProjectTasks(projectId), projectId, pendingRows);
+        List<Dependency> loadedDependencies = withPendingDependencies(loadProjectDependencies(projectId), pendingRows);
+        residentProjects.put(projectId, Boolean.TRUE);
+        nonResidentTaskCounts.remove(projectId);
+        mergeSorted(tasks, loadedTasks, Task::id, TASK_ORDER);
+        mergeSorted(dependencies, residentOnly(loadedDependencies, tasksById.keySet()), Dependency::id, DEPENDENCY_ORDER);
+        projectLoads++;
+        evictOverBudget(projectId);
+        publishResidency();
+    }
+
+    public boolean isProjectLoaded(long projectId) {
+        return !lazyLoading || residentProjects.containsKey(projectId);
+    }
+
+    public ResidencyStats residencyStats() {
+        return new ResidencyStats(lazyLoading, residentProjects.size(), tasks.size(), residentTaskBudget, projectLoads, projectEvictions);
+    }
+
+    public SqliteMigration.Report migrationReport() {
+        return migrationReport;
+    }
+
+    @Override
+    public UnitOfWork beginUnitOfWork() {
+        return new SqliteUnitOfWork(persistenceQueue, this);
     }
 
     public void reloadProjects() {
@@ -50,17 +576,381 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
     }
 
     public void reloadTasks() {
-        tasks.setAll(loadTasks());
+        tasks.setAll(loadTasks(residentProjects.keySet()));
     }
 
     public void reloadDependencies() {
-        dependencies.setAll(loadDependencies());
+        dependencies.setAll(loadDependencies(residentProjects.keySet(), tasksById.keySet()));
     }
 
     public void reloadStatuses() {
         statuses.setAll(loadStatuses());
     }
 
+    public void applyProjectSaved(Project project) {
+        int index = indexOfProject(project.id());
+        upsertSorted(projects, index, project, PROJECT_ORDER);
+        if (lazyLoading && index < 0) {
+            // A new project has no rows yet, so it is trivially resident.
+            residentProjects.put(project.id(), Boolean.TRUE);
+            publishResidency();
+        }
+    }
+
+    public void applyProjectRemoved(long projectId) {
+        int index = indexOfProject(projectId);
+        if (index < 0) {
+            return;
+        }
+        projects.remove(index);
+        if (residentProjects.remove(projectId) != null) {
+            publishResidency();
+        }
+        nonResidentTaskCounts.remove(projectId);
+        // Mirrors ON DELETE CASCADE: the project's tasks and their dependencies are gone too.
+        Map<String, Task> projectTasks = tasksByProjectId.get(projectId);
+        if (projectTasks == null || projectTasks.isEmpty()) {
+            return;
+        }
+        Set<String> removed = new HashSet<>(projectTasks.keySet());
+        descriptionCache.keySet().removeAll(removed);
+        dependencies.removeIf(dependency -> removed.contains(dependency.fromTaskId()) || removed.contains(dependency.toTaskId()));
+        tasks.removeIf(task -> task.projectId() == projectId);
+    }
+
+    public void applyTaskSaved(Task task) {
+        ensureProjectLoaded(task.projectId());
+        Task resident = resident(task);
+        int index = indexOfTask(resident.id());
+        upsertSorted(tasks, index, resident, TASK_ORDER);
+    }
+
+    public void applyTaskRemoved(String taskId) {
+        int index = indexOfTask(taskId);
+        if (index < 0) {
+            return;
+        }
+        descriptionCache.remove(taskId);
+        dependencies.removeIf(dependency -> dependency.fromTaskId().equals(taskId) || dependency.toTaskId().equals(taskId));
+        tasks.remove(index);
+    }
+
+    public void applyTasksSaved(Collection<Task> saved) {
+        if (saved.size() == 1) {
+            applyTaskSaved(saved.iterator().next());
+            return;
+        }
+        saved.stream().map(Task::projectId).distinct().forEach(this::ensureProjectLoaded);
+        mergeSorted(tasks, saved.stream().map(this::resident).toList(), Task::id, TASK_ORDER);
+    }
+
+    public void applyTasksRemoved(Collection<String> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Set<String> removed = new HashSet<>(taskIds);
+        descriptionCache.keySet().removeAll(removed);
+        dependencies.removeIf(dependency -> removed.contains(dependency.fromTaskId()) || removed.contains(dependency.toTaskId()));
+        tasks.removeIf(task -> removed.contains(task.id()));
+    }
+
+    /**
+     * Applies a unit of work with one change per list. Tasks change first; dependencies of removed tasks leave in the
+     * dependency change that follows, together with the unit's own dependency writes.
+     */
+    public void applyChanges(
+            Collection<Task> savedTasks,
+            Collection<String> removedTaskIds,
+            Collection<Dependency> savedDependencies,
+            Collection<String> removedDependencyIds
+    ) {
+        Set<String> removedTasks = new HashSet<>(removedTaskIds);
+        savedTasks.stream().map(Task::projectId).distinct().forEach(this::ensureProjectLoaded);
+        descriptionCache.keySet().removeAll(removedTasks);
+        mergeSorted(tasks, savedTasks.stream().map(this::resident).toList(), removedTasks, Task::id, TASK_ORDER);
+
+        Set<String> removedDependencies = new HashSet<>(removedDependencyIds);
+        for (Dependency dependency : dependencies) {
+            if (removedTasks.contains(dependency.fromTaskId()) || removedTasks.contains(dependency.toTaskId())) {
+                removedDependencies.add(dependency.id());
+            }
+        }
+        mergeSorted(dependencies, savedDependencies, removedDependencies, Dependency::id, DEPENDENCY_ORDER);
+    }
+
+    /**
+     * Drops tasks moved to the archive tables. Unlike deletes, these can belong to projects that are not resident,
+     * whose task counts shrink accordingly.
+     */
+    public void applyTasksArchived(Map<Long, List<String>> taskIdsByProject) {
+        List<String> taskIds = new ArrayList<>();
+        for (Map.Entry<Long, List<String>> entry : taskIdsByProject.entrySet()) {
+            nonResidentTaskCounts.computeIfPresent(entry.getKey(), (projectId, count) -> count - entry.getValue().size());
+            taskIds.addAll(entry.getValue());
+        }
+        applyTasksRemoved(taskIds);
+    }
+
+    public void applyStatusAdded(String name) {
+        // New statuses take the next display order, which sorts last.
+        statuses.add(new StatusDefinition(name, false));
+    }
+
+    public void applyStatusRenamed(String existingStatus, String replacementStatus) {
+        for (int i = 0; i < statuses.size(); i++) {
+            StatusDefinition status = statuses.get(i);
+            if (status.name().equalsIgnoreCase(existingStatus)) {
+                statuses.set(i, new StatusDefinition(replacementStatus, status.isProtected()));
+            }
+        }
+        applyTaskStatusRenamed(existingStatus, replacementStatus);
+    }
+
+    public void applyStatusRemoved(String status, String fallbackStatus) {
+        statuses.removeIf(definition -> definition.name().equalsIgnoreCase(status));
+        applyTaskStatusRenamed(status, fallbackStatus);
+    }
+
+    public void applyDescriptionSaved(String taskId, String description) {
+        descriptionCache.put(taskId, description == null ? Task.DEFAULT_DESCRIPTION : description);
+    }
+
+    /**
+     * Resident tasks carry an empty description; the text is read here on demand and kept in a bounded LRU cache.
+     */
+    public String loadDescription(String taskId) {
+        String cached = descriptionCache.get(taskId);
+        if (cached != null) {
+            return cached;
+        }
+        // Checked before the read, so a batch that commits in between is still covered.
+        Optional<String> pending = persistenceQueue.pendingDescription(taskId);
+        if (pending.isPresent()) {
+            return pending.get();
+        }
+        String description = Task.DEFAULT_DESCRIPTION;
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare(
+                    "SELECT description FROM tasks WHERE id = ?"
+            );
+            statement.setString(1, taskId);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    description = rs.getString("description");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading description for task " + taskId, e);
+        }
+        if (tasksById.containsKey(taskId)) {
+            descriptionCache.put(taskId, description);
+        }
+        return description;
+    }
+
+    /**
+     * Ranked full-text search over task titles and descriptions, including tasks of non-resident projects. Every
+     * word of {@code query} must match as a prefix, so results follow the user's typing. Broad queries rank only the
+     * newest {@value #SEARCH_CANDIDATE_LIMIT} matches: bm25 costs a few microseconds per matching row, and without
+     * the cap a two-letter prefix over 100k tasks takes about 100 ms instead of a few. Commits queued writes first so
+     * the index sees them, which blocks; call it off the FX thread.
+     */
+    public List<TaskSearchHit> searchTasks(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (query == null || query.strip().length() < SEARCH_MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        if (persistenceQueue.pendingCount() > 0) {
+            persistenceQueue.flush();
+        }
+        return searchIndex("tasks_fts", "tasks", query, limit, false);
+    }
+
+    /**
+     * Same matching and ranking as {@link #searchTasks(String, int)}, over tasks moved to the archive tables.
+     */
+    public List<TaskSearchHit> searchArchivedTasks(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (query == null || query.strip().length() < SEARCH_MIN_QUERY_LENGTH) {
+            return List.of();
+        }
+        return searchIndex("archived_tasks_fts", "archived_tasks", query, limit, true);
+    }
+
+    private List<TaskSearchHit> searchIndex(String index, String content, String query, int limit, boolean archived) {
+        String match = ftsMatchExpression(query);
+        List<TaskSearchHit> hits = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            // Walking matches in rowid order needs no scoring, so finding the cut-off row is cheap; FTS5 then applies
+            // the rowid bound while it scores.
+            long minRowId = 0;
+            PreparedStatement cutoff = lease.prepare(
+                    "SELECT rowid FROM " + index + " WHERE " + index + " MATCH ? ORDER BY rowid DESC LIMIT 1 OFFSET ?"
+            );
+            cutoff.setString(1, match);
+            cutoff.setInt(2, SEARCH_CANDIDATE_LIMIT - 1);
+            try (ResultSet rs = cutoff.executeQuery()) {
+                if (rs.next()) {
+                    minRowId = rs.getLong("rowid");
+                }
+            }
+            PreparedStatement statement = lease.prepare(
+                    "SELECT t.id, t.project_id, t.title, snippet(" + index + ", 1, '', '', '...', 12) AS snippet, f.rank"
+                            + " FROM " + index + " f"
+                            + " JOIN " + content + " t ON t.rowid = f.rowid"
+                            + " WHERE " + index + " MATCH ? AND f.rowid >= ?"
+                            + " ORDER BY f.rank"
+                            + " LIMIT ?"
+            );
+            statement.setString(1, match);
+            statement.setLong(2, minRowId);
+            statement.setInt(3, limit);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(new TaskSearchHit(
+                            rs.getString("id"),
+                            rs.getLong("project_id"),
+                            rs.getString("title"),
+                            rs.getString("snippet"),
+                            rs.getDouble("rank"),
+                            archived
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed searching tasks for '" + query + "'", e);
+        }
+        return hits;
+    }
+
+    private static String ftsMatchExpression(String query) {
+        // Each word becomes a quoted prefix phrase, so FTS5 operators and punctuation in user input are plain text.
+        StringBuilder match = new StringBuilder();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!match.isEmpty()) {
+                match.append(' ');
+            }
+            match.append('"').append(word.replace("\"", "\"\"")).append("\"*");
+        }
+        return match.toString();
+    }
+
+    public void applyTaskStatusRenamed(String existingStatus, String replacementStatus) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task.status().equalsIgnoreCase(existingStatus)) {
+                tasks.set(i, task.withStatus(replacementStatus));
+            }
+        }
+    }
+
+    public void applyDependencySaved(Dependency dependency) {
+        int index = indexOfDependency(dependency.id());
+        upsertSorted(dependencies, index, dependency, DEPENDENCY_ORDER);
+    }
+
+    public void applyDependencyRemoved(String dependencyId) {
+        int index = indexOfDependency(dependencyId);
+        if (index >= 0) {
+            dependencies.remove(index);
+        }
+    }
+
+    public void applyDependenciesSaved(Collection<Dependency> saved) {
+        if (saved.size() == 1) {
+            applyDependencySaved(saved.iterator().next());
+            return;
+        }
+        mergeSorted(dependencies, saved, Dependency::id, DEPENDENCY_ORDER);
+    }
+
+    public void applyDependenciesRemoved(Collection<String> dependencyIds) {
+        if (dependencyIds.isEmpty()) {
+            return;
+        }
+        Set<String> removed = new HashSet<>(dependencyIds);
+        dependencies.removeIf(dependency -> removed.contains(dependency.id()));
+    }
+
+    public Optional<Project> findProject(long projectId) {
+        return Optional.ofNullable(projectsById.get(projectId));
+    }
+
+    public Optional<Task> findTask(String taskId) {
+        return Optional.ofNullable(tasksById.get(taskId));
+    }
+
+    public List<Task> findTasksByProject(long projectId) {
+        Map<String, Task> projectTasks = tasksByProjectId.get(projectId);
+        if (projectTasks == null) {
+            return List.of();
+        }
+        List<Task> result = new ArrayList<>(projectTasks.values());
+        result.sort(TASK_ORDER);
+        return result;
+    }
+
+    public int countTasksByProject(long projectId) {
+        Integer nonResidentCount = nonResidentTaskCounts.get(projectId);
+        if (nonResidentCount != null) {
+            return nonResidentCount;
+        }
+        Map<String, Task> projectTasks = tasksByProjectId.get(projectId);
+        return projectTasks == null ? 0 : projectTasks.size();
+    }
+
+    /**
+     * Answered by SQL from the (project_id, due_date) index; rows are resolved to the in-memory instances. Tasks with
+     * queued writes are answered from memory instead, which is what the rows will say once the queue commits.
+     */
+    public List<Task> findTasksDueBetween(long projectId, LocalDate fromInclusive, LocalDate toInclusive) {
+        ensureProjectLoaded(projectId);
+        SqlitePersistenceQueue.PendingRows pendingRows = persistenceQueue.pendingRows();
+        List<Task> result = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare(
+                    "SELECT id FROM tasks WHERE project_id = ? AND due_date BETWEEN ? AND ? ORDER BY due_date ASC"
+            );
+            statement.setLong(1, projectId);
+            statement.setLong(2, fromInclusive.toEpochDay());
+            statement.setLong(3, toInclusive.toEpochDay());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String taskId = rs.getString("id");
+                    Task task = tasksById.get(taskId);
+                    if (task != null && !pendingRows.touchesTask(taskId)) {
+                        result.add(task);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed querying tasks due between " + fromInclusive + " and " + toInclusive, e);
+        }
+        if (pendingRows.isEmpty()) {
+            return result;
+        }
+        for (String taskId : pendingRows.savedTasks().keySet()) {
+            Task task = tasksById.get(taskId);
+            if (task != null && task.projectId() == projectId
+                    && !task.dueDate().isBefore(fromInclusive) && !task.dueDate().isAfter(toInclusive)) {
+                result.add(task);
+            }
+        }
+        result.sort(Comparator.comparing(Task::dueDate));
+        return result;
+    }
+
+    public Optional<Dependency> findDependency(String dependencyId) {
+        return Optional.ofNullable(dependenciesById.get(dependencyId));
+    }
+
     public ObservableList<Project> projects() {
         return projects;
     }
@@ -77,20 +967,256 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
         return statuses;
     }
 
+    private void evictOverBudget(long pinnedProjectId) {
+        List<Long> leastRecentlyUsedFirst = new ArrayList<>(residentProjects.keySet());
+        for (Long projectId : leastRecentlyUsedFirst) {
+            if (tasks.size() <= residentTaskBudget) {
+                return;
+            }
+            if (projectId == pinnedProjectId) {
+                continue;
+            }
+            Map<String, Task> projectTasks = tasksByProjectId.get(projectId);
+            int taskCount = projectTasks == null ? 0 : projectTasks.size();
+            residentProjects.remove(projectId);
+            nonResidentTaskCounts.put(projectId, taskCount);
+            if (taskCount > 0) {
+                // Drops the rows from memory only; pending writes for them still reach the database.
+                Set<String> evicted = new HashSet<>(projectTasks.keySet());
+                dependencies.removeIf(dependency -> evicted.contains(dependency.fromTaskId()) || evicted.contains(dependency.toTaskId()));
+                tasks.removeIf(task -> evicted.contains(task.id()));
+            }
+            projectEvictions++;
+        }
+    }
+
+    private Task resident(Task task) {
+        if (task.description().isEmpty()) {
+            return task;
+        }
+        descriptionCache.put(task.id(), task.description());
+        return task.withDescription(Task.DEFAULT_DESCRIPTION);
+    }
+
+    private List<Task> withPendingTasks(List<Task> committed, long projectId, SqlitePersistenceQueue.PendingRows pendingRows) {
+        if (pendingRows.isEmpty()) {
+            return committed;
+        }
+        List<Task> result = new ArrayList<>();
+        for (Task task : committed) {
+            if (!pendingRows.touchesTask(task.id())) {
+                result.add(task);
+            }
+        }
+        for (Task task : pendingRows.savedTasks().values()) {
+            if (task.projectId() == projectId) {
+                result.add(resident(task));
+            }
+        }
+        result.sort(TASK_ORDER);
+        return result;
+    }
+
+    private static List<Dependency> withPendingDependencies(
+            List<Dependency> committed,
+            SqlitePersistenceQueue.PendingRows pendingRows
+    ) {
+        if (pendingRows.isEmpty()) {
+            return committed;
+        }
+        Map<String, Dependency> result = new LinkedHashMap<>();
+        for (Dependency dependency : committed) {
+            boolean removed = pendingRows.deletedDependencyIds().contains(dependency.id())
+                    || pendingRows.deletedTaskIds().contains(dependency.fromTaskId())
+                    || pendingRows.deletedTaskIds().contains(dependency.toTaskId());
+            if (!removed) {
+                result.put(dependency.id(), dependency);
+            }
+        }
+        // Pending edges of other projects are filtered out by residentOnly like any other edge.
+        result.putAll(pendingRows.savedDependencies());
+        List<Dependency> merged = new ArrayList<>(result.values());
+        merged.sort(DEPENDENCY_ORDER);
+        return merged;
+    }
+
+    private static List<Dependency> residentOnly(List<Dependency> loaded, Set<String> residentTaskIds) {
+        return loaded.stream()
+                .filter(dependency -> residentTaskIds.contains(dependency.fromTaskId())
+                        && residentTaskIds.contains(dependency.toTaskId()))
+                .toList();
+    }
+
+    private void indexProjects(ListChangeListener.Change<? extends Project> change) {
+        while (change.next()) {
+            for (Project removed : change.getRemoved()) {
+                projectsById.remove(removed.id(), removed);
+            }
+            for (Project added : change.getAddedSubList()) {
+                projectsById.put(added.id(), added);
+            }
+        }
+    }
+
+    private void indexTasks(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            for (Task removed : change.getRemoved()) {
+                if (tasksById.remove(removed.id(), removed)) {
+                    Map<String, Task> projectTasks = tasksByProjectId.get(removed.projectId());
+                    if (projectTasks != null) {
+                        projectTasks.remove(removed.id());
+                        if (projectTasks.isEmpty()) {
+                            tasksByProjectId.remove(removed.projectId());
+                        }
+                    }
+                }
+            }
+            for (Task added : change.getAddedSubList()) {
+                Task previous = tasksById.put(added.id(), added);
+                if (previous != null && previous.projectId() != added.projectId()) {
+                    Map<String, Task> previousProjectTasks = tasksByProjectId.get(previous.projectId());
+                    if (previousProjectTasks != null) {
+                        previousProjectTasks.remove(previous.id());
+                    }
+                }
+                tasksByProjectId.computeIfAbsent(added.projectId(), ignored -> new HashMap<>()).put(added.id(), added);
+            }
+        }
+    }
+
+    private void indexDependencies(ListChangeListener.Change<? extends Dependency> change) {
+        while (change.next()) {
+            for (Dependency removed : change.getRemoved()) {
+                dependenciesById.remove(removed.id(), removed);
+            }
+            for (Dependency added : change.getAddedSubList()) {
+                dependenciesById.put(added.id(), added);
+            }
+        }
+    }
+
+    private int indexOfProject(long projectId) {
+        Project existing = projectsById.get(projectId);
+        return existing == null ? -1 : indexOf(projects, existing, PROJECT_ORDER);
+    }
+
+    private int indexOfTask(String taskId) {
+        Task existing = tasksById.get(taskId);
+        return existing == null ? -1 : indexOf(tasks, existing, TASK_ORDER);
+    }
+
+    private int indexOfDependency(String dependencyId) {
+        Dependency existing = dependenciesById.get(dependencyId);
+        return existing == null ? -1 : indexOf(dependencies, existing, DEPENDENCY_ORDER);
+    }
+
+    private static <T> int indexOf(List<T> list, T value, Comparator<? super T> order) {
+        // Lists are kept sorted, so binary search to the run of equal keys and scan it for the exact element.
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(list.get(mid), value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < list.size() && order.compare(list.get(i), value) == 0; i++) {
+            if (list.get(i) == value) {
+                return i;
+            }
+        }
+        // SQL and Java collation can disagree on non-ASCII names; fall back rather than miss the element.
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> void upsertSorted(ObservableList<T> list, int existingIndex, T value, Comparator<? super T> order) {
+        if (existingIndex >= 0) {
+            if (list.get(existingIndex).equals(value)) {
+                return;
+            }
+            if (isInOrderAt(list, existingIndex, value, order)) {
+                list.set(existingIndex, value);
+                return;
+            }
+            list.remove(existingIndex);
+        }
+        list.add(insertionIndex(list, value, order), value);
+    }
+
+    private static <T> void mergeSorted(
+            ObservableList<T> list,
+            Collection<T> saved,
+            Function<T, String> idOf,
+            Comparator<? super T> order
+    ) {
+        mergeSorted(list, saved, Set.of(), idOf, order);
+    }
+
+    private static <T> void mergeSorted(
+            ObservableList<T> list,
+            Collection<T> saved,
+            Set<String> removedIds,
+            Function<T, String> idOf,
+            Comparator<? super T> order
+    ) {
+        if (saved.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
+        Map<String, T> replacements = new LinkedHashMap<>();
+        for (T value : saved) {
+            replacements.put(idOf.apply(value), value);
+        }
+        List<T> merged = new ArrayList<>(list.size() + replacements.size());
+        for (T existing : list) {
+            String id = idOf.apply(existing);
+            T replacement = replacements.remove(id);
+            if (replacement != null) {
+                merged.add(replacement);
+            } else if (!removedIds.contains(id)) {
+                merged.add(existing);
+            }
+        }
+        merged.addAll(replacements.values());
+        merged.sort(order);
+        // One setAll means listeners see a single change for the whole batch.
+        list.setAll(merged);
+    }
+
+    private static <T> boolean isInOrderAt(List<T> list, int index, T value, Comparator<? super T> order) {
+        boolean afterPrevious = index == 0 || order.compare(list.get(index - 1), value) <= 0;
+        boolean beforeNext = index == list.size() - 1 || order.compare(value, list.get(index + 1)) <= 0;
+        return afterPrevious && beforeNext;
+    }
+
+    private static <T> int insertionIndex(List<T> list, T value, Comparator<? super T> order) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(list.get(mid), value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     private ObservableList<Project> loadProjects() {
         ObservableList<Project> result = FXCollections.observableArrayList();
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare(
                      "SELECT id, name, color, priority FROM projects ORDER BY priority ASC, name ASC"
-             );
-             ResultSet rs = statement.executeQuery()) {
+             ).executeQuery()) {
             while (rs.next()) {
-                result.add(new Project(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("color"),
-                        rs.getInt("priority")
-                ));
+                result.add(projectFrom(rs));
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed loading projects", e);
@@ -98,24 +1224,39 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
         return result;
     }
 
-    private ObservableList<Task> loadTasks() {
-        ObservableList<Task> result = FXCollections.observableArrayList();
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "SELECT id, project_id, title, description, start_date, due_date, progress, status FROM tasks ORDER BY start_date ASC, due_date ASC"
-             );
-             ResultSet rs = statement.executeQuery()) {
-            while (rs.next()) {
-                result.add(new Task(
-                        rs.getString("id"),
-                        rs.getLong("project_id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        java.time.LocalDate.parse(rs.getString("start_date")),
-                        java.time.LocalDate.parse(rs.getString("due_date")),
-                        rs.getInt("progress"),
-                        rs.getString("status")
-                ));
+    private List<Task> loadTasks(Collection<Long> residentIds) {
+        if (!lazyLoading) {
+            return queryTasks("SELECT " + TASK_COLUMNS + " FROM tasks ORDER BY start_date ASC, due_date ASC", null);
+        }
+        List<Task> result = new ArrayList<>();
+        for (Long projectId : residentIds) {
+            result.addAll(loadProjectTasks(projectId));
+        }
+        result.sort(TASK_ORDER);
+        return result;
+    }
+
+    private List<Task> loadProjectTasks(long projectId) {
+        return queryTasks(
+                "SELECT " + TASK_COLUMNS + " FROM tasks WHERE project_id = ? ORDER BY start_date ASC, due_date ASC",
+                projectId
+        );
+    }
+
+    private List<Task> queryTasks(String sql, Long projectId) {
+        List<Task> result = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare(sql);
+            if (projectId != null) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setLong(i, projectId);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    result.add(taskFrom(rs));
+                }
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed loading tasks", e);
@@ -123,20 +1264,66 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
         return result;
     }
 
-    private ObservableList<Dependency> loadDependencies() {
-        ObservableList<Dependency> result = FXCollections.observableArrayList();
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
-                     "SELECT id, from_task_id, to_task_id, type FROM dependencies ORDER BY id ASC"
-             );
-             ResultSet rs = statement.executeQuery()) {
+    private Map<Long, Integer> loadTaskCounts() {
+        Map<Long, Integer> result = new HashMap<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare(
+                     "SELECT project_id, COUNT(*) AS task_count FROM tasks GROUP BY project_id"
+             ).executeQuery()) {
             while (rs.next()) {
-                result.add(new Dependency(
-                        rs.getString("id"),
-                        rs.getString("from_task_id"),
-                        rs.getString("to_task_id"),
-                        DependencyType.valueOf(rs.getString("type"))
-                ));
+                result.put(rs.getLong("project_id"), rs.getInt("task_count"));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed loading task counts", e);
+        }
+        return result;
+    }
+
+    private List<Dependency> loadDependencies(Collection<Long> residentIds, Set<String> residentTaskIds) {
+        if (!lazyLoading) {
+            return queryDependencies("SELECT id, from_task_id, to_task_id, type, lag_days FROM dependencies ORDER BY id ASC", null);
+        }
+        // An edge between two resident projects comes back once for each of them.
+        Map<String, Dependency> byId = new HashMap<>();
+        for (Long projectId : residentIds) {
+            for (Dependency dependency : loadProjectDependencies(projectId)) {
+                byId.put(dependency.id(), dependency);
+            }
+        }
+        List<Dependency> result = new ArrayList<>(byId.values());
+        result.sort(DEPENDENCY_ORDER);
+        return residentOnly(result, residentTaskIds);
+    }
+
+    /**
+     * Every edge touching the project on either end. Cross-project edges must come back with whichever project loads
+     * second, and residentOnly holds them back until then.
+     */
+    private List<Dependency> loadProjectDependencies(long projectId) {
+        return queryDependencies("""
+                SELECT d.id, d.from_task_id, d.to_task_id, d.type, d.lag_days
+                FROM dependencies d
+                JOIN tasks tf ON tf.id = d.from_task_id
+                JOIN tasks tt ON tt.id = d.to_task_id
+                WHERE tf.project_id = ? OR tt.project_id = ?
+                ORDER BY d.id ASC
+                """, projectId);
+    }
+
+    private List<Dependency> queryDependencies(String sql, Long projectId) {
+        List<Dependency> result = new ArrayList<>();
+        try (SqliteConnectionManager.Lease lease = connections.reader()) {
+            PreparedStatement statement = lease.prepare(sql);
+            if (projectId != null) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setLong(i, projectId);
+                }
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    result.add(dependencyFrom(rs));
+                }
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed loading dependencies", e);
@@ -146,20 +1333,117 @@ public class SqliteWorkspaceStore implements WorkspaceRepository {
 
     private ObservableList<StatusDefinition> loadStatuses() {
         ObservableList<StatusDefinition> result = FXCollections.observableArrayList();
-        try (Connection connection = database.openConnection();
-             PreparedStatement statement = connection.prepareStatement(
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             ResultSet rs = lease.prepare(
                      "SELECT name, is_protected FROM task_statuses ORDER BY display_order ASC, name ASC"
-             );
-             ResultSet rs = statement.executeQuery()) {
+             ).executeQuery()) {
             while (rs.next()) {
-                result.add(new StatusDefinition(
-                        rs.getString("name"),
-                        rs.getInt("is_protected") == 1
-                ));
+                result.add(statusFrom(rs));
             }
         } catch (SQLException e) {
             throw new IllegalStateException("Failed loading statuses", e);
         }
         return result;
     }
+
+    static Project projectFrom(ResultSet rs) throws SQLException {
+        return new Project(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("color"),
+                rs.getInt("priority")
+        );
+    }
+
+    static Task taskFrom(ResultSet rs) throws SQLException {
+        return new Task(
+                rs.getString("id"),
+                rs.getLong("project_id"),
+                rs.getString("title"),
+                LocalDate.ofEpochDay(rs.getLong("start_date")),
+                LocalDate.ofEpochDay(rs.getLong("due_date")),
+                rs.getInt("progress"),
+                rs.getString("status")
+        );
+    }
+
+    static Dependency dependencyFrom(ResultSet rs) throws SQLException {
+        return new Dependency(
+                rs.getString("id"),
+                rs.getString("from_task_id"),
+                rs.getString("to_task_id"),
+                DependencyType.valueOf(rs.getString("type")),
+                rs.getInt("lag_days")
+        );
+    }
+
+    private static StatusDefinition statusFrom(ResultSet rs) throws SQLException {
+        return new StatusDefinition(
+                rs.getString("name"),
+                rs.getInt("is_protected") == 1
+        );
+    }
+
+    /**
+     * Committed changes between two journal sequences, resolved to the rows as they stood at {@code toSequence}.
+     * Rows that no longer exist are reported as removed; {@code statuses} is null when no status changed.
+     * {@code localCommits} counts the persistence queue's commits before the read, and {@code reloaded} holds the
+     * whole workspace when {@code reloadRequired}, so applying either kind on the FX thread runs no queries.
+     */
+    public record ExternalChanges(
+            long fromSequence,
+            long toSequence,
+            boolean reloadRequired,
+            List<Project> savedProjects,
+            Set<Long> removedProjectIds,
+            List<Task> savedTasks,
+            Set<String> removedTaskIds,
+            List<Dependency> savedDependencies,
+            Set<String> removedDependencyIds,
+            List<StatusDefinition> statuses,
+            long localCommits,
+            WorkspaceRows reloaded
+    ) {
+        static ExternalChanges none(long sequence, long localCommits) {
+            return new ExternalChanges(sequence, sequence, false, List.of(), Set.of(), List.of(), Set.of(), List.of(), Set.of(),
+                    null, localCommits, null);
+        }
+
+        static ExternalChanges reload(long fromSequence, long toSequence, long localCommits) {
+            return new ExternalChanges(fromSequence, toSequence, true, List.of(), Set.of(), List.of(), Set.of(), List.of(),
+                    Set.of(), null, localCommits, null);
+        }
+
+        ExternalChanges withReloaded(WorkspaceRows rows) {
+            return new ExternalChanges(fromSequence, toSequence, reloadRequired, savedProjects, removedProjectIds, savedTasks,
+                    removedTaskIds, savedDependencies, removedDependencyIds, statuses, localCommits, rows);
+        }
+
+        public boolean isEmpty() {
+            return toSequence == fromSequence;
+        }
+    }
+
+    /**
+     * The rows a full reload publishes; in lazy mode, those of the {@code residentProjectIds} they were read for.
+     */
+    public record WorkspaceRows(
+            Set<Long> residentProjectIds,
+            List<Project> projects,
+            Map<Long, Integer> taskCounts,
+            List<Task> tasks,
+            List<Dependency> dependencies,
+            List<StatusDefinition> statuses
+    ) {
+    }
+
+    public record ResidencyStats(
+            boolean lazyLoading,
+            int residentProjects,
+            int residentTasks,
+            int residentTaskBudget,
+            long projectLoads,
+            long projectEvictions
+    ) {
+    }
 }
@@ -0,0 +1,82 @@
+package com.deadlineflow.data.transfer;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One row per record with a {@code record} column, in the column layout {@link CsvRecordReader} imports.
+ */
+public class CsvExportWriter extends ExportWriter {
+    private static final String HEADER = "record,id,project_id,name,color,priority,title,description,"
+            + "start_date,due_date,progress,status,from_task_id,to_task_id,type,lag_days";
+
+    public CsvExportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    protected void start() throws IOException {
+        out.write(HEADER);
+        out.write("\r\n");
+    }
+
+    @Override
+    protected void writeProject(Project project) throws IOException {
+        row("project", Long.toString(project.id()), "", project.name(), project.color(),
+                Integer.toString(project.priority()), "", "", "", "", "", "", "", "", "", "");
+    }
+
+    @Override
+    protected void writeTask(Task task) throws IOException {
+        row("task", task.id(), Long.toString(task.projectId()), "", "", "", task.title(), task.description(),
+                task.startDate().toString(), task.dueDate().toString(), Integer.toString(task.progress()), task.status(),
+                "", "", "", "");
+    }
+
+    @Override
+    protected void writeDependency(Dependency dependency) throws IOException {
+        row("dependency", dependency.id(), "", "", "", "", "", "", "", "", "", "",
+                dependency.fromTaskId(), dependency.toTaskId(), dependency.type().name(),
+                Integer.toString(dependency.lagDays()));
+    }
+
+    private void row(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1))) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.deadlineflow.data.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row. Quoted fields may contain commas, doubled quotes and line breaks; blank lines are
+ * skipped.
+ */
+public class CsvRecordReader extends StreamingRecordReader {
+    private List<String> header;
+    private long rowLine;
+
+    public CsvRecordReader(InputStream input) throws IOException {
+        super(input);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (header == null) {
+            List<String> names = readRow();
+            if (names == null) {
+                return null;
+            }
+            header = names.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        }
+        while (true) {
+            List<String> values = readRow();
+            if (values == null) {
+                return null;
+            }
+            if (values.size() == 1 && values.getFirst().isBlank()) {
+                continue;
+            }
+            if (values.size() > header.size()) {
+                throw syntaxError("expected at most " + header.size() + " fields but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>(Math.max(16, values.size() * 2));
+            for (int i = 0; i < values.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new ImportRecord(rowLine, fields);
+        }
+    }
+
+    private List<String> readRow() throws IOException {
+        rowLine = lineNumber();
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == '"' && field.isEmpty()) {
+                readQuoted(field);
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                values.add(field.toString());
+                return values;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void readQuoted(StringBuilder field) throws IOException {
+        long startLine = lineNumber();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Line " + startLine + ": unterminated quoted field");
+            }
+            if (c == '"') {
+                int next = read();
+                if (next != '"') {
+                    unread(next);
+                    return;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+}
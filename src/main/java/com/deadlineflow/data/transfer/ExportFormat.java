@@ -0,0 +1,30 @@
+package com.deadlineflow.data.transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("csv"),
+    JSON("json"),
+    ICS("ics");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (ExportFormat format : values()) {
+            if (name.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export file: " + file.getFileName());
+    }
+}
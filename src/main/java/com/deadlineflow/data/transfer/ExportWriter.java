@@ -0,0 +1,82 @@
+package com.deadlineflow.data.transfer;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes rows as they arrive from the export cursor: projects first, then tasks, then dependencies. Nothing is
+ * buffered beyond the underlying writer, so output size does not affect memory use.
+ */
+public abstract class ExportWriter implements Closeable {
+    protected final Writer out;
+    private long projects;
+    private long tasks;
+    private long dependencies;
+
+    protected ExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    public static ExportWriter open(Writer out, ExportFormat format) throws IOException {
+        ExportWriter writer = switch (format) {
+            case CSV -> new CsvExportWriter(out);
+            case JSON -> new JsonExportWriter(out);
+            case ICS -> new IcsExportWriter(out);
+        };
+        writer.start();
+        return writer;
+    }
+
+    public final void project(Project project) throws IOException {
+        writeProject(project);
+        projects++;
+    }
+
+    public final void task(Task task) throws IOException {
+        writeTask(task);
+        tasks++;
+    }
+
+    public final void dependency(Dependency dependency) throws IOException {
+        writeDependency(dependency);
+        dependencies++;
+    }
+
+    public long projectCount() {
+        return projects;
+    }
+
+    public long taskCount() {
+        return tasks;
+    }
+
+    public long dependencyCount() {
+        return dependencies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    protected void start() throws IOException {
+    }
+
+    protected void finish() throws IOException {
+    }
+
+    protected abstract void writeProject(Project project) throws IOException;
+
+    protected abstract void writeTask(Task task) throws IOException;
+
+    protected abstract void writeDependency(Dependency dependency) throws IOException;
+}
@@ -0,0 +1,116 @@
+package com.deadlineflow.data.transfer;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * iCalendar (RFC 5545) with one all-day VEVENT per task, categorised by project. Dependencies have no calendar
+ * representation and are skipped.
+ */
+public class IcsExportWriter extends ExportWriter {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    // Projects stream before tasks; only their names are kept, never the tasks.
+    private final Map<Long, String> projectNames = new HashMap<>();
+    private final String timestamp = TIMESTAMP.format(ZonedDateTime.now(ZoneOffset.UTC));
+
+    public IcsExportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    protected void start() throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//DeadlineFlow//Export//EN");
+        line("CALSCALE:GREGORIAN");
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        line("END:VCALENDAR");
+    }
+
+    @Override
+    protected void writeProject(Project project) {
+        projectNames.put(project.id(), project.name());
+    }
+
+    @Override
+    protected void writeTask(Task task) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + escape(task.id()) + "@deadlineflow");
+        line("DTSTAMP:" + timestamp);
+        line("DTSTART;VALUE=DATE:" + DATE.format(task.startDate()));
+        // DTEND is exclusive for all-day events, while the due date is the last working day.
+        line("DTEND;VALUE=DATE:" + DATE.format(task.dueDate().plusDays(1)));
+        line("SUMMARY:" + escape(task.title()));
+        if (!task.description().isEmpty()) {
+            line("DESCRIPTION:" + escape(task.description()));
+        }
+        String projectName = projectNames.get(task.projectId());
+        if (projectName != null) {
+            line("CATEGORIES:" + escape(projectName));
+        }
+        line("STATUS:CONFIRMED");
+        line("END:VEVENT");
+    }
+
+    @Override
+    protected void writeDependency(Dependency dependency) {
+    }
+
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            int width = utf8Width(c);
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(c);
+            if (Character.isHighSurrogate(c) && i + 1 < content.length()) {
+                out.write(content.charAt(++i));
+            }
+            octets += width;
+        }
+        out.write("\r\n");
+    }
+
+    private static int utf8Width(char c) {
+        if (c < 0x80) {
+            return 1;
+        }
+        if (c < 0x800) {
+            return 2;
+        }
+        return Character.isHighSurrogate(c) ? 4 : 3;
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.deadlineflow.data.transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    public static ImportFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) {
+            return JSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + file.getFileName());
+    }
+}
@@ -0,0 +1,24 @@
+package com.deadlineflow.data.transfer;
+
+import java.util.Map;
+
+/**
+ * One row of an import file keyed by lower-case column name, with the line it started on for error reports.
+ */
+public record ImportRecord(long lineNumber, Map<String, String> fields) {
+
+    /**
+     * Returns the trimmed value, or {@code null} when the column is missing or blank.
+     */
+    public String value(String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    public String rawValue(String name) {
+        return fields.getOrDefault(name, "");
+    }
+}
@@ -0,0 +1,107 @@
+package com.deadlineflow.data.transfer;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A top-level array of flat objects tagged with {@code record}, the shape {@link JsonRecordReader} imports.
+ */
+public class JsonExportWriter extends ExportWriter {
+    private boolean first = true;
+
+    public JsonExportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    protected void start() throws IOException {
+        out.write('[');
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        out.write(first ? "]\n" : "\n]\n");
+    }
+
+    @Override
+    protected void writeProject(Project project) throws IOException {
+        beginObject("project");
+        field("id", project.id());
+        field("name", project.name());
+        field("color", project.color());
+        field("priority", project.priority());
+        out.write('}');
+    }
+
+    @Override
+    protected void writeTask(Task task) throws IOException {
+        beginObject("task");
+        field("id", task.id());
+        field("project_id", task.projectId());
+        field("title", task.title());
+        field("description", task.description());
+        field("start_date", task.startDate().toString());
+        field("due_date", task.dueDate().toString());
+        field("progress", task.progress());
+        field("status", task.status());
+        out.write('}');
+    }
+
+    @Override
+    protected void writeDependency(Dependency dependency) throws IOException {
+        beginObject("dependency");
+        field("id", dependency.id());
+        field("from_task_id", dependency.fromTaskId());
+        field("to_task_id", dependency.toTaskId());
+        field("type", dependency.type().name());
+        field("lag_days", dependency.lagDays());
+        out.write('}');
+    }
+
+    private void beginObject(String record) throws IOException {
+        out.write(first ? "\n  {" : ",\n  {");
+        first = false;
+        out.write("\"record\": ");
+        writeString(record);
+    }
+
+    private void field(String name, long value) throws IOException {
+        out.write(", \"");
+        out.write(name);
+        out.write("\": ");
+        out.write(Long.toString(value));
+    }
+
+    private void field(String name, String value) throws IOException {
+        out.write(", \"");
+        out.write(name);
+        out.write("\": ");
+        writeString(value);
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
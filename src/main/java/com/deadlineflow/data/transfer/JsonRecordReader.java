@@ -0,0 +1,158 @@
+package com.deadlineflow.data.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A top-level JSON array of flat objects. Scalar values are kept as their text; {@code null} is treated as a missing
+ * field. Objects are parsed one at a time as the array is consumed.
+ */
+public class JsonRecordReader extends StreamingRecordReader {
+    private boolean started;
+    private boolean finished;
+
+    public JsonRecordReader(InputStream input) throws IOException {
+        super(input);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            expect('[');
+            started = true;
+            if (peekNonWhitespace() == ']') {
+                read();
+                finished = true;
+                return null;
+            }
+        } else {
+            int c = readNonWhitespace();
+            if (c == ']') {
+                finished = true;
+                return null;
+            }
+            if (c != ',') {
+                throw syntaxError("expected ',' or ']' between records");
+            }
+        }
+        long line = lineNumberAtNextToken();
+        return new ImportRecord(line, readObject());
+    }
+
+    private Map<String, String> readObject() throws IOException {
+        expect('{');
+        Map<String, String> fields = new HashMap<>();
+        if (peekNonWhitespace() == '}') {
+            read();
+            return fields;
+        }
+        while (true) {
+            expect('"');
+            String name = readString().toLowerCase(Locale.ROOT);
+            expect(':');
+            String value = readScalar();
+            if (value != null) {
+                fields.put(name, value);
+            }
+            int c = readNonWhitespace();
+            if (c == '}') {
+                return fields;
+            }
+            if (c != ',') {
+                throw syntaxError("expected ',' or '}' in object");
+            }
+        }
+    }
+
+    private String readScalar() throws IOException {
+        int c = readNonWhitespace();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw syntaxError("nested objects and arrays are not supported");
+        }
+        StringBuilder literal = new StringBuilder();
+        while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            literal.append((char) c);
+            c = read();
+        }
+        unread(c);
+        String text = literal.toString();
+        if (text.isEmpty()) {
+            throw syntaxError("expected a value");
+        }
+        return "null".equals(text) ? null : text;
+    }
+
+    private String readString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("unterminated string");
+            }
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append((char) c);
+                continue;
+            }
+            int escaped = read();
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append((char) escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> value.append(readUnicodeEscape());
+                default -> throw syntaxError("invalid escape sequence");
+            }
+        }
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("invalid unicode escape");
+            }
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (readNonWhitespace() != expected) {
+            throw syntaxError("expected '" + expected + "'");
+        }
+    }
+
+    private long lineNumberAtNextToken() throws IOException {
+        peekNonWhitespace();
+        return lineNumber();
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = readNonWhitespace();
+        unread(c);
+        return c;
+    }
+
+    private int readNonWhitespace() throws IOException {
+        int c = read();
+        while (c != -1 && Character.isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+}
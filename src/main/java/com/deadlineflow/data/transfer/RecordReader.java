@@ -0,0 +1,30 @@
+package com.deadlineflow.data.transfer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Forward-only reader over an import file. Records are parsed one at a time, so memory use does not grow with the
+ * file size.
+ */
+public interface RecordReader extends Closeable {
+
+    /**
+     * Returns the next record, or {@code null} at the end of the input.
+     */
+    ImportRecord next() throws IOException;
+
+    /**
+     * Bytes consumed from the underlying file so far; used for progress reporting.
+     */
+    long bytesRead();
+
+    static RecordReader open(Path file, ImportFormat format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvRecordReader(Files.newInputStream(file));
+            case JSON -> new JsonRecordReader(Files.newInputStream(file));
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.deadlineflow.data.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Character source shared by the format readers: UTF-8 decoding, line tracking and one character of push-back.
+ */
+abstract class StreamingRecordReader implements RecordReader {
+    private static final int BUFFER_CHARS = 64 * 1024;
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+    private static final int NO_CHAR = -2;
+
+    private final CountingInputStream input;
+    private final BufferedReader reader;
+    private long lineNumber = 1;
+    private int pushedBack = NO_CHAR;
+
+    StreamingRecordReader(InputStream input) throws IOException {
+        this.input = new CountingInputStream(input);
+        this.reader = new BufferedReader(new InputStreamReader(this.input, StandardCharsets.UTF_8), BUFFER_CHARS);
+        int first = read();
+        if (first != BYTE_ORDER_MARK) {
+            unread(first);
+        }
+    }
+
+    @Override
+    public long bytesRead() {
+        return input.count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    final long lineNumber() {
+        return lineNumber;
+    }
+
+    final int read() throws IOException {
+        if (pushedBack != NO_CHAR) {
+            int value = pushedBack;
+            pushedBack = NO_CHAR;
+            return value;
+        }
+        int value = reader.read();
+        if (value == '\n') {
+            lineNumber++;
+        }
+        return value;
+    }
+
+    final void unread(int value) {
+        pushedBack = value;
+    }
+
+    final IOException syntaxError(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.deadlineflow.domain.model;
+
+public enum ChangeEntity {
+    PROJECT,
+    TASK,
+    DEPENDENCY,
+    STATUS
+}
@@ -0,0 +1,94 @@
+package com.deadlineflow.domain.model;
+
+import java.util.Objects;
+
+/**
+ * One committed row change. Payloads are JSON objects of the stored columns (dates as epoch days); {@code before}
+ * is null for inserts and {@code after} is null for deletes. Task payloads leave out the description: an edit to it
+ * is a separate update with no {@code before} and an {@code after} of {@code {"description_changed":true}}.
+ */
+public final class ChangeLogEntry {
+    private final long sequence;
+    private final ChangeEntity entity;
+    private final String entityId;
+    private final ChangeOperation operation;
+    private final String beforeJson;
+    private final String afterJson;
+    private final long changedAtMillis;
+
+    public ChangeLogEntry(
+            long sequence,
+            ChangeEntity entity,
+            String entityId,
+            ChangeOperation operation,
+            String beforeJson,
+            String afterJson,
+            long changedAtMillis
+    ) {
+        if (sequence <= 0) {
+            throw new IllegalArgumentException("Change sequence must be positive");
+        }
+        this.sequence = sequence;
+        this.entity = Objects.requireNonNull(entity, "entity");
+        this.entityId = Objects.requireNonNull(entityId, "entityId");
+        this.operation = Objects.requireNonNull(operation, "operation");
+        this.beforeJson = beforeJson;
+        this.afterJson = afterJson;
+        this.changedAtMillis = changedAtMillis;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public ChangeEntity entity() {
+        return entity;
+    }
+
+    public String entityId() {
+        return entityId;
+    }
+
+    public ChangeOperation operation() {
+        return operation;
+    }
+
+    public String beforeJson() {
+        return beforeJson;
+    }
+
+    public String afterJson() {
+        return afterJson;
+    }
+
+    public long changedAtMillis() {
+        return changedAtMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeLogEntry that)) {
+            return false;
+        }
+        return sequence == that.sequence
+                && changedAtMillis == that.changedAtMillis
+                && entity == that.entity
+                && entityId.equals(that.entityId)
+                && operation == that.operation
+                && Objects.equals(beforeJson, that.beforeJson)
+                && Objects.equals(afterJson, that.afterJson);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence, entity, entityId, operation, beforeJson, afterJson, changedAtMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + operation + " " + entity + " " + entityId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.deadlineflow.domain.model;
+
+public enum ChangeOperation {
+    INSERT,
+    UPDATE,
+    DELETE
+}
@@ -3,12 +3,22 @@ package com.deadlineflow.domain.model;
 import java.util.Objects;
 
 public final class Dependency {
+    public static final int MAX_LAG_DAYS = 3650;
+
     private final String id;
     private final String fromTaskId;
     private final String toTaskId;
     private final DependencyType type;
+    private final int lagDays;
 
     public Dependency(String id, String fromTaskId, String toTaskId, DependencyType type) {
+        this(id, fromTaskId, toTaskId, type, 0);
+    }
+
+    /**
+     * @param lagDays days added between the linked dates; negative values are leads
+     */
+    public Dependency(String id, String fromTaskId, String toTaskId, DependencyType type, int lagDays) {
         if (id == null || id.isBlank()) {
             throw new IllegalArgumentException("Dependency id is required");
         }
@@ -24,10 +34,14 @@ public final class Dependency {
         if (type == null) {
             throw new IllegalArgumentException("Dependency type is required");
         }
+        if (lagDays < -MAX_LAG_DAYS || lagDays > MAX_LAG_DAYS) {
+            throw new IllegalArgumentException("Dependency lagDays must be between -" + MAX_LAG_DAYS + " and " + MAX_LAG_DAYS);
+        }
         this.id = id;
         this.fromTaskId = fromTaskId;
         this.toTaskId = toTaskId;
         this.type = type;
+        this.lagDays = lagDays;
     }
 
     public String id() {
@@ -46,6 +60,17 @@ public final class Dependency {
         return type;
     }
 
+    public int lagDays() {
+        return lagDays;
+    }
+
+    /**
+     * Days the linked date of the successor must be at or after the linked date of the predecessor.
+     */
+    public int offsetDays() {
+        return type.baseOffsetDays() + lagDays;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -57,12 +82,13 @@ public final class Dependency {
         return id.equals(that.id)
                 && fromTaskId.equals(that.fromTaskId)
                 && toTaskId.equals(that.toTaskId)
-                && type == that.type;
+                && type == that.type
+                && lagDays == that.lagDays;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, fromTaskId, toTaskId, type);
+        return Objects.hash(id, fromTaskId, toTaskId, type, lagDays);
     }
 
     @Override
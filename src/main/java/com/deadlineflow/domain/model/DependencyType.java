@@ -1,5 +1,49 @@
 package com.deadlineflow.domain.model;
 
+/**
+ * Which ends of the two tasks a dependency links. Dates are inclusive, so a task runs from the start of its start day
+ * to the end of its due day, and with a lag of {@code L} days:
+ * <ul>
+ *     <li>FINISH_START: successor start &gt;= predecessor due + 1 + L</li>
+ *     <li>START_START: successor start &gt;= predecessor start + L</li>
+ *     <li>FINISH_FINISH: successor due &gt;= predecessor due + L</li>
+ *     <li>START_FINISH: successor due &gt;= predecessor start - 1 + L</li>
+ * </ul>
+ */
 public enum DependencyType {
-    FINISH_START
+    FINISH_START(true, false, 1),
+    START_START(false, false, 0),
+    FINISH_FINISH(true, true, 0),
+    START_FINISH(false, true, -1);
+
+    private final boolean fromFinish;
+    private final boolean toFinish;
+    private final int baseOffsetDays;
+
+    DependencyType(boolean fromFinish, boolean toFinish, int baseOffsetDays) {
+        this.fromFinish = fromFinish;
+        this.toFinish = toFinish;
+        this.baseOffsetDays = baseOffsetDays;
+    }
+
+    /**
+     * Whether the predecessor's due date, rather than its start date, is the anchor.
+     */
+    public boolean fromFinish() {
+        return fromFinish;
+    }
+
+    /**
+     * Whether the constraint applies to the successor's due date rather than its start date.
+     */
+    public boolean toFinish() {
+        return toFinish;
+    }
+
+    /**
+     * Days between the two anchor dates at zero lag.
+     */
+    public int baseOffsetDays() {
+        return baseOffsetDays;
+    }
 }
@@ -0,0 +1,79 @@
+package com.deadlineflow.domain.model;
+
+import java.util.Objects;
+
+/**
+ * One full-text search match. Lower scores rank higher; {@code snippet} is the matching part of the description,
+ * empty when only the title matched. Archived hits come from the archive tables and are not in the workspace.
+ */
+public final class TaskSearchHit {
+    private final String taskId;
+    private final long projectId;
+    private final String title;
+    private final String snippet;
+    private final double score;
+    private final boolean archived;
+
+    public TaskSearchHit(String taskId, long projectId, String title, String snippet, double score) {
+        this(taskId, projectId, title, snippet, score, false);
+    }
+
+    public TaskSearchHit(String taskId, long projectId, String title, String snippet, double score, boolean archived) {
+        this.taskId = Objects.requireNonNull(taskId, "taskId");
+        this.projectId = projectId;
+        this.title = Objects.requireNonNull(title, "title");
+        this.snippet = snippet == null ? "" : snippet;
+        this.score = score;
+        this.archived = archived;
+    }
+
+    public String taskId() {
+        return taskId;
+    }
+
+    public long projectId() {
+        return projectId;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String snippet() {
+        return snippet;
+    }
+
+    public double score() {
+        return score;
+    }
+
+    public boolean archived() {
+        return archived;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskSearchHit that)) {
+            return false;
+        }
+        return projectId == that.projectId
+                && Double.compare(score, that.score) == 0
+                && archived == that.archived
+                && taskId.equals(that.taskId)
+                && title.equals(that.title)
+                && snippet.equals(that.snippet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(taskId, projectId, title, snippet, score, archived);
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -94,6 +94,9 @@ public class GanttChartView extends Region {
         String format(LocalDate startDate, LocalDate dueDate);
     }
 
+    private static final Comparator<Task> TASK_ORDER = Comparator.comparing(Task::startDate)
+            .thenComparing(Task::dueDate)
+            .thenComparing(Task::title);
     private static final double HEADER_HEIGHT = 34;
     private static final double BASE_ROW_HEIGHT = 30;
     private static final double BASE_BAR_VERTICAL_PADDING = 4;
@@ -149,7 +152,7 @@ public class GanttChartView extends Region {
     private final ObjectProperty<Function<Task, String>> taskColorProvider = new SimpleObjectProperty<>(task -> "#3A7AFE");
 
     private ObservableList<Task> sourceTasks = FXCollections.observableArrayList();
-    private final ListChangeListener<Task> sourceTaskListener = change -> onSourceTasksChanged();
+    private final ListChangeListener<Task> sourceTaskListener = this::onSourceTasksChanged;
 
     private List<Task> orderedTasks = new ArrayList<>();
     private final Map<String, Integer> taskIndexById = new HashMap<>();
@@ -350,13 +353,54 @@ public class GanttChartView extends Region {
         requestRefreshAll();
     }
 
-    private void onSourceTasksChanged() {
+    private void onSourceTasksChanged(ListChangeListener.Change<? extends Task> change) {
+        if (!taskOrderDirty && taskTrackingInitialized && patchReplacedTasksInPlace(change)) {
+            // Single-row edits keep their position, so skip the full re-sort and just redraw.
+            timelineBoundsDirty = true;
+            barsDirty = true;
+            requestRefreshAll();
+            return;
+        }
         taskOrderDirty = true;
         timelineBoundsDirty = true;
         barsDirty = true;
         requestRefreshAll();
     }
 
+    private boolean patchReplacedTasksInPlace(ListChangeListener.Change<? extends Task> change) {
+        List<Task> replacements = new ArrayList<>();
+        while (change.next()) {
+            if (!change.wasReplaced() || change.getAddedSize() != change.getRemovedSize()) {
+                return false;
+            }
+            List<? extends Task> removed = change.getRemoved();
+            List<? extends Task> added = change.getAddedSubList();
+            for (int i = 0; i < added.size(); i++) {
+                if (!removed.get(i).id().equals(added.get(i).id())) {
+                    return false;
+                }
+                replacements.add(added.get(i));
+            }
+        }
+        if (replacements.isEmpty()) {
+            return false;
+        }
+        // A failed check leaves orderedTasks partially patched; the fallback full rebuild re-sorts from source.
+        for (Task replacement : replacements) {
+            Integer index = taskIndexById.get(replacement.id());
+            if (index == null) {
+                return false;
+            }
+            boolean afterPrevious = index == 0 || TASK_ORDER.compare(orderedTasks.get(index - 1), replacement) <= 0;
+            boolean beforeNext = index == orderedTasks.size() - 1 || TASK_ORDER.compare(replacement, orderedTasks.get(index + 1)) <= 0;
+            if (!afterPrevious || !beforeNext) {
+                return false;
+            }
+            orderedTasks.set(index, replacement);
+        }
+        return true;
+    }
+
     public void setScale(TimeScale scale) {
         this.scale.set(scale);
     }
@@ -741,9 +785,7 @@ public class GanttChartView extends Region {
 
     private void rebuildTaskOrder() {
         List<Task> sortedTasks = new ArrayList<>(sourceTasks);
-        sortedTasks.sort(Comparator.comparing(Task::startDate)
-                .thenComparing(Task::dueDate)
-                .thenComparing(Task::title));
+        sortedTasks.sort(TASK_ORDER);
         orderedTasks = sortedTasks;
 
         Set<String> currentTaskIds = new HashSet<>(Math.max(16, orderedTasks.size() * 2));
@@ -2,8 +2,10 @@ package com.deadlineflow.presentation.view;
 
 import com.deadlineflow.domain.exceptions.ValidationException;
 import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
 import com.deadlineflow.domain.model.Project;
 import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
 import com.deadlineflow.domain.model.TimeScale;
 import com.deadlineflow.presentation.components.GanttChartView;
 import com.deadlineflow.presentation.theme.StatusColorManager;
@@ -16,6 +18,7 @@ import com.deadlineflow.presentation.viewmodel.MainViewModel;
 import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
+import javafx.animation.PauseTransition;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
@@ -23,6 +26,7 @@ import javafx.collections.ListChangeListener;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
@@ -31,13 +35,17 @@ import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.ToggleGroup;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -47,15 +55,19 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
 import javafx.stage.Window;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 
+import java.io.File;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +79,7 @@ public class MainView extends BorderPane {
     private static final double MAX_ZOOM = 4.0;
     private static final Duration PROJECTS_SIDEBAR_ANIMATION_DURATION = Duration.millis(200);
     private static final Duration TASK_INSPECTOR_SIDEBAR_ANIMATION_DURATION = Duration.millis(200);
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(120);
     private static final DateTimeFormatter UI_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM d, yyyy");
 
     private final MainViewModel viewModel;
@@ -210,8 +223,95 @@ public class MainView extends BorderPane {
         topBarView.inspectorToggleButton().setOnAction(event -> toggleTaskInspectorDrawer());
 
         topBarView.addTaskButton().setOnAction(event -> createTaskFromToolbar());
+        topBarView.importButton().setOnAction(event -> importFromFile());
+        topBarView.importButton().disableProperty().bind(viewModel.importInProgressProperty());
+        topBarView.exportButton().setOnAction(event -> {
+            if (viewModel.exportInProgressProperty().get()) {
+                viewModel.cancelExport();
+            } else {
+                exportToFile();
+            }
+        });
+        topBarView.exportButton().textProperty().bind(Bindings.when(viewModel.exportInProgressProperty())
+                .then(i18n.t("cancel_export"))
+                .otherwise(i18n.t("export")));
+
+        topBarView.archiveButton().setOnAction(event -> archiveCompletedTasks());
+        topBarView.archiveButton().disableProperty().bind(viewModel.archiveInProgressProperty());
 
         configureThemeComboBox();
+        configureSearchField();
+    }
+
+    private void configureSearchField() {
+        TextField searchField = topBarView.searchField();
+        ContextMenu resultsMenu = new ContextMenu();
+        List<TaskSearchHit> currentHits = new ArrayList<>();
+        PauseTransition debounce = new PauseTransition(SEARCH_DEBOUNCE);
+        debounce.setOnFinished(event -> viewModel.searchTasks(searchField.getText(), hits -> {
+            currentHits.clear();
+            currentHits.addAll(hits);
+            showSearchResults(resultsMenu, hits);
+        }));
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> debounce.playFromStart());
+        searchField.setOnAction(event -> {
+            if (!currentHits.isEmpty()) {
+                openSearchHit(resultsMenu, currentHits.getFirst());
+            }
+        });
+        searchField.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                searchField.clear();
+                resultsMenu.hide();
+            }
+        });
+    }
+
+    private void showSearchResults(ContextMenu resultsMenu, List<TaskSearchHit> hits) {
+        TextField searchField = topBarView.searchField();
+        if (hits.isEmpty() || !searchField.isFocused()) {
+            resultsMenu.hide();
+            return;
+        }
+        resultsMenu.getItems().clear();
+        for (TaskSearchHit hit : hits) {
+            Label title = new Label(hit.title());
+            VBox row = new VBox(2, title);
+            if (!hit.snippet().isBlank()) {
+                Label snippet = new Label(hit.snippet());
+                snippet.getStyleClass().add("muted-label");
+                row.getChildren().add(snippet);
+            }
+            if (hit.archived()) {
+                title.setText(hit.title() + "  \u00b7  " + i18n.t("archived_hit"));
+            } else {
+                projectNameOf(hit.projectId()).ifPresent(name -> title.setText(hit.title() + "  \u00b7  " + name));
+            }
+            CustomMenuItem item = new CustomMenuItem(row, true);
+            item.setOnAction(event -> openSearchHit(resultsMenu, hit));
+            resultsMenu.getItems().add(item);
+        }
+        if (!resultsMenu.isShowing()) {
+            resultsMenu.show(searchField, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private Optional<String> projectNameOf(long projectId) {
+        return viewModel.projects().stream()
+                .filter(project -> project.id() == projectId)
+                .map(Project::name)
+                .findFirst();
+    }
+
+    private void openSearchHit(ContextMenu resultsMenu, TaskSearchHit hit) {
+        resultsMenu.hide();
+        // The Gantt rebuilds its rows from the project filter first, so focus once that change has been laid out.
+        Runnable focus = () -> Platform.runLater(() -> ganttChartView.focusTask(hit.taskId()));
+        if (hit.archived()) {
+            viewModel.restoreArchivedTask(hit, focus);
+        } else if (viewModel.openSearchHit(hit)) {
+            focus.run();
+        }
     }
 
     private void configureThemeComboBox() {
@@ -334,6 +434,8 @@ public class MainView extends BorderPane {
             });
         });
 
+        projectsSidebarView.shiftProjectButton().setOnAction(event -> showShiftProjectDialog());
+
         projectsSidebarView.deleteProjectButton().setOnAction(event -> {
             Project selected = viewModel.selectedProjectProperty().get();
             if (selected == null) {
@@ -761,9 +863,13 @@ public class MainView extends BorderPane {
         topBarView.inspectorToggleButton().setText(i18n.t("task_inspector"));
 
         topBarView.addTaskButton().setText(i18n.t("add_task"));
+        topBarView.importButton().setText(i18n.t("import"));
+        topBarView.archiveButton().setText(i18n.t("archive_completed"));
+        topBarView.searchField().setPromptText(i18n.t("search_tasks"));
         projectsSidebarView.titleLabel().setText(i18n.t("projects"));
         projectsSidebarView.addProjectButton().setText(i18n.t("add_project"));
         projectsSidebarView.editProjectButton().setText(i18n.t("edit"));
+        projectsSidebarView.shiftProjectButton().setText(i18n.t("shift_project"));
         projectsSidebarView.deleteProjectButton().setText(i18n.t("delete"));
 
         inspectorTitleText = i18n.t("task_inspector");
@@ -824,6 +930,72 @@ public class MainView extends BorderPane {
         }
     }
 
+    private void archiveCompletedTasks() {
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                i18n.t("archive_confirm").formatted(viewModel.archiveAfterDays()));
+        confirm.initOwner(getWindow());
+        confirm.showAndWait().filter(ButtonType.OK::equals).ifPresent(button -> viewModel.archiveCompletedTasks());
+    }
+
+    private void importFromFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(i18n.t("import_title"));
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter(i18n.t("import_filter"), "*.csv", "*.json"),
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON", "*.json")
+        );
+        File file = chooser.showOpenDialog(getWindow());
+        if (file != null) {
+            viewModel.importFile(file.toPath());
+        }
+    }
+
+    private void exportToFile() {
+        String workspaceScope = i18n.t("export_scope_workspace");
+        String projectScope = i18n.t("export_scope_project");
+        boolean selectedProjectOnly = false;
+        if (viewModel.selectedProjectProperty().get() != null) {
+            ChoiceDialog<String> scopeDialog = new ChoiceDialog<>(workspaceScope, List.of(workspaceScope, projectScope));
+            scopeDialog.initOwner(getWindow());
+            scopeDialog.setTitle(i18n.t("export_title"));
+            scopeDialog.setHeaderText(i18n.t("export_title"));
+            scopeDialog.setContentText(i18n.t("export_scope"));
+            Optional<String> scope = scopeDialog.showAndWait();
+            if (scope.isEmpty()) {
+                return;
+            }
+            selectedProjectOnly = scope.get().equals(projectScope);
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(i18n.t("export_title"));
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON", "*.json"),
+                new FileChooser.ExtensionFilter("iCalendar", "*.ics")
+        );
+        chooser.setInitialFileName("deadlineflow.csv");
+        File file = chooser.showSaveDialog(getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            viewModel.exportTo(withExportExtension(file, chooser.getSelectedExtensionFilter()).toPath(), selectedProjectOnly);
+        } catch (ValidationException ex) {
+            showValidationError(ex.getMessage());
+        }
+    }
+
+    private File withExportExtension(File file, FileChooser.ExtensionFilter filter) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || name.endsWith(".json") || name.endsWith(".ics") || filter == null) {
+            return file;
+        }
+        // Some platforms return the typed name without the extension of the chosen filter.
+        return new File(file.getParentFile(), file.getName() + filter.getExtensions().getFirst().substring(1));
+    }
+
     private void updateProjectFinishDateLabel() {
         if (viewModel.projectFinishDateProperty().get() == null) {
             topBarView.finishDateLabel().setText(i18n.t("project_finish_date") + ": -");
@@ -861,7 +1033,7 @@ public class MainView extends BorderPane {
             taskInspectorView.startDatePicker().setValue(task.startDate());
             taskInspectorView.dueDatePicker().setValue(task.dueDate());
             taskInspectorView.progressField().setText(String.valueOf(task.progress()));
-            taskInspectorView.descriptionArea().setText(task.description());
+            taskInspectorView.descriptionArea().setText(viewModel.descriptionForTask(task.id()));
 
             if (!taskInspectorView.statusComboBox().getItems().contains(task.status())) {
                 String fallbackStatus = taskInspectorView.statusComboBox().getItems().isEmpty()
@@ -891,9 +1063,38 @@ public class MainView extends BorderPane {
         boolean hasProject = selectedProject != null;
         projectsSidebarView.addProjectButton().setDisable(false);
         projectsSidebarView.editProjectButton().setDisable(!hasProject);
+        projectsSidebarView.shiftProjectButton().setDisable(!hasProject);
         projectsSidebarView.deleteProjectButton().setDisable(!hasProject);
     }
 
+    private void showShiftProjectDialog() {
+        Project selected = viewModel.selectedProjectProperty().get();
+        if (selected == null) {
+            return;
+        }
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.initOwner(getWindow());
+        dialog.setTitle(i18n.t("shift_project"));
+        dialog.setHeaderText(selected.name());
+        ButtonType okType = new ButtonType(i18n.t("ok"), ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().setAll(okType, new ButtonType(i18n.t("cancel"), ButtonBar.ButtonData.CANCEL_CLOSE));
+
+        Spinner<Integer> daysSpinner = new Spinner<>(-MainViewModel.MAX_PROJECT_SHIFT_DAYS, MainViewModel.MAX_PROJECT_SHIFT_DAYS, 7);
+        daysSpinner.setEditable(true);
+        daysSpinner.setMaxWidth(Double.MAX_VALUE);
+        dialog.getDialogPane().setContent(new VBox(8, new Label(i18n.t("shift_project_days")), daysSpinner));
+
+        dialog.showAndWait().filter(okType::equals).ifPresent(button -> {
+            try {
+                viewModel.shiftSelectedProject(daysSpinner.getValue());
+            } catch (Exception ex) {
+                showValidationError(ex.getMessage());
+            }
+            refreshInspector(viewModel.selectedTaskProperty().get());
+        });
+    }
+
     private void updateInspectorActions(Task task) {
         boolean hasTask = task != null;
         boolean hasDependencySelection = taskInspectorView.dependencyListView().getSelectionModel().getSelectedItem() != null;
@@ -1077,19 +1278,49 @@ public class MainView extends BorderPane {
                 .map(task -> task.title() + " (" + i18n.t("due") + " " + DateTimeFormatter.ISO_LOCAL_DATE.format(task.dueDate()) + ")")
                 .toList();
 
-        ChoiceDialog<String> dialog = new ChoiceDialog<>(labels.getFirst(), labels);
+        Dialog<ButtonType> dialog = new Dialog<>();
         dialog.initOwner(getWindow());
         dialog.setTitle(i18n.t("add_dependency"));
         dialog.setHeaderText(i18n.t("add_dependency"));
-        dialog.setContentText(i18n.t("task"));
+        ButtonType okType = new ButtonType(i18n.t("ok"), ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().setAll(okType, new ButtonType(i18n.t("cancel"), ButtonBar.ButtonData.CANCEL_CLOSE));
+
+        ComboBox<String> taskChoice = new ComboBox<>();
+        taskChoice.getItems().setAll(labels);
+        taskChoice.getSelectionModel().selectFirst();
+        taskChoice.setMaxWidth(Double.MAX_VALUE);
+        ComboBox<DependencyType> typeChoice = new ComboBox<>();
+        typeChoice.getItems().setAll(DependencyType.values());
+        typeChoice.getSelectionModel().select(DependencyType.FINISH_START);
+        typeChoice.setMaxWidth(Double.MAX_VALUE);
+        typeChoice.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(DependencyType type) {
+                return type == null ? "" : i18n.t("dependency_type_" + type.name().toLowerCase(Locale.ROOT));
+            }
+
+            @Override
+            public DependencyType fromString(String string) {
+                return null;
+            }
+        });
+        Spinner<Integer> lagSpinner = new Spinner<>(-Dependency.MAX_LAG_DAYS, Dependency.MAX_LAG_DAYS, 0);
+        lagSpinner.setEditable(true);
+        lagSpinner.setMaxWidth(Double.MAX_VALUE);
+        dialog.getDialogPane().setContent(new VBox(8,
+                new Label(i18n.t("task")), taskChoice,
+                new Label(i18n.t("dependency_type")), typeChoice,
+                new Label(i18n.t("dependency_lag_days")), lagSpinner
+        ));
 
-        dialog.showAndWait().ifPresent(label -> {
-            int selectedIndex = labels.indexOf(label);
+        dialog.showAndWait().filter(okType::equals).ifPresent(button -> {
+            int selectedIndex = taskChoice.getSelectionModel().getSelectedIndex();
             if (selectedIndex < 0) {
                 return;
             }
             Task fromTask = candidates.get(selectedIndex);
-            boolean added = viewModel.addDependency(fromTask.id(), selectedTask.id());
+            boolean added = viewModel.addDependency(
+                    fromTask.id(), selectedTask.id(), typeChoice.getValue(), lagSpinner.getValue());
             if (!added) {
                 showValidationError(viewModel.bannerMessageProperty().get());
             }
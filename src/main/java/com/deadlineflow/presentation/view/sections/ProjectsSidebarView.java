@@ -13,6 +13,7 @@ public class ProjectsSidebarView extends VBox {
     private final ListView<Project> projectListView = new ListView<>();
     private final Button addProjectButton = new Button();
     private final Button editProjectButton = new Button();
+    private final Button shiftProjectButton = new Button();
     private final Button deleteProjectButton = new Button();
 
     public ProjectsSidebarView() {
@@ -28,13 +29,15 @@ public class ProjectsSidebarView extends VBox {
 
         addProjectButton.getStyleClass().addAll("pill-button", "primary-button");
         editProjectButton.getStyleClass().add("pill-button");
+        shiftProjectButton.getStyleClass().add("pill-button");
         deleteProjectButton.getStyleClass().addAll("pill-button", "danger-button");
 
         addProjectButton.setMaxWidth(Double.MAX_VALUE);
         editProjectButton.setMaxWidth(Double.MAX_VALUE);
+        shiftProjectButton.setMaxWidth(Double.MAX_VALUE);
         deleteProjectButton.setMaxWidth(Double.MAX_VALUE);
 
-        VBox actions = new VBox(8, addProjectButton, editProjectButton, deleteProjectButton);
+        VBox actions = new VBox(8, addProjectButton, editProjectButton, shiftProjectButton, deleteProjectButton);
 
         getChildren().addAll(titleLabel, projectListView, actions);
         VBox.setVgrow(projectListView, Priority.ALWAYS);
@@ -56,6 +59,10 @@ public class ProjectsSidebarView extends VBox {
         return editProjectButton;
     }
 
+    public Button shiftProjectButton() {
+        return shiftProjectButton;
+    }
+
     public Button deleteProjectButton() {
         return deleteProjectButton;
     }
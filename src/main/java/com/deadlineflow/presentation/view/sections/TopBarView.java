@@ -26,11 +26,15 @@ public class TopBarView extends VBox {
     private final Button inspectorToggleButton = new Button();
     private final Label zoomLabel = new Label();
     private final TextField zoomField = new TextField("100");
+    private final TextField searchField = new TextField();
 
     private final Label themeLabel = new Label();
     private final ComboBox<ThemeManager.ThemeMode> themeComboBox = new ComboBox<>();
 
     private final Button addTaskButton = new Button();
+    private final Button importButton = new Button();
+    private final Button exportButton = new Button();
+    private final Button archiveButton = new Button();
     private final Label finishDateLabel = new Label();
 
     public TopBarView() {
@@ -61,6 +65,10 @@ public class TopBarView extends VBox {
         zoomField.setMaxWidth(96);
         zoomField.setPromptText("100");
         zoomField.setAlignment(Pos.CENTER_RIGHT);
+        searchField.getStyleClass().add("inspector-input-target");
+        searchField.setMinWidth(140);
+        searchField.setPrefWidth(240);
+        searchField.setMaxWidth(320);
         projectsToggleButton.setMinWidth(86);
         projectsToggleButton.setPrefWidth(96);
         projectsToggleButton.setMaxWidth(132);
@@ -71,6 +79,9 @@ public class TopBarView extends VBox {
         themeComboBox.setPrefWidth(128);
         themeComboBox.setMaxWidth(180);
         addTaskButton.getStyleClass().addAll("pill-button", "primary-button");
+        importButton.getStyleClass().add("pill-button");
+        exportButton.getStyleClass().add("pill-button");
+        archiveButton.getStyleClass().add("pill-button");
         finishDateLabel.getStyleClass().add("finish-date-label");
         finishDateLabel.setMinWidth(Region.USE_PREF_SIZE);
 
@@ -80,7 +91,7 @@ public class TopBarView extends VBox {
         HBox themeGroup = new HBox(8, themeLabel, themeComboBox);
         themeGroup.setAlignment(Pos.CENTER_LEFT);
 
-        HBox rightControls = new HBox(12, themeGroup, divider(), addTaskButton, divider(), finishDateLabel);
+        HBox rightControls = new HBox(12, themeGroup, divider(), importButton, exportButton, archiveButton, addTaskButton, divider(), finishDateLabel);
         rightControls.setAlignment(Pos.CENTER_RIGHT);
 
         Region controlsSpacer = new Region();
@@ -95,7 +106,7 @@ public class TopBarView extends VBox {
         Region zoomSpacer = new Region();
         HBox.setHgrow(zoomSpacer, Priority.ALWAYS);
 
-        HBox zoomRow = new HBox(10, projectsToggleButton, zoomLabel, zoomField, zoomSpacer, inspectorToggleButton);
+        HBox zoomRow = new HBox(10, projectsToggleButton, zoomLabel, zoomField, zoomSpacer, searchField, inspectorToggleButton);
         zoomRow.getStyleClass().addAll("panel-card", "toolbar-row", "toolbar-zoom-row");
         zoomRow.setAlignment(Pos.CENTER_LEFT);
         zoomRow.setMinHeight(Region.USE_PREF_SIZE);
@@ -157,6 +168,10 @@ public class TopBarView extends VBox {
         return zoomField;
     }
 
+    public TextField searchField() {
+        return searchField;
+    }
+
     public Label themeLabel() {
         return themeLabel;
     }
@@ -169,6 +184,18 @@ public class TopBarView extends VBox {
         return addTaskButton;
     }
 
+    public Button importButton() {
+        return importButton;
+    }
+
+    public Button exportButton() {
+        return exportButton;
+    }
+
+    public Button archiveButton() {
+        return archiveButton;
+    }
+
     public Label finishDateLabel() {
         return finishDateLabel;
     }
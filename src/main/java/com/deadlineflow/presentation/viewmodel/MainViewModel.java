@@ -2,15 +2,22 @@ package com.deadlineflow.presentation.viewmodel;
 
 import com.deadlineflow.application.services.ConflictService;
 import com.deadlineflow.application.services.CriticalPathResult;
-import com.deadlineflow.application.services.CriticalPathService;
-import com.deadlineflow.application.services.DependencyGraphService;
+import com.deadlineflow.application.services.DynamicTopologicalOrder;
+import com.deadlineflow.application.services.ExportService;
+import com.deadlineflow.application.services.ImportService;
+import com.deadlineflow.application.services.IncrementalCriticalPathEngine;
 import com.deadlineflow.application.services.RiskService;
 import com.deadlineflow.application.services.SchedulerEngine;
+import com.deadlineflow.application.services.TaskGraph;
+import com.deadlineflow.application.services.TaskGraphCache;
 import com.deadlineflow.application.services.TaskService;
+import com.deadlineflow.data.repository.ArchiveRepository;
 import com.deadlineflow.data.repository.DependencyRepository;
 import com.deadlineflow.data.repository.ProjectRepository;
 import com.deadlineflow.data.repository.StatusRepository;
 import com.deadlineflow.data.repository.TaskRepository;
+import com.deadlineflow.data.repository.UnitOfWork;
+import com.deadlineflow.data.repository.WorkspaceRepository;
 import com.deadlineflow.domain.exceptions.ValidationException;
 import com.deadlineflow.domain.model.Conflict;
 import com.deadlineflow.domain.model.Dependency;
@@ -19,12 +26,15 @@ import com.deadlineflow.domain.model.Project;
 import com.deadlineflow.domain.model.RiskLevel;
 import com.deadlineflow.domain.model.StatusDefinition;
 import com.deadlineflow.domain.model.Task;
+import com.deadlineflow.domain.model.TaskSearchHit;
 import com.deadlineflow.domain.model.TimeScale;
 import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.MapProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SetProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleMapProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -35,6 +45,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -49,17 +60,30 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.prefs.Preferences;
+import java.util.stream.Collectors;
 
 public class MainViewModel {
     public static final String DONE_STATUS = "DONE";
+    private static final String IN_PROGRESS_STATUS = "IN_PROGRESS";
     private static final boolean MODEL_DEBUG = Boolean.getBoolean("deadlineflow.debug.model");
     private static final String PREF_KEY_TIMELINE_ZOOM = "timeline_zoom";
     private static final double DEFAULT_ZOOM = 1.0;
     private static final double MIN_ZOOM = 0.25;
     private static final double MAX_ZOOM = 4.0;
+    private static final int SEARCH_RESULT_LIMIT = 20;
+    private static final int DEPENDENCY_ORDER_PATCH_LIMIT = 256;
+    public static final int DEFAULT_ARCHIVE_AFTER_DAYS = 90;
+    public static final int MAX_PROJECT_SHIFT_DAYS = 3650;
+    private static final int ARCHIVE_AFTER_DAYS = Integer.getInteger(
+            "deadlineflow.archive.afterDays",
+            DEFAULT_ARCHIVE_AFTER_DAYS
+    );
 
     private final Preferences preferences = Preferences.userNodeForPackage(MainViewModel.class);
 
@@ -67,13 +91,18 @@ public class MainViewModel {
     private final TaskRepository taskRepository;
     private final DependencyRepository dependencyRepository;
     private final StatusRepository statusRepository;
+    private final WorkspaceRepository workspaceRepository;
 
     private final SchedulerEngine schedulerEngine;
     private final TaskService taskService;
     private final ConflictService conflictService;
     private final RiskService riskService;
-    private final DependencyGraphService dependencyGraphService;
-    private final CriticalPathService criticalPathService;
+    private final TaskGraphCache taskGraphCache;
+    // Confined to the derived-state thread; keeps the previous schedule so edits only recompute their cones.
+    private final IncrementalCriticalPathEngine criticalPathEngine;
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final ArchiveRepository archiveRepository;
 
     private final ObjectProperty<Project> selectedProject = new SimpleObjectProperty<>();
     private final ObjectProperty<Task> selectedTask = new SimpleObjectProperty<>();
@@ -83,6 +112,10 @@ public class MainViewModel {
     private final StringProperty bannerMessage = new SimpleStringProperty("");
     private final StringProperty cpmMessage = new SimpleStringProperty("");
     private final ObjectProperty<LocalDate> projectFinishDate = new SimpleObjectProperty<>();
+    private final BooleanProperty importInProgress = new SimpleBooleanProperty(false);
+    private final BooleanProperty exportInProgress = new SimpleBooleanProperty(false);
+    private final BooleanProperty archiveInProgress = new SimpleBooleanProperty(false);
+    private final AtomicBoolean exportCancelled = new AtomicBoolean();
 
     private final ObservableList<Project> projects;
     private final ObservableList<Task> allTasks;
@@ -110,30 +143,55 @@ public class MainViewModel {
     private final AtomicLong derivedStateGeneration = new AtomicLong();
     private long latestScheduledDerivedStateGeneration;
     private boolean derivedStateComputationInFlight;
+    // Built on the first dependency check and then patched from list changes, so each check only searches the
+    // part of the graph between the two tasks.
+    private DynamicTopologicalOrder dependencyOrder;
+    // Critical path changes from results that were computed but skipped as stale; the next result must carry them.
+    private final Set<String> unappliedSlackTaskIds = new HashSet<>();
+    private boolean fullCriticalPathRequired;
+    // Keys for the shared task graph: graphRevision moves on any task or dependency change, graphStructureRevision
+    // only when the active task set or the dependencies change.
+    private long graphRevision;
+    private long graphStructureRevision;
+    private List<Dependency> activeDependencySnapshot = List.of();
+    private long activeDependencySnapshotRevision = -1;
+    private final ExecutorService transferExecutor;
+    private final ExecutorService searchExecutor;
+    private final AtomicLong searchGeneration = new AtomicLong();
 
     public MainViewModel(
             ProjectRepository projectRepository,
             TaskRepository taskRepository,
             DependencyRepository dependencyRepository,
             StatusRepository statusRepository,
+            WorkspaceRepository workspaceRepository,
             TaskService taskService,
             SchedulerEngine schedulerEngine,
             ConflictService conflictService,
             RiskService riskService,
-            DependencyGraphService dependencyGraphService,
-            CriticalPathService criticalPathService
+            TaskGraphCache taskGraphCache,
+            IncrementalCriticalPathEngine criticalPathEngine,
+            ImportService importService,
+            ExportService exportService,
+            ArchiveRepository archiveRepository
     ) {
         this.projectRepository = projectRepository;
         this.taskRepository = taskRepository;
         this.dependencyRepository = dependencyRepository;
         this.statusRepository = statusRepository;
+        this.workspaceRepository = workspaceRepository;
         this.taskService = taskService;
         this.schedulerEngine = schedulerEngine;
         this.conflictService = conflictService;
         this.riskService = riskService;
-        this.dependencyGraphService = dependencyGraphService;
-        this.criticalPathService = criticalPathService;
+        this.taskGraphCache = taskGraphCache;
+        this.criticalPathEngine = criticalPathEngine;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.archiveRepository = archiveRepository;
         this.derivedStateExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("deadlineflow-derived-state"));
+        this.transferExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("deadlineflow-transfer"));
+        this.searchExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("deadlineflow-search"));
 
         this.projects = projectRepository.getAll();
         this.allTasks = taskRepository.getAll();
@@ -152,6 +210,9 @@ public class MainViewModel {
 
         selectedProject.addListener((obs, oldValue, newValue) -> {
             debugModel("listener: selectedProject changed to " + (newValue == null ? "null" : newValue.id()));
+            if (newValue != null) {
+                taskRepository.ensureProjectLoaded(newValue.id());
+            }
             refreshProjectFilters();
             if (selectedTask.get() != null && (newValue == null || selectedTask.get().projectId() != newValue.id())) {
                 selectedTask.set(null);
@@ -160,19 +221,27 @@ public class MainViewModel {
         });
 
         allTasks.addListener((javafx.collections.ListChangeListener<? super Task>) change -> {
+            graphRevision++;
+            boolean membershipChanged = projectTaskMembershipChanged(change);
             if (handlingTaskListChange) {
                 debugModel("listener: allTasks re-entrant change coalesced");
-                refreshProjectFilters();
+                if (membershipChanged) {
+                    refreshProjectDependencyFilter();
+                }
                 scheduleDerivedStateRecompute("tasks-listener-reentrant");
                 return;
             }
             handlingTaskListChange = true;
-            debugModel("listener: allTasks changed");
+            debugModel("listener: allTasks changed membershipChanged=" + membershipChanged);
             try {
                 if (selectedTask.get() != null && findTask(selectedTask.get().id()).isEmpty()) {
                     selectedTask.set(null);
                 }
-                refreshProjectFilters();
+                // The task predicate only depends on the selected project, so FilteredList forwards
+                // add/replace/remove events itself; only the dependency predicate captures task ids.
+                if (membershipChanged) {
+                    refreshProjectDependencyFilter();
+                }
                 scheduleDerivedStateRecompute("tasks-listener");
             } finally {
                 handlingTaskListChange = false;
@@ -180,6 +249,9 @@ public class MainViewModel {
         });
         allDependencies.addListener((javafx.collections.ListChangeListener<? super Dependency>) change -> {
             debugModel("listener: allDependencies changed");
+            trackDependencyOrder(change);
+            graphStructureRevision++;
+            graphRevision++;
             scheduleDerivedStateRecompute("dependencies-listener");
         });
 
@@ -278,6 +350,22 @@ public class MainViewModel {
         return projectFinishDate;
     }
 
+    public BooleanProperty importInProgressProperty() {
+        return importInProgress;
+    }
+
+    public BooleanProperty exportInProgressProperty() {
+        return exportInProgress;
+    }
+
+    public BooleanProperty archiveInProgressProperty() {
+        return archiveInProgress;
+    }
+
+    public int archiveAfterDays() {
+        return ARCHIVE_AFTER_DAYS;
+    }
+
     public MapProperty<String, RiskLevel> riskByTaskIdProperty() {
         return riskByTaskId;
     }
@@ -315,13 +403,7 @@ public class MainViewModel {
     }
 
     public int taskCountForProject(long projectId) {
-        int count = 0;
-        for (Task task : allTasks) {
-            if (task.projectId() == projectId) {
-                count++;
-            }
-        }
-        return count;
+        return taskRepository.countByProjectId(projectId);
     }
 
     public void createProject(String name, String color, int priority) {
@@ -367,6 +449,33 @@ public class MainViewModel {
         scheduleDerivedStateRecompute("delete-project");
     }
 
+    /**
+     * Moves every task of the selected project by {@code days}, as one unit of work: one transaction and a single
+     * list change instead of one per task.
+     */
+    public void shiftSelectedProject(int days) {
+        Project project = selectedProject.get();
+        if (project == null || days == 0) {
+            return;
+        }
+        if (Math.abs(days) > MAX_PROJECT_SHIFT_DAYS) {
+            throw new ValidationException("Shift must be at most " + MAX_PROJECT_SHIFT_DAYS + " days");
+        }
+        UnitOfWork unitOfWork = workspaceRepository.beginUnitOfWork();
+        for (Task task : taskRepository.findByProjectId(project.id())) {
+            unitOfWork.saveTask(schedulerEngine.shiftTask(task, days));
+        }
+        if (unitOfWork.size() == 0) {
+            return;
+        }
+        unitOfWork.commit();
+        if (selectedTask.get() != null) {
+            findTask(selectedTask.get().id()).ifPresent(selectedTask::set);
+        }
+        bannerMessage.set("Project shifted by " + days + " days");
+        scheduleDerivedStateRecompute("shift-project");
+    }
+
     public Task createTask(String title, LocalDate startDate, LocalDate dueDate) {
         long startNanos = System.nanoTime();
         debugModel("createTask ENTRY title=" + title + " start=" + startDate + " due=" + dueDate);
@@ -432,31 +541,22 @@ public class MainViewModel {
         if (task == null) {
             return;
         }
-        if (task.description().equals(description)) {
-            return;
-        }
-        // Description is persisted directly on the task record so text survives reload/relaunch.
-        Task updated = task.withDescription(description);
-        taskRepository.save(updated);
-        selectedTask.set(taskRepository.findById(updated.id()).orElse(updated));
-        scheduleDerivedStateRecompute("update-selected-task-description");
+        updateTaskDescription(task.id(), description);
     }
 
     public void updateTaskDescription(String taskId, String description) {
-        Optional<Task> maybeTask = taskRepository.findById(taskId);
-        if (maybeTask.isEmpty()) {
+        if (taskRepository.findById(taskId).isEmpty()) {
             return;
         }
-        Task task = maybeTask.get();
-        if (task.description().equals(description)) {
+        if (taskRepository.loadDescription(taskId).equals(description)) {
             return;
         }
-        Task updated = task.withDescription(description);
-        taskRepository.save(updated);
-        if (selectedTask.get() != null && selectedTask.get().id().equals(taskId)) {
-            selectedTask.set(taskRepository.findById(taskId).orElse(updated));
-        }
-        scheduleDerivedStateRecompute("update-task-description");
+        // Descriptions are written on their own; the task row and derived state are unaffected.
+        taskRepository.saveDescription(taskId, description);
+    }
+
+    public String descriptionForTask(String taskId) {
+        return taskRepository.loadDescription(taskId);
     }
 
     public void updateSelectedTaskDates(LocalDate startDate, LocalDate dueDate) {
@@ -565,6 +665,10 @@ public class MainViewModel {
     }
 
     public boolean addDependency(String fromTaskId, String toTaskId) {
+        return addDependency(fromTaskId, toTaskId, DependencyType.FINISH_START, 0);
+    }
+
+    public boolean addDependency(String fromTaskId, String toTaskId, DependencyType type, int lagDays) {
         if (fromTaskId == null || toTaskId == null || fromTaskId.equals(toTaskId)) {
             bannerMessage.set("Invalid dependency selection");
             return false;
@@ -579,13 +683,15 @@ public class MainViewModel {
 
         Dependency candidate;
         try {
-            candidate = new Dependency(UUID.randomUUID().toString(), fromTaskId, toTaskId, DependencyType.FINISH_START);
+            candidate = new Dependency(UUID.randomUUID().toString(), fromTaskId, toTaskId, type, lagDays);
         } catch (IllegalArgumentException ex) {
             bannerMessage.set(ex.getMessage());
             return false;
         }
-        if (dependencyGraphService.createsCycle(projectTasks, projectDependencies, candidate)) {
-            bannerMessage.set("Cannot add dependency because it introduces a cycle");
+        List<String> cycle = dependencyOrder().cyclePath(fromTaskId, toTaskId);
+        if (!cycle.isEmpty()) {
+            bannerMessage.set("Cannot add dependency because it introduces a cycle: "
+                    + cycle.stream().map(this::taskTitle).collect(Collectors.joining(" -> ")));
             return false;
         }
 
@@ -595,18 +701,283 @@ public class MainViewModel {
         return true;
     }
 
+    private DynamicTopologicalOrder dependencyOrder() {
+        if (dependencyOrder == null) {
+            dependencyOrder = DynamicTopologicalOrder.of(allDependencies);
+        }
+        return dependencyOrder;
+    }
+
+    private void trackDependencyOrder(javafx.collections.ListChangeListener.Change<? extends Dependency> change) {
+        if (dependencyOrder == null) {
+            return;
+        }
+        while (change.next()) {
+            // Reloads and project evictions replace whole lists; rebuilding on the next check is cheaper than patching.
+            if (change.getRemovedSize() + change.getAddedSize() > DEPENDENCY_ORDER_PATCH_LIMIT) {
+                dependencyOrder = null;
+                return;
+            }
+            for (Dependency removed : change.getRemoved()) {
+                dependencyOrder.removeDependency(removed);
+            }
+            for (Dependency added : change.getAddedSubList()) {
+                dependencyOrder.addDependency(added);
+            }
+        }
+    }
+
     public void removeDependency(String dependencyId) {
         dependencyRepository.delete(dependencyId);
         bannerMessage.set("Dependency removed");
         scheduleDerivedStateRecompute("remove-dependency");
     }
 
+    public void importFile(Path file) {
+        if (importInProgress.get()) {
+            bannerMessage.set("An import is already running");
+            return;
+        }
+        Project project = selectedProject.get();
+        long defaultProjectId = project == null ? 0 : project.id();
+        importInProgress.set(true);
+        bannerMessage.set("Importing " + file.getFileName() + "...");
+        transferExecutor.submit(() -> {
+            try {
+                ImportService.ImportResult result = importService.importFile(file, defaultProjectId, progress ->
+                        Platform.runLater(() -> bannerMessage.set("Importing " + file.getFileName() + ": "
+                                + Math.round(progress.fraction() * 100) + "% (" + progress.tasksImported() + " tasks)")));
+                Platform.runLater(() -> finishImport(importSummary(result)));
+            } catch (RuntimeException ex) {
+                // Batches committed before the failure stay in the database, so the workspace is refreshed either way.
+                Platform.runLater(() -> finishImport("Import failed: " + ex.getMessage()));
+            }
+        });
+    }
+
+    private void finishImport(String message) {
+        try {
+            importService.completeImport();
+            Project current = selectedProject.get();
+            if (current != null) {
+                selectedProject.set(projectRepository.findById(current.id()).orElse(null));
+            }
+            if (selectedProject.get() == null && !projects.isEmpty()) {
+                selectedProject.set(projects.getFirst());
+            }
+            refreshProjectFilters();
+            scheduleDerivedStateRecompute("import");
+        } finally {
+            importInProgress.set(false);
+            bannerMessage.set(message);
+        }
+    }
+
+    private String importSummary(ImportService.ImportResult result) {
+        StringBuilder summary = new StringBuilder("Imported ")
+                .append(result.tasksImported()).append(" tasks and ")
+                .append(result.dependenciesImported()).append(" dependencies");
+        if (result.rowsRejected() > 0) {
+            summary.append("; ").append(result.rowsRejected()).append(" rows rejected (")
+                    .append(result.errors().getFirst()).append(")");
+        }
+        if (result.hasCycle()) {
+            summary.append("; dependency cycle among ").append(result.cycleTaskIds().size()).append(" tasks");
+        }
+        debugModel("import " + result);
+        return summary.toString();
+    }
+
+    public void exportTo(Path file, boolean selectedProjectOnly) {
+        if (exportInProgress.get()) {
+            bannerMessage.set("An export is already running");
+            return;
+        }
+        Project project = selectedProject.get();
+        if (selectedProjectOnly && project == null) {
+            throw new ValidationException("Select a project to export");
+        }
+        exportCancelled.set(false);
+        exportInProgress.set(true);
+        bannerMessage.set("Exporting " + file.getFileName() + "...");
+        transferExecutor.submit(() -> {
+            String message;
+            try {
+                ExportService.ExportResult result = selectedProjectOnly
+                        ? exportService.exportProject(file, project.id(), exportCancelled::get)
+                        : exportService.exportWorkspace(file, exportCancelled::get);
+                debugModel("export " + result);
+                message = "Exported " + result.tasks() + " tasks and " + result.dependencies()
+                        + " dependencies to " + file.getFileName();
+            } catch (CancellationException ex) {
+                message = "Export cancelled";
+            } catch (RuntimeException ex) {
+                message = "Export failed: " + ex.getMessage();
+            }
+            String finalMessage = message;
+            Platform.runLater(() -> {
+                exportInProgress.set(false);
+                bannerMessage.set(finalMessage);
+            });
+        });
+    }
+
+    public void cancelExport() {
+        exportCancelled.set(true);
+    }
+
+    /**
+     * Runs the search off the FX thread and hands the hits to {@code onResults} on it. Results of a query that was
+     * superseded by a newer one while it ran are dropped.
+     */
+    public void searchTasks(String query, Consumer<List<TaskSearchHit>> onResults) {
+        long generation = searchGeneration.incrementAndGet();
+        if (query == null || query.isBlank()) {
+            onResults.accept(List.of());
+            return;
+        }
+        searchExecutor.submit(() -> {
+            if (generation != searchGeneration.get()) {
+                return;
+            }
+            List<TaskSearchHit> hits;
+            try {
+                hits = new ArrayList<>(taskRepository.search(query, SEARCH_RESULT_LIMIT));
+                // Archived matches only fill the list up; live tasks always come first.
+                if (hits.size() < SEARCH_RESULT_LIMIT) {
+                    hits.addAll(archiveRepository.search(query, SEARCH_RESULT_LIMIT - hits.size()));
+                }
+            } catch (RuntimeException ex) {
+                debugModel("search failed " + ex.getMessage());
+                hits = List.of();
+            }
+            List<TaskSearchHit> finalHits = hits;
+            Platform.runLater(() -> {
+                if (generation == searchGeneration.get()) {
+                    onResults.accept(finalHits);
+                }
+            });
+        });
+    }
+
+    /**
+     * Selects the hit's project and task. Returns false when the task is gone, e.g. deleted since the search ran.
+     */
+    public boolean openSearchHit(TaskSearchHit hit) {
+        Optional<Project> project = projectRepository.findById(hit.projectId());
+        if (project.isEmpty()) {
+            return false;
+        }
+        selectedProject.set(project.get());
+        Optional<Task> task = findTask(hit.taskId());
+        task.ifPresent(selectedTask::set);
+        return task.isPresent();
+    }
+
+    /**
+     * Brings an archived hit back into the workspace, selects it and then runs {@code onRestored} on the FX thread.
+     */
+    public void restoreArchivedTask(TaskSearchHit hit, Runnable onRestored) {
+        if (!beginArchiveOperation("Restoring " + hit.title() + "...")) {
+            return;
+        }
+        transferExecutor.submit(() -> {
+            try {
+                ArchiveRepository.RestoreResult result = archiveRepository.restoreTask(hit.taskId());
+                Platform.runLater(() -> {
+                    try {
+                        archiveRepository.applyRestored(result);
+                        scheduleDerivedStateRecompute("restore");
+                        if (result.tasks().isEmpty()) {
+                            bannerMessage.set(hit.title() + " is no longer in the archive");
+                            return;
+                        }
+                        bannerMessage.set("Restored " + result.tasks().size() + " archived task"
+                                + (result.tasks().size() == 1 ? "" : "s"));
+                        if (openSearchHit(hit)) {
+                            onRestored.run();
+                        }
+                    } finally {
+                        archiveInProgress.set(false);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                Platform.runLater(() -> {
+                    archiveInProgress.set(false);
+                    bannerMessage.set("Restore failed: " + ex.getMessage());
+                });
+            }
+        });
+    }
+
+    /**
+     * Moves DONE tasks due more than {@code deadlineflow.archive.afterDays} days ago out of the working set, along
+     * with projects that contain nothing else. Archived tasks stay searchable and come back when opened from search.
+     */
+    public void archiveCompletedTasks() {
+        if (!beginArchiveOperation("Archiving completed tasks...")) {
+            return;
+        }
+        LocalDate dueBefore = LocalDate.now().minusDays(ARCHIVE_AFTER_DAYS);
+        transferExecutor.submit(() -> {
+            try {
+                ArchiveRepository.ArchiveResult result = archiveRepository.archiveCompleted(DONE_STATUS, dueBefore);
+                debugModel("archive " + result.tasks() + " tasks, " + result.projectIds().size() + " projects");
+                Platform.runLater(() -> finishArchive(result, dueBefore));
+            } catch (RuntimeException ex) {
+                Platform.runLater(() -> {
+                    archiveInProgress.set(false);
+                    bannerMessage.set("Archive failed: " + ex.getMessage());
+                });
+            }
+        });
+    }
+
+    private boolean beginArchiveOperation(String message) {
+        if (archiveInProgress.get()) {
+            bannerMessage.set("The archive is busy");
+            return false;
+        }
+        archiveInProgress.set(true);
+        bannerMessage.set(message);
+        return true;
+    }
+
+    private void finishArchive(ArchiveRepository.ArchiveResult result, LocalDate dueBefore) {
+        try {
+            archiveRepository.applyArchived(result);
+            Project current = selectedProject.get();
+            if (current != null && projectRepository.findById(current.id()).isEmpty()) {
+                selectedProject.set(projects.isEmpty() ? null : projects.getFirst());
+            }
+            refreshProjectFilters();
+            scheduleDerivedStateRecompute("archive");
+        } finally {
+            archiveInProgress.set(false);
+            bannerMessage.set(result.tasks() == 0
+                    ? "No completed tasks due before " + dueBefore
+                    : "Archived " + result.tasks() + " completed tasks and " + result.projectIds().size()
+                    + " projects due before " + dueBefore);
+        }
+    }
+
     public Optional<Task> findTask(String taskId) {
         return taskRepository.findById(taskId);
     }
 
     public String dependencyLabel(Dependency dependency) {
-        return taskTitle(dependency.fromTaskId()) + " -> " + taskTitle(dependency.toTaskId());
+        String label = taskTitle(dependency.fromTaskId()) + " -> " + taskTitle(dependency.toTaskId());
+        if (dependency.type() == DependencyType.FINISH_START && dependency.lagDays() == 0) {
+            return label;
+        }
+        String code = switch (dependency.type()) {
+            case FINISH_START -> "FS";
+            case START_START -> "SS";
+            case FINISH_FINISH -> "FF";
+            case START_FINISH -> "SF";
+        };
+        int lag = dependency.lagDays();
+        return label + " (" + code + (lag == 0 ? "" : (lag > 0 ? " +" : " ") + lag + "d") + ")";
     }
 
     public Integer slackDaysForTask(String taskId) {
@@ -622,6 +993,7 @@ public class MainViewModel {
     }
 
     private void refreshProjectFilters() {
+        graphStructureRevision++;
         Project project = selectedProject.get();
         if (project == null) {
             projectTasks.setPredicate(task -> false);
@@ -629,18 +1001,55 @@ public class MainViewModel {
             return;
         }
 
+        long projectId = project.id();
+        projectTasks.setPredicate(task -> task.projectId() == projectId);
+        refreshProjectDependencyFilter();
+    }
+
+    private void refreshProjectDependencyFilter() {
+        graphStructureRevision++;
+        Project project = selectedProject.get();
+        if (project == null) {
+            projectDependencies.setPredicate(dependency -> false);
+            return;
+        }
+
         Set<String> projectTaskIds = new HashSet<>();
         for (Task task : allTasks) {
             if (task.projectId() == project.id()) {
                 projectTaskIds.add(task.id());
             }
         }
-
-        projectTasks.setPredicate(task -> task.projectId() == project.id());
         projectDependencies.setPredicate(dependency ->
                 projectTaskIds.contains(dependency.fromTaskId()) && projectTaskIds.contains(dependency.toTaskId()));
     }
 
+    private boolean projectTaskMembershipChanged(javafx.collections.ListChangeListener.Change<? extends Task> change) {
+        Project project = selectedProject.get();
+        if (project == null) {
+            return false;
+        }
+        Set<String> removedIds = new HashSet<>();
+        Set<String> addedIds = new HashSet<>();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            for (Task task : change.getRemoved()) {
+                if (task.projectId() == project.id()) {
+                    removedIds.add(task.id());
+                }
+            }
+            for (Task task : change.getAddedSubList()) {
+                if (task.projectId() == project.id()) {
+                    addedIds.add(task.id());
+                }
+            }
+        }
+        change.reset();
+        return !removedIds.equals(addedIds);
+    }
+
     private void refreshStatusOptions() {
         List<String> names = statusDefinitions.stream().map(StatusDefinition::name).toList();
         statusOptions.setAll(names);
@@ -670,9 +1079,9 @@ public class MainViewModel {
 
         normalizingStatuses = true;
         try {
-            for (Task task : invalidTasks) {
-                taskRepository.save(task.withStatus(fallbackStatus));
-            }
+            taskRepository.saveAll(invalidTasks.stream()
+                    .map(task -> task.withStatus(fallbackStatus))
+                    .toList());
         } finally {
             normalizingStatuses = false;
         }
@@ -686,6 +1095,10 @@ public class MainViewModel {
         return DONE_STATUS.equals(task.status());
     }
 
+    private boolean isStarted(Task task) {
+        return task.progress() > 0 || IN_PROGRESS_STATUS.equals(task.status()) || isDone(task);
+    }
+
     private void scheduleDerivedStateRecompute(String source) {
         if (!Platform.isFxApplicationThread()) {
             Platform.runLater(() -> scheduleDerivedStateRecompute(source));
@@ -711,8 +1124,19 @@ public class MainViewModel {
         derivedStateComputationInFlight = true;
 
         List<Task> activeTasks = snapshotActiveTasks();
-        List<Dependency> activeDependencies = snapshotActiveDependencies(activeTasks);
+        if (activeDependencySnapshotRevision != graphStructureRevision) {
+            // Edits that keep the task set and the dependencies reuse the previous dependency snapshot.
+            activeDependencySnapshot = snapshotActiveDependencies(activeTasks);
+            activeDependencySnapshotRevision = graphStructureRevision;
+        }
+        List<Dependency> activeDependencies = activeDependencySnapshot;
+        long structureRevision = graphStructureRevision;
+        long revision = graphRevision;
         LocalDate today = LocalDate.now();
+        Set<String> carriedSlackTaskIds = Set.copyOf(unappliedSlackTaskIds);
+        boolean fullCriticalPath = fullCriticalPathRequired;
+        unappliedSlackTaskIds.clear();
+        fullCriticalPathRequired = false;
         debugModel("derivedState ENTRY gen=" + generation + " tasks=" + activeTasks.size() + " deps=" + activeDependencies.size());
 
         // Freeze root cause: expensive conflict/risk/CPM recomputation repeatedly ran on the JavaFX thread.
@@ -720,7 +1144,8 @@ public class MainViewModel {
         derivedStateExecutor.submit(() -> {
             try {
                 long computeStart = System.nanoTime();
-                DerivedStateResult result = computeDerivedState(activeTasks, activeDependencies, today);
+                DerivedStateResult result = computeDerivedState(
+                        structureRevision, revision, activeTasks, activeDependencies, today, carriedSlackTaskIds, fullCriticalPath);
                 long computeDurationNanos = System.nanoTime() - computeStart;
 
                 Platform.runLater(() -> {
@@ -729,6 +1154,11 @@ public class MainViewModel {
                             applyDerivedState(result);
                             debugModel("derivedState APPLY gen=" + generation + " computeNanos=" + computeDurationNanos);
                         } else {
+                            if (result.incrementalCriticalPath()) {
+                                unappliedSlackTaskIds.addAll(result.slackByTaskId().keySet());
+                            } else {
+                                fullCriticalPathRequired = true;
+                            }
                             debugModel("derivedState SKIP stale gen=" + generation + " latest=" + latestScheduledDerivedStateGeneration);
                         }
                     } finally {
@@ -740,7 +1170,9 @@ public class MainViewModel {
                     }
                 });
             } catch (Exception ex) {
+                criticalPathEngine.invalidate();
                 Platform.runLater(() -> {
+                    fullCriticalPathRequired = true;
                     derivedStateComputationInFlight = false;
                     debugModel("derivedState ERROR " + ex.getMessage());
                 });
@@ -781,28 +1213,51 @@ public class MainViewModel {
         return List.copyOf(active);
     }
 
-    private DerivedStateResult computeDerivedState(Collection<Task> activeTasks, Collection<Dependency> activeDependencies, LocalDate today) {
-        List<Conflict> detectedConflicts = conflictService.detectDependencyConflicts(activeTasks, activeDependencies);
+    private DerivedStateResult computeDerivedState(
+            long structureRevision,
+            long revision,
+            Collection<Task> activeTasks,
+            Collection<Dependency> activeDependencies,
+            LocalDate today,
+            Set<String> carriedSlackTaskIds,
+            boolean fullCriticalPath
+    ) {
+        TaskGraph graph = taskGraphCache.graph(structureRevision, revision, activeTasks, activeDependencies);
+        List<Conflict> detectedConflicts = conflictService.detectDependencyConflicts(graph);
 
         Map<String, String> conflictMap = new HashMap<>(Math.max(16, detectedConflicts.size() * 2));
         for (Conflict conflict : detectedConflicts) {
             conflictMap.merge(conflict.toTaskId(), conflict.message(), (a, b) -> a + "\n" + b);
         }
 
-        CriticalPathResult cpm = criticalPathService.compute(activeTasks, activeDependencies);
-        String cpmBannerText = cpm.hasCycle() ? "Critical path disabled: dependency cycle detected" : "";
-        LocalDate finishDate = cpm.hasCycle() ? null : cpm.projectFinishDate();
-        Set<String> criticalIds = cpm.hasCycle() ? Set.of() : new HashSet<>(cpm.criticalTaskIds());
-        Map<String, Integer> slackMap = cpm.hasCycle() ? Map.of() : new HashMap<>(cpm.slackDays());
+        IncrementalCriticalPathEngine.Update cpmUpdate = criticalPathEngine.update(graph);
+        CriticalPathResult cpm = cpmUpdate.isFull() ? cpmUpdate.fullResult() : fullCriticalPath ? criticalPathEngine.snapshot() : null;
+        boolean cycle = cpm != null && cpm.hasCycle();
+        String cpmBannerText = cycle ? "Critical path disabled: dependency cycle detected" : "";
+        LocalDate finishDate = cycle ? null : cpmUpdate.projectFinishDate();
+        Set<String> criticalIds;
+        Map<String, Integer> slackMap;
+        if (cpm != null) {
+            criticalIds = cycle ? Set.of() : new HashSet<>(cpm.criticalTaskIds());
+            slackMap = cycle ? Map.of() : new HashMap<>(cpm.slackDays());
+        } else {
+            // Only tasks whose slack moved; applyDerivedState patches them into the live maps.
+            criticalIds = Set.of();
+            slackMap = new HashMap<>(cpmUpdate.changedSlackDays());
+            for (String taskId : carriedSlackTaskIds) {
+                Integer slack = criticalPathEngine.slackDays(taskId);
+                if (slack != null) {
+                    slackMap.putIfAbsent(taskId, slack);
+                }
+            }
+        }
 
-        Map<String, Task> taskById = new HashMap<>(Math.max(16, activeTasks.size() * 2));
         Map<String, RiskLevel> riskMap = new HashMap<>(Math.max(16, activeTasks.size() * 2));
         List<Task> dueTodayTasks = new ArrayList<>();
         List<Task> dueInSevenTasks = new ArrayList<>();
         List<Task> overdueTasks = new ArrayList<>();
         LocalDate todayPlusSeven = today.plusDays(7);
         for (Task task : activeTasks) {
-            taskById.put(task.id(), task);
             riskMap.put(task.id(), riskService.evaluate(task, today, DONE_STATUS));
             if (isDone(task)) {
                 continue;
@@ -817,22 +1272,20 @@ public class MainViewModel {
             }
         }
 
-        Set<String> blockedTaskIds = new HashSet<>();
-        for (Dependency dependency : activeDependencies) {
-            Task from = taskById.get(dependency.fromTaskId());
-            Task to = taskById.get(dependency.toTaskId());
-            if (from == null || to == null || isDone(to) || isDone(from)) {
+        boolean[] blocked = new boolean[graph.size()];
+        List<Task> blockedTasks = new ArrayList<>();
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            DependencyType type = graph.edgeDependency(edge).type();
+            Task from = graph.task(graph.edgeSource(edge));
+            int to = graph.edgeTarget(edge);
+            // *_FINISH links only hold back the successor's finish; FINISH_START waits for the predecessor to be
+            // done, START_START for it to have started.
+            if (type.toFinish() || blocked[to] || isDone(graph.task(to))
+                    || (type.fromFinish() ? isDone(from) : isStarted(from))) {
                 continue;
             }
-            blockedTaskIds.add(to.id());
-        }
-
-        List<Task> blockedTasks = new ArrayList<>(blockedTaskIds.size());
-        for (String taskId : blockedTaskIds) {
-            Task task = taskById.get(taskId);
-            if (task != null) {
-                blockedTasks.add(task);
-            }
+            blocked[to] = true;
+            blockedTasks.add(graph.task(to));
         }
 
         return new DerivedStateResult(
@@ -841,6 +1294,7 @@ public class MainViewModel {
                 riskMap,
                 cpmBannerText,
                 finishDate,
+                cpm == null,
                 criticalIds,
                 slackMap,
                 sorted(dueTodayTasks),
@@ -861,11 +1315,23 @@ public class MainViewModel {
         cpmMessage.set(result.cpmMessage());
         projectFinishDate.set(result.projectFinishDate());
 
-        criticalTaskIds.clear();
-        criticalTaskIds.addAll(result.criticalTaskIds());
+        if (result.incrementalCriticalPath()) {
+            // A bar drag touches a handful of entries instead of re-firing listeners for the whole project.
+            for (Map.Entry<String, Integer> entry : result.slackByTaskId().entrySet()) {
+                slackByTaskId.put(entry.getKey(), entry.getValue());
+                if (entry.getValue() == 0) {
+                    criticalTaskIds.add(entry.getKey());
+                } else {
+                    criticalTaskIds.remove(entry.getKey());
+                }
+            }
+        } else {
+            criticalTaskIds.clear();
+            criticalTaskIds.addAll(result.criticalTaskIds());
 
-        slackByTaskId.clear();
-        slackByTaskId.putAll(result.slackByTaskId());
+            slackByTaskId.clear();
+            slackByTaskId.putAll(result.slackByTaskId());
+        }
 
         dueToday.setAll(result.dueToday());
         dueInSevenDays.setAll(result.dueInSevenDays());
@@ -879,6 +1345,14 @@ public class MainViewModel {
         return mutable;
     }
 
+    public void reportPersistenceFailure(String message) {
+        if (selectedTask.get() != null) {
+            selectedTask.set(findTask(selectedTask.get().id()).orElse(null));
+        }
+        bannerMessage.set("Changes could not be saved: " + message);
+        scheduleDerivedStateRecompute("persistence-failure");
+    }
+
     public String projectFinishDateText() {
         if (projectFinishDate.get() == null) {
             return "Project Finish Date: -";
@@ -888,6 +1362,8 @@ public class MainViewModel {
 
     public void shutdown() {
         derivedStateExecutor.shutdownNow();
+        transferExecutor.shutdownNow();
+        searchExecutor.shutdownNow();
     }
 
     private ThreadFactory daemonThreadFactory(String threadName) {
@@ -915,6 +1391,7 @@ public class MainViewModel {
             Map<String, RiskLevel> riskByTaskId,
             String cpmMessage,
             LocalDate projectFinishDate,
+            boolean incrementalCriticalPath,
             Set<String> criticalTaskIds,
             Map<String, Integer> slackByTaskId,
             List<Task> dueToday,
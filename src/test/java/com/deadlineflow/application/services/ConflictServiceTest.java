@@ -1,5 +1,6 @@
 package com.deadlineflow.application.services;
 
+import com.deadlineflow.domain.model.Conflict;
 import com.deadlineflow.domain.model.Dependency;
 import com.deadlineflow.domain.model.DependencyType;
 import com.deadlineflow.domain.model.Task;
@@ -9,6 +10,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ConflictServiceTest {
 
@@ -40,6 +42,27 @@ class ConflictServiceTest {
         assertEquals(1, conflictService.detectDependencyConflicts(List.of(predecessor, dependent), dependencies).size());
     }
 
+    @Test
+    void otherTypesCompareTheirOwnDatesWithLag() {
+        Task predecessor = new Task("a", 1, "Predecessor", LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 10), 0, "TODO");
+        Task startsEarly = new Task("b", 1, "Starts early", LocalDate.of(2026, 2, 3), LocalDate.of(2026, 2, 20), 0, "TODO");
+        Task finishesWithLead = new Task("c", 1, "Finishes with lead", LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 8), 0, "TODO");
+        Task finishesEarly = new Task("d", 1, "Finishes early", LocalDate.of(2026, 1, 20), LocalDate.of(2026, 1, 30), 0, "TODO");
+
+        List<Dependency> dependencies = List.of(
+                new Dependency("d1", "a", "b", DependencyType.START_START, 3),
+                new Dependency("d2", "a", "c", DependencyType.FINISH_FINISH, -2),
+                new Dependency("d3", "a", "d", DependencyType.START_FINISH)
+        );
+
+        List<Conflict> conflicts = conflictService.detectDependencyConflicts(
+                List.of(predecessor, startsEarly, finishesWithLead, finishesEarly), dependencies);
+
+        assertEquals(List.of("d1", "d3"), conflicts.stream().map(Conflict::dependencyId).toList());
+        assertTrue(conflicts.get(0).message().contains("must start on or after 2026-02-04"));
+        assertTrue(conflicts.get(1).message().contains("must finish on or after 2026-01-31"));
+    }
+
     @Test
     void validDependencyProducesNoConflict() {
         Task predecessor = new Task(
@@ -43,6 +43,32 @@ class CriticalPathServiceTest {
         assertEquals(LocalDate.of(2026, 1, 9), result.projectFinishDate());
     }
 
+    @Test
+    void honoursDependencyTypesAndLag() {
+        Task a = new Task("a", 1, "A", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), 0, "TODO"); // 5d
+        Task b = new Task("b", 1, "B", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 3), 0, "TODO"); // 3d
+        Task c = new Task("c", 1, "C", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), 0, "TODO"); // 2d
+        Task d = new Task("d", 1, "D", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 4), 0, "TODO"); // 4d
+
+        List<Dependency> dependencies = List.of(
+                new Dependency("d1", "a", "b", DependencyType.START_START, 2),
+                new Dependency("d2", "a", "c", DependencyType.FINISH_FINISH, 1),
+                new Dependency("d3", "b", "d", DependencyType.START_FINISH)
+        );
+
+        CriticalPathResult result = criticalPathService.compute(List.of(a, b, c, d), dependencies);
+
+        // b starts two days after a; c finishes a day after a; d only has to finish the day before b starts.
+        assertEquals(2, result.earliestStartDays().get("b"));
+        assertEquals(4, result.earliestStartDays().get("c"));
+        assertEquals(0, result.earliestStartDays().get("d"));
+        assertEquals(LocalDate.of(2026, 1, 6), result.projectFinishDate());
+        assertEquals(0, result.slackDays().get("a"));
+        assertEquals(1, result.slackDays().get("b"));
+        assertEquals(0, result.slackDays().get("c"));
+        assertEquals(2, result.slackDays().get("d"));
+    }
+
     @Test
     void cycleDisablesCriticalPath() {
         Task a = new Task("a", 1, "A", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1), 0, "TODO");
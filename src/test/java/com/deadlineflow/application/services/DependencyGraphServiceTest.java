@@ -53,6 +53,18 @@ class DependencyGraphServiceTest {
         assertTrue(result.cycleTaskIds().contains("b"));
     }
 
+    @Test
+    void createsCycleOnlyWhenTargetReachesSource() {
+        List<Task> tasks = List.of(task("a", "A"), task("b", "B"), task("c", "C"));
+        List<Dependency> dependencies = List.of(
+                dependency("d1", "a", "b"),
+                dependency("d2", "b", "c")
+        );
+
+        assertTrue(graphService.createsCycle(tasks, dependencies, dependency("d3", "c", "a")));
+        assertFalse(graphService.createsCycle(tasks, dependencies, dependency("d3", "a", "c")));
+    }
+
     private Task task(String id, String title) {
         return new Task(id, 1, title, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), 0, "TODO");
     }
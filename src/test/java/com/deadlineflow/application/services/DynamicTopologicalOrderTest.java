@@ -0,0 +1,104 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicTopologicalOrderTest {
+
+    @Test
+    void returnsThePathTheNewEdgeWouldClose() {
+        DynamicTopologicalOrder order = DynamicTopologicalOrder.of(List.of(
+                dependency("d1", "a", "b"),
+                dependency("d2", "b", "c"),
+                dependency("d3", "x", "c")
+        ));
+
+        assertEquals(List.of("c", "a", "b", "c"), order.cyclePath("c", "a"));
+        assertEquals(List.of(), order.cyclePath("a", "c"));
+        assertEquals(List.of(), order.cyclePath("c", "x-unknown"));
+    }
+
+    @Test
+    void insertedEdgesReorderSoLaterChecksStayExact() {
+        DynamicTopologicalOrder order = DynamicTopologicalOrder.of(List.of(dependency("d1", "c", "d")));
+
+        // a and b are registered after c and d, so this edge points backwards in the initial order.
+        order.addDependency(dependency("d2", "d", "a"));
+        order.addDependency(dependency("d3", "a", "b"));
+
+        assertTrue(order.isOrdered());
+        assertEquals(List.of("b", "c", "d", "a", "b"), order.cyclePath("b", "c"));
+        assertEquals(List.of(), order.cyclePath("c", "b"));
+    }
+
+    @Test
+    void recoversOrderOnceACycleIsRemoved() {
+        Dependency back = dependency("d3", "c", "a");
+        DynamicTopologicalOrder order = DynamicTopologicalOrder.of(List.of(dependency("d1", "a", "b"), dependency("d2", "b", "c")));
+
+        order.addDependency(back);
+        assertFalse(order.isOrdered());
+        assertEquals(List.of("b", "c", "a", "b"), order.cyclePath("b", "c"));
+
+        order.removeDependency(back);
+        assertEquals(List.of(), order.cyclePath("a", "c"));
+        assertTrue(order.isOrdered());
+    }
+
+    @Test
+    void randomInsertionsAgreeWithReachability() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            tasks.add(new Task("t" + i, 1, "T" + i, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1), 0, "TODO"));
+        }
+        List<Dependency> dependencies = new ArrayList<>();
+        DynamicTopologicalOrder order = DynamicTopologicalOrder.of(dependencies);
+
+        for (int step = 0; step < 2000; step++) {
+            String from = "t" + random.nextInt(tasks.size());
+            String to = "t" + random.nextInt(tasks.size());
+            if (from.equals(to)) {
+                continue;
+            }
+            TaskGraph graph = TaskGraph.of(tasks, dependencies);
+            boolean expected = graph.reaches(graph.indexOf(to), graph.indexOf(from));
+
+            List<String> cycle = order.cyclePath(from, to);
+            assertEquals(expected, !cycle.isEmpty());
+            if (expected) {
+                assertEquals(from, cycle.getFirst());
+                assertEquals(from, cycle.getLast());
+                for (int i = 0; i + 1 < cycle.size(); i++) {
+                    String source = cycle.get(i);
+                    String target = cycle.get(i + 1);
+                    assertTrue(i == 0 || dependencies.stream()
+                            .anyMatch(dependency -> dependency.fromTaskId().equals(source) && dependency.toTaskId().equals(target)));
+                }
+            } else {
+                Dependency dependency = dependency("d" + step, from, to);
+                dependencies.add(dependency);
+                order.addDependency(dependency);
+                assertTrue(order.isOrdered());
+            }
+            if (step % 5 == 0 && !dependencies.isEmpty()) {
+                order.removeDependency(dependencies.remove(random.nextInt(dependencies.size())));
+            }
+        }
+    }
+
+    private static Dependency dependency(String id, String from, String to) {
+        return new Dependency(id, from, to, DependencyType.FINISH_START);
+    }
+}
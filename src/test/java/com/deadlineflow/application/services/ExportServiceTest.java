@@ -0,0 +1,187 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.data.repository.ExportRepository;
+import com.deadlineflow.data.repository.ImportRepository;
+import com.deadlineflow.data.transfer.ExportWriter;
+import com.deadlineflow.data.transfer.ImportFormat;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Project> projects = List.of(new Project(1, "Launch, phase 1", "#336699", 2));
+    private final List<Task> tasks = List.of(
+            new Task("a", 1, "Plan", "Notes with \"quotes\",\ncommas and lines", day(1), day(3), 20, "TODO"),
+            new Task("b", 1, "Build", "", day(4), day(9), 0, "IN_PROGRESS")
+    );
+    private final List<Dependency> dependencies = List.of(new Dependency("d1", "a", "b", DependencyType.FINISH_START));
+    private final ExportService exportService = new ExportService(new ListExportRepository());
+
+    @Test
+    void csvExportRoundTripsThroughImport() throws IOException {
+        Path file = directory.resolve("workspace.csv");
+
+        ExportService.ExportResult result = exportService.exportWorkspace(file, () -> false);
+
+        assertEquals(1, result.projects());
+        assertEquals(2, result.tasks());
+        assertEquals(1, result.dependencies());
+        assertEquals(Files.size(file), result.bytesWritten());
+        assertRoundTrips(file, ImportFormat.CSV);
+    }
+
+    @Test
+    void jsonExportRoundTripsThroughImport() throws IOException {
+        Path file = directory.resolve("workspace.json");
+
+        exportService.exportWorkspace(file, () -> false);
+
+        assertRoundTrips(file, ImportFormat.JSON);
+    }
+
+    @Test
+    void icsExportWritesOneAllDayEventPerTask() throws IOException {
+        Path file = directory.resolve("workspace.ics");
+
+        exportService.exportProject(file, 1, () -> false);
+
+        String ics = Files.readString(file);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertEquals(2, ics.split("BEGIN:VEVENT", -1).length - 1);
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20260101\r\nDTEND;VALUE=DATE:20260104\r\n"));
+        assertTrue(ics.contains("DESCRIPTION:Notes with \"quotes\"\\,\\ncommas and lines\r\n"));
+        assertTrue(ics.contains("CATEGORIES:Launch\\, phase 1\r\n"));
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.length() <= 75, line);
+        }
+    }
+
+    @Test
+    void cancelledExportLeavesNoFileBehind() throws IOException {
+        Path file = directory.resolve("workspace.csv");
+        Files.writeString(file, "previous export");
+        int[] checks = {0};
+
+        assertThrows(CancellationException.class, () -> exportService.exportWorkspace(file, () -> ++checks[0] > 2));
+
+        assertEquals("previous export", Files.readString(file));
+        assertFalse(Files.exists(directory.resolve("workspace.csv.part")));
+    }
+
+    private void assertRoundTrips(Path file, ImportFormat format) {
+        RecordingImportRepository imported = new RecordingImportRepository();
+        ImportService.ImportResult result = new ImportService(imported, new DependencyGraphService())
+                .importFile(file, format, 1, 100, progress -> { });
+
+        assertEquals(0, result.rowsRejected(), result.errors().toString());
+        assertEquals(tasks, imported.tasks);
+        assertEquals(dependencies, imported.dependencies);
+    }
+
+    private static LocalDate day(int dayOfMonth) {
+        return LocalDate.of(2026, 1, dayOfMonth);
+    }
+
+    private final class ListExportRepository implements ExportRepository {
+        @Override
+        public void exportWorkspace(ExportWriter writer, BooleanSupplier cancelled) throws IOException {
+            for (Project project : projects) {
+                checkCancelled(cancelled);
+                writer.project(project);
+            }
+            for (Task task : tasks) {
+                checkCancelled(cancelled);
+                writer.task(task);
+            }
+            for (Dependency dependency : dependencies) {
+                checkCancelled(cancelled);
+                writer.dependency(dependency);
+            }
+        }
+
+        @Override
+        public void exportProject(long projectId, ExportWriter writer, BooleanSupplier cancelled) throws IOException {
+            exportWorkspace(writer, cancelled);
+        }
+
+        private void checkCancelled(BooleanSupplier cancelled) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Export cancelled");
+            }
+        }
+    }
+
+    private static final class RecordingImportRepository implements ImportRepository {
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<Dependency> dependencies = new ArrayList<>();
+
+        @Override
+        public void prepareImport() {
+        }
+
+        @Override
+        public Set<Long> projectIds() {
+            return Set.of(1L);
+        }
+
+        @Override
+        public Set<String> statusNames() {
+            return Set.of("TODO", "IN_PROGRESS");
+        }
+
+        @Override
+        public void upsertTasks(List<Task> batch) {
+            tasks.addAll(batch);
+        }
+
+        @Override
+        public List<Dependency> upsertDependencies(List<Dependency> batch) {
+            dependencies.addAll(batch);
+            return List.of();
+        }
+
+        @Override
+        public List<Task> findTasksByProjects(Collection<Long> projectIds) {
+            return tasks;
+        }
+
+        @Override
+        public List<Dependency> findDependenciesByProjects(Collection<Long> projectIds) {
+            return dependencies;
+        }
+
+        @Override
+        public Set<Long> projectIdsOfTasks(Collection<String> taskIds) {
+            return tasks.stream().filter(task -> taskIds.contains(task.id())).map(Task::projectId).collect(Collectors.toSet());
+        }
+
+        @Override
+        public void refreshWorkspace() {
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.data.repository.ImportRepository;
+import com.deadlineflow.data.transfer.ImportFormat;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryImportRepository repository = new InMemoryImportRepository();
+    private final ImportService importService = new ImportService(repository, new DependencyGraphService());
+
+    @Test
+    void importsCsvTasksAndDependenciesInBatches() throws IOException {
+        Path file = write("tasks.csv", """
+                record,id,project_id,title,description,start_date,due_date,progress,status,from_task_id,to_task_id
+                task,t1,1,Design,"Scope, risks and ""open"" questions",2026-01-01,2026-01-03,10,TODO,,
+                dependency,d1,,,,,,,,t1,t2
+                task,t2,1,Build,"Line one
+                line two",2026-01-04,2026-01-09,0,IN_PROGRESS,,
+                task,t3,,Ship,,2026-01-10,2026-01-10,,,,
+                """);
+
+        ImportService.ImportResult result = importService.importFile(file, ImportFormat.CSV, 1, 2, progress -> { });
+
+        assertEquals(3, result.tasksImported());
+        assertEquals(1, result.dependenciesImported());
+        assertEquals(0, result.rowsRejected());
+        assertFalse(result.hasCycle());
+        assertEquals(List.of(2, 1), repository.taskBatchSizes);
+        assertEquals("Scope, risks and \"open\" questions", repository.tasks.get("t1").description());
+        assertEquals("Line one\nline two", repository.tasks.get("t2").description());
+        assertEquals(Task.DEFAULT_STATUS, repository.tasks.get("t3").status());
+        assertEquals(Set.of(1L), result.projectIds());
+    }
+
+    @Test
+    void rejectsInvalidRowsWithLineNumbersAndKeepsValidOnes() throws IOException {
+        Path file = write("tasks.csv", """
+                id,project_id,title,start_date,due_date,status
+                t1,1,Valid,2026-01-01,2026-01-02,TODO
+                t2,1,Backwards,2026-01-05,2026-01-02,TODO
+                t3,9,Unknown project,2026-01-01,2026-01-02,TODO
+                t4,1,,2026-01-01,2026-01-02,TODO
+                t5,1,Bad date,2026-13-01,2026-01-02,TODO
+                t6,1,Bad status,2026-01-01,2026-01-02,LATER
+                """);
+
+        ImportService.ImportResult result = importService.importFile(file, ImportFormat.CSV, 1, 100, progress -> { });
+
+        assertEquals(1, result.tasksImported());
+        assertEquals(5, result.rowsRejected());
+        assertEquals("Line 3: Task dueDate cannot be before startDate", result.errors().getFirst());
+        assertTrue(result.errors().get(1).startsWith("Line 4: Unknown project 9"));
+    }
+
+    @Test
+    void importsJsonAndReportsCyclesAndDanglingDependencies() throws IOException {
+        Path file = write("tasks.json", """
+                [
+                  {"id": "a", "project_id": 1, "title": "A", "start_date": "2026-01-01", "due_date": "2026-01-02"},
+                  {"id": "b", "project_id": 1, "title": "B \\u2013 \\"quoted\\"", "start_date": "2026-01-03",
+                   "due_date": "2026-01-04", "progress": 50, "description": null},
+                  {"from_task_id": "a", "to_task_id": "b"},
+                  {"from_task_id": "b", "to_task_id": "a", "type": "finish_start"},
+                  {"from_task_id": "a", "to_task_id": "missing"}
+                ]
+                """);
+
+        ImportService.ImportResult result = importService.importFile(file, ImportFormat.JSON, 1, 100, progress -> { });
+
+        assertEquals(2, result.tasksImported());
+        assertEquals(2, result.dependenciesImported());
+        assertEquals(1, result.rowsRejected());
+        assertTrue(result.errors().getFirst().startsWith("Line 7: Unknown task"));
+        assertEquals("B – \"quoted\"", repository.tasks.get("b").title());
+        assertTrue(result.hasCycle());
+        assertEquals(Set.of("a", "b"), result.cycleTaskIds());
+    }
+
+    @Test
+    void findsCyclesThroughProjectsTheFileNeverMentions() throws IOException {
+        // x (project 2) -> z (project 3) -> a (project 1) already exist; the file only adds a -> x.
+        existing("a", 1);
+        existing("x", 2);
+        existing("z", 3);
+        existing("unrelated", 4);
+        repository.dependencies.put("xz", new Dependency("xz", "x", "z", DependencyType.FINISH_START));
+        repository.dependencies.put("za", new Dependency("za", "z", "a", DependencyType.FINISH_START));
+        Path file = write("edge.csv", """
+                record,from_task_id,to_task_id
+                dependency,a,x
+                """);
+
+        ImportService.ImportResult result = importService.importFile(file, ImportFormat.CSV, 1, 100, progress -> { });
+
+        assertEquals(Set.of("a", "x", "z"), result.cycleTaskIds());
+        assertEquals(Set.of(1L, 2L, 3L), repository.loadedProjectIds);
+    }
+
+    @Test
+    void rejectsProgressThatDoesNotFitAnInt() throws IOException {
+        Path file = write("tasks.csv", """
+                id,title,start_date,due_date,progress
+                t1,Wraps to ten,2026-01-01,2026-01-02,4294967306
+                """);
+
+        ImportService.ImportResult result = importService.importFile(file, ImportFormat.CSV, 1, 100, progress -> { });
+
+        assertEquals(0, result.tasksImported());
+        assertEquals(List.of("Line 2: Invalid progress '4294967306'"), result.errors());
+    }
+
+    @Test
+    void reportsProgressUpToTheWholeFile() throws IOException {
+        StringBuilder csv = new StringBuilder("id,title,start_date,due_date\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append("t").append(i).append(",Task ").append(i).append(",2026-01-01,2026-01-02\n");
+        }
+        Path file = write("many.csv", csv.toString());
+        List<ImportService.ImportProgress> updates = new ArrayList<>();
+
+        importService.importFile(file, ImportFormat.CSV, 1, 10, updates::add);
+
+        assertEquals(5, updates.size());
+        assertEquals(50, updates.getLast().tasksImported());
+        assertEquals(1.0, updates.getLast().fraction());
+    }
+
+    private void existing(String id, long projectId) {
+        repository.tasks.put(id, new Task(id, projectId, id, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), 0, "TODO"));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    private static final class InMemoryImportRepository implements ImportRepository {
+        private final Map<String, Task> tasks = new LinkedHashMap<>();
+        private final Map<String, Dependency> dependencies = new LinkedHashMap<>();
+        private final List<Integer> taskBatchSizes = new ArrayList<>();
+        private final Set<Long> loadedProjectIds = new HashSet<>();
+
+        @Override
+        public void prepareImport() {
+        }
+
+        @Override
+        public Set<Long> projectIds() {
+            return Set.of(1L, 2L, 3L, 4L);
+        }
+
+        @Override
+        public Set<String> statusNames() {
+            return Set.of("TODO", "IN_PROGRESS", "DONE");
+        }
+
+        @Override
+        public void upsertTasks(List<Task> batch) {
+            taskBatchSizes.add(batch.size());
+            batch.forEach(task -> tasks.put(task.id(), task));
+        }
+
+        @Override
+        public List<Dependency> upsertDependencies(List<Dependency> batch) {
+            List<Dependency> skipped = new ArrayList<>();
+            for (Dependency dependency : batch) {
+                if (tasks.containsKey(dependency.fromTaskId()) && tasks.containsKey(dependency.toTaskId())) {
+                    dependencies.put(dependency.id(), dependency);
+                } else {
+                    skipped.add(dependency);
+                }
+            }
+            return skipped;
+        }
+
+        @Override
+        public List<Task> findTasksByProjects(Collection<Long> projectIds) {
+            loadedProjectIds.addAll(projectIds);
+            return tasks.values().stream().filter(task -> projectIds.contains(task.projectId())).toList();
+        }
+
+        @Override
+        public List<Dependency> findDependenciesByProjects(Collection<Long> projectIds) {
+            return dependencies.values().stream()
+                    .filter(dependency -> projectIds.contains(tasks.get(dependency.fromTaskId()).projectId()))
+                    .toList();
+        }
+
+        @Override
+        public Set<Long> projectIdsOfTasks(Collection<String> taskIds) {
+            Set<Long> result = new HashSet<>();
+            for (String taskId : taskIds) {
+                Task task = tasks.get(taskId);
+                if (task != null) {
+                    result.add(task.projectId());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void refreshWorkspace() {
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalCriticalPathEngineTest {
+
+    private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+    private final CriticalPathService criticalPathService = new CriticalPathService(new DependencyGraphService());
+    private final IncrementalCriticalPathEngine engine = new IncrementalCriticalPathEngine(new DependencyGraphService());
+
+    @Test
+    void firstUpdateMatchesFullComputation() {
+        List<Task> tasks = List.of(task("a", 0, 3), task("b", 0, 2), task("c", 0, 4), task("d", 0, 2));
+        List<Dependency> dependencies = List.of(dep("d1", "a", "c"), dep("d2", "b", "c"), dep("d3", "c", "d"));
+
+        IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+
+        assertTrue(update.isFull());
+        assertSameResult(criticalPathService.compute(tasks, dependencies), update.fullResult());
+    }
+
+    @Test
+    void movingATaskReportsOnlyTasksWhoseSlackChanged() {
+        List<Task> tasks = new ArrayList<>(List.of(task("a", 0, 3), task("b", 0, 2), task("c", 0, 4), task("d", 0, 2), task("e", 0, 1)));
+        List<Dependency> dependencies = List.of(dep("d1", "a", "c"), dep("d2", "b", "c"), dep("d3", "c", "d"));
+        engine.update(tasks, dependencies);
+
+        // b has one day of slack behind a; a later start uses it up without moving the project finish.
+        tasks.set(1, task("b", 1, 2));
+        IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+
+        assertFalse(update.isFull());
+        assertEquals(Map.of("b", 0), update.changedSlackDays());
+        assertEquals(LocalDate.of(2026, 1, 9), update.projectFinishDate());
+        assertSameResult(criticalPathService.compute(tasks, dependencies), engine.snapshot());
+    }
+
+    @Test
+    void unchangedSnapshotReportsNothing() {
+        List<Task> tasks = List.of(task("a", 0, 3), task("b", 2, 2));
+        List<Dependency> dependencies = List.of(dep("d1", "a", "b"));
+        engine.update(tasks, dependencies);
+
+        IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+
+        assertFalse(update.isFull());
+        assertTrue(update.changedSlackDays().isEmpty());
+    }
+
+    @Test
+    void dependencyAgainstTheCurrentOrderIsPickedUp() {
+        List<Task> tasks = List.of(task("a", 0, 2), task("b", 0, 5), task("c", 0, 1));
+        List<Dependency> dependencies = new ArrayList<>(List.of(dep("d1", "a", "b")));
+        engine.update(tasks, dependencies);
+
+        dependencies.add(dep("d2", "c", "a"));
+        IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+
+        assertFalse(update.isFull());
+        assertSameResult(criticalPathService.compute(tasks, dependencies), engine.snapshot());
+        assertEquals(0, engine.slackDays("c"));
+    }
+
+    @Test
+    void cycleDisablesAndLaterRecovers() {
+        List<Task> tasks = List.of(task("a", 0, 1), task("b", 0, 1));
+        List<Dependency> dependencies = new ArrayList<>(List.of(dep("d1", "a", "b")));
+        engine.update(tasks, dependencies);
+
+        dependencies.add(dep("d2", "b", "a"));
+        IncrementalCriticalPathEngine.Update cycle = engine.update(tasks, dependencies);
+        assertTrue(cycle.isFull());
+        assertTrue(cycle.fullResult().hasCycle());
+
+        dependencies.removeLast();
+        IncrementalCriticalPathEngine.Update recovered = engine.update(tasks, dependencies);
+        assertTrue(recovered.isFull());
+        assertSameResult(criticalPathService.compute(tasks, dependencies), recovered.fullResult());
+    }
+
+    @Test
+    void randomEditsStayEqualToFullComputation() {
+        Random random = new Random(42);
+        int taskCount = 200;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(task("t" + i, random.nextInt(60), 1 + random.nextInt(10)));
+        }
+        // Edges only go from lower to higher numbers, so the graph stays acyclic.
+        List<Dependency> dependencies = new ArrayList<>();
+        int nextDependency = 0;
+        for (int i = 0; i < 300; i++) {
+            int from = random.nextInt(taskCount - 1);
+            int to = from + 1 + random.nextInt(taskCount - from - 1);
+            dependencies.add(dep("x" + nextDependency++, "t" + from, "t" + to));
+        }
+        engine.update(tasks, dependencies);
+
+        for (int step = 0; step < 500; step++) {
+            int kind = random.nextInt(4);
+            if (kind == 0 || kind == 1) {
+                int i = random.nextInt(taskCount);
+                tasks.set(i, task("t" + i, random.nextInt(60), 1 + random.nextInt(10)));
+            } else if (kind == 2 && !dependencies.isEmpty()) {
+                dependencies.remove(random.nextInt(dependencies.size()));
+            } else {
+                int from = random.nextInt(taskCount - 1);
+                int to = from + 1 + random.nextInt(taskCount - from - 1);
+                dependencies.add(dep("x" + nextDependency++, "t" + from, "t" + to));
+            }
+
+            Map<String, Integer> before = engine.snapshot().slackDays();
+            IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+            CriticalPathResult expected = criticalPathService.compute(tasks, dependencies);
+
+            assertFalse(update.isFull());
+            assertSameResult(expected, engine.snapshot());
+            assertEquals(expected.projectFinishDate(), update.projectFinishDate());
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, Integer> entry : expected.slackDays().entrySet()) {
+                if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            assertEquals(changed, update.changedSlackDays().keySet());
+        }
+    }
+
+    @Test
+    void cachedGraphsStayEqualToFullComputation() {
+        Random random = new Random(11);
+        TaskGraphCache cache = new TaskGraphCache();
+        int taskCount = 120;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(task("t" + i, random.nextInt(40), 1 + random.nextInt(8)));
+        }
+        List<Dependency> dependencies = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            int from = random.nextInt(taskCount - 1);
+            dependencies.add(dep("x" + i, "t" + from, "t" + (from + 1 + random.nextInt(taskCount - from - 1))));
+        }
+        long structureRevision = 0;
+        long revision = 0;
+        engine.update(cache.graph(structureRevision, revision, tasks, dependencies));
+
+        for (int step = 0; step < 300; step++) {
+            int kind = random.nextInt(5);
+            if (kind < 3) {
+                int i = random.nextInt(taskCount);
+                tasks.set(i, task("t" + i, random.nextInt(40), 1 + random.nextInt(8)));
+                revision++;
+            } else if (kind == 3 && !dependencies.isEmpty()) {
+                dependencies.remove(random.nextInt(dependencies.size()));
+                structureRevision++;
+                revision++;
+            }
+            // kind 4 leaves everything unchanged, so the cache hands back the same graph.
+
+            IncrementalCriticalPathEngine.Update update = engine.update(cache.graph(structureRevision, revision, tasks, dependencies));
+            CriticalPathResult expected = criticalPathService.compute(tasks, dependencies);
+
+            assertFalse(update.isFull());
+            assertSameResult(expected, engine.snapshot());
+            assertEquals(expected.projectFinishDate(), update.projectFinishDate());
+        }
+        assertTrue(cache.metrics().patches() > 0);
+        assertTrue(cache.metrics().hits() > 0);
+    }
+
+    @Test
+    void mixedTypesAndLagsStayEqualToFullComputation() {
+        Random random = new Random(5);
+        DependencyType[] types = DependencyType.values();
+        int taskCount = 150;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(task("t" + i, random.nextInt(60), 1 + random.nextInt(10)));
+        }
+        List<Dependency> dependencies = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(taskCount - 1);
+            int to = from + 1 + random.nextInt(taskCount - from - 1);
+            dependencies.add(new Dependency("x" + i, "t" + from, "t" + to, types[random.nextInt(types.length)], random.nextInt(9) - 4));
+        }
+        engine.update(tasks, dependencies);
+
+        for (int step = 0; step < 400; step++) {
+            if (random.nextBoolean()) {
+                int i = random.nextInt(taskCount);
+                tasks.set(i, task("t" + i, random.nextInt(60), 1 + random.nextInt(10)));
+            } else {
+                // Same id and endpoints, new type and lag.
+                int i = random.nextInt(dependencies.size());
+                Dependency previous = dependencies.get(i);
+                dependencies.set(i, new Dependency(previous.id(), previous.fromTaskId(), previous.toTaskId(),
+                        types[random.nextInt(types.length)], random.nextInt(9) - 4));
+            }
+
+            IncrementalCriticalPathEngine.Update update = engine.update(tasks, dependencies);
+            CriticalPathResult expected = criticalPathService.compute(tasks, dependencies);
+
+            assertFalse(update.isFull());
+            assertSameResult(expected, engine.snapshot());
+            assertEquals(expected.projectFinishDate(), update.projectFinishDate());
+        }
+    }
+
+    private static void assertSameResult(CriticalPathResult expected, CriticalPathResult actual) {
+        assertEquals(expected.hasCycle(), actual.hasCycle());
+        assertEquals(expected.projectFinishDate(), actual.projectFinishDate());
+        assertEquals(expected.earliestStartDays(), actual.earliestStartDays());
+        assertEquals(expected.earliestFinishDays(), actual.earliestFinishDays());
+        assertEquals(expected.latestStartDays(), actual.latestStartDays());
+        assertEquals(expected.latestFinishDays(), actual.latestFinishDays());
+        assertEquals(expected.slackDays(), actual.slackDays());
+        assertEquals(expected.criticalTaskIds(), actual.criticalTaskIds());
+    }
+
+    private static Task task(String id, int startOffset, int durationDays) {
+        LocalDate start = BASE.plusDays(startOffset);
+        return new Task(id, 1, id.toUpperCase(), start, start.plusDays(durationDays - 1), 0, "TODO");
+    }
+
+    private static Dependency dep(String id, String from, String to) {
+        return new Dependency(id, from, to, DependencyType.FINISH_START);
+    }
+}
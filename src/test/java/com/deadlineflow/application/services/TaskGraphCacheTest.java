@@ -0,0 +1,102 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskGraphCacheTest {
+
+    private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+    private final TaskGraphCache cache = new TaskGraphCache();
+
+    @Test
+    void sameRevisionReturnsTheCachedGraph() {
+        List<Task> tasks = List.of(task("a", 0), task("b", 2));
+        List<Dependency> dependencies = List.of(dep("d1", "a", "b"));
+
+        TaskGraph first = cache.graph(1, 1, tasks, dependencies);
+        TaskGraph second = cache.graph(1, 1, tasks, dependencies);
+
+        assertSame(first, second);
+        assertEquals(new TaskGraphCache.Metrics(1, 0, 1, cache.metrics().buildNanos(), cache.metrics().lastBuildNanos()),
+                cache.metrics());
+        assertEquals(0.5, cache.metrics().hitRate());
+    }
+
+    @Test
+    void taskEditsPatchTheCachedStructure() {
+        List<Dependency> dependencies = List.of(dep("d1", "a", "b"));
+        TaskGraph first = cache.graph(1, 1, List.of(task("a", 0), task("b", 2)), dependencies);
+
+        TaskGraph patched = cache.graph(1, 2, List.of(task("a", 0), task("b", 5)), dependencies);
+
+        assertNotSame(first, patched);
+        assertTrue(patched.sharesStructureWith(first));
+        assertEquals(Math.toIntExact(BASE.plusDays(5).toEpochDay()), patched.startDay(patched.indexOf("b")));
+        assertEquals(Math.toIntExact(BASE.toEpochDay()), first.startDay(first.indexOf("a")));
+        assertEquals(1, cache.metrics().patches());
+        assertEquals(1, cache.metrics().builds());
+    }
+
+    @Test
+    void dateChangeThatReordersTheSnapshotStillPatches() {
+        List<Dependency> dependencies = List.of(dep("d1", "a", "b"));
+        TaskGraph first = cache.graph(1, 1, List.of(task("a", 0), task("b", 2)), dependencies);
+
+        // Dragging a past b re-sorts the start-date ordered snapshot.
+        TaskGraph patched = cache.graph(1, 2, List.of(task("b", 2), task("a", 4)), dependencies);
+
+        assertTrue(patched.sharesStructureWith(first));
+        assertTrue(patched.sameTaskOrder(first));
+        assertEquals(first.indexOf("a"), patched.indexOf("a"));
+        assertEquals("a", patched.task(patched.indexOf("a")).id());
+        assertEquals(Math.toIntExact(BASE.plusDays(4).toEpochDay()), patched.startDay(patched.indexOf("a")));
+        assertEquals(patched.indexOf("b"), patched.edgeTarget(0));
+        assertEquals(1, cache.metrics().patches());
+        assertEquals(1, cache.metrics().builds());
+    }
+
+    @Test
+    void differentIdsFallBackToABuild() {
+        List<Dependency> dependencies = List.of(dep("d1", "a", "b"));
+        TaskGraph first = cache.graph(1, 1, List.of(task("a", 0), task("b", 2)), dependencies);
+
+        TaskGraph rebuilt = cache.graph(1, 2, List.of(task("a", 0), task("a", 2)), dependencies);
+
+        assertFalse(rebuilt.sharesStructureWith(first));
+        assertEquals(2, cache.metrics().builds());
+    }
+
+    @Test
+    void structureChangesRebuild() {
+        List<Task> tasks = List.of(task("a", 0), task("b", 2), task("c", 4));
+        TaskGraph first = cache.graph(1, 1, tasks, List.of(dep("d1", "a", "b")));
+
+        TaskGraph rebuilt = cache.graph(2, 2, tasks, List.of(dep("d1", "a", "b"), dep("d2", "b", "c")));
+
+        assertFalse(rebuilt.sharesStructureWith(first));
+        assertEquals(2, rebuilt.edgeCount());
+        assertEquals(2, cache.metrics().builds());
+        assertEquals(0, cache.metrics().patches());
+    }
+
+    private static Task task(String id, int startOffset) {
+        LocalDate start = BASE.plusDays(startOffset);
+        return new Task(id, 1, id.toUpperCase(), start, start.plusDays(1), 0, "TODO");
+    }
+
+    private static Dependency dep(String id, String from, String to) {
+        return new Dependency(id, from, to, DependencyType.FINISH_START);
+    }
+}
@@ -0,0 +1,123 @@
+package com.deadlineflow.application.services;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskGraphTest {
+
+    @Test
+    void storesEdgesInBothDirections() {
+        TaskGraph graph = TaskGraph.of(
+                List.of(task("a"), task("b"), task("c")),
+                List.of(dependency("d1", "a", "b"), dependency("d2", "a", "c"), dependency("d3", "b", "c"))
+        );
+
+        int a = graph.indexOf("a");
+        int b = graph.indexOf("b");
+        int c = graph.indexOf("c");
+        assertEquals(List.of(b, c), successors(graph, a));
+        assertEquals(List.of(c), successors(graph, b));
+        assertEquals(List.of(), successors(graph, c));
+        assertEquals(List.of(a, b), predecessors(graph, c));
+        assertEquals(3, graph.edgeCount());
+        assertEquals("d2", graph.edgeDependency(1).id());
+    }
+
+    @Test
+    void edgeWeightsFollowTypeLagAndDurations() {
+        // a runs 3 days from Jan 1, b 5 days from Jan 1.
+        Task a = task("a");
+        Task b = new Task("b", 1, "B", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), 0, "TODO");
+        TaskGraph graph = TaskGraph.of(List.of(a, b), List.of(
+                new Dependency("fs", "a", "b", DependencyType.FINISH_START, 2),
+                new Dependency("ss", "a", "b", DependencyType.START_START, -1),
+                new Dependency("ff", "a", "b", DependencyType.FINISH_FINISH),
+                new Dependency("sf", "a", "b", DependencyType.START_FINISH)
+        ));
+
+        // b's start must be at least this many days after a's start.
+        assertEquals(5, graph.edgeWeight(0));
+        assertEquals(-1, graph.edgeWeight(1));
+        assertEquals(-2, graph.edgeWeight(2));
+        assertEquals(-5, graph.edgeWeight(3));
+        assertEquals(graph.edgeWeight(2), graph.successorWeight(graph.successorOffset(graph.indexOf("a")) + 2));
+
+        TaskGraph shorter = graph.withTasks(List.of(a, b.withDates(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2))));
+        assertEquals(1, shorter.edgeWeight(2));
+        assertEquals(-2, shorter.edgeWeight(3));
+    }
+
+    @Test
+    void leavesOutDependenciesOnUnknownTasks() {
+        TaskGraph graph = TaskGraph.of(List.of(task("a"), task("b")), List.of(dependency("d1", "a", "b"), dependency("d2", "a", "x")));
+
+        assertEquals(1, graph.edgeCount());
+        assertEquals(-1, graph.indexOf("x"));
+    }
+
+    @Test
+    void ordersOnlyTasksOffACycle() {
+        TaskGraph graph = TaskGraph.of(
+                List.of(task("a"), task("b"), task("c"), task("d")),
+                List.of(dependency("d1", "a", "b"), dependency("d2", "b", "c"), dependency("d3", "c", "b"), dependency("d4", "c", "d"))
+        );
+
+        int[] order = new int[graph.size()];
+        assertEquals(1, graph.topologicalOrder(order));
+        assertEquals(graph.indexOf("a"), order[0]);
+    }
+
+    @Test
+    void reachabilityFollowsDependencyDirection() {
+        TaskGraph graph = TaskGraph.of(
+                List.of(task("a"), task("b"), task("c"), task("d")),
+                List.of(dependency("d1", "a", "b"), dependency("d2", "b", "c"))
+        );
+
+        assertTrue(graph.reaches(graph.indexOf("a"), graph.indexOf("c")));
+        assertFalse(graph.reaches(graph.indexOf("c"), graph.indexOf("a")));
+        assertFalse(graph.reaches(graph.indexOf("a"), graph.indexOf("d")));
+    }
+
+    @Test
+    void exposesDaysAsEpochInts() {
+        TaskGraph graph = TaskGraph.of(List.of(task("a")), List.of());
+
+        assertEquals(LocalDate.of(2026, 1, 1).toEpochDay(), graph.startDay(0));
+        assertEquals(3, graph.durationDays(0));
+    }
+
+    private static List<Integer> successors(TaskGraph graph, int index) {
+        List<Integer> result = new ArrayList<>();
+        for (int k = graph.successorOffset(index); k < graph.successorOffset(index + 1); k++) {
+            result.add(graph.successorAt(k));
+        }
+        return result;
+    }
+
+    private static List<Integer> predecessors(TaskGraph graph, int index) {
+        List<Integer> result = new ArrayList<>();
+        for (int k = graph.predecessorOffset(index); k < graph.predecessorOffset(index + 1); k++) {
+            result.add(graph.predecessorAt(k));
+        }
+        return result;
+    }
+
+    private static Task task(String id) {
+        return new Task(id, 1, id.toUpperCase(), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 3), 0, "TODO");
+    }
+
+    private static Dependency dependency(String id, String from, String to) {
+        return new Dependency(id, from, to, DependencyType.FINISH_START);
+    }
+}
@@ -0,0 +1,183 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ArchiveRepository;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Project;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.count;
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteArchiveRepositoryTest {
+    private static final long NEVER_MILLIS = 60_000;
+    private static final String DONE = "DONE";
+    private static final LocalDate CUTOFF = LocalDate.of(2026, 6, 1);
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+    private SqliteWorkspaceStore store;
+    private SqliteArchiveRepository archive;
+    private long mixed;
+    private long finished;
+
+    @BeforeEach
+    void openWorkspace() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        queue = new SqlitePersistenceQueue(connections, NEVER_MILLIS);
+        // "Mixed" keeps an open task and stays live; every task of "Finished" is done, so it is archived whole.
+        mixed = SqliteTestSupport.insertProject(connections, "Mixed");
+        finished = SqliteTestSupport.insertProject(connections, "Finished");
+        queue.enqueueTaskSave(done("done1", mixed, 0));
+        queue.enqueueTaskSave(done("done2", mixed, 5));
+        queue.enqueueTaskSave(task("open", mixed, 10, 5));
+        queue.enqueueTaskSave(done("f1", finished, 0));
+        queue.enqueueTaskSave(done("f2", finished, 5));
+        queue.enqueueDependencySave(dependency("done1", "done2"));
+        queue.enqueueDependencySave(dependency("done2", "open"));
+        queue.enqueueDependencySave(dependency("f1", "f2"));
+        queue.flush();
+        store = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        store.initialize();
+        archive = new SqliteArchiveRepository(connections, queue, store);
+    }
+
+    @AfterEach
+    void closeWorkspace() {
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void archivesCompletedTasksTheirDependenciesAndFinishedProjects() {
+        long before = store.latestChangeSequence();
+
+        ArchiveRepository.ArchiveResult result = archive.archiveCompleted(DONE, CUTOFF);
+        archive.applyArchived(result);
+
+        assertEquals(List.of(finished), result.projectIds());
+        assertEquals(Set.of("done1", "done2"), Set.copyOf(result.taskIdsByProject().get(mixed)));
+        assertEquals(Set.of("f1", "f2"), Set.copyOf(result.taskIdsByProject().get(finished)));
+        assertEquals(3, result.dependencies());
+        assertEquals(List.of("open"), store.tasks().stream().map(Task::id).toList());
+        assertEquals(List.of(mixed), store.projects().stream().map(Project::id).toList());
+        assertTrue(store.dependencies().isEmpty());
+        assertEquals(4, archive.archivedTaskCount());
+        assertEquals(3, count(connections, "SELECT COUNT(*) FROM archived_dependencies"));
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM archived_projects"));
+
+        // Moving rows out is journaled as deletes, so other instances drop them too.
+        assertEquals(4, count(connections, "SELECT COUNT(*) FROM change_log WHERE entity = 'TASK'"
+                + " AND operation = 'DELETE' AND seq > " + before));
+        assertEquals(3, count(connections, "SELECT COUNT(*) FROM change_log WHERE entity = 'DEPENDENCY'"
+                + " AND operation = 'DELETE' AND seq > " + before));
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM change_log WHERE entity = 'PROJECT'"
+                + " AND operation = 'DELETE' AND entity_id = '" + finished + "' AND seq > " + before));
+        assertTrue(store.applyExternalChanges(store.readChangesSince(store.appliedSequence())));
+        assertEquals(List.of("open"), store.tasks().stream().map(Task::id).toList());
+    }
+
+    @Test
+    void restoresDependenciesOnlyOnceBothEndsAreLive() {
+        archive.applyArchived(archive.archiveCompleted(DONE, CUTOFF));
+
+        ArchiveRepository.RestoreResult second = archive.restoreTask("done2");
+        archive.applyRestored(second);
+
+        assertEquals(List.of("done2"), second.tasks().stream().map(Task::id).toList());
+        // done1 is still archived, so only the edge to the live task comes back.
+        assertEquals(List.of("done2->open"), dependencyIds(second.dependencies()));
+        assertEquals(List.of("done2->open"), dependencyIds(store.dependencies()));
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM archived_dependencies WHERE id = 'done1->done2'"));
+
+        ArchiveRepository.RestoreResult first = archive.restoreTask("done1");
+        archive.applyRestored(first);
+
+        assertEquals(List.of("done1->done2"), dependencyIds(first.dependencies()));
+        assertEquals(Set.of("done1->done2", "done2->open"), Set.copyOf(dependencyIds(store.dependencies())));
+        assertEquals("f1->f2", SqliteTestSupport.string(connections, "SELECT id FROM archived_dependencies"));
+        assertEquals(2, archive.archivedTaskCount());
+    }
+
+    @Test
+    void restoringATaskOfAnArchivedProjectBringsTheWholeProjectBack() {
+        archive.applyArchived(archive.archiveCompleted(DONE, CUTOFF));
+
+        ArchiveRepository.RestoreResult result = archive.restoreTask("f2");
+        archive.applyRestored(result);
+
+        assertEquals(List.of(finished), result.projects().stream().map(Project::id).toList());
+        assertEquals(Set.of("f1", "f2"), result.tasks().stream().map(Task::id).collect(Collectors.toSet()));
+        assertEquals(List.of("f1->f2"), dependencyIds(result.dependencies()));
+        assertTrue(store.projects().stream().anyMatch(project -> project.id() == finished));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM archived_projects"));
+
+        ArchiveRepository.RestoreResult live = archive.restoreProject(mixed);
+        archive.applyRestored(live);
+
+        assertTrue(live.projects().isEmpty());
+        assertEquals(Set.of("done1", "done2"), live.tasks().stream().map(Task::id).collect(Collectors.toSet()));
+        assertEquals(0, archive.archivedTaskCount());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM archived_dependencies"));
+        assertEquals(5, store.tasks().size());
+        assertEquals(3, store.dependencies().size());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM pragma_foreign_key_check"));
+    }
+
+    @Test
+    void writesQueuedAroundTheArchiveNeitherLeakNorResurrectRows() {
+        // Queued before the archive: committed first, so the archived copy carries it.
+        Task renamed = new Task("done1", mixed, "Renamed", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 3), 100, DONE);
+        store.applyTaskSaved(renamed);
+        queue.enqueueTaskSave(renamed);
+
+        ArchiveRepository.ArchiveResult result = archive.archiveCompleted(DONE, CUTOFF);
+        // Queued after the archive committed but before its result reached memory.
+        queue.enqueueTaskSave(done("done2", mixed, 6));
+        queue.enqueueDependencySave(dependency("open", "done2"));
+        archive.applyArchived(result);
+        queue.flush();
+
+        assertEquals("Renamed", SqliteTestSupport.string(connections, "SELECT title FROM archived_tasks WHERE id = 'done1'"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks WHERE id IN ('done1', 'done2')"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM dependencies"));
+        assertEquals(List.of("open"), store.tasks().stream().map(Task::id).toList());
+
+        archive.applyRestored(archive.restoreTask("done2"));
+        Task edited = done("done2", mixed, 7);
+        store.applyTaskSaved(edited);
+        queue.enqueueTaskSave(edited);
+        queue.flush();
+
+        // A restored task takes writes again.
+        assertEquals(edited.startDate().toEpochDay(), count(connections, "SELECT start_date FROM tasks WHERE id = 'done2'"));
+    }
+
+    private static Task done(String id, long projectId, int startDay) {
+        LocalDate start = LocalDate.of(2026, 1, 1).plusDays(startDay);
+        return new Task(id, projectId, "Task " + id, start, start.plusDays(2), 100, DONE);
+    }
+
+    private static Dependency dependency(String from, String to) {
+        return new Dependency(from + "->" + to, from, to, DependencyType.FINISH_START);
+    }
+
+    private static List<String> dependencyIds(List<Dependency> dependencies) {
+        return dependencies.stream().map(Dependency::id).sorted().toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.deadlineflow.data.sqlite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteBackupServiceTest {
+    private static final long NEVER_MILLIS = 60_000;
+    private static final int MAX_CONCURRENT_COMMITS = 500;
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private long project;
+
+    @BeforeEach
+    void openDatabase() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        project = SqliteTestSupport.insertProject(connections, "Project");
+        // Enough rows that a one-page step size takes many steps.
+        SqliteTestSupport.execute(connections, """
+                WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 2000)
+                INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status)
+                SELECT 'seed-' || i, %d, 'Seed ' || i, printf('%%.200c', 'x'), 20454, 20456, 0, 'TODO' FROM n
+                """.formatted(project));
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        connections.close();
+    }
+
+    @Test
+    void backupTakenWhileTheWriterCommitsRestoresToOneConsistentState() throws Exception {
+        SqliteBackupService backups = new SqliteBackupService(connections.database(), directory.resolve("backups"), 5, NEVER_MILLIS, 1);
+        AtomicBoolean backupDone = new AtomicBoolean();
+        AtomicInteger committed = new AtomicInteger();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            while (!backupDone.get() && committed.get() < MAX_CONCURRENT_COMMITS) {
+                int i = committed.incrementAndGet();
+                SqliteTestSupport.execute(connections, "INSERT INTO tasks(id, project_id, title, start_date, due_date,"
+                        + " progress, status) VALUES ('live-" + i + "', " + project + ", 'Live', 20454, 20456, 0, 'TODO')");
+            }
+        });
+
+        Path backup;
+        try {
+            backup = backups.backupNow();
+        } finally {
+            backupDone.set(true);
+            writer.get();
+            backups.close();
+        }
+
+        assertTrue(backups.metrics().lastBackupSteps() > 1);
+        SqliteDatabase restored = new SqliteDatabase(directory.resolve("restored").resolve("workspace.db"));
+        SqliteBackupService.restore(backup, restored);
+        try (SqliteConnectionManager restoredConnections = new SqliteConnectionManager(restored)) {
+            assertEquals("ok", SqliteTestSupport.string(restoredConnections, "PRAGMA integrity_check"));
+            long tasks = SqliteTestSupport.count(restoredConnections, "SELECT COUNT(*) FROM tasks");
+            assertTrue(tasks >= 2000 && tasks <= 2000 + committed.get());
+            // Every insert journals one entry in the same transaction; a torn copy would disagree.
+            assertEquals(tasks, SqliteTestSupport.count(restoredConnections,
+                    "SELECT COUNT(*) FROM change_log WHERE entity = 'TASK' AND operation = 'INSERT'"));
+            assertEquals(0, SqliteTestSupport.count(restoredConnections, "SELECT COUNT(*) FROM pragma_foreign_key_check"));
+        }
+    }
+
+    @Test
+    void rotatesDownToTheKeepCountNewestFirst() throws InterruptedException {
+        List<Path> written = new ArrayList<>();
+        try (SqliteBackupService backups = new SqliteBackupService(
+                connections.database(), directory.resolve("backups"), 2, NEVER_MILLIS, 256)) {
+            for (int i = 0; i < 4; i++) {
+                written.add(backups.backupNow());
+                // Backup names carry a millisecond stamp.
+                Thread.sleep(5);
+            }
+
+            assertEquals(List.of(written.get(3), written.get(2)), backups.backups());
+            assertFalse(Files.exists(written.get(0)));
+            assertEquals(4, backups.metrics().backupsWritten());
+            assertFalse(backups.backupDue());
+        }
+    }
+
+    @Test
+    void restoreRefusesAnExistingTarget() throws IOException {
+        Path backup;
+        try (SqliteBackupService backups = new SqliteBackupService(
+                connections.database(), directory.resolve("backups"), 1, NEVER_MILLIS, 256)) {
+            backup = backups.backupNow();
+        }
+        Path existing = Files.createDirectories(directory.resolve("existing")).resolve("workspace.db");
+        Files.writeString(existing, "keep me");
+
+        assertThrows(IllegalArgumentException.class, () -> SqliteBackupService.restore(backup, new SqliteDatabase(existing)));
+        assertEquals("keep me", Files.readString(existing));
+    }
+
+    @Test
+    void restoreRejectsADamagedBackupWithoutCreatingTheTarget() throws IOException {
+        Path damaged = Files.writeString(directory.resolve("damaged.db"), "not a database");
+        Path target = directory.resolve("restored").resolve("workspace.db");
+
+        assertThrows(IllegalStateException.class, () -> SqliteBackupService.restore(damaged, new SqliteDatabase(target)));
+        assertFalse(Files.exists(target));
+    }
+}
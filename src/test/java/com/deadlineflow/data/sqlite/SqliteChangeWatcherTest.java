@@ -0,0 +1,186 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteChangeWatcherTest {
+    private static final long NEVER_MILLIS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+    private SqliteWorkspaceStore store;
+    private SqliteChangeWatcher watcher;
+    // Stands in for the FX thread: deltas wait here until the test runs them.
+    private final List<Runnable> applyQueue = new ArrayList<>();
+    private long project;
+
+    @BeforeEach
+    void openWorkspace() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        queue = new SqlitePersistenceQueue(connections, NEVER_MILLIS);
+        project = SqliteTestSupport.insertProject(connections, "Project");
+        queue.enqueueTaskSave(task("a", project, 0, 3));
+        queue.enqueueTaskSave(task("b", project, 3, 3));
+        queue.enqueueDependencySave(new Dependency("b-a", "b", "a", DependencyType.FINISH_START));
+        queue.flush();
+        store = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        store.initialize();
+        watcher = new SqliteChangeWatcher(connections.database(), store, applyQueue::add);
+    }
+
+    @AfterEach
+    void closeWorkspace() {
+        watcher.close();
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void mergesInsertsUpdatesAndDeletesFromAnotherConnection() {
+        commitExternally(
+                insertTask("c", 10),
+                "UPDATE tasks SET title = 'Renamed' WHERE id = 'a'",
+                "DELETE FROM tasks WHERE id = 'b'"
+        );
+
+        watcher.poll();
+        runApplyQueue();
+
+        assertEquals(List.of("a", "c"), store.tasks().stream().map(Task::id).toList());
+        assertEquals("Renamed", store.findTask("a").orElseThrow().title());
+        // The dependency went with b through ON DELETE CASCADE, which is journaled like any delete.
+        assertTrue(store.dependencies().isEmpty());
+        assertEquals(store.latestChangeSequence(), store.appliedSequence());
+        assertEquals(1, watcher.metrics().deltasApplied());
+    }
+
+    @Test
+    void deltaOvertakenByAnotherProcessStillAppliesAndTheNextPollCatchesUp() {
+        commitExternally(insertTask("c", 10));
+        watcher.poll();
+        commitExternally(insertTask("d", 11));
+
+        runApplyQueue();
+
+        // The delta is consistent as of its own sequence; the later commit is simply the next delta.
+        assertEquals(1, watcher.metrics().deltasApplied());
+        assertTrue(store.findTask("c").isPresent());
+        assertTrue(store.findTask("d").isEmpty());
+
+        watcher.poll();
+        runApplyQueue();
+
+        assertTrue(store.findTask("d").isPresent());
+        assertEquals(store.latestChangeSequence(), store.appliedSequence());
+    }
+
+    @Test
+    void rejectsDeltaOvertakenByALocalCommit() {
+        commitExternally("UPDATE tasks SET title = 'Theirs' WHERE id = 'a'");
+        watcher.poll();
+        Task local = task("a", project, 5, 1);
+        store.applyTaskSaved(local);
+        queue.enqueueTaskSave(local);
+        queue.flush();
+
+        runApplyQueue();
+
+        // The delta still carries the row as it was before the local commit.
+        assertEquals(1, watcher.metrics().deltasRejected());
+        assertEquals(local, store.findTask("a").orElseThrow());
+
+        watcher.poll();
+        runApplyQueue();
+
+        assertEquals(local, store.findTask("a").orElseThrow());
+        assertEquals(store.latestChangeSequence(), store.appliedSequence());
+    }
+
+    @Test
+    void rejectsDeltaWhileALocalWriteIsQueued() {
+        commitExternally(insertTask("c", 10));
+        watcher.poll();
+        Task local = task("a", project, 5, 1);
+        store.applyTaskSaved(local);
+        queue.enqueueTaskSave(local);
+
+        runApplyQueue();
+
+        assertEquals(1, watcher.metrics().deltasRejected());
+        assertEquals(local, store.findTask("a").orElseThrow());
+        assertTrue(store.findTask("c").isEmpty());
+
+        queue.flush();
+        watcher.poll();
+        runApplyQueue();
+
+        assertEquals(local, store.findTask("a").orElseThrow());
+        assertTrue(store.findTask("c").isPresent());
+        assertEquals(store.latestChangeSequence(), store.appliedSequence());
+    }
+
+    @Test
+    void refusesDeltaThatDoesNotStartAtTheAppliedSequence() {
+        commitExternally(insertTask("c", 10));
+        SqliteWorkspaceStore.ExternalChanges changes = store.readChangesSince(store.appliedSequence());
+
+        assertTrue(store.applyExternalChanges(changes));
+        assertFalse(store.applyExternalChanges(changes));
+        assertEquals(changes.toSequence(), store.appliedSequence());
+    }
+
+    @Test
+    void reloadsWhenTheJournalWasPrunedPastTheAppliedSequence() {
+        long applied = store.appliedSequence();
+        commitExternally(insertTask("c", 10), insertTask("d", 11));
+        store.pruneChangesThrough(applied + 1);
+
+        SqliteWorkspaceStore.ExternalChanges changes = store.readChangesSince(applied);
+        assertTrue(changes.reloadRequired());
+
+        watcher.poll();
+        runApplyQueue();
+
+        assertTrue(store.findTask("c").isPresent());
+        assertTrue(store.findTask("d").isPresent());
+        assertEquals(store.latestChangeSequence(), store.appliedSequence());
+    }
+
+    private void runApplyQueue() {
+        List<Runnable> pending = List.copyOf(applyQueue);
+        applyQueue.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private String insertTask(String id, int startDay) {
+        long startEpochDay = task(id, project, startDay, 1).startDate().toEpochDay();
+        return "INSERT INTO tasks(id, project_id, title, start_date, due_date, progress, status) VALUES ('" + id + "', "
+                + project + ", 'Task " + id + "', " + startEpochDay + ", " + startEpochDay + ", 0, 'TODO')";
+    }
+
+    // A second connection manager stands in for another process writing to the same file.
+    private void commitExternally(String... statements) {
+        try (SqliteConnectionManager other = new SqliteConnectionManager(connections.database())) {
+            for (String sql : statements) {
+                SqliteTestSupport.execute(other, sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.deadlineflow.data.sqlite;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteMigrationTest {
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+
+    @AfterEach
+    void closeDatabase() {
+        if (connections != null) {
+            connections.close();
+        }
+    }
+
+    @Test
+    void upgradesUnversionedWorkspaceToLatestVersion() {
+        SqliteDatabase database = baselineWorkspace();
+        connections = new SqliteConnectionManager(database);
+        SqliteMigration migration = new SqliteMigration();
+
+        SqliteMigration.Report report = migration.migrate(connections);
+
+        assertEquals(0, report.fromVersion());
+        assertEquals(migration.latestVersion(), report.toVersion());
+        assertEquals(migration.latestVersion(), report.applied().size());
+        assertEquals(migration.latestVersion(), SqliteTestSupport.count(connections, "PRAGMA user_version"));
+
+        assertEquals(0, SqliteTestSupport.count(connections,
+                "SELECT COUNT(*) FROM tasks WHERE typeof(start_date) <> 'integer' OR typeof(due_date) <> 'integer'"));
+        assertEquals(LocalDate.of(2026, 3, 2).toEpochDay(),
+                SqliteTestSupport.count(connections, "SELECT start_date FROM tasks WHERE id = 'design'"));
+        assertEquals(LocalDate.of(2026, 3, 20).toEpochDay(),
+                SqliteTestSupport.count(connections, "SELECT due_date FROM tasks WHERE id = 'build'"));
+        assertEquals(0, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM tasks WHERE status = 'NOT_STARTED'"));
+        assertEquals("TODO", SqliteTestSupport.string(connections, "SELECT status FROM tasks WHERE id = 'build'"));
+
+        // Migration 4 drops the referenced tasks table; with foreign keys on, the cascade would empty dependencies.
+        assertEquals(1, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM dependencies"));
+        assertEquals(0, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM pragma_foreign_key_check"));
+        assertEquals(1, SqliteTestSupport.count(connections, "PRAGMA foreign_keys"));
+
+        assertEquals(4, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM task_statuses"));
+        assertEquals(1, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM tasks_fts WHERE tasks_fts MATCH 'wireframes'"));
+    }
+
+    @Test
+    void secondRunAppliesNoMigrations() {
+        SqliteDatabase database = baselineWorkspace();
+        connections = new SqliteConnectionManager(database);
+        SqliteMigration migration = new SqliteMigration();
+        migration.migrate(connections);
+        // schema_version is bumped by every DDL statement, so an unchanged value means none ran.
+        long schemaVersion = SqliteTestSupport.count(connections, "PRAGMA schema_version");
+
+        SqliteMigration.Report report = migration.migrate(connections);
+
+        assertEquals(migration.latestVersion(), report.fromVersion());
+        assertTrue(report.applied().isEmpty());
+        assertEquals(schemaVersion, SqliteTestSupport.count(connections, "PRAGMA schema_version"));
+    }
+
+    @Test
+    void refusesWorkspaceFromNewerBuild() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        SqliteMigration migration = new SqliteMigration();
+        SqliteTestSupport.execute(connections, "PRAGMA user_version = " + (migration.latestVersion() + 1));
+
+        assertThrows(IllegalStateException.class, () -> migration.migrate(connections));
+    }
+
+    @Test
+    void taskJournalCarriesNoDescriptionText() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        long project = SqliteTestSupport.insertProject(connections, "Project");
+        SqliteTestSupport.execute(connections, "INSERT INTO tasks(id, project_id, title, description, start_date, due_date,"
+                + " progress, status) VALUES ('t1', " + project + ", 'Task', 'A long description', 20454, 20456, 0, 'TODO')");
+        long before = SqliteTestSupport.count(connections, "SELECT MAX(seq) FROM change_log");
+
+        SqliteTestSupport.execute(connections, "UPDATE tasks SET start_date = 20455 WHERE id = 't1'");
+        SqliteTestSupport.execute(connections, "UPDATE tasks SET description = 'Rewritten' WHERE id = 't1'");
+        SqliteTestSupport.execute(connections, "UPDATE tasks SET description = 'Rewritten' WHERE id = 't1'");
+
+        assertEquals(2, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM change_log WHERE seq > " + before));
+        assertEquals(0, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM change_log"
+                + " WHERE json_extract(before_json, '$.description') IS NOT NULL"
+                + " OR json_extract(after_json, '$.description') IS NOT NULL"));
+        assertEquals("{\"description_changed\":true}", SqliteTestSupport.string(connections,
+                "SELECT after_json FROM change_log ORDER BY seq DESC LIMIT 1"));
+        assertEquals(0, SqliteTestSupport.count(connections, "SELECT COUNT(*) FROM change_log"
+                + " WHERE instr(COALESCE(before_json, '') || COALESCE(after_json, ''), 'Rewritten') > 0"));
+    }
+
+    /**
+     * A workspace as written before versioned migrations: ISO text dates, the legacy status name and user_version 0.
+     */
+    private SqliteDatabase baselineWorkspace() {
+        SqliteDatabase database = new SqliteDatabase(directory.resolve("workspace.db"));
+        try (Connection connection = database.openConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    CREATE TABLE projects (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        color TEXT NOT NULL,
+                        priority INTEGER NOT NULL CHECK(priority >= 1 AND priority <= 5)
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE tasks (
+                        id TEXT PRIMARY KEY,
+                        project_id INTEGER NOT NULL,
+                        title TEXT NOT NULL,
+                        description TEXT NOT NULL DEFAULT '',
+                        start_date TEXT NOT NULL,
+                        due_date TEXT NOT NULL,
+                        progress INTEGER NOT NULL CHECK(progress >= 0 AND progress <= 100),
+                        status TEXT NOT NULL,
+                        FOREIGN KEY(project_id) REFERENCES projects(id) ON DELETE CASCADE
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE dependencies (
+                        id TEXT PRIMARY KEY,
+                        from_task_id TEXT NOT NULL,
+                        to_task_id TEXT NOT NULL,
+                        type TEXT NOT NULL,
+                        FOREIGN KEY(from_task_id) REFERENCES tasks(id) ON DELETE CASCADE,
+                        FOREIGN KEY(to_task_id) REFERENCES tasks(id) ON DELETE CASCADE
+                    )
+                    """);
+            statement.executeUpdate("""
+                    CREATE TABLE task_statuses (
+                        name TEXT PRIMARY KEY,
+                        display_order INTEGER NOT NULL,
+                        is_protected INTEGER NOT NULL DEFAULT 0 CHECK(is_protected IN (0, 1))
+                    )
+                    """);
+            statement.executeUpdate("CREATE INDEX idx_tasks_project_id ON tasks(project_id)");
+            statement.executeUpdate("INSERT INTO projects(id, name, color, priority) VALUES (1, 'Launch', '#3366FF', 2)");
+            statement.executeUpdate("""
+                    INSERT INTO tasks(id, project_id, title, description, start_date, due_date, progress, status) VALUES
+                        ('design', 1, 'Design', 'Sketch the wireframes', '2026-03-02', '2026-03-06', 40, 'IN_PROGRESS'),
+                        ('build', 1, 'Build', '', '2026-03-09', '2026-03-20', 0, 'NOT_STARTED')
+                    """);
+            statement.executeUpdate(
+                    "INSERT INTO dependencies(id, from_task_id, to_task_id, type) VALUES ('d1', 'design', 'build', 'FINISH_START')"
+            );
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return database;
+    }
+}
@@ -0,0 +1,152 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.count;
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.string;
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlitePersistenceQueueTest {
+    // Long enough that nothing commits unless the test flushes.
+    private static final long NEVER_MILLIS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+    private long projectId;
+
+    @BeforeEach
+    void openDatabase() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        queue = new SqlitePersistenceQueue(connections, NEVER_MILLIS);
+        projectId = SqliteTestSupport.insertProject(connections, "Queue");
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void repeatedSavesOfOneRowCollapseIntoOneWrite() {
+        Task task = task("a", projectId, 0, 3);
+        queue.enqueueTaskSave(task);
+        queue.enqueueTaskSave(task.withProgress(40));
+        queue.enqueueTaskSave(task.withProgress(80));
+
+        assertEquals(1, queue.pendingCount());
+        queue.flush();
+
+        SqlitePersistenceQueue.Metrics metrics = queue.metrics();
+        assertEquals(3, metrics.enqueued());
+        assertEquals(2, metrics.coalesced());
+        assertEquals(1, metrics.transactions());
+        assertEquals(1, metrics.rowsWritten());
+        assertEquals("80", string(connections, "SELECT progress FROM tasks WHERE id = 'a'"));
+    }
+
+    @Test
+    void deleteAfterSaveWinsAndDropsDependenciesQueuedOnTheTask() {
+        queue.enqueueTaskSave(task("a", projectId, 0, 3));
+        queue.enqueueTaskSave(task("b", projectId, 3, 3));
+        queue.enqueueDependencySave(new Dependency("d1", "a", "b", DependencyType.FINISH_START));
+        queue.enqueueTaskDelete("a");
+        // Saved again after a delete: the row is re-created rather than left deleted.
+        queue.enqueueTaskDelete("b");
+        queue.enqueueTaskSave(task("b", projectId, 4, 3));
+
+        queue.flush();
+
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks WHERE id = 'a'"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM dependencies"));
+        assertEquals(String.valueOf(task("b", projectId, 4, 3).startDate().toEpochDay()),
+                string(connections, "SELECT start_date FROM tasks WHERE id = 'b'"));
+    }
+
+    @Test
+    void failingBatchRollsBackAndReportsToTheFailureHandler() {
+        List<RuntimeException> failures = new ArrayList<>();
+        queue.setFailureHandler(failures::add);
+        queue.enqueueTaskSave(task("a", projectId, 0, 3));
+        // Violates the foreign key on to_task_id.
+        queue.enqueueDependencySave(new Dependency("d1", "a", "missing", DependencyType.FINISH_START));
+
+        assertThrows(IllegalStateException.class, queue::flush);
+
+        assertEquals(1, failures.size());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks"));
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    void closeCommitsPendingWrites() {
+        queue.enqueueTaskSave(task("a", projectId, 0, 3));
+        queue.enqueueDescriptionSave("a", "Written on close");
+
+        // The scheduled flush is still waiting out its window; close must not sit behind it.
+        assertTimeout(Duration.ofSeconds(5), queue::close);
+        connections.close();
+
+        try (SqliteConnectionManager reopened = new SqliteConnectionManager(new SqliteDatabase(directory.resolve("workspace.db")))) {
+            assertEquals("Written on close", string(reopened, "SELECT description FROM tasks WHERE id = 'a'"));
+        }
+    }
+
+    @Test
+    void queuedRowsAreVisibleBeforeTheyCommit() {
+        queue.enqueueTaskSave(task("a", projectId, 0, 3));
+        queue.enqueueTaskSave(task("b", projectId, 3, 3));
+        queue.enqueueDependencySave(new Dependency("d1", "a", "b", DependencyType.START_START, 1));
+        queue.enqueueDescriptionSave("b", "Pending text");
+        queue.enqueueTaskDelete("a");
+
+        SqlitePersistenceQueue.PendingRows rows = queue.pendingRows();
+
+        assertEquals(Set.of("a"), rows.deletedTaskIds());
+        assertEquals(Set.of("b"), rows.savedTasks().keySet());
+        assertEquals(Map.of(), rows.savedDependencies());
+        assertEquals(Optional.of("Pending text"), queue.pendingDescription("b"));
+        assertEquals(Optional.of(Task.DEFAULT_DESCRIPTION), queue.pendingDescription("a"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks"));
+    }
+
+    @Test
+    void workRunsAfterEverythingQueuedBeforeIt() {
+        queue.enqueueTaskSave(task("a", projectId, 0, 3));
+        queue.enqueueWork("deleting project", lease -> {
+            PreparedStatement statement = lease.prepare("DELETE FROM projects WHERE id = ?");
+            statement.setLong(1, projectId);
+            statement.executeUpdate();
+        });
+
+        queue.flush();
+
+        // The task was committed first, so the cascade removed it.
+        assertTrue(queue.isIdle());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM projects"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks"));
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM change_log WHERE entity = 'TASK' AND operation = 'INSERT'"));
+    }
+}
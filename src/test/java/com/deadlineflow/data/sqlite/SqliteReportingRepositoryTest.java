@@ -0,0 +1,78 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.ReportingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.count;
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.execute;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqliteReportingRepositoryTest {
+    private static final long NEVER_MILLIS = 60_000;
+    private static final String DONE = "DONE";
+    private static final LocalDate FINISHED_ON = LocalDate.of(2026, 1, 5);
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+    private SqliteReportingRepository reporting;
+    private long project;
+
+    @BeforeEach
+    void openDatabase() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        queue = new SqlitePersistenceQueue(connections, NEVER_MILLIS);
+        reporting = new SqliteReportingRepository(connections.database(), queue);
+        project = SqliteTestSupport.insertProject(connections, "Project");
+        long due = LocalDate.of(2026, 2, 1).toEpochDay();
+        execute(connections, "INSERT INTO tasks(id, project_id, title, start_date, due_date, progress, status) VALUES"
+                + " ('a', " + project + ", 'A', " + (due - 40) + ", " + due + ", 0, 'TODO')");
+        execute(connections, "UPDATE tasks SET status = '" + DONE + "', progress = 100 WHERE id = 'a'");
+        // Backdate the move into done, as if it happened long before today.
+        execute(connections, "UPDATE task_status_entries SET entered_at = "
+                + FINISHED_ON.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() + " WHERE task_id = 'a'");
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        reporting.close();
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void burndownKeepsCompletionDaysOnceTheJournalIsPruned() {
+        execute(connections, "DELETE FROM change_log");
+
+        List<ReportingRepository.BurndownPoint> points = reporting.burndown(
+                project, FINISHED_ON.minusDays(1), FINISHED_ON, DONE);
+
+        assertEquals(List.of(
+                new ReportingRepository.BurndownPoint(FINISHED_ON.minusDays(1), 1, 0),
+                new ReportingRepository.BurndownPoint(FINISHED_ON, 0, 1)
+        ), points);
+    }
+
+    @Test
+    void statusEntriesFollowTasksIntoTheArchiveAndGoWithThem() {
+        execute(connections, "INSERT INTO archived_tasks(id, project_id, title, start_date, due_date, progress, status,"
+                + " archived_at) SELECT id, project_id, title, start_date, due_date, progress, status, 0 FROM tasks");
+        execute(connections, "DELETE FROM tasks WHERE id = 'a'");
+
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM task_status_entries WHERE task_id = 'a'"));
+
+        execute(connections, "DELETE FROM archived_tasks WHERE id = 'a'");
+
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM task_status_entries"));
+    }
+}
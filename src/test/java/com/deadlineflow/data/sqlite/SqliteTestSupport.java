@@ -0,0 +1,91 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Task;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Shared fixtures for tests that run against a real database file.
+ */
+final class SqliteTestSupport {
+    private SqliteTestSupport() {
+    }
+
+    static SqliteConnectionManager migratedDatabase(Path directory) {
+        SqliteConnectionManager connections = new SqliteConnectionManager(new SqliteDatabase(directory.resolve("workspace.db")));
+        new SqliteMigration().migrate(connections);
+        return connections;
+    }
+
+    /**
+     * A store over {@code connections} that skips the sample data, so tests start from an empty workspace.
+     */
+    static SqliteWorkspaceStore workspaceStore(
+            SqliteConnectionManager connections,
+            SqlitePersistenceQueue persistenceQueue,
+            boolean lazyLoading,
+            int residentTaskBudget
+    ) {
+        return new SqliteWorkspaceStore(connections, persistenceQueue, new SqliteMigration(), new SampleDataSeeder() {
+            @Override
+            public void seedIfEmpty(SqliteConnectionManager ignored) {
+            }
+        }, lazyLoading, residentTaskBudget);
+    }
+
+    static long insertProject(SqliteConnectionManager connections, String name) {
+        try (SqliteConnectionManager.Lease lease = connections.writer();
+             PreparedStatement statement = lease.connection().prepareStatement(
+                     "INSERT INTO projects(name, color, priority) VALUES (?, '#3366FF', 1)",
+                     Statement.RETURN_GENERATED_KEYS
+             )) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Task task(String id, long projectId, int startDay, int days) {
+        LocalDate start = LocalDate.of(2026, 1, 1).plusDays(startDay);
+        return new Task(id, projectId, "Task " + id, start, start.plusDays(days - 1), 0, "TODO");
+    }
+
+    static void execute(SqliteConnectionManager connections, String sql) {
+        try (SqliteConnectionManager.Lease lease = connections.writer();
+             Statement statement = lease.connection().createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long count(SqliteConnectionManager connections, String sql) {
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             Statement statement = lease.connection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String string(SqliteConnectionManager connections, String sql) {
+        try (SqliteConnectionManager.Lease lease = connections.reader();
+             Statement statement = lease.connection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
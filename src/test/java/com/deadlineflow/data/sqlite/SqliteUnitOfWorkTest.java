@@ -0,0 +1,135 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.data.repository.UnitOfWork;
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.count;
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteUnitOfWorkTest {
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+    private SqliteWorkspaceStore store;
+    private SqliteTaskRepository taskRepository;
+    private SqliteDependencyRepository dependencyRepository;
+    private long projectId;
+
+    @BeforeEach
+    void openDatabase() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        // No coalescing window: a flush is scheduled as soon as the first write of a batch is enqueued.
+        queue = new SqlitePersistenceQueue(connections, 0);
+        projectId = SqliteTestSupport.insertProject(connections, "Batch");
+        store = SqliteTestSupport.workspaceStore(connections, queue, false, SqliteWorkspaceStore.DEFAULT_RESIDENT_TASK_BUDGET);
+        store.initialize();
+        taskRepository = new SqliteTaskRepository(queue, store);
+        dependencyRepository = new SqliteDependencyRepository(queue, store);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void saveAllCommitsInOneTransactionEvenWhileAFlushIsWaiting() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(task("t" + i, projectId, i % 30, 2));
+        }
+
+        taskRepository.saveAll(tasks);
+        queue.flush();
+
+        assertEquals(1, queue.metrics().transactions());
+        assertEquals(500, queue.metrics().rowsWritten());
+        assertEquals(500, count(connections, "SELECT COUNT(*) FROM tasks"));
+    }
+
+    @Test
+    void failingSaveAllLeavesNoRowBehind() {
+        List<RuntimeException> failures = new ArrayList<>();
+        queue.setFailureHandler(failures::add);
+
+        // The last task points at a project that does not exist.
+        taskRepository.saveAll(List.of(task("a", projectId, 0, 2), task("b", projectId, 1, 2), task("c", projectId + 1, 2, 2)));
+        try {
+            queue.flush();
+        } catch (IllegalStateException expected) {
+            // Unless the scheduled flush already hit the failure; it is reported once either way.
+        }
+
+        assertEquals(1, failures.size());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks"));
+    }
+
+    @Test
+    void deleteAllRemovesTasksWithTheirDependenciesTogether() {
+        taskRepository.saveAll(List.of(task("a", projectId, 0, 2), task("b", projectId, 2, 2), task("c", projectId, 4, 2)));
+        dependencyRepository.saveAll(List.of(
+                new Dependency("d1", "a", "b", DependencyType.FINISH_START),
+                new Dependency("d2", "b", "c", DependencyType.FINISH_START)
+        ));
+        queue.flush();
+        long transactions = queue.metrics().transactions();
+
+        taskRepository.deleteAll(List.of("a", "b"));
+        queue.flush();
+
+        assertEquals(List.of("c"), store.tasks().stream().map(Task::id).toList());
+        assertTrue(store.dependencies().isEmpty());
+        assertEquals(transactions + 1, queue.metrics().transactions());
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM tasks"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM dependencies"));
+    }
+
+    @Test
+    void unitOfWorkAppliesOnceAndCommitsOnce() {
+        taskRepository.saveAll(List.of(task("a", projectId, 0, 2), task("b", projectId, 2, 2)));
+        dependencyRepository.save(new Dependency("d1", "a", "b", DependencyType.FINISH_START));
+        queue.flush();
+        long transactions = queue.metrics().transactions();
+        AtomicInteger taskChanges = new AtomicInteger();
+        AtomicInteger dependencyChanges = new AtomicInteger();
+        store.tasks().addListener((ListChangeListener<Task>) change -> taskChanges.incrementAndGet());
+        store.dependencies().addListener((ListChangeListener<Dependency>) change -> dependencyChanges.incrementAndGet());
+
+        UnitOfWork unitOfWork = store.beginUnitOfWork()
+                .saveTask(task("a", projectId, 7, 2))
+                .saveTask(task("c", projectId, 9, 2))
+                .deleteTask("b")
+                .saveDependency(new Dependency("d2", "a", "c", DependencyType.START_START, 1));
+        unitOfWork.commit();
+
+        assertEquals(1, taskChanges.get());
+        assertEquals(1, dependencyChanges.get());
+        assertEquals(List.of("a", "c"), store.tasks().stream().map(Task::id).toList());
+        assertEquals(List.of("d2"), store.dependencies().stream().map(Dependency::id).toList());
+        assertThrows(IllegalStateException.class, () -> unitOfWork.saveTask(task("x", projectId, 0, 1)));
+
+        queue.flush();
+        assertEquals(transactions + 1, queue.metrics().transactions());
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM tasks WHERE id = 'b'"));
+        assertEquals(1, count(connections, "SELECT COUNT(*) FROM dependencies WHERE id = 'd2'"));
+        assertEquals(0, count(connections, "SELECT COUNT(*) FROM dependencies WHERE id = 'd1'"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.deadlineflow.data.sqlite;
+
+import com.deadlineflow.domain.model.Dependency;
+import com.deadlineflow.domain.model.DependencyType;
+import com.deadlineflow.domain.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.deadlineflow.data.sqlite.SqliteTestSupport.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteWorkspaceStoreTest {
+    private static final long NEVER_MILLIS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private SqliteConnectionManager connections;
+    private SqlitePersistenceQueue queue;
+
+    @BeforeEach
+    void openDatabase() {
+        connections = SqliteTestSupport.migratedDatabase(directory);
+        queue = new SqlitePersistenceQueue(connections, NEVER_MILLIS);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        queue.close();
+        connections.close();
+    }
+
+    @Test
+    void lazyLoadsSeeQueuedWritesWithoutFlushing() {
+        long first = SqliteTestSupport.insertProject(connections, "First");
+        long second = SqliteTestSupport.insertProject(connections, "Second");
+        queue.enqueueTaskSave(task("a", first, 0, 3));
+        queue.enqueueTaskSave(task("b", second, 0, 3));
+        queue.flush();
+        // A budget of one task keeps a single project resident.
+        SqliteWorkspaceStore store = SqliteTestSupport.workspaceStore(connections, queue, true, 1);
+        store.initialize();
+
+        store.ensureProjectLoaded(first);
+        Task moved = task("a", first, 5, 2);
+        store.applyTaskSaved(moved);
+        queue.enqueueTaskSave(moved);
+        queue.enqueueTaskSave(task("c", first, 1, 1));
+        queue.enqueueDescriptionSave("b", "Queued text");
+        store.ensureProjectLoaded(second);
+        store.ensureProjectLoaded(first);
+
+        assertTrue(queue.pendingCount() > 0);
+        assertEquals(List.of("c", "a"), store.findTasksByProject(first).stream().map(Task::id).toList());
+        assertEquals(moved, store.findTask("a").orElseThrow());
+        assertEquals("Queued text", store.loadDescription("b"));
+        assertEquals(List.of("c"), store.findTasksDueBetween(first, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 4))
+                .stream().map(Task::id).toList());
+    }
+
+    @Test
+    void lazyLoadKeepsEdgesToAProjectLoadedLater() {
+        long first = SqliteTestSupport.insertProject(connections, "First");
+        long second = SqliteTestSupport.insertProject(connections, "Second");
+        queue.enqueueTaskSave(task("a", first, 0, 3));
+        queue.enqueueTaskSave(task("b", second, 3, 3));
+        queue.enqueueDependencySave(new Dependency("a-b", "a", "b", DependencyType.FINISH_START));
+        queue.flush();
+        SqliteWorkspaceStore store = SqliteTestSupport.workspaceStore(connections, queue, true, 100);
+        store.initialize();
+
+        // The edge leaves the project that loads first, so only the second load can make it resident.
+        store.ensureProjectLoaded(first);
+        assertTrue(store.dependencies().isEmpty());
+        store.ensureProjectLoaded(second);
+
+        assertEquals(List.of("a-b"), store.dependencies().stream().map(Dependency::id).toList());
+    }
+
+    @Test
+    void lazyReloadReadForOtherResidentProjectsIsRefused() {
+        long first = SqliteTestSupport.insertProject(connections, "First");
+        long second = SqliteTestSupport.insertProject(connections, "Second");
+        queue.enqueueTaskSave(task("a", first, 0, 3));
+        queue.enqueueTaskSave(task("b", second, 0, 3));
+        queue.flush();
+        SqliteWorkspaceStore store = SqliteTestSupport.workspaceStore(connections, queue, true, 100);
+        store.initialize();
+        store.ensureProjectLoaded(first);
+        long applied = store.appliedSequence();
+        commitExternally("UPDATE tasks SET title = 'Renamed' WHERE id = 'b'");
+        store.pruneChangesThrough(applied + 1);
+
+        SqliteWorkspaceStore.ExternalChanges changes = store.readChangesSince(applied);
+        store.ensureProjectLoaded(second);
+
+        assertTrue(changes.reloadRequired());
+        assertFalse(store.applyExternalChanges(changes));
+        assertTrue(store.applyExternalChanges(store.readChangesSince(applied)));
+        assertEquals("Renamed", store.findTask("b").orElseThrow().title());
+        assertTrue(store.findTask("a").isPresent());
+    }
+
+    @Test
+    void snapshotOlderThanTheJournalFallsBackToSql() {
+        long project = SqliteTestSupport.insertProject(connections, "Project");
+        SqliteWorkspaceStore store = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        store.initialize();
+        store.writeSnapshot();
+
+        commitExternally("INSERT INTO tasks(id, project_id, title, start_date, due_date, progress, status) VALUES ('ext', "
+                + project + ", 'External', 20454, 20456, 0, 'TODO')");
+
+        SqliteWorkspaceStore restarted = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        restarted.initialize();
+        assertFalse(restarted.loadedFromSnapshot());
+        assertTrue(restarted.findTask("ext").isPresent());
+    }
+
+    @Test
+    void snapshotIsStampedWithTheSequenceMemoryReflects() {
+        long project = SqliteTestSupport.insertProject(connections, "Project");
+        SqliteWorkspaceStore store = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        store.initialize();
+        Task local = task("local", project, 0, 2);
+        store.applyTaskSaved(local);
+        queue.enqueueTaskSave(local);
+        // Committed by another process and not yet picked up by the watcher when the app shuts down.
+        commitExternally("INSERT INTO tasks(id, project_id, title, start_date, due_date, progress, status) VALUES ('ext', "
+                + project + ", 'External', 20454, 20456, 0, 'TODO')");
+
+        store.writeSnapshot();
+
+        SqliteWorkspaceStore restarted = SqliteTestSupport.workspaceStore(connections, queue, false, 100);
+        restarted.initialize();
+        assertTrue(restarted.loadedFromSnapshot());
+        assertEquals(store.appliedSequence(), restarted.appliedSequence());
+        assertEquals(local, restarted.findTask("local").orElseThrow());
+        assertTrue(restarted.findTask("ext").isPresent());
+    }
+
+    private void commitExternally(String sql) {
+        try (SqliteConnectionManager other = new SqliteConnectionManager(connections.database())) {
+            SqliteTestSupport.execute(other, sql);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.deadlineflow.data.sqlite;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Compares per-update latency of preparing the task UPDATE on every call against the connection's statement cache.
+ * Run with {@code gradle statementCacheBenchmark}; not part of the test suite.
+ */
+public final class StatementCacheBenchmark {
+    private static final String UPDATE_SQL = "UPDATE tasks SET progress = ?, status = ? WHERE id = ?";
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 20_000;
+
+    private StatementCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("deadlineflow-benchmark");
+        SqliteConnectionManager connections = new SqliteConnectionManager(new SqliteDatabase(directory.resolve("benchmark.db")));
+        try (SqlitePersistenceQueue persistenceQueue = new SqlitePersistenceQueue(connections)) {
+            SqliteWorkspaceStore store = new SqliteWorkspaceStore(
+                    connections,
+                    persistenceQueue,
+                    new SqliteMigration(),
+                    new SampleDataSeeder()
+            );
+            store.initialize();
+            String taskId = store.tasks().getFirst().id();
+
+            run(connections, taskId, WARMUP_ROUNDS, false);
+            run(connections, taskId, WARMUP_ROUNDS, true);
+            long uncached = run(connections, taskId, MEASURED_ROUNDS, false);
+            long cached = run(connections, taskId, MEASURED_ROUNDS, true);
+
+            System.out.printf("updates per mode:  %d%n", MEASURED_ROUNDS);
+            System.out.printf("prepare per call:  %.2f us/update%n", uncached / 1_000.0 / MEASURED_ROUNDS);
+            System.out.printf("statement cache:   %.2f us/update%n", cached / 1_000.0 / MEASURED_ROUNDS);
+            System.out.println(connections.metrics());
+        } finally {
+            connections.close();
+        }
+    }
+
+    private static long run(SqliteConnectionManager connections, String taskId, int rounds, boolean cached) throws SQLException {
+        // One transaction per run so the measurement is statement cost, not commit cost.
+        try (SqliteConnectionManager.Lease lease = connections.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                if (cached) {
+                    execute(lease.prepare(UPDATE_SQL), taskId, i);
+                } else {
+                    try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+                        execute(statement, taskId, i);
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            connection.commit();
+            connection.setAutoCommit(true);
+            return elapsed;
+        }
+    }
+
+    private static void execute(PreparedStatement statement, String taskId, int round) throws SQLException {
+        statement.setInt(1, round % 101);
+        statement.setString(2, round % 2 == 0 ? "TODO" : "IN_PROGRESS");
+        statement.setString(3, taskId);
+        statement.executeUpdate();
+    }
+}